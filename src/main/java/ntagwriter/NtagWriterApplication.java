@@ -1,14 +1,36 @@
 package ntagwriter;
 
+import ntagwriter.application.runner.BatchRunner;
+import ntagwriter.application.runner.BenchmarkRunner;
+import ntagwriter.application.runner.EscrowLookupRunner;
+import ntagwriter.application.runner.ExportRunner;
+import ntagwriter.application.runner.MonitorRunner;
+import ntagwriter.application.runner.StationRunner;
 import ntagwriter.reader.IdentivReader;
 import ntagwriter.reader.ReaderException;
-import ntagwriter.service.Ntag424AutoSetupService;
 import ntagwriter.service.Ntag424SetupService;
 import ntagwriter.util.ConsoleHelper;
 import ntagwriter.util.HexUtils;
 
 public class NtagWriterApplication {
+
     public static void main(String[] args) {
+        if (BatchRunner.matches(args)) {
+            System.exit(BatchRunner.run(args));
+        }
+        if (BenchmarkRunner.matches(args)) {
+            System.exit(BenchmarkRunner.run(args));
+        }
+        if (ExportRunner.matches(args)) {
+            System.exit(ExportRunner.run(args));
+        }
+        if (MonitorRunner.matches(args)) {
+            System.exit(MonitorRunner.run(args));
+        }
+        if (EscrowLookupRunner.matches(args)) {
+            System.exit(EscrowLookupRunner.run(args));
+        }
+
         ConsoleHelper.printSection("NTAG Writer - NFC 리더기 애플리케이션");
 
         // 모드 선택
@@ -24,12 +46,12 @@ public class NtagWriterApplication {
 
         try {
             switch (mode) {
-                case "1" -> runAutoSetup(reader);
+                case "1" -> StationRunner.run();
                 case "2" -> runSimpleTest(reader);
                 case "3" -> runInteractiveSetup(reader);
                 default -> {
                     ConsoleHelper.printWarning("잘못된 모드 선택. 자동 설정 모드로 실행합니다.");
-                    runAutoSetup(reader);
+                    StationRunner.run();
                 }
             }
 
@@ -63,14 +85,6 @@ public class NtagWriterApplication {
         ConsoleHelper.printSuccess("테스트 완료!");
     }
 
-    /**
-     * NTAG424 자동 설정 모드 (프로덕션)
-     */
-    private static void runAutoSetup(IdentivReader reader) {
-        Ntag424AutoSetupService setupService = new Ntag424AutoSetupService(reader);
-        setupService.setupTag();
-    }
-
     /**
      * NTAG424 대화형 설정 모드 (디버그)
      */
@@ -86,10 +100,6 @@ public class NtagWriterApplication {
             ConsoleHelper.printSection("설정 요약");
             ConsoleHelper.printInfo("태그 UID: " + setupService.getTagUid());
             ConsoleHelper.printInfo("Base URL: " + setupService.getBaseUrl());
-            ConsoleHelper.printInfo("AES 키: " + HexUtils.bytesToHex(setupService.getAesKey()));
-
-            ConsoleHelper.println();
-            ConsoleHelper.printWarning("이 정보를 안전한 곳에 저장하세요!");
         } else {
             ConsoleHelper.println();
             ConsoleHelper.printError("설정이 완료되지 않았습니다.");
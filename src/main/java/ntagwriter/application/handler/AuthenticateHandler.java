@@ -0,0 +1,70 @@
+package ntagwriter.application.handler;
+
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.service.Ev2AuthenticationService;
+import ntagwriter.service.KeyManagementService;
+import ntagwriter.util.HexUtils;
+import ntagwriter.util.SessionContext;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * EV2 인증 단계 핸들러
+ * Key 0이 이미 변경된 재개 태그는 에스크로에서 찾은 새 키로 인증한다.
+ */
+public class AuthenticateHandler extends ProvisioningStepHandler {
+
+    private static final byte[] DEFAULT_KEY = new byte[16];
+
+    private final NfcReaderPort readerPort;
+    private final Ev2AuthenticationService ev2AuthService;
+
+    public AuthenticateHandler(UserInteractionPort uiPort, NfcReaderPort readerPort,
+                               Ev2AuthenticationService ev2AuthService) {
+        super(uiPort, "태그 인증", WorkflowState.PROBED, WorkflowState.AUTHENTICATED);
+        this.readerPort = readerPort;
+        this.ev2AuthService = ev2AuthService;
+    }
+
+    @Override
+    protected void perform(WorkflowContext context)
+            throws ReaderException, GeneralSecurityException, StepExecutionException {
+        ProvisioningJournal.Entry entry =
+            require(context, WorkflowContext.ATTR_JOURNAL_ENTRY, ProvisioningJournal.Entry.class);
+
+        Ev2AuthenticationService.Ev2Session session;
+        try {
+            session = ev2AuthService.authenticate(
+                KeyManagementService.MASTER_KEY_NUMBER,
+                entry.activeKey(KeyManagementService.MASTER_KEY_NUMBER,
+                    require(context, WorkflowContext.ATTR_NEW_KEY, byte[].class), DEFAULT_KEY));
+        } catch (ReaderException | GeneralSecurityException e) {
+            // 다른 제품이면 EV2 인증 자체가 거부되므로 캐시된 타입을 버림 (키 오류였다면 다음 태그에서 GetVersion 한 번만 더 듦)
+            readerPort.invalidateTagType(context.currentTag());
+            throw e;
+        }
+
+        // 재시도로 다시 인증하면 이전 세션 키는 폐기 (세션 키 핸들은 컨텍스트가 넘겨받음)
+        context.endSession();
+        SessionContext sessionContext = SessionContext.forSdmConfiguration(
+            session.kSesAuthEnc(),
+            session.kSesAuthMac(),
+            session.transactionId(),
+            session.commandCounter()
+        );
+        context.setAttribute(WorkflowContext.ATTR_SESSION_CONTEXT, sessionContext);
+
+        uiPort.showSuccess("인증 성공");
+        uiPort.showInfo("Transaction ID: " + HexUtils.bytesToHex(sessionContext.transactionId));
+    }
+
+    @Override
+    public String name() {
+        return "Authenticate";
+    }
+}
@@ -0,0 +1,78 @@
+package ntagwriter.application.handler;
+
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.service.KeyManagementService;
+import ntagwriter.util.SessionContext;
+
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 키 변경 단계 핸들러
+ * 남은 슬롯을 모두 PENDING으로 기록해 한 번의 fsync로 반영한 뒤 전송하고, 슬롯마다 성공 후 CHANGED를 기록한다.
+ * 이미 변경된 슬롯은 건너뛴다. 저널에는 키가 없으므로 첫 ChangeKey 전에 키 에스크로 기록이 디스크에 반영됐는지 확인한다.
+ */
+public class ChangeKeysHandler extends ProvisioningStepHandler {
+
+    private final KeyManagementService keyService;
+    private final ProvisioningJournal journal;
+    private final KeyEscrowPort escrow;
+
+    public ChangeKeysHandler(UserInteractionPort uiPort, KeyManagementService keyService,
+                             ProvisioningJournal journal, KeyEscrowPort escrow) {
+        super(uiPort, "키 변경", WorkflowState.NDEF_WRITTEN, WorkflowState.KEYS_CHANGED);
+        this.keyService = keyService;
+        this.journal = journal;
+        this.escrow = escrow;
+    }
+
+    @Override
+    protected void perform(WorkflowContext context)
+            throws ReaderException, GeneralSecurityException, StepExecutionException {
+        String uid = tagUid(context);
+        ProvisioningJournal.Entry entry =
+            require(context, WorkflowContext.ATTR_JOURNAL_ENTRY, ProvisioningJournal.Entry.class);
+
+        List<Integer> remaining = new ArrayList<>();
+        for (int keyNo = 0; keyNo < entry.keyCount(); keyNo++) {
+            if (entry.keySlot(keyNo) != ProvisioningJournal.KeySlotState.CHANGED) {
+                remaining.add(keyNo);
+            }
+        }
+        byte[] newKey = require(context, WorkflowContext.ATTR_NEW_KEY, byte[].class);
+        Long receipt = require(context, WorkflowContext.ATTR_ESCROW_RECEIPT, Long.class);
+        try {
+            escrow.awaitDurable(receipt);
+        } catch (KeyEscrowPort.EscrowException e) {
+            throw new StepExecutionException("키 에스크로 동기화 실패 - 키를 변경하지 않습니다: " + e.getMessage(), e);
+        }
+        journal.markKeySlotsPending(uid, remaining);
+
+        keyService.setSession(require(context, WorkflowContext.ATTR_SESSION_CONTEXT, SessionContext.class));
+        keyService.changeRemainingKeys(newKey, entry.keyVersion(),
+            keyNo -> entry.keySlot(keyNo) == ProvisioningJournal.KeySlotState.CHANGED,
+            new KeyManagementService.KeyChangeListener() {
+                @Override
+                public void beforeChange(byte keyNo) {
+                    // 위에서 함께 PENDING으로 기록함
+                }
+
+                @Override
+                public void afterChange(byte keyNo) {
+                    journal.markKeySlot(uid, keyNo, ProvisioningJournal.KeySlotState.CHANGED);
+                }
+            });
+        journal.markCompleted(uid, WorkflowState.KEYS_CHANGED);
+    }
+
+    @Override
+    public String name() {
+        return "ChangeKeys";
+    }
+}
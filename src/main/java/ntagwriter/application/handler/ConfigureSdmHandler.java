@@ -0,0 +1,53 @@
+package ntagwriter.application.handler;
+
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.service.ProvisioningMaterial;
+import ntagwriter.service.ProvisioningProbeService;
+import ntagwriter.service.SdmConfigurationService;
+import ntagwriter.util.SessionContext;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * SDM 설정 단계 핸들러
+ * 프로브 결과 SDM이 이미 활성화된 태그는 ChangeFileSettings를 생략한다.
+ */
+public class ConfigureSdmHandler extends ProvisioningStepHandler {
+
+    private final SdmConfigurationService sdmService;
+    private final ProvisioningJournal journal;
+
+    public ConfigureSdmHandler(UserInteractionPort uiPort, SdmConfigurationService sdmService,
+                               ProvisioningJournal journal) {
+        super(uiPort, "SDM 설정", WorkflowState.AUTHENTICATED, WorkflowState.SDM_CONFIGURED);
+        this.sdmService = sdmService;
+        this.journal = journal;
+    }
+
+    @Override
+    protected void perform(WorkflowContext context)
+            throws ReaderException, GeneralSecurityException, StepExecutionException {
+        ProvisioningProbeService.ProbeResult probe =
+            require(context, WorkflowContext.ATTR_PROBE_RESULT, ProvisioningProbeService.ProbeResult.class);
+        if (probe.sdmEnabled()) {
+            uiPort.showInfo("SDM이 이미 활성화되어 있어 생략합니다");
+            return;
+        }
+
+        // 미리 직렬화한 File Settings 사용, ChangeFileSettings 성공 시 서비스 내부에서 CmdCtr 증가
+        ProvisioningMaterial material =
+            require(context, WorkflowContext.ATTR_MATERIAL, ProvisioningMaterial.class);
+        sdmService.setSession(require(context, WorkflowContext.ATTR_SESSION_CONTEXT, SessionContext.class));
+        sdmService.configureSdm(material.fileSettings());
+        journal.markCompleted(tagUid(context), WorkflowState.SDM_CONFIGURED);
+    }
+
+    @Override
+    public String name() {
+        return "ConfigureSdm";
+    }
+}
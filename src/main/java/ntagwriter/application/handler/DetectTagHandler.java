@@ -45,6 +45,8 @@ public class DetectTagHandler implements StepHandler {
 
             // NTAG424 확인
             if (!tag.isNtag424()) {
+                // 캐시된 타입이 틀렸다면 같은 릴의 태그가 계속 거부되지 않도록 다음 감지 때 다시 확인
+                readerPort.invalidateTagType(tag);
                 throw new StepExecutionException(
                     "NTAG424 DNA 태그가 아닙니다. 감지된 태그: " + tag.type.displayName
                 );
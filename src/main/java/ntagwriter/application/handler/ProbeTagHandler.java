@@ -0,0 +1,211 @@
+package ntagwriter.application.handler;
+
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.domain.ProvisioningState;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.TagFeedPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.service.KeyManagementService;
+import ntagwriter.service.NfcReaderService;
+import ntagwriter.service.ProvisioningMaterial;
+import ntagwriter.service.ProvisioningMaterialPipeline;
+import ntagwriter.service.ProvisioningProbeService;
+import ntagwriter.util.ApduCommand;
+import ntagwriter.util.ApduResponseValidator;
+import ntagwriter.util.HexUtils;
+
+import javax.smartcardio.ResponseAPDU;
+import java.util.Optional;
+
+/**
+ * 설정 상태 확인 단계 핸들러
+ * 애플리케이션 선택 후 인증 없이 설정 상태를 프로브하고, 진행 저널에서 재개 정보를 찾는다.
+ *
+ * - 이미 설정된 태그: COMPLETED로 바로 전환 (건너뜀)
+ * - 키 변경 후 검증 전에 제거된 태그: KEYS_CHANGED로 전환해 검증만 수행
+ * - 공장 상태지만 이전에 설정을 끝낸 UID: 중복으로 실패 처리 (피드 행/일련번호를 배정하지 않음)
+ *
+ * 적용할 키는 태그에 쓰기 전에 키 에스크로에 먼저 기록한다. 저널에는 키가 없으므로 재개하는 태그의 키도 에스크로에서 찾는다.
+ */
+public class ProbeTagHandler extends ProvisioningStepHandler {
+
+    private static final byte[] NTAG424_AID = HexUtils.hexToBytes("D2760000850101");
+    private static final int KEY_COUNT = KeyManagementService.LAST_KEY_NUMBER + 1;
+
+    private final NfcReaderPort readerPort;
+    private final NfcReaderService readerService;
+    private final ProvisioningProbeService probeService;
+    private final ProvisioningJournal journal;
+    private final ProvisioningMaterialPipeline materialPipeline;
+    private final KeyEscrowPort escrow;
+    private final UidRegistryPort registry;
+
+    public ProbeTagHandler(UserInteractionPort uiPort, NfcReaderPort readerPort, NfcReaderService readerService,
+                           ProvisioningProbeService probeService, ProvisioningJournal journal,
+                           ProvisioningMaterialPipeline materialPipeline, KeyEscrowPort escrow,
+                           UidRegistryPort registry) {
+        super(uiPort, "설정 상태 확인", WorkflowState.TAG_DETECTED, WorkflowState.PROBED);
+        this.readerPort = readerPort;
+        this.readerService = readerService;
+        this.probeService = probeService;
+        this.journal = journal;
+        this.materialPipeline = materialPipeline;
+        this.escrow = escrow;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void perform(WorkflowContext context) throws ReaderException, StepExecutionException {
+        String uid = tagUid(context);
+        if (!readerService.isConnected()) {
+            readerService.connect();
+        }
+
+        ResponseAPDU response = readerService.sendCommand(ApduCommand.selectApplication(NTAG424_AID));
+        try {
+            ApduResponseValidator.validateSuccess(response, "애플리케이션 선택");
+        } catch (ReaderException e) {
+            // NTAG424 애플리케이션이 없으면 캐시된 타입이 틀렸을 수 있음 - 같은 릴의 다음 태그는 GetVersion으로 재확인
+            readerPort.invalidateTagType(context.currentTag());
+            throw e;
+        }
+
+        ProvisioningProbeService.ProbeResult probe =
+            probeService.probe(ProvisioningProbeService.PROVISIONED_KEY_VERSION);
+        context.setAttribute(WorkflowContext.ATTR_PROBE_RESULT, probe);
+        uiPort.showInfo("태그 상태: " + probe.state().getDisplayName());
+
+        Optional<ProvisioningJournal.Entry> resumed = journal.find(uid);
+        if (probe.state() == ProvisioningState.FULLY_PROVISIONED) {
+            if (resumed.isEmpty()) {
+                uiPort.showSuccess("이미 설정된 태그 - 건너뜀 (키 버전 "
+                    + String.format("0x%02X", probe.masterKeyVersion()) + ")");
+                context.setAttribute(WorkflowContext.ATTR_SKIPPED, Boolean.TRUE);
+                registry.add(uid);
+                context.transitionTo(WorkflowState.COMPLETED);
+                return;
+            }
+            // 키 변경까지 끝났지만 검증 전에 제거된 태그 (피드 행이 있으면 그 URL로 검증)
+            context.setAttribute(WorkflowContext.ATTR_JOURNAL_ENTRY, resumed.get());
+            depositKey(context, uid, resumed.get(), escrowedKey(uid, resumed.get())
+                .orElseThrow(() -> missingKey(uid)));
+            assignedMaterial(uid).ifPresent(
+                material -> context.setAttribute(WorkflowContext.ATTR_MATERIAL, material));
+            context.transitionTo(WorkflowState.KEYS_CHANGED);
+            return;
+        }
+
+        if (resumed.isEmpty() && !probe.keysUntouched()) {
+            throw new ReaderException("일부 키가 이미 변경되었지만 진행 저널에 기록이 없습니다 (" + probe + ")");
+        }
+        if (resumed.isEmpty() && registry.contains(uid)) {
+            throw new StepExecutionException("이미 설정을 마친 UID입니다 - 중복 태그"
+                + registry.confirm(uid).map(time -> " (이전 완료: " + time + ")").orElse(""));
+        }
+
+        // 미리 준비된 자료 사용 (재개 태그는 에스크로에 있는 키를 유지)
+        ProvisioningMaterial material = takeMaterial(uid);
+        ProvisioningJournal.Entry entry;
+        byte[] newKey;
+        if (resumed.isPresent()) {
+            entry = resumeEntry(uid, resumed.get());
+            Optional<byte[]> escrowed = escrowedKey(uid, entry);
+            if (escrowed.isEmpty() && entry.hasChangedKeys()) {
+                throw missingKey(uid);
+            }
+            // 키를 보내기 전에 끝난 태그는 에스크로에 반영되지 않았을 수 있음 - 공장 키이므로 새 키로 다시 시작
+            newKey = escrowed.orElseGet(material::newKey);
+        } else {
+            entry = journal.begin(uid, ProvisioningProbeService.PROVISIONED_KEY_VERSION, KEY_COUNT);
+            newKey = material.newKey();
+        }
+        context.setAttribute(WorkflowContext.ATTR_MATERIAL, material);
+        context.setAttribute(WorkflowContext.ATTR_JOURNAL_ENTRY, entry);
+        depositKey(context, uid, entry, newKey);
+    }
+
+    /**
+     * 키 에스크로 기록 (디스크 반영은 키 변경 단계가 ChangeKey 전에 확인)
+     * 재개한 태그도 다시 기록한다 - 이전 실행의 기록이 반영되기 전에 종료되었을 수 있음 (같은 UID는 최신 기록이 이김).
+     */
+    private void depositKey(WorkflowContext context, String uid, ProvisioningJournal.Entry entry, byte[] newKey)
+            throws StepExecutionException {
+        try {
+            long receipt = escrow.deposit(uid, newKey, entry.keyVersion());
+            context.setAttribute(WorkflowContext.ATTR_ESCROW_RECEIPT, receipt);
+            context.setAttribute(WorkflowContext.ATTR_NEW_KEY, newKey);
+        } catch (KeyEscrowPort.EscrowException e) {
+            throw new StepExecutionException("키 에스크로 기록 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 저널 항목의 키 버전으로 에스크로에 보관된 키
+     */
+    private Optional<byte[]> escrowedKey(String uid, ProvisioningJournal.Entry entry) throws StepExecutionException {
+        try {
+            return escrow.find(uid)
+                .filter(escrowed -> escrowed.keyVersion() == entry.keyVersion())
+                .map(KeyEscrowPort.EscrowedKey::key);
+        } catch (KeyEscrowPort.EscrowException e) {
+            throw new StepExecutionException("키 에스크로 조회 실패: " + e.getMessage(), e);
+        }
+    }
+
+    private static StepExecutionException missingKey(String uid) {
+        return new StepExecutionException("키가 변경된 슬롯이 있지만 키 에스크로에 이 태그의 키가 없습니다: " + uid);
+    }
+
+    private ProvisioningMaterial takeMaterial(String uid) throws StepExecutionException {
+        try {
+            ProvisioningMaterial material = materialPipeline.take(uid);
+            if (material == null) {
+                throw new StepExecutionException("태그 데이터 피드의 행이 모두 소진되었습니다");
+            }
+            if (material.row() != null) {
+                uiPort.showInfo("피드 행 " + material.row().rowNumber() + " 배정: " + material.profile().getBaseUrl());
+            }
+            return material;
+        } catch (TagFeedPort.FeedException e) {
+            throw new StepExecutionException("태그 데이터 피드 오류", e);
+        }
+    }
+
+    private Optional<ProvisioningMaterial> assignedMaterial(String uid) throws StepExecutionException {
+        try {
+            return materialPipeline.assigned(uid);
+        } catch (TagFeedPort.FeedException e) {
+            throw new StepExecutionException("태그 데이터 피드 오류", e);
+        }
+    }
+
+    /**
+     * 응답을 받지 못한 ChangeKey(PENDING)는 GetKeyVersion으로 실제 적용 여부를 확정
+     */
+    private ProvisioningJournal.Entry resumeEntry(String uid, ProvisioningJournal.Entry entry)
+            throws ReaderException {
+        for (byte keyNo = 0; keyNo < entry.keyCount(); keyNo++) {
+            if (entry.keySlot(keyNo) == ProvisioningJournal.KeySlotState.PENDING) {
+                boolean applied = probeService.readKeyVersion(keyNo) == entry.keyVersion();
+                journal.markKeySlot(uid, keyNo, applied
+                    ? ProvisioningJournal.KeySlotState.CHANGED
+                    : ProvisioningJournal.KeySlotState.FACTORY);
+            }
+        }
+
+        ProvisioningJournal.Entry current = journal.find(uid).orElseThrow();
+        uiPort.showWarning("진행 저널에서 이전 설정 기록을 찾았습니다. 이어서 진행합니다.");
+        uiPort.showInfo(current.toString());
+        return current;
+    }
+
+    @Override
+    public String name() {
+        return "ProbeTag";
+    }
+}
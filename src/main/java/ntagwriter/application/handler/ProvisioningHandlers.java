@@ -0,0 +1,52 @@
+package ntagwriter.application.handler;
+
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.service.*;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 프로덕션 태그 설정 핸들러 체인 구성
+ * 연결 → 감지 → 상태 확인 → 인증 → SDM → NDEF → 키 변경 → 검증
+ */
+public final class ProvisioningHandlers {
+
+    private ProvisioningHandlers() {
+    }
+
+    /**
+     * @param readerPort    리더기 포트 (연결/감지 단계)
+     * @param uiPort        사용자 인터랙션 포트
+     * @param readerService 같은 카드 채널을 쓰는 서비스 계층 리더 (설정 단계)
+     * @param profiles      현재 설정 프로필 (핫 리로드 시 바뀔 수 있음)
+     * @param journal       설정 진행 저널
+     * @param pipeline      다음 태그 자료를 미리 준비하는 파이프라인
+     * @param escrow        새 키 에스크로 (여러 스테이션이 공유 가능)
+     * @param registry      설정 완료 UID 등록부 (여러 스테이션이 공유 가능)
+     * @return 등록 순서대로의 핸들러 목록
+     */
+    public static List<StepHandler> create(NfcReaderPort readerPort, UserInteractionPort uiPort,
+                                           NfcReaderService readerService, Supplier<CompiledProfile> profiles,
+                                           ProvisioningJournal journal, ProvisioningMaterialPipeline pipeline,
+                                           KeyEscrowPort escrow, UidRegistryPort registry) {
+        CryptoService cryptoService = new CryptoService();
+
+        return List.of(
+            new ConnectReaderHandler(readerPort, uiPort),
+            new DetectTagHandler(readerPort, uiPort),
+            new ProbeTagHandler(uiPort, readerPort, readerService, new ProvisioningProbeService(readerService),
+                journal, pipeline, escrow, registry),
+            new AuthenticateHandler(uiPort, readerPort, new Ev2AuthenticationService(readerService, cryptoService)),
+            new ConfigureSdmHandler(uiPort, new SdmConfigurationService(readerService, cryptoService), journal),
+            new WriteNdefHandler(uiPort, new NdefWriteService(readerService), journal),
+            new ChangeKeysHandler(uiPort, new KeyManagementService(readerService, cryptoService), journal, escrow),
+            new VerifySetupHandler(uiPort, new SdmVerificationService(readerService, cryptoService),
+                journal, profiles, escrow, registry)
+        );
+    }
+}
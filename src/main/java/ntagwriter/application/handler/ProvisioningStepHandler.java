@@ -0,0 +1,87 @@
+package ntagwriter.application.handler;
+
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.reader.ReaderException;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * 태그 설정 단계 핸들러 공통 골격
+ * 한 상태에서 다음 상태로 가는 단계를 beginTask/endTask로 감싸고,
+ * 서비스 계층 예외(ReaderException, GeneralSecurityException)를 StepExecutionException으로 변환한다.
+ */
+public abstract class ProvisioningStepHandler implements StepHandler {
+
+    protected final UserInteractionPort uiPort;
+    private final String taskName;
+    private final WorkflowState handledState;
+    private final WorkflowState nextState;
+
+    protected ProvisioningStepHandler(UserInteractionPort uiPort, String taskName,
+                                      WorkflowState handledState, WorkflowState nextState) {
+        this.uiPort = uiPort;
+        this.taskName = taskName;
+        this.handledState = handledState;
+        this.nextState = nextState;
+    }
+
+    @Override
+    public boolean canHandle(WorkflowState state) {
+        return state == handledState;
+    }
+
+    @Override
+    public void execute(WorkflowContext context) throws StepExecutionException {
+        uiPort.beginTask(taskName);
+
+        try {
+            perform(context);
+            uiPort.endTask(taskName, true);
+
+        } catch (ReaderException | GeneralSecurityException e) {
+            uiPort.showError(taskName + " 오류: " + e.getMessage());
+            uiPort.endTask(taskName, false);
+            throw new StepExecutionException(taskName + " 실패", e);
+        } catch (StepExecutionException e) {
+            uiPort.endTask(taskName, false);
+            throw e;
+        }
+    }
+
+    /**
+     * 단계 본문
+     *
+     * @param context 워크플로우 컨텍스트
+     */
+    protected abstract void perform(WorkflowContext context)
+        throws ReaderException, GeneralSecurityException, StepExecutionException;
+
+    @Override
+    public WorkflowState nextState() {
+        return nextState;
+    }
+
+    /**
+     * 이전 단계가 컨텍스트에 남긴 값 조회
+     */
+    protected static <T> T require(WorkflowContext context, String key, Class<T> type)
+            throws StepExecutionException {
+        T value = context.getAttribute(key, type);
+        if (value == null) {
+            throw new StepExecutionException("이전 단계 결과가 없습니다: " + key);
+        }
+        return value;
+    }
+
+    /**
+     * 저널 키로 쓰는 현재 태그 UID (HEX)
+     */
+    protected static String tagUid(WorkflowContext context) throws StepExecutionException {
+        if (context.currentTag() == null) {
+            throw new StepExecutionException("감지된 태그가 없습니다");
+        }
+        return context.currentTag().uidAsHex();
+    }
+}
@@ -0,0 +1,83 @@
+package ntagwriter.application.handler;
+
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.domain.SdmConfig;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.service.CompiledProfile;
+import ntagwriter.service.ProvisioningMaterial;
+import ntagwriter.service.SdmVerificationService;
+
+import java.security.GeneralSecurityException;
+import java.util.function.Supplier;
+
+/**
+ * 설정 검증 단계 핸들러
+ * 인증 없이 NDEF 파일을 읽어 SDM 미러를 새 키로 검증하고, 성공하면 저널에서 태그를 제거한다.
+ * 검증만 재개하는 태그는 키 변경 단계를 거치지 않으므로, 제거 전에 키 에스크로 기록이 디스크에 반영됐는지 다시 확인한다.
+ * URL/오프셋은 태그에 기록한 자료의 프로필을 쓰고, 검증만 재개하는 태그는 현재 프로필을 쓴다.
+ */
+public class VerifySetupHandler extends ProvisioningStepHandler {
+
+    private final SdmVerificationService verificationService;
+    private final ProvisioningJournal journal;
+    private final Supplier<CompiledProfile> profiles;
+    private final KeyEscrowPort escrow;
+    private final UidRegistryPort registry;
+
+    public VerifySetupHandler(UserInteractionPort uiPort, SdmVerificationService verificationService,
+                              ProvisioningJournal journal, Supplier<CompiledProfile> profiles,
+                              KeyEscrowPort escrow, UidRegistryPort registry) {
+        super(uiPort, "설정 검증", WorkflowState.KEYS_CHANGED, WorkflowState.COMPLETED);
+        this.verificationService = verificationService;
+        this.journal = journal;
+        this.profiles = profiles;
+        this.escrow = escrow;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void perform(WorkflowContext context)
+            throws ReaderException, GeneralSecurityException, StepExecutionException {
+        ProvisioningJournal.Entry entry =
+            require(context, WorkflowContext.ATTR_JOURNAL_ENTRY, ProvisioningJournal.Entry.class);
+        byte[] newKey = require(context, WorkflowContext.ATTR_NEW_KEY, byte[].class);
+
+        ProvisioningMaterial material = context.getAttribute(WorkflowContext.ATTR_MATERIAL, ProvisioningMaterial.class);
+        CompiledProfile profile = material != null ? material.profile() : profiles.get();
+        SdmConfig sdmConfig = new SdmConfig(
+            profile.getBaseUrl(),
+            profile.getPiccDataOffset(),
+            profile.getSdmMacInputOffset(),
+            profile.getSdmMacOffset()
+        );
+
+        // Key 0~4가 모두 같은 키로 변경되므로 SDM Meta/File Read 키도 동일
+        SdmVerificationService.VerificationResult result =
+            verificationService.verify(context.currentTag().uid, sdmConfig, newKey, newKey);
+        context.setAttribute(WorkflowContext.ATTR_VERIFICATION_RESULT, result);
+
+        if (!result.isValid()) {
+            throw new StepExecutionException("설정 검증 실패: " + result.message());
+        }
+
+        Long receipt = require(context, WorkflowContext.ATTR_ESCROW_RECEIPT, Long.class);
+        try {
+            escrow.awaitDurable(receipt);
+        } catch (KeyEscrowPort.EscrowException e) {
+            throw new StepExecutionException("키 에스크로 동기화 실패 - 저널에 태그를 유지합니다: " + e.getMessage(), e);
+        }
+        journal.complete(tagUid(context));
+        registry.add(tagUid(context));
+        uiPort.showSuccess("SDM 미러 검증 완료 (Read Counter: " + result.readCounter() + ")");
+    }
+
+    @Override
+    public String name() {
+        return "VerifySetup";
+    }
+}
@@ -0,0 +1,47 @@
+package ntagwriter.application.handler;
+
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.service.NdefWriteService;
+import ntagwriter.service.ProvisioningMaterial;
+import ntagwriter.util.SessionContext;
+
+/**
+ * NDEF 메시지 작성 단계 핸들러
+ */
+public class WriteNdefHandler extends ProvisioningStepHandler {
+
+    private final NdefWriteService ndefService;
+    private final ProvisioningJournal journal;
+
+    public WriteNdefHandler(UserInteractionPort uiPort, NdefWriteService ndefService,
+                            ProvisioningJournal journal) {
+        super(uiPort, "NDEF 작성", WorkflowState.SDM_CONFIGURED, WorkflowState.NDEF_WRITTEN);
+        this.ndefService = ndefService;
+        this.journal = journal;
+    }
+
+    @Override
+    protected void perform(WorkflowContext context) throws ReaderException, StepExecutionException {
+        ProvisioningJournal.Entry entry =
+            require(context, WorkflowContext.ATTR_JOURNAL_ENTRY, ProvisioningJournal.Entry.class);
+        if (entry.isCompleted(WorkflowState.NDEF_WRITTEN)) {
+            uiPort.showInfo("NDEF 메시지가 이미 작성되어 생략합니다");
+            return;
+        }
+
+        SessionContext session = require(context, WorkflowContext.ATTR_SESSION_CONTEXT, SessionContext.class);
+        ProvisioningMaterial material =
+            require(context, WorkflowContext.ATTR_MATERIAL, ProvisioningMaterial.class);
+        ndefService.writeNdefImage(material.ndefImage(), session.commandCounter);
+        journal.markCompleted(tagUid(context), WorkflowState.NDEF_WRITTEN);
+    }
+
+    @Override
+    public String name() {
+        return "WriteNdef";
+    }
+}
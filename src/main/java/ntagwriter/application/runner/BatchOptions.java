@@ -0,0 +1,106 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.infrastructure.persistence.SerialBlockAllocator;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 헤드리스 배치 모드 명령행 옵션
+ *
+ * 사용법: --batch [--profile 내장이름|프로필.json] [--count 태그수] [--reader 리더기이름] [--ledger 원장경로] [--feed 피드.csv | --serials 임대DB [--serial-block 크기] [--serial-start 첫번호]] [--dashboard]
+ */
+final class BatchOptions {
+
+    static final String BATCH_FLAG = "--batch";
+    static final String DASHBOARD_FLAG = "--dashboard";
+    static final String USAGE =
+        "사용법: --batch [--profile WALKD_PRODUCTION|profiles/이름.json] [--count 0(무제한)] [--reader 이름] [--ledger data/ledger.csv] [--feed 주문.csv | --serials data/serial-leases.db [--serial-block 1000] [--serial-start 1]] [--dashboard]";
+
+    private static final Path DEFAULT_LEDGER = Paths.get("data", "ledger.csv");
+
+    // 내장 프로필 이름 또는 JSON 프로필 경로, null이면 기본 프로필
+    final String profile;
+    final int targetCount;
+    final String readerName;
+    final Path ledgerPath;
+    // 태그별 URL/시리얼 피드 CSV, 없으면 null
+    final Path feedPath;
+    // 같은 호스트의 스테이션끼리 공유하는 일련번호 임대 DB (로컬 디스크), 없으면 null (피드 CSV와 함께 쓸 수 없음)
+    final Path serialLeasePath;
+    final int serialBlockSize;
+    final long firstSerial;
+    final boolean dashboard;
+
+    private BatchOptions(String profile, int targetCount, String readerName, Path ledgerPath, Path feedPath,
+                         Path serialLeasePath, int serialBlockSize, long firstSerial, boolean dashboard) {
+        this.profile = profile;
+        this.targetCount = targetCount;
+        this.readerName = readerName;
+        this.ledgerPath = ledgerPath;
+        this.feedPath = feedPath;
+        this.serialLeasePath = serialLeasePath;
+        this.serialBlockSize = serialBlockSize;
+        this.firstSerial = firstSerial;
+        this.dashboard = dashboard;
+    }
+
+    static boolean isBatch(String[] args) {
+        return args.length > 0 && BATCH_FLAG.equals(args[0]);
+    }
+
+    /**
+     * @throws IllegalArgumentException 알 수 없는 옵션이나 잘못된 값
+     */
+    static BatchOptions parse(String[] args) {
+        String profile = null;
+        int targetCount = 0;
+        String readerName = null;
+        Path ledgerPath = DEFAULT_LEDGER;
+        Path feedPath = null;
+        Path serialLeasePath = null;
+        int serialBlockSize = SerialBlockAllocator.DEFAULT_BLOCK_SIZE;
+        long firstSerial = SerialBlockAllocator.DEFAULT_FIRST_SERIAL;
+        boolean dashboard = false;
+
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (DASHBOARD_FLAG.equals(option)) {
+                dashboard = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(option + " 옵션에 값이 없습니다");
+            }
+            String value = args[++i];
+
+            switch (option) {
+                case "--profile" -> profile = value;
+                case "--count" -> {
+                    targetCount = Integer.parseInt(value);
+                    if (targetCount < 0) {
+                        throw new IllegalArgumentException("--count는 0 이상이어야 합니다");
+                    }
+                }
+                case "--reader" -> readerName = value;
+                case "--ledger" -> ledgerPath = Paths.get(value);
+                case "--feed" -> feedPath = Paths.get(value);
+                case "--serials" -> serialLeasePath = Paths.get(value);
+                case "--serial-block" -> {
+                    serialBlockSize = Integer.parseInt(value);
+                    if (serialBlockSize < 1) {
+                        throw new IllegalArgumentException("--serial-block은 1 이상이어야 합니다");
+                    }
+                }
+                case "--serial-start" -> firstSerial = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("알 수 없는 옵션: " + option);
+            }
+        }
+
+        if (feedPath != null && serialLeasePath != null) {
+            throw new IllegalArgumentException("--feed와 --serials는 함께 쓸 수 없습니다");
+        }
+        return new BatchOptions(profile, targetCount, readerName, ledgerPath, feedPath, serialLeasePath,
+            serialBlockSize, firstSerial, dashboard);
+    }
+}
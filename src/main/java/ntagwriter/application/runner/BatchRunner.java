@@ -0,0 +1,214 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.application.workflow.BatchProvisioningRunner;
+import ntagwriter.application.workflow.BatchStatistics;
+import ntagwriter.application.workflow.ShiftStatistics;
+import ntagwriter.application.workflow.ThroughputMetrics;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.ProvisioningLedgerPort;
+import ntagwriter.domain.port.TagFeedPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.infrastructure.nfc.reader.IdentivNfcReader;
+import ntagwriter.infrastructure.persistence.CsvTagLedger;
+import ntagwriter.infrastructure.persistence.JsonProfileStore;
+import ntagwriter.infrastructure.persistence.KeyEscrowStore;
+import ntagwriter.infrastructure.persistence.MappedCsvFeed;
+import ntagwriter.infrastructure.persistence.PartitionedProvisioningLedger;
+import ntagwriter.infrastructure.persistence.ProvisionedUidRegistry;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.infrastructure.persistence.SerialBlockAllocator;
+import ntagwriter.infrastructure.persistence.SerialNumberFeed;
+import ntagwriter.infrastructure.persistence.SharedLineCounters;
+import ntagwriter.infrastructure.persistence.ShiftStatisticsStore;
+import ntagwriter.infrastructure.persistence.SqliteProvisioningLedger;
+import ntagwriter.infrastructure.ui.ConsoleUserInteraction;
+import ntagwriter.service.CompiledProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static ntagwriter.application.runner.RunnerSupport.EXIT_FAILED;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_OK;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_USAGE;
+import static ntagwriter.application.runner.RunnerSupport.builtInProfile;
+import static ntagwriter.application.runner.RunnerSupport.contextFactory;
+import static ntagwriter.application.runner.RunnerSupport.openLineCounters;
+import static ntagwriter.application.runner.RunnerSupport.openProfileStore;
+import static ntagwriter.application.runner.RunnerSupport.openShiftStatistics;
+import static ntagwriter.application.runner.RunnerSupport.reportUnfinishedTags;
+import static ntagwriter.application.runner.RunnerSupport.saveShiftStatistics;
+
+/**
+ * 헤드리스 배치 모드 (라인 제어 스크립트용)
+ * 입력 프롬프트 없이 실행하고, 태그마다 원장에 기록한 뒤 처리량 요약을 출력한다.
+ */
+public final class BatchRunner {
+
+    private BatchRunner() {
+    }
+
+    public static boolean matches(String[] args) {
+        return BatchOptions.isBatch(args);
+    }
+
+    /**
+     * @return 종료 코드 (0: 실패 없음, 1: 실패 있음/목표 미달, 2: 옵션 오류)
+     */
+    public static int run(String[] args) {
+        ConsoleUserInteraction ui = new ConsoleUserInteraction();
+        BatchOptions options;
+        try {
+            options = BatchOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            ui.showError(e.getMessage());
+            ui.showInfo(BatchOptions.USAGE);
+            return EXIT_USAGE;
+        }
+
+        try (JsonProfileStore store = openProfileStore(options.profile, ui)) {
+            Supplier<CompiledProfile> profiles = store != null ? store : builtInProfile(options.profile);
+            if (profiles == null) {
+                ui.showError("알 수 없는 프로필: " + options.profile);
+                return EXIT_USAGE;
+            }
+            ui.showSection("배치 모드: " + profiles.get().name());
+            return runBatch(options, profiles, ui);
+
+        } catch (JsonProfileStore.ProfileException e) {
+            ui.showError("프로필 오류: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+    }
+
+    private static int runBatch(BatchOptions options, Supplier<CompiledProfile> profiles, ConsoleUserInteraction ui) {
+        try (TagFeedPort feed = openFeed(options, ui);
+             KeyEscrowStore escrow = new KeyEscrowStore(
+                 KeyEscrowStore.DEFAULT_PATH, KeyEscrowStore.masterKeyFromEnvironment());
+             PartitionedProvisioningLedger ledger = new PartitionedProvisioningLedger(
+                 PartitionedProvisioningLedger.DEFAULT_DIRECTORY, SqliteProvisioningLedger.DEFAULT_PATH,
+                 PartitionedProvisioningLedger.DEFAULT_MAX_RECORDS, ui::showError);
+             ProvisionedUidRegistry registry = new ProvisionedUidRegistry(
+                 ProvisionedUidRegistry.DEFAULT_PATH, ledger, ui::showError);
+             CsvTagLedger csvLedger = new CsvTagLedger(options.ledgerPath);
+             SharedLineCounters lineCounters = openLineCounters(ui)) {
+            ShiftStatisticsStore statisticsStore = new ShiftStatisticsStore(ShiftStatisticsStore.DEFAULT_PATH);
+            ShiftStatistics shiftStatistics = openShiftStatistics(statisticsStore, ui);
+            BatchStatistics statistics = runProvisioning(profiles, feed, options.readerName, options.targetCount,
+                ui, options.dashboard, escrow, registry, ledger, shiftStatistics, lineCounters,
+                (result, skipped) -> csvLedger.record(
+                    result.finalTag.uidAsHex(),
+                    !result.success ? "FAILED" : skipped ? "SKIPPED" : "SUCCESS",
+                    result.finalState.name(),
+                    result.duration.toMillis(),
+                    result.errorMessage));
+            saveShiftStatistics(statisticsStore, shiftStatistics, ui);
+
+            if (statistics == null) {
+                return EXIT_FAILED;
+            }
+            printBatchSummary(ui, statistics);
+
+            boolean targetReached = options.targetCount == 0 || statistics.succeeded() >= options.targetCount;
+            return statistics.failed() == 0 && targetReached ? EXIT_OK : EXIT_FAILED;
+
+        } catch (TagFeedPort.FeedException e) {
+            ui.showError("피드 오류: " + e.getMessage());
+            return EXIT_USAGE;
+        } catch (KeyEscrowPort.EscrowException | ProvisioningLedgerPort.LedgerException
+                 | UidRegistryPort.RegistryException e) {
+            ui.showError(e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    /**
+     * 태그별 피드 열기
+     * - CSV 피드: 배정 기록은 data/피드이름.assignments.csv, 마지막 배정 행 다음부터 이어서 읽음
+     * - 일련번호: 공유 임대 DB에서 블록 단위로 빌려 {serial}에 채움, 종료 시 남은 번호 반납
+     *
+     * @return 피드, 둘 다 지정하지 않았으면 null
+     */
+    private static TagFeedPort openFeed(BatchOptions options, ConsoleUserInteraction ui)
+            throws TagFeedPort.FeedException {
+        if (options.serialLeasePath != null) {
+            SerialBlockAllocator allocator = new SerialBlockAllocator(options.serialLeasePath,
+                options.serialBlockSize, options.firstSerial);
+            ui.showInfo("일련번호: " + options.serialLeasePath + " (" + allocator.getBlockSize() + "개씩 임대)");
+            return new SerialNumberFeed(allocator, SerialNumberFeed.DEFAULT_ASSIGNMENT_PATH);
+        }
+        if (options.feedPath == null) {
+            return null;
+        }
+        MappedCsvFeed feed = new MappedCsvFeed(options.feedPath, MappedCsvFeed.defaultAssignmentPath(options.feedPath));
+        ui.showInfo("피드: " + options.feedPath + " " + feed.columns());
+        return feed;
+    }
+
+    /**
+     * 워크플로우 엔진으로 태그를 연속 설정
+     * 태그를 교체하는 동안 자료 파이프라인이 다음 태그의 키/NDEF 이미지/File Settings를 미리 준비한다.
+     *
+     * @param feed      태그별 데이터 피드, 없으면 null
+     * @param dashboard 실행 중 처리량 대시보드 표시 여부
+     * @param escrow    새 키 에스크로
+     * @param registry  설정 완료 UID 등록부
+     * @param ledger    설정 원장, 없으면 null
+     * @param shiftStatistics 교대별 누적 통계, 없으면 null
+     * @param lineCounters 라인 공유 카운터, 없으면 null
+     * @return 배치 통계, 리더기 오류로 중단되면 null
+     */
+    private static BatchStatistics runProvisioning(Supplier<CompiledProfile> profiles, TagFeedPort feed,
+                                                   String readerName, int targetCount,
+                                                   ConsoleUserInteraction ui, boolean dashboard,
+                                                   KeyEscrowPort escrow, UidRegistryPort registry,
+                                                   ProvisioningLedgerPort ledger, ShiftStatistics shiftStatistics,
+                                                   SharedLineCounters lineCounters,
+                                                   BatchProvisioningRunner.TagResultListener onTag) {
+        ThroughputMetrics metrics = new ThroughputMetrics(readerName != null ? readerName : "기본 리더기");
+        try (ProvisioningJournal journal = new ProvisioningJournal(ProvisioningJournal.DEFAULT_PATH, escrow);
+             ProvisioningStation station = new ProvisioningStation(new IdentivNfcReader(readerName), metrics,
+                profiles, feed, journal, escrow, registry, ui, contextFactory(profiles), ledger, shiftStatistics,
+                lineCounters, onTag)) {
+            reportUnfinishedTags(journal, ui);
+            if (dashboard) {
+                ui.startDashboard(List.of(metrics), ConsoleUserInteraction.DEFAULT_DASHBOARD_REFRESH_MS);
+            }
+            return station.run(targetCount);
+
+        } catch (NfcReaderPort.ReaderException e) {
+            ui.showError("리더기 오류: " + e.getMessage());
+            return null;
+        } finally {
+            ui.stopDashboard();
+        }
+    }
+
+    /**
+     * 배치 처리량 요약 출력
+     */
+    private static void printBatchSummary(ConsoleUserInteraction ui, BatchStatistics statistics) {
+        ui.showSection("배치 요약");
+        ui.showInfo(String.format("처리 %d개 (성공 %d, 건너뜀 %d, 실패 %d)",
+            statistics.processed(), statistics.succeeded(), statistics.skipped(), statistics.failed()));
+        ui.showInfo(String.format("처리량: %.1f tags/min, 성공률: %.1f%%",
+            statistics.tagsPerMinute(), statistics.successRate() * 100));
+
+        List<List<String>> rows = new ArrayList<>();
+        for (String step : statistics.stepNames()) {
+            rows.add(List.of(
+                step,
+                Integer.toString(statistics.sampleCount(step)),
+                formatMillis(statistics.percentileNanos(step, 50)),
+                formatMillis(statistics.percentileNanos(step, 95)),
+                formatMillis(statistics.percentileNanos(step, 99))
+            ));
+        }
+        ui.showTable(List.of("단계", "n", "p50 ms", "p95 ms", "p99 ms"), rows);
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,98 @@
+package ntagwriter.application.runner;
+
+/**
+ * 에뮬레이터 처리량 벤치마크 명령행 옵션
+ *
+ * 사용법: --benchmark [--tags 태그수] [--readers 리더기수] [--warmup 워밍업태그수] [--profile 내장이름|프로필.json]
+ *         [--max-cpu-us 태그당CPU상한] [--max-alloc-kb 태그당할당상한] [--dashboard]
+ */
+final class BenchmarkOptions {
+
+    static final String BENCHMARK_FLAG = "--benchmark";
+    static final String DASHBOARD_FLAG = "--dashboard";
+    static final String USAGE =
+        "사용법: --benchmark [--tags 1000] [--readers 1] [--warmup 200] [--profile WALKD_PRODUCTION|profiles/이름.json] [--max-cpu-us 상한] [--max-alloc-kb 상한] [--dashboard]";
+
+    private static final int DEFAULT_TAGS = 1000;
+    private static final int DEFAULT_READERS = 1;
+    private static final int DEFAULT_WARMUP = 200;
+
+    // 측정 구간에서 설정할 태그 수 (리더기들에 고르게 나눔)
+    final int tagCount;
+    final int readerCount;
+    // 측정 전 JIT 워밍업용 태그 수 (통계에서 제외)
+    final int warmupCount;
+    // 내장 프로필 이름 또는 JSON 프로필 경로, null이면 기본 프로필
+    final String profile;
+    // 릴리스 게이트: 태그당 호스트 CPU(µs)/할당(KB) 상한, 0이면 검사 안 함
+    final long maxCpuMicrosPerTag;
+    final long maxAllocatedKilobytesPerTag;
+    final boolean dashboard;
+
+    private BenchmarkOptions(int tagCount, int readerCount, int warmupCount, String profile,
+                             long maxCpuMicrosPerTag, long maxAllocatedKilobytesPerTag, boolean dashboard) {
+        this.tagCount = tagCount;
+        this.readerCount = readerCount;
+        this.warmupCount = warmupCount;
+        this.profile = profile;
+        this.maxCpuMicrosPerTag = maxCpuMicrosPerTag;
+        this.maxAllocatedKilobytesPerTag = maxAllocatedKilobytesPerTag;
+        this.dashboard = dashboard;
+    }
+
+    static boolean isBenchmark(String[] args) {
+        return args.length > 0 && BENCHMARK_FLAG.equals(args[0]);
+    }
+
+    /**
+     * @throws IllegalArgumentException 알 수 없는 옵션이나 잘못된 값
+     */
+    static BenchmarkOptions parse(String[] args) {
+        int tagCount = DEFAULT_TAGS;
+        int readerCount = DEFAULT_READERS;
+        int warmupCount = DEFAULT_WARMUP;
+        String profile = null;
+        long maxCpuMicros = 0;
+        long maxAllocatedKilobytes = 0;
+        boolean dashboard = false;
+
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (DASHBOARD_FLAG.equals(option)) {
+                dashboard = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(option + " 옵션에 값이 없습니다");
+            }
+            String value = args[++i];
+
+            switch (option) {
+                case "--tags" -> tagCount = positive(option, Integer.parseInt(value));
+                case "--readers" -> readerCount = positive(option, Integer.parseInt(value));
+                case "--warmup" -> warmupCount = notNegative(option, Integer.parseInt(value));
+                case "--profile" -> profile = value;
+                case "--max-cpu-us" -> maxCpuMicros = notNegative(option, Long.parseLong(value));
+                case "--max-alloc-kb" -> maxAllocatedKilobytes = notNegative(option, Long.parseLong(value));
+                default -> throw new IllegalArgumentException("알 수 없는 옵션: " + option);
+            }
+        }
+
+        return new BenchmarkOptions(tagCount, readerCount, warmupCount, profile, maxCpuMicros,
+            maxAllocatedKilobytes, dashboard);
+    }
+
+    private static int positive(String option, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(option + "는 1 이상이어야 합니다");
+        }
+        return value;
+    }
+
+    private static <T extends Number> T notNegative(String option, T value) {
+        if (value.longValue() < 0) {
+            throw new IllegalArgumentException(option + "는 0 이상이어야 합니다");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,155 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.application.workflow.BatchStatistics;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.infrastructure.persistence.JsonProfileStore;
+import ntagwriter.infrastructure.ui.ConsoleUserInteraction;
+import ntagwriter.service.CompiledProfile;
+import ntagwriter.util.ConsoleHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static ntagwriter.application.runner.RunnerSupport.EXIT_FAILED;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_OK;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_USAGE;
+import static ntagwriter.application.runner.RunnerSupport.builtInProfile;
+import static ntagwriter.application.runner.RunnerSupport.contextFactory;
+import static ntagwriter.application.runner.RunnerSupport.openProfileStore;
+
+/**
+ * 에뮬레이터 처리량 벤치마크 (릴리스 게이트용)
+ * 실제 리더기 없이 전체 자동 설정 흐름을 최대 속도로 돌려 태그당 호스트 CPU/할당과 단계별 지연을 보고한다.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static boolean matches(String[] args) {
+        return BenchmarkOptions.isBenchmark(args);
+    }
+
+    /**
+     * @return 종료 코드 (0: 통과, 1: 실패 태그 있음/상한 초과, 2: 옵션 오류)
+     */
+    public static int run(String[] args) {
+        ConsoleUserInteraction ui = new ConsoleUserInteraction();
+        BenchmarkOptions options;
+        try {
+            options = BenchmarkOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            ui.showError(e.getMessage());
+            ui.showInfo(BenchmarkOptions.USAGE);
+            return EXIT_USAGE;
+        }
+
+        try (JsonProfileStore store = openProfileStore(options.profile, ui)) {
+            Supplier<CompiledProfile> profiles = store != null ? store : builtInProfile(options.profile);
+            if (profiles == null) {
+                ui.showError("알 수 없는 프로필: " + options.profile);
+                return EXIT_USAGE;
+            }
+            ui.showSection(String.format("벤치마크: %s, 태그 %d개, 리더기 %d대",
+                profiles.get().name(), options.tagCount, options.readerCount));
+            return runBenchmark(options, profiles, ui);
+
+        } catch (JsonProfileStore.ProfileException e) {
+            ui.showError("프로필 오류: " + e.getMessage());
+            return EXIT_USAGE;
+        }
+    }
+
+    private static int runBenchmark(BenchmarkOptions options, Supplier<CompiledProfile> profiles,
+                                    ConsoleUserInteraction ui) {
+        // 설정 서비스의 콘솔 출력이 측정을 흐리지 않도록 보고 전까지 끈다
+        ConsoleHelper.setQuiet(true);
+        try (ThroughputBenchmark benchmark = new ThroughputBenchmark(profiles,
+                contextFactory(profiles), options.readerCount)) {
+            if (options.warmupCount > 0) {
+                benchmark.run(options.warmupCount);
+            }
+            if (options.dashboard) {
+                ui.startDashboard(benchmark.metrics(), ConsoleUserInteraction.DEFAULT_DASHBOARD_REFRESH_MS);
+            }
+            ThroughputBenchmark.Result result = benchmark.run(options.tagCount);
+            ui.stopDashboard();
+            ConsoleHelper.setQuiet(false);
+
+            printBenchmarkReport(ui, result);
+            return checkBenchmarkGates(ui, options, result);
+
+        } catch (IOException | KeyEscrowPort.EscrowException | UidRegistryPort.RegistryException e) {
+            ConsoleHelper.setQuiet(false);
+            ui.showError("벤치마크 준비 실패: " + e.getMessage());
+            return EXIT_FAILED;
+        } catch (NfcReaderPort.ReaderException e) {
+            ui.stopDashboard();
+            ConsoleHelper.setQuiet(false);
+            ui.showError("벤치마크 리더기 오류: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private static void printBenchmarkReport(ConsoleUserInteraction ui, ThroughputBenchmark.Result result) {
+        BatchStatistics statistics = result.statistics;
+        ui.showSection("벤치마크 결과");
+        ui.showInfo(String.format("처리 %d개 (성공 %d, 건너뜀 %d, 실패 %d), %.2f초",
+            statistics.processed(), statistics.succeeded(), statistics.skipped(), statistics.failed(),
+            result.elapsedNanos / 1_000_000_000.0));
+        ui.showInfo(String.format("처리량: %.1f tags/s, 태그당 APDU %.1f개",
+            result.tagsPerSecond(), result.exchangesPerTag()));
+        ui.showInfo(String.format("태그당 CPU: 호스트 %.1f µs (에뮬레이터 포함 %.1f µs)",
+            result.hostCpuMicrosPerTag(), result.totalCpuMicrosPerTag()));
+        ui.showInfo(String.format("태그당 할당: 호스트 %.1f KB (에뮬레이터 포함 %.1f KB)",
+            result.hostAllocatedKilobytesPerTag(), result.totalAllocatedKilobytesPerTag()));
+
+        List<List<String>> rows = new ArrayList<>();
+        for (String step : statistics.stepNames()) {
+            rows.add(List.of(
+                step,
+                Integer.toString(statistics.sampleCount(step)),
+                formatMicros(statistics.meanNanos(step)),
+                formatMicros(statistics.percentileNanos(step, 50)),
+                formatMicros(statistics.percentileNanos(step, 95)),
+                formatMicros(statistics.percentileNanos(step, 99))
+            ));
+        }
+        ui.showTable(List.of("단계", "n", "평균 µs", "p50 µs", "p95 µs", "p99 µs"), rows);
+    }
+
+    /**
+     * 릴리스 게이트 판정 (실패 태그가 있거나 태그당 호스트 비용이 상한을 넘으면 실패)
+     */
+    private static int checkBenchmarkGates(ConsoleUserInteraction ui, BenchmarkOptions options,
+                                           ThroughputBenchmark.Result result) {
+        boolean passed = true;
+        if (result.statistics.failed() > 0) {
+            ui.showError("실패한 태그가 있습니다: " + result.statistics.failed() + "개");
+            passed = false;
+        }
+        if (options.maxCpuMicrosPerTag > 0 && result.hostCpuMicrosPerTag() > options.maxCpuMicrosPerTag) {
+            ui.showError(String.format("태그당 호스트 CPU %.1f µs > 상한 %d µs",
+                result.hostCpuMicrosPerTag(), options.maxCpuMicrosPerTag));
+            passed = false;
+        }
+        if (options.maxAllocatedKilobytesPerTag > 0
+                && result.hostAllocatedKilobytesPerTag() > options.maxAllocatedKilobytesPerTag) {
+            ui.showError(String.format("태그당 호스트 할당 %.1f KB > 상한 %d KB",
+                result.hostAllocatedKilobytesPerTag(), options.maxAllocatedKilobytesPerTag));
+            passed = false;
+        }
+        if (passed) {
+            ui.showSuccess("벤치마크 게이트 통과");
+        }
+        return passed ? EXIT_OK : EXIT_FAILED;
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / 1_000.0);
+    }
+}
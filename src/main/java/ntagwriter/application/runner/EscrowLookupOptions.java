@@ -0,0 +1,74 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.infrastructure.persistence.KeyEscrowStore;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 키 에스크로 조회 명령행 옵션
+ *
+ * 사용법: --escrow-lookup --uid 태그UID [--uid 태그UID ...] [--escrow 에스크로파일] [--reveal-key]
+ */
+final class EscrowLookupOptions {
+
+    static final String LOOKUP_FLAG = "--escrow-lookup";
+    static final String REVEAL_KEY_FLAG = "--reveal-key";
+    static final String USAGE =
+        "사용법: --escrow-lookup --uid 04A1B2C3D4E5F6 [--uid ...] [--escrow data/key-escrow.log] [--reveal-key]";
+
+    final List<String> uids;
+    final Path escrowPath;
+    // 키 값까지 출력 (재작업 스테이션에 옮길 때만)
+    final boolean revealKey;
+
+    private EscrowLookupOptions(List<String> uids, Path escrowPath, boolean revealKey) {
+        this.uids = uids;
+        this.escrowPath = escrowPath;
+        this.revealKey = revealKey;
+    }
+
+    static boolean isLookup(String[] args) {
+        return args.length > 0 && LOOKUP_FLAG.equals(args[0]);
+    }
+
+    /**
+     * @throws IllegalArgumentException 알 수 없는 옵션이나 잘못된 값
+     */
+    static EscrowLookupOptions parse(String[] args) {
+        List<String> uids = new ArrayList<>();
+        Path escrowPath = KeyEscrowStore.DEFAULT_PATH;
+        boolean revealKey = false;
+
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (REVEAL_KEY_FLAG.equals(option)) {
+                revealKey = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(option + " 옵션에 값이 없습니다");
+            }
+            String value = args[++i];
+
+            switch (option) {
+                case "--uid" -> {
+                    if (!value.matches("([0-9A-Fa-f]{2}){1,7}")) {
+                        throw new IllegalArgumentException("UID는 2~14자리 HEX여야 합니다: " + value);
+                    }
+                    uids.add(value.toUpperCase(Locale.ROOT));
+                }
+                case "--escrow" -> escrowPath = Paths.get(value);
+                default -> throw new IllegalArgumentException("알 수 없는 옵션: " + option);
+            }
+        }
+
+        if (uids.isEmpty()) {
+            throw new IllegalArgumentException("--uid 옵션이 필요합니다");
+        }
+        return new EscrowLookupOptions(List.copyOf(uids), escrowPath, revealKey);
+    }
+}
@@ -0,0 +1,92 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.infrastructure.persistence.KeyEscrowStore;
+import ntagwriter.infrastructure.ui.ConsoleUserInteraction;
+import ntagwriter.util.HexUtils;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static ntagwriter.application.runner.RunnerSupport.EXIT_FAILED;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_OK;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_USAGE;
+
+/**
+ * 키 에스크로 조회 (재작업/백엔드 키 복구용)
+ * 에스크로를 조회 전용으로 열므로 설정 프로세스가 실행 중이어도 쓸 수 있다.
+ * 키 값은 --reveal-key를 줄 때만 출력한다.
+ */
+public final class EscrowLookupRunner {
+
+    private static final DateTimeFormatter DEPOSITED_AT_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private EscrowLookupRunner() {
+    }
+
+    public static boolean matches(String[] args) {
+        return EscrowLookupOptions.isLookup(args);
+    }
+
+    /**
+     * @return 종료 코드 (0: 모두 찾음, 1: 없는 UID가 있거나 에스크로 오류, 2: 옵션 오류)
+     */
+    public static int run(String[] args) {
+        ConsoleUserInteraction ui = new ConsoleUserInteraction();
+        EscrowLookupOptions options;
+        try {
+            options = EscrowLookupOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            ui.showError(e.getMessage());
+            ui.showInfo(EscrowLookupOptions.USAGE);
+            return EXIT_USAGE;
+        }
+
+        try (KeyEscrowStore escrow = KeyEscrowStore.openReadOnly(
+                options.escrowPath, KeyEscrowStore.masterKeyFromEnvironment())) {
+            List<List<String>> rows = new ArrayList<>();
+            int missing = 0;
+            for (String uid : options.uids) {
+                Optional<KeyEscrowPort.EscrowedKey> found = escrow.find(uid);
+                if (found.isEmpty()) {
+                    missing++;
+                    rows.add(row(options, uid, "-", "보관된 키 없음", "-"));
+                    continue;
+                }
+                KeyEscrowPort.EscrowedKey escrowed = found.get();
+                String key = "-";
+                if (options.revealKey) {
+                    byte[] keyBytes = escrowed.key();
+                    key = HexUtils.bytesToHex(keyBytes);
+                    Arrays.fill(keyBytes, (byte) 0);
+                }
+                rows.add(row(options, uid, String.format("0x%02X", escrowed.keyVersion()),
+                    DEPOSITED_AT_FORMAT.format(escrowed.depositedAt()), key));
+            }
+            ui.showTable(options.revealKey
+                ? List.of("UID", "키 버전", "보관 시각", "AES 키")
+                : List.of("UID", "키 버전", "보관 시각"), rows);
+            if (missing > 0) {
+                ui.showWarning(missing + "개 UID의 키가 에스크로에 없습니다");
+                return EXIT_FAILED;
+            }
+            return EXIT_OK;
+
+        } catch (KeyEscrowPort.EscrowException e) {
+            ui.showError("키 에스크로 조회 실패: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+
+    private static List<String> row(EscrowLookupOptions options, String uid, String keyVersion,
+                                    String depositedAt, String key) {
+        return options.revealKey
+            ? List.of(uid, keyVersion, depositedAt, key)
+            : List.of(uid, keyVersion, depositedAt);
+    }
+}
@@ -0,0 +1,92 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.infrastructure.persistence.LedgerExporter;
+import ntagwriter.infrastructure.persistence.PartitionedProvisioningLedger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * 원장 내보내기(MES 연동) 명령행 옵션
+ *
+ * 사용법: --export-ledger --output 출력파일 [--format csv|jsonl] [--ledger-dir 원장디렉토리] [--since 원장ID | --watermark 워터마크파일]
+ */
+final class ExportOptions {
+
+    static final String EXPORT_FLAG = "--export-ledger";
+    static final String USAGE =
+        "사용법: --export-ledger --output exports/tags.csv [--format csv|jsonl] [--ledger-dir data/ledger] [--since 0 | --watermark data/mes-export.watermark]";
+
+    final Path outputPath;
+    final LedgerExporter.Format format;
+    final Path ledgerDirectory;
+    // 이 원장 ID 이후만 내보냄 (워터마크 파일이 있으면 파일 값 사용)
+    final long sinceId;
+    // 증분 내보내기 워터마크 파일, 없으면 null
+    final Path watermarkPath;
+
+    private ExportOptions(Path outputPath, LedgerExporter.Format format, Path ledgerDirectory, long sinceId,
+                          Path watermarkPath) {
+        this.outputPath = outputPath;
+        this.format = format;
+        this.ledgerDirectory = ledgerDirectory;
+        this.sinceId = sinceId;
+        this.watermarkPath = watermarkPath;
+    }
+
+    static boolean isExport(String[] args) {
+        return args.length > 0 && EXPORT_FLAG.equals(args[0]);
+    }
+
+    /**
+     * @throws IllegalArgumentException 알 수 없는 옵션이나 잘못된 값
+     */
+    static ExportOptions parse(String[] args) {
+        Path outputPath = null;
+        LedgerExporter.Format format = LedgerExporter.Format.CSV;
+        Path ledgerDirectory = PartitionedProvisioningLedger.DEFAULT_DIRECTORY;
+        long sinceId = 0;
+        boolean sinceGiven = false;
+        Path watermarkPath = null;
+
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(option + " 옵션에 값이 없습니다");
+            }
+            String value = args[++i];
+
+            switch (option) {
+                case "--output" -> outputPath = Paths.get(value);
+                case "--format" -> format = parseFormat(value);
+                case "--ledger-dir" -> ledgerDirectory = Paths.get(value);
+                case "--since" -> {
+                    sinceId = Long.parseLong(value);
+                    if (sinceId < 0) {
+                        throw new IllegalArgumentException("--since는 0 이상이어야 합니다");
+                    }
+                    sinceGiven = true;
+                }
+                case "--watermark" -> watermarkPath = Paths.get(value);
+                default -> throw new IllegalArgumentException("알 수 없는 옵션: " + option);
+            }
+        }
+
+        if (outputPath == null) {
+            throw new IllegalArgumentException("--output 옵션이 필요합니다");
+        }
+        if (sinceGiven && watermarkPath != null) {
+            throw new IllegalArgumentException("--since와 --watermark는 함께 쓸 수 없습니다");
+        }
+        return new ExportOptions(outputPath, format, ledgerDirectory, sinceId, watermarkPath);
+    }
+
+    private static LedgerExporter.Format parseFormat(String value) {
+        try {
+            return LedgerExporter.Format.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("알 수 없는 형식: " + value + " (csv 또는 jsonl)");
+        }
+    }
+}
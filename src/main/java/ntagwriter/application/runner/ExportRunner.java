@@ -0,0 +1,61 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.domain.port.ProvisioningLedgerPort;
+import ntagwriter.infrastructure.persistence.LedgerExporter;
+import ntagwriter.infrastructure.ui.ConsoleUserInteraction;
+
+import java.io.IOException;
+import java.time.ZoneId;
+
+import static ntagwriter.application.runner.RunnerSupport.EXIT_FAILED;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_OK;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_USAGE;
+
+/**
+ * 원장 내보내기 (MES 야간 연동용)
+ * 워터마크 파일을 주면 지난 내보내기 이후의 완료 태그만 쓰고, 파일을 옮긴 뒤에 워터마크를 올린다.
+ * 내보내기가 중간에 실패하면 워터마크가 그대로라 다음 실행이 같은 구간을 다시 내보낸다.
+ */
+public final class ExportRunner {
+
+    private ExportRunner() {
+    }
+
+    public static boolean matches(String[] args) {
+        return ExportOptions.isExport(args);
+    }
+
+    /**
+     * @return 종료 코드 (0: 성공, 1: 원장/파일 오류, 2: 옵션 오류)
+     */
+    public static int run(String[] args) {
+        ConsoleUserInteraction ui = new ConsoleUserInteraction();
+        ExportOptions options;
+        try {
+            options = ExportOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            ui.showError(e.getMessage());
+            ui.showInfo(ExportOptions.USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            LedgerExporter exporter = new LedgerExporter(options.ledgerDirectory, ZoneId.systemDefault());
+            long since = options.watermarkPath != null
+                ? LedgerExporter.readWatermark(options.watermarkPath)
+                : options.sinceId;
+            long started = System.nanoTime();
+            LedgerExporter.Result result = exporter.exportTo(options.outputPath, since, options.format);
+            if (options.watermarkPath != null) {
+                LedgerExporter.writeWatermark(options.watermarkPath, result.lastId);
+            }
+            ui.showSuccess(String.format("%d행 내보냄 → %s (원장 ID %d 이후, 새 워터마크 %d, %.2f초)",
+                result.rows, options.outputPath, since, result.lastId, (System.nanoTime() - started) / 1e9));
+            return EXIT_OK;
+
+        } catch (ProvisioningLedgerPort.LedgerException | IOException e) {
+            ui.showError("내보내기 실패: " + e.getMessage());
+            return EXIT_FAILED;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.infrastructure.persistence.SharedLineCounters;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 라인 현황 모니터 명령행 옵션
+ *
+ * 사용법: --monitor [--counters 카운터파일] [--interval 갱신주기ms] [--once]
+ */
+final class MonitorOptions {
+
+    static final String MONITOR_FLAG = "--monitor";
+    static final String ONCE_FLAG = "--once";
+    static final String USAGE =
+        "사용법: --monitor [--counters data/line-counters.bin] [--interval 1000] [--once]";
+
+    private static final long DEFAULT_INTERVAL_MS = 1_000;
+
+    final Path countersPath;
+    final long intervalMs;
+    // 한 번만 출력하고 종료 (라인 제어 스크립트용)
+    final boolean once;
+
+    private MonitorOptions(Path countersPath, long intervalMs, boolean once) {
+        this.countersPath = countersPath;
+        this.intervalMs = intervalMs;
+        this.once = once;
+    }
+
+    static boolean isMonitor(String[] args) {
+        return args.length > 0 && MONITOR_FLAG.equals(args[0]);
+    }
+
+    /**
+     * @throws IllegalArgumentException 알 수 없는 옵션이나 잘못된 값
+     */
+    static MonitorOptions parse(String[] args) {
+        Path countersPath = SharedLineCounters.DEFAULT_PATH;
+        long intervalMs = DEFAULT_INTERVAL_MS;
+        boolean once = false;
+
+        for (int i = 1; i < args.length; i++) {
+            String option = args[i];
+            if (ONCE_FLAG.equals(option)) {
+                once = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(option + " 옵션에 값이 없습니다");
+            }
+            String value = args[++i];
+
+            switch (option) {
+                case "--counters" -> countersPath = Paths.get(value);
+                case "--interval" -> {
+                    intervalMs = Long.parseLong(value);
+                    if (intervalMs < 100) {
+                        throw new IllegalArgumentException("--interval은 100 이상이어야 합니다");
+                    }
+                }
+                default -> throw new IllegalArgumentException("알 수 없는 옵션: " + option);
+            }
+        }
+
+        return new MonitorOptions(countersPath, intervalMs, once);
+    }
+}
@@ -0,0 +1,117 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.infrastructure.persistence.SharedLineCounters;
+import ntagwriter.infrastructure.ui.ConsoleUserInteraction;
+import ntagwriter.reader.ApduStatusWord;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static ntagwriter.application.runner.RunnerSupport.EXIT_FAILED;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_OK;
+import static ntagwriter.application.runner.RunnerSupport.EXIT_USAGE;
+
+/**
+ * 라인 현황 모니터
+ * 설정 프로세스들이 쓰는 라인 카운터 파일을 읽기 전용으로 매핑해 주기적으로 출력한다 (스테이션과 통신하지 않음).
+ */
+public final class MonitorRunner {
+
+    private MonitorRunner() {
+    }
+
+    public static boolean matches(String[] args) {
+        return MonitorOptions.isMonitor(args);
+    }
+
+    /**
+     * @return 종료 코드 (0: 정상, 1: 카운터 파일 오류(--once), 2: 옵션 오류)
+     */
+    public static int run(String[] args) {
+        ConsoleUserInteraction ui = new ConsoleUserInteraction();
+        MonitorOptions options;
+        try {
+            options = MonitorOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            ui.showError(e.getMessage());
+            ui.showInfo(MonitorOptions.USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (options.once) {
+            try {
+                printLineSnapshot(ui, SharedLineCounters.read(options.countersPath));
+                return EXIT_OK;
+            } catch (IOException e) {
+                ui.showError("라인 카운터 읽기 실패: " + e.getMessage());
+                return EXIT_FAILED;
+            }
+        }
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "line-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ui.showInfo("라인 현황: " + options.countersPath + " (Enter를 누르면 종료)");
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                printLineSnapshot(ui, SharedLineCounters.read(options.countersPath));
+            } catch (IOException e) {
+                // 설정 프로세스가 아직 시작하지 않았을 수 있으므로 다음 주기에 다시 읽음
+                ui.showWarning("라인 카운터 읽기 실패: " + e.getMessage());
+            }
+        }, 0, options.intervalMs, TimeUnit.MILLISECONDS);
+        ui.awaitEnter();
+        scheduler.shutdownNow();
+        return EXIT_OK;
+    }
+
+    private static void printLineSnapshot(ConsoleUserInteraction ui, SharedLineCounters.Snapshot snapshot) {
+        long now = System.currentTimeMillis();
+        ui.showSection(String.format("라인 현황 - 처리 %d (성공 %d, 건너뜀 %d, 실패 %d), %.1f tags/min",
+            snapshot.processed(), snapshot.succeeded(), snapshot.skipped(), snapshot.failed(),
+            snapshot.tagsPerMinute()));
+
+        List<List<String>> rows = new ArrayList<>();
+        for (SharedLineCounters.Station station : snapshot.stations) {
+            rows.add(List.of(
+                Long.toString(station.pid),
+                station.stale ? "응답 없음" : "실행 중",
+                Long.toString(station.processed()),
+                Long.toString(station.succeeded),
+                Long.toString(station.skipped),
+                Long.toString(station.failed),
+                String.format("%.1f", station.tagsPerMinute),
+                formatElapsed(now - station.startedAtMillis)
+            ));
+        }
+        if (rows.isEmpty()) {
+            ui.showInfo("실행 중인 설정 프로세스가 없습니다");
+            return;
+        }
+        ui.showTable(List.of("PID", "상태", "처리", "성공", "건너뜀", "실패", "tags/min", "가동"), rows);
+
+        Map<Integer, Long> statusWords = snapshot.statusWordErrors();
+        if (statusWords.isEmpty() && snapshot.otherStatusWordErrors() == 0) {
+            return;
+        }
+        List<List<String>> errorRows = new ArrayList<>();
+        statusWords.forEach((statusWord, count) -> errorRows.add(List.of(
+            String.format("%04X", statusWord), ApduStatusWord.describe(statusWord), Long.toString(count))));
+        if (snapshot.otherStatusWordErrors() > 0) {
+            errorRows.add(List.of("-", "기타 (표 초과)", Long.toString(snapshot.otherStatusWordErrors())));
+        }
+        ui.showTable(List.of("SW", "설명", "오류"), errorRows);
+    }
+
+    private static String formatElapsed(long millis) {
+        long seconds = Math.max(0, millis / 1000);
+        return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+}
@@ -0,0 +1,195 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.application.handler.ProvisioningHandlers;
+import ntagwriter.application.workflow.BatchProvisioningRunner;
+import ntagwriter.application.workflow.BatchStatistics;
+import ntagwriter.application.workflow.DefaultSetupWorkflow;
+import ntagwriter.application.workflow.ShiftStatistics;
+import ntagwriter.application.workflow.StationSupervisor;
+import ntagwriter.application.workflow.StepDeadlines;
+import ntagwriter.application.workflow.ThroughputMetrics;
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowResult;
+import ntagwriter.domain.ProvisioningRecord;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.ProvisioningLedgerPort;
+import ntagwriter.domain.port.TagFeedPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.nfc.reader.ReaderPortStrategy;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.infrastructure.persistence.SharedLineCounters;
+import ntagwriter.service.CompiledProfile;
+import ntagwriter.service.NfcReaderService;
+import ntagwriter.service.ProvisioningMaterial;
+import ntagwriter.service.ProvisioningMaterialPipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 리더기 한 대의 프로덕션 설정 스테이션
+ * 리더기 포트, 핸들러 체인, 자료 파이프라인, 배치 실행기를 묶어 열고 함께 닫는다.
+ * 단일 리더기 배치 모드와 다중 리더기 감독자가 같은 구성을 쓴다.
+ */
+final class ProvisioningStation implements StationSupervisor.Station {
+
+    private final NfcReaderPort readerPort;
+    private final ThroughputMetrics metrics;
+    private final NfcReaderService readerService;
+    private final ProvisioningMaterialPipeline pipeline;
+    private final BatchProvisioningRunner runner;
+    private final BatchProvisioningRunner.TagResultListener onTag;
+    private final ProvisioningLedgerPort ledger;
+    private final ShiftStatistics shiftStatistics;
+    private final SharedLineCounters lineCounters;
+    // 현재 태그에서 받은 실패 상태 워드 (교환 스레드가 쌓고 태그가 끝나면 원장 기록으로 넘김)
+    private final List<Integer> tagStatusWords = new ArrayList<>();
+
+    /**
+     * @param readerPort     리더기 포트 (연결은 첫 배치의 ConnectReader 단계에서 열림)
+     * @param metrics        리더기별 실시간 지표
+     * @param feed           태그별 데이터 피드, 없으면 null
+     * @param journal        설정 진행 저널 (여러 스테이션이 공유 가능)
+     * @param escrow         새 키 에스크로 (여러 스테이션이 공유 가능)
+     * @param registry       설정 완료 UID 등록부 (여러 스테이션이 공유 가능)
+     * @param contextFactory 태그마다 새 워크플로우 컨텍스트
+     * @param ledger         설정 원장 (여러 스테이션이 공유 가능), 없으면 null
+     * @param shiftStatistics 교대별 누적 통계 (여러 스테이션이 공유 가능), 없으면 null
+     * @param lineCounters   라인 공유 카운터 (같은 프로세스의 스테이션이 공유), 없으면 null
+     * @param onTag          태그마다 호출 (CSV 기록, 콘솔 알림 등)
+     */
+    ProvisioningStation(NfcReaderPort readerPort, ThroughputMetrics metrics, Supplier<CompiledProfile> profiles,
+                        TagFeedPort feed, ProvisioningJournal journal, KeyEscrowPort escrow,
+                        UidRegistryPort registry, UserInteractionPort ui,
+                        Supplier<WorkflowContext> contextFactory, ProvisioningLedgerPort ledger,
+                        ShiftStatistics shiftStatistics, SharedLineCounters lineCounters,
+                        BatchProvisioningRunner.TagResultListener onTag) {
+        this.readerPort = readerPort;
+        this.metrics = metrics;
+        this.ledger = ledger;
+        this.shiftStatistics = shiftStatistics;
+        this.lineCounters = lineCounters;
+        this.onTag = onTag;
+        this.readerService = new NfcReaderService(new ReaderPortStrategy(readerPort, this::recordErrorStatusWord));
+        this.pipeline = new ProvisioningMaterialPipeline(profiles, feed, ProvisioningMaterialPipeline.DEFAULT_DEPTH);
+        DefaultSetupWorkflow workflow = new DefaultSetupWorkflow(
+            ProvisioningHandlers.create(readerPort, ui, readerService, profiles, journal, pipeline, escrow, registry),
+            ui, StepDeadlines.DEFAULT, readerPort::abortExchange);
+        // 태그마다 상태 전이를 진행 저널에 기록
+        Supplier<WorkflowContext> journaled = () -> {
+            WorkflowContext context = contextFactory.get();
+            context.setTransitionListener(journal::recordTransition);
+            return context;
+        };
+        this.runner = new BatchProvisioningRunner(workflow, readerPort, ui, journaled);
+    }
+
+    /**
+     * 목표 수만큼(0이면 태그가 끊길 때까지) 연속 설정
+     */
+    BatchStatistics run(int targetCount) throws NfcReaderPort.ReaderException {
+        synchronized (tagStatusWords) {
+            tagStatusWords.clear();
+        }
+        return runner.run(targetCount, new BatchProvisioningRunner.TagResultListener() {
+            @Override
+            public void onResult(WorkflowResult result, boolean skipped) {
+                onResult(result, skipped, null);
+            }
+
+            @Override
+            public void onResult(WorkflowResult result, boolean skipped, WorkflowContext context) {
+                metrics.record(result, skipped);
+                if (lineCounters != null) {
+                    lineCounters.record(result.success, skipped);
+                }
+                List<Integer> statusWords = drainStatusWords();
+                if (result.finalTag != null && (ledger != null || shiftStatistics != null)) {
+                    ProvisioningRecord record = toRecord(result, skipped, context, statusWords);
+                    if (ledger != null) {
+                        ledger.record(record);
+                    }
+                    if (shiftStatistics != null) {
+                        shiftStatistics.record(record);
+                    }
+                }
+                onTag.onResult(result, skipped, context);
+            }
+        });
+    }
+
+    private void recordErrorStatusWord(int statusWord) {
+        metrics.recordErrorStatusWord(statusWord);
+        if (lineCounters != null) {
+            lineCounters.recordStatusWord(statusWord);
+        }
+        synchronized (tagStatusWords) {
+            tagStatusWords.add(statusWord);
+        }
+    }
+
+    private List<Integer> drainStatusWords() {
+        synchronized (tagStatusWords) {
+            List<Integer> drained = List.copyOf(tagStatusWords);
+            tagStatusWords.clear();
+            return drained;
+        }
+    }
+
+    /**
+     * 태그 한 개의 원장 기록 (키 값은 넣지 않음)
+     */
+    private ProvisioningRecord toRecord(WorkflowResult result, boolean skipped, WorkflowContext context,
+                                        List<Integer> statusWords) {
+        ProvisioningRecord.Builder builder = ProvisioningRecord.builder()
+            .readerName(metrics.readerName())
+            .uid(result.finalTag.uidAsHex())
+            .outcome(!result.success ? ProvisioningRecord.Outcome.FAILED
+                : skipped ? ProvisioningRecord.Outcome.SKIPPED : ProvisioningRecord.Outcome.SUCCESS)
+            .finalState(result.finalState.name())
+            .statusWords(statusWords)
+            .duration(result.duration)
+            .message(result.errorMessage);
+        for (WorkflowResult.StepResult step : result.stepResults) {
+            builder.addStep(step.stepName, step.success, step.duration);
+        }
+        if (context != null) {
+            ProvisioningMaterial material = context.getAttribute(WorkflowContext.ATTR_MATERIAL, ProvisioningMaterial.class);
+            if (material != null) {
+                builder.profileName(material.profile().name())
+                    .url(material.profile().getBaseUrl());
+            }
+            ProvisioningJournal.Entry entry =
+                context.getAttribute(WorkflowContext.ATTR_JOURNAL_ENTRY, ProvisioningJournal.Entry.class);
+            if (entry != null) {
+                builder.keyVersion(Byte.toUnsignedInt(entry.keyVersion()));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int runBatch() throws NfcReaderPort.ReaderException {
+        return run(0).processed();
+    }
+
+    @Override
+    public void requestStop() {
+        runner.requestStop();
+    }
+
+    @Override
+    public boolean isIdle() {
+        return runner.isIdle();
+    }
+
+    @Override
+    public void close() {
+        pipeline.close();
+        readerService.disconnect();
+        readerPort.disconnect();
+    }
+}
@@ -0,0 +1,194 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.application.workflow.ShiftStatistics;
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowMode;
+import ntagwriter.domain.NtagDefaultConfig;
+import ntagwriter.domain.config.ProvisioningProfile;
+import ntagwriter.domain.config.SdmConfiguration;
+import ntagwriter.infrastructure.persistence.JsonProfileStore;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.infrastructure.persistence.SharedLineCounters;
+import ntagwriter.infrastructure.persistence.ShiftStatisticsStore;
+import ntagwriter.infrastructure.ui.ConsoleUserInteraction;
+import ntagwriter.service.CompiledProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 실행 모드 러너들이 함께 쓰는 준비/보고 도우미 (프로필, 라인 카운터, 교대 통계, 미완료 태그)
+ */
+final class RunnerSupport {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+
+    private static final int UNFINISHED_REPORT_LIMIT = 20;
+    private static final Path SHIFT_REPORT_DIRECTORY = Paths.get("data", "shift-reports");
+
+    private RunnerSupport() {
+    }
+
+    /**
+     * JSON 프로필 열기 (파일 변경 시 핫 리로드)
+     * spec이 .json 경로면 그 파일을, null이면 기본 프로필 파일이 있을 때만 사용한다.
+     *
+     * @return 프로필 저장소, 내장 프로필을 써야 하면 null
+     */
+    static JsonProfileStore openProfileStore(String spec, ConsoleUserInteraction ui)
+            throws JsonProfileStore.ProfileException {
+        Path path;
+        if (spec == null) {
+            if (!Files.exists(JsonProfileStore.DEFAULT_PATH)) {
+                return null;
+            }
+            path = JsonProfileStore.DEFAULT_PATH;
+        } else if (spec.endsWith(".json")) {
+            path = Paths.get(spec);
+        } else {
+            return null;
+        }
+
+        JsonProfileStore store = new JsonProfileStore(path, new JsonProfileStore.ReloadListener() {
+            @Override
+            public void onReloaded(CompiledProfile profile) {
+                ui.showSuccess("프로필 다시 불러옴: " + profile);
+            }
+
+            @Override
+            public void onRejected(String reason) {
+                ui.showError("프로필 변경 거부 (이전 프로필 유지): " + reason);
+            }
+        });
+        try {
+            store.startWatching();
+        } catch (IOException e) {
+            ui.showWarning("프로필 파일 감시를 시작할 수 없습니다: " + e.getMessage());
+        }
+        return store;
+    }
+
+    /**
+     * 내장 프로필 (NtagDefaultConfig) 컴파일
+     *
+     * @return 프로필, 알 수 없는 이름이면 null
+     */
+    static Supplier<CompiledProfile> builtInProfile(String name) {
+        NtagDefaultConfig config = NtagDefaultConfig.WALKD_PRODUCTION;
+        if (name != null) {
+            try {
+                config = NtagDefaultConfig.valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        CompiledProfile compiled = CompiledProfile.compile(ProvisioningProfile.from(config));
+        return () -> compiled;
+    }
+
+    static Supplier<WorkflowContext> contextFactory(Supplier<CompiledProfile> profiles) {
+        return () -> new WorkflowContext(WorkflowMode.AUTOMATIC, sdmConfiguration(profiles.get()));
+    }
+
+    private static SdmConfiguration sdmConfiguration(CompiledProfile profile) {
+        return new SdmConfiguration.Builder()
+            .baseUrl(profile.getBaseUrl())
+            .picDataOffset(profile.getPiccDataOffset())
+            .sdmMacOffset(profile.getSdmMacOffset())
+            .build();
+    }
+
+    /**
+     * 라인 공유 카운터에 이 프로세스의 슬롯 열기 (실패해도 설정은 계속 - 모니터에만 안 보임)
+     *
+     * @return 카운터, 열 수 없으면 null
+     */
+    static SharedLineCounters openLineCounters(ConsoleUserInteraction ui) {
+        try {
+            return new SharedLineCounters(SharedLineCounters.DEFAULT_PATH);
+        } catch (IOException e) {
+            ui.showWarning("라인 카운터를 열 수 없습니다 - 모니터에 이 프로세스가 보이지 않습니다: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 교대 통계 열기 (이전 실행의 집계를 이어받고, 교대가 바뀌면 지난 교대 보고서를 파일로 남김)
+     */
+    static ShiftStatistics openShiftStatistics(ShiftStatisticsStore store, ConsoleUserInteraction ui) {
+        ShiftStatistics statistics = new ShiftStatistics(ShiftStatistics.DEFAULT_SHIFT_STARTS,
+            report -> writeShiftReport(report, ui));
+        try {
+            store.loadInto(statistics);
+        } catch (IOException e) {
+            ui.showWarning("이전 교대 통계를 읽지 못했습니다 - 새로 집계합니다: " + e.getMessage());
+        }
+        return statistics;
+    }
+
+    static void saveShiftStatistics(ShiftStatisticsStore store, ShiftStatistics statistics,
+                                    ConsoleUserInteraction ui) {
+        try {
+            store.save(statistics);
+        } catch (IOException e) {
+            ui.showError("교대 통계 저장 실패: " + e.getMessage());
+        }
+    }
+
+    static void printShiftReport(ConsoleUserInteraction ui, ShiftStatistics.Report report) {
+        ui.showSection("교대 보고서");
+        for (String line : ShiftReportFormatter.format(report)) {
+            ui.showInfo(line);
+        }
+    }
+
+    /**
+     * 교대 마감 보고서 파일 (data/shift-reports/2026-10-18_1400.txt)
+     */
+    private static void writeShiftReport(ShiftStatistics.Report report, ConsoleUserInteraction ui) {
+        Path file = SHIFT_REPORT_DIRECTORY.resolve(report.shift.replace(" ", "_").replace(":", "") + ".txt");
+        try {
+            Files.createDirectories(SHIFT_REPORT_DIRECTORY);
+            Files.write(file, ShiftReportFormatter.format(report));
+        } catch (IOException e) {
+            ui.showError("교대 보고서 저장 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 이전 실행이 끝내지 못한 태그 표시 (정전/강제 종료 시 반쯤 설정되었을 수 있음 - 다시 태깅하면 이어서 진행)
+     */
+    static void reportUnfinishedTags(ProvisioningJournal journal, ConsoleUserInteraction ui) {
+        List<ProvisioningJournal.Entry> unfinished = journal.inProgress();
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        ui.showWarning("완료되지 않은 태그 " + unfinished.size() + "개 (다시 태깅하면 이어서 진행합니다):");
+        for (ProvisioningJournal.Entry entry : unfinished.subList(0, Math.min(unfinished.size(), UNFINISHED_REPORT_LIMIT))) {
+            ui.showWarning(String.format("  %s  마지막 상태: %s  키 슬롯: %s  (%s)", entry.uid(),
+                entry.lastState().map(state -> state.description).orElse("시작"),
+                keySlotSummary(entry), entry.lastActivity()));
+        }
+        if (unfinished.size() > UNFINISHED_REPORT_LIMIT) {
+            ui.showWarning("  ... 외 " + (unfinished.size() - UNFINISHED_REPORT_LIMIT) + "개");
+        }
+    }
+
+    private static String keySlotSummary(ProvisioningJournal.Entry entry) {
+        StringBuilder summary = new StringBuilder();
+        for (int keyNo = 0; keyNo < entry.keyCount(); keyNo++) {
+            summary.append(switch (entry.keySlot(keyNo)) {
+                case FACTORY -> '-';
+                case PENDING -> '?';
+                case CHANGED -> '+';
+            });
+        }
+        return summary.toString();
+    }
+}
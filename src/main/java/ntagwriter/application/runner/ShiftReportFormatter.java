@@ -0,0 +1,70 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.application.workflow.LatencySketch;
+import ntagwriter.application.workflow.ShiftStatistics;
+import ntagwriter.reader.ApduStatusWord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 교대 보고서 텍스트 (콘솔 출력과 교대 마감 파일이 같은 형식을 쓴다)
+ */
+final class ShiftReportFormatter {
+
+    private static final double[] QUANTILES = {0.50, 0.95, 0.99};
+
+    private ShiftReportFormatter() {
+    }
+
+    static List<String> format(ShiftStatistics.Report report) {
+        List<String> lines = new ArrayList<>();
+        ShiftStatistics.Aggregate total = report.total;
+        lines.add("교대 " + report.shift + " 보고서");
+        lines.add(summary("전체", total));
+        if (total.processed() == 0) {
+            return lines;
+        }
+
+        if (!total.failuresByStatusWord().isEmpty()) {
+            lines.add("");
+            lines.add("실패 분류 (마지막 상태 워드):");
+            for (Map.Entry<Integer, Long> failure : total.failuresByStatusWord().entrySet()) {
+                int statusWord = failure.getKey();
+                lines.add(String.format("  %5d  %s", failure.getValue(), statusWord == ShiftStatistics.NO_STATUS_WORD
+                    ? "상태 워드 없음 (시간 초과/검증 실패 등)"
+                    : String.format("%04X %s", statusWord, ApduStatusWord.describe(statusWord))));
+            }
+        }
+
+        lines.add("");
+        lines.add("리더기별:");
+        report.byReader.forEach((reader, aggregate) -> lines.add("  " + summary(reader, aggregate)));
+        lines.add("프로필별:");
+        report.byProfile.forEach((profile, aggregate) -> lines.add("  " + summary(profile, aggregate)));
+
+        lines.add("");
+        List<String> steps = total.stepNames();
+        int nameWidth = "단계".length();
+        for (String step : steps) {
+            nameWidth = Math.max(nameWidth, step.length());
+        }
+        lines.add(String.format("%-" + nameWidth + "s %8s %10s %10s %10s", "단계", "n", "p50 ms", "p95 ms", "p99 ms"));
+        for (String step : steps) {
+            LatencySketch sketch = total.stepLatency(step);
+            StringBuilder line = new StringBuilder(String.format("%-" + nameWidth + "s %8d", step, sketch.count()));
+            for (double quantile : QUANTILES) {
+                line.append(String.format(" %10.1f", sketch.quantileNanos(quantile) / 1_000_000.0));
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    private static String summary(String label, ShiftStatistics.Aggregate aggregate) {
+        return String.format("%s: 처리 %d개 (성공 %d, 건너뜀 %d, 실패 %d), 수율 %.2f%%", label,
+            aggregate.processed(), aggregate.succeeded(), aggregate.skipped(), aggregate.failed(),
+            aggregate.yield() * 100);
+    }
+}
@@ -0,0 +1,138 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.application.workflow.ShiftStatistics;
+import ntagwriter.application.workflow.StationSupervisor;
+import ntagwriter.application.workflow.StepDeadlines;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.ProvisioningLedgerPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.infrastructure.nfc.reader.IdentivNfcReader;
+import ntagwriter.infrastructure.persistence.JsonProfileStore;
+import ntagwriter.infrastructure.persistence.KeyEscrowStore;
+import ntagwriter.infrastructure.persistence.PartitionedProvisioningLedger;
+import ntagwriter.infrastructure.persistence.ProvisionedUidRegistry;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.infrastructure.persistence.SharedLineCounters;
+import ntagwriter.infrastructure.persistence.ShiftStatisticsStore;
+import ntagwriter.infrastructure.persistence.SqliteProvisioningLedger;
+import ntagwriter.infrastructure.ui.ConsoleUserInteraction;
+import ntagwriter.service.CompiledProfile;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static ntagwriter.application.runner.RunnerSupport.builtInProfile;
+import static ntagwriter.application.runner.RunnerSupport.contextFactory;
+import static ntagwriter.application.runner.RunnerSupport.openLineCounters;
+import static ntagwriter.application.runner.RunnerSupport.openProfileStore;
+import static ntagwriter.application.runner.RunnerSupport.openShiftStatistics;
+import static ntagwriter.application.runner.RunnerSupport.printShiftReport;
+import static ntagwriter.application.runner.RunnerSupport.reportUnfinishedTags;
+import static ntagwriter.application.runner.RunnerSupport.saveShiftStatistics;
+
+/**
+ * NTAG424 자동 설정 모드 (프로덕션)
+ * 연결된 리더기마다 스테이션을 띄워 연속 설정하고, 처리량/단계별 지연을 대시보드로 제자리 갱신한다.
+ * 리더기가 뽑히거나 오류를 내면 그 리더기만 재시작하고, 다시 꽂히면 자동으로 이어서 쓴다.
+ */
+public final class StationRunner {
+
+    // 종료 시 진행 중인 태그를 기다리는 시간 (태그별 기한보다 약간 길게)
+    private static final Duration STATION_DRAIN_TIMEOUT = StepDeadlines.DEFAULT_TAG_TIMEOUT.plusSeconds(5);
+
+    private StationRunner() {
+    }
+
+    public static void run() {
+        ConsoleUserInteraction ui = new ConsoleUserInteraction();
+        try (JsonProfileStore store = openProfileStore(null, ui)) {
+            Supplier<CompiledProfile> profiles = store != null ? store : builtInProfile(null);
+            ui.showInfo("프로필: " + profiles.get());
+            runStations(profiles, ui);
+        } catch (JsonProfileStore.ProfileException e) {
+            ui.showError(e.getMessage());
+        }
+    }
+
+    /**
+     * 다중 리더기 스테이션 실행 (Enter 또는 종료 신호 시 진행 중인 태그를 마치고 종료)
+     */
+    private static void runStations(Supplier<CompiledProfile> profiles, ConsoleUserInteraction ui) {
+        // 저널 파일은 하나이므로 모든 스테이션이 같은 인스턴스를 공유
+        KeyEscrowStore escrow;
+        try {
+            escrow = new KeyEscrowStore(KeyEscrowStore.DEFAULT_PATH, KeyEscrowStore.masterKeyFromEnvironment());
+        } catch (KeyEscrowPort.EscrowException e) {
+            ui.showError(e.getMessage());
+            return;
+        }
+        PartitionedProvisioningLedger ledger;
+        try {
+            ledger = new PartitionedProvisioningLedger(PartitionedProvisioningLedger.DEFAULT_DIRECTORY,
+                SqliteProvisioningLedger.DEFAULT_PATH, PartitionedProvisioningLedger.DEFAULT_MAX_RECORDS, ui::showError);
+        } catch (ProvisioningLedgerPort.LedgerException e) {
+            escrow.close();
+            ui.showError(e.getMessage());
+            return;
+        }
+        ProvisionedUidRegistry registry;
+        try {
+            registry = new ProvisionedUidRegistry(ProvisionedUidRegistry.DEFAULT_PATH, ledger, ui::showError);
+        } catch (UidRegistryPort.RegistryException e) {
+            ledger.close();
+            escrow.close();
+            ui.showError(e.getMessage());
+            return;
+        }
+        ProvisioningJournal journal = new ProvisioningJournal(ProvisioningJournal.DEFAULT_PATH, escrow);
+        reportUnfinishedTags(journal, ui);
+        ShiftStatisticsStore statisticsStore = new ShiftStatisticsStore(ShiftStatisticsStore.DEFAULT_PATH);
+        ShiftStatistics shiftStatistics = openShiftStatistics(statisticsStore, ui);
+        SharedLineCounters lineCounters = openLineCounters(ui);
+        StationSupervisor supervisor = new StationSupervisor(IdentivNfcReader::discoverReaderNames,
+            (readerName, metrics) -> new ProvisioningStation(new IdentivNfcReader(readerName), metrics, profiles,
+                null, journal, escrow, registry, ui, contextFactory(profiles), ledger, shiftStatistics, lineCounters,
+                (result, skipped) -> {
+                    if (!result.success && result.finalTag != null) {
+                        ui.showError(readerName + ": " + result.finalTag.uidAsHex() + " 설정 실패 ("
+                            + result.finalState.description + "): " + result.errorMessage);
+                    }
+                }),
+            ui);
+
+        Thread shutdownHook = new Thread(() -> supervisor.shutdown(STATION_DRAIN_TIMEOUT), "station-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        ui.showInfo("연결된 리더기마다 스테이션을 실행합니다. Enter를 누르면 진행 중인 태그를 마치고 종료합니다.");
+        ui.showInfo("r + Enter: 현재 교대 보고서");
+        supervisor.start();
+        ui.startDashboard(supervisor::metrics, ConsoleUserInteraction.DEFAULT_DASHBOARD_REFRESH_MS);
+        try {
+            String command;
+            while ((command = ui.awaitLine()) != null && !command.isEmpty()) {
+                if (command.equalsIgnoreCase("r")) {
+                    ui.stopDashboard();
+                    printShiftReport(ui, shiftStatistics.currentReport());
+                    ui.showInfo("Enter를 누르면 대시보드로 돌아갑니다.");
+                    ui.awaitEnter();
+                    ui.startDashboard(supervisor::metrics, ConsoleUserInteraction.DEFAULT_DASHBOARD_REFRESH_MS);
+                }
+            }
+        } finally {
+            supervisor.shutdown(STATION_DRAIN_TIMEOUT);
+            if (lineCounters != null) {
+                lineCounters.close();
+            }
+            saveShiftStatistics(statisticsStore, shiftStatistics, ui);
+            journal.close();
+            registry.close();
+            ledger.close();
+            escrow.close();
+            ui.stopDashboard();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException ignored) {
+                // 이미 JVM 종료 중
+            }
+        }
+    }
+}
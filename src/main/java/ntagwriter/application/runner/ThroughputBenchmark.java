@@ -0,0 +1,290 @@
+package ntagwriter.application.runner;
+
+import ntagwriter.application.handler.ProvisioningHandlers;
+import ntagwriter.application.workflow.BatchProvisioningRunner;
+import ntagwriter.application.workflow.BatchStatistics;
+import ntagwriter.application.workflow.DefaultSetupWorkflow;
+import ntagwriter.application.workflow.StepDeadlines;
+import ntagwriter.application.workflow.ThroughputMetrics;
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.infrastructure.nfc.emulator.EmulatedNfcReader;
+import ntagwriter.infrastructure.nfc.reader.ReaderPortStrategy;
+import ntagwriter.infrastructure.persistence.KeyEscrowStore;
+import ntagwriter.infrastructure.persistence.ProvisionedUidRegistry;
+import ntagwriter.infrastructure.persistence.ProvisioningJournal;
+import ntagwriter.infrastructure.ui.SilentUserInteraction;
+import ntagwriter.service.CompiledProfile;
+import ntagwriter.service.NfcReaderService;
+import ntagwriter.service.ProvisioningMaterialPipeline;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * 에뮬레이터 기반 전체 속도 처리량 벤치마크
+ * 프로덕션과 같은 핸들러 체인(감지 → 상태 확인 → EV2 인증 → ChangeFileSettings → NDEF → ChangeKey → 검증)을
+ * 프로세스 내 NTAG424 에뮬레이터 위에서 리더기 M대로 동시에 돌려 호스트 측 오버헤드만 잰다.
+ *
+ * 리더기(스테이션)마다 워크플로우/자료 파이프라인을 따로 두고 진행 저널/키 에스크로/UID 등록부는 공유하므로
+ * 실제 다중 리더기 구성과 같은 경합과 그룹 커밋이 생긴다 (저널/에스크로는 임시 디렉터리에 기록, 에스크로는 임시 마스터 키).
+ * CPU는 프로세스 전체(GC/JIT 포함), 할당은 전체 스레드 합계이며, 에뮬레이터 몫을 뺀 값을 호스트 비용으로 본다.
+ */
+final class ThroughputBenchmark implements AutoCloseable {
+
+    private final Supplier<CompiledProfile> profiles;
+    private final Supplier<WorkflowContext> contextFactory;
+    private final Path journalDirectory;
+    private final ProvisioningJournal journal;
+    private final KeyEscrowStore escrow;
+    private final ProvisionedUidRegistry registry;
+    private final List<Station> stations = new ArrayList<>();
+    private final ExecutorService executor;
+
+    /**
+     * @param profiles       설정 프로필
+     * @param contextFactory 태그마다 새 워크플로우 컨텍스트
+     * @param readerCount    가상 리더기 수
+     */
+    ThroughputBenchmark(Supplier<CompiledProfile> profiles, Supplier<WorkflowContext> contextFactory,
+                        int readerCount)
+            throws IOException, KeyEscrowPort.EscrowException, UidRegistryPort.RegistryException {
+        this.profiles = profiles;
+        this.contextFactory = contextFactory;
+        this.journalDirectory = Files.createTempDirectory("ntag-benchmark");
+        byte[] masterKey = new byte[16];
+        new SecureRandom().nextBytes(masterKey);
+        this.escrow = new KeyEscrowStore(journalDirectory.resolve("key-escrow.log"), masterKey);
+        this.journal = new ProvisioningJournal(journalDirectory.resolve("provisioning-journal.bin"), escrow);
+        this.registry = new ProvisionedUidRegistry(journalDirectory.resolve("provisioned-uids.snapshot"), null,
+            message -> { });
+        for (int i = 0; i < readerCount; i++) {
+            stations.add(new Station(i));
+        }
+        this.executor = Executors.newFixedThreadPool(readerCount, runnable -> {
+            Thread thread = new Thread(runnable, "benchmark-station");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 실시간 대시보드용 리더기별 지표
+     */
+    List<ThroughputMetrics> metrics() {
+        return stations.stream().map(station -> station.metrics).toList();
+    }
+
+    /**
+     * 태그를 리더기들에 나눠 올리고 모두 소진될 때까지 실행
+     *
+     * @param tagCount 설정할 태그 수
+     * @return 측정 결과
+     */
+    Result run(int tagCount) throws NfcReaderPort.ReaderException {
+        BatchStatistics statistics = new BatchStatistics();
+        long emulatorCpuStart = emulatorCpuNanos();
+        long emulatorAllocatedStart = emulatorAllocatedBytes();
+        long exchangesStart = exchanges();
+        long cpuStart = processCpuNanos();
+        long allocatedStart = totalAllocatedBytes();
+        long startNanos = System.nanoTime();
+
+        List<Future<BatchStatistics>> futures = new ArrayList<>();
+        for (int i = 0; i < stations.size(); i++) {
+            Station station = stations.get(i);
+            // 나머지는 앞쪽 리더기부터 한 개씩 더 배정
+            station.reader.load(tagCount / stations.size() + (i < tagCount % stations.size() ? 1 : 0));
+            futures.add(executor.submit(() -> station.run(statistics)));
+        }
+        for (Future<BatchStatistics> future : futures) {
+            await(future);
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        statistics.finish();
+        return new Result(statistics, elapsedNanos,
+            processCpuNanos() - cpuStart,
+            totalAllocatedBytes() - allocatedStart,
+            emulatorCpuNanos() - emulatorCpuStart,
+            emulatorAllocatedBytes() - emulatorAllocatedStart,
+            exchanges() - exchangesStart);
+    }
+
+    private static void await(Future<BatchStatistics> future) throws NfcReaderPort.ReaderException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NfcReaderPort.ReaderException("벤치마크가 중단되었습니다");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NfcReaderPort.ReaderException readerException) {
+                throw readerException;
+            }
+            throw new IllegalStateException("벤치마크 스테이션 오류", e.getCause());
+        }
+    }
+
+    private long emulatorCpuNanos() {
+        return stations.stream().mapToLong(station -> station.reader.emulatorCpuNanos()).sum();
+    }
+
+    private long emulatorAllocatedBytes() {
+        return stations.stream().mapToLong(station -> station.reader.emulatorAllocatedBytes()).sum();
+    }
+
+    private long exchanges() {
+        return stations.stream().mapToLong(station -> station.reader.exchanges()).sum();
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return Math.max(0, os.getProcessCpuTime());
+        }
+        return 0;
+    }
+
+    private static long totalAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return Math.max(0, threads.getTotalThreadAllocatedBytes());
+        }
+        return 0;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (Station station : stations) {
+            station.close();
+        }
+        journal.close();
+        registry.close();
+        escrow.close();
+        try (var files = Files.list(journalDirectory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(journalDirectory);
+        } catch (IOException ignored) {
+            // 임시 디렉터리는 OS가 정리
+        }
+    }
+
+    /**
+     * 가상 리더기 한 대 = runProvisioning과 같은 구성의 독립 스테이션
+     */
+    private final class Station implements AutoCloseable {
+
+        private final EmulatedNfcReader reader;
+        private final ThroughputMetrics metrics;
+        private final NfcReaderService readerService;
+        private final ProvisioningMaterialPipeline pipeline;
+        private final BatchProvisioningRunner runner;
+
+        private Station(int index) {
+            UserInteractionPort ui = new SilentUserInteraction();
+            this.reader = new EmulatedNfcReader(index);
+            this.metrics = new ThroughputMetrics(reader.getReaderName());
+            this.readerService = new NfcReaderService(new ReaderPortStrategy(reader, metrics::recordErrorStatusWord));
+            this.pipeline = new ProvisioningMaterialPipeline(profiles, null, ProvisioningMaterialPipeline.DEFAULT_DEPTH);
+            DefaultSetupWorkflow workflow = new DefaultSetupWorkflow(
+                ProvisioningHandlers.create(reader, ui, readerService, profiles, journal, pipeline, escrow, registry),
+                ui, StepDeadlines.DEFAULT, reader::abortExchange);
+            this.runner = new BatchProvisioningRunner(workflow, reader, ui, () -> {
+                WorkflowContext context = contextFactory.get();
+                context.setTransitionListener(journal::recordTransition);
+                return context;
+            });
+        }
+
+        private BatchStatistics run(BatchStatistics shared) throws NfcReaderPort.ReaderException {
+            return runner.run(0, (result, skipped) -> {
+                metrics.record(result, skipped);
+                synchronized (shared) {
+                    shared.record(result, skipped);
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            pipeline.close();
+            readerService.disconnect();
+            reader.disconnect();
+        }
+    }
+
+    /**
+     * 측정 구간 결과
+     */
+    static final class Result {
+
+        final BatchStatistics statistics;
+        final long elapsedNanos;
+        final long cpuNanos;
+        final long allocatedBytes;
+        final long emulatorCpuNanos;
+        final long emulatorAllocatedBytes;
+        final long exchanges;
+
+        private Result(BatchStatistics statistics, long elapsedNanos, long cpuNanos, long allocatedBytes,
+                       long emulatorCpuNanos, long emulatorAllocatedBytes, long exchanges) {
+            this.statistics = statistics;
+            this.elapsedNanos = elapsedNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.emulatorCpuNanos = emulatorCpuNanos;
+            this.emulatorAllocatedBytes = emulatorAllocatedBytes;
+            this.exchanges = exchanges;
+        }
+
+        double tagsPerSecond() {
+            return elapsedNanos > 0 ? statistics.processed() * 1_000_000_000.0 / elapsedNanos : 0.0;
+        }
+
+        /**
+         * 태그당 호스트 CPU (µs, 에뮬레이터 몫 제외)
+         */
+        double hostCpuMicrosPerTag() {
+            return perTag(cpuNanos - emulatorCpuNanos) / 1_000.0;
+        }
+
+        double totalCpuMicrosPerTag() {
+            return perTag(cpuNanos) / 1_000.0;
+        }
+
+        /**
+         * 태그당 호스트 할당 (KB, 에뮬레이터 몫 제외)
+         */
+        double hostAllocatedKilobytesPerTag() {
+            return perTag(allocatedBytes - emulatorAllocatedBytes) / 1_024.0;
+        }
+
+        double totalAllocatedKilobytesPerTag() {
+            return perTag(allocatedBytes) / 1_024.0;
+        }
+
+        double exchangesPerTag() {
+            return perTag(exchanges);
+        }
+
+        private double perTag(long total) {
+            int processed = statistics.processed();
+            return processed > 0 ? (double) Math.max(0, total) / processed : 0.0;
+        }
+    }
+}
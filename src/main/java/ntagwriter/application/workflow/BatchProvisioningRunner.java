@@ -0,0 +1,110 @@
+package ntagwriter.application.workflow;
+
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.UserInteractionPort;
+
+import java.util.function.Supplier;
+
+/**
+ * 여러 태그를 연속 설정하는 배치 실행기
+ * 태그마다 새 컨텍스트로 워크플로우를 실행하고, 태그 제거를 기다린 뒤 다음 태그로 넘어간다.
+ * 사용자 확인 없이 동작하므로 AUTOMATIC 모드 컨텍스트와 함께 사용한다.
+ *
+ * 종료 조건: 목표 수만큼 설정에 성공했거나, 감지 시간 안에 태그가 올라오지 않았거나, 중지가 요청된 경우
+ */
+public class BatchProvisioningRunner {
+
+    // 태그 제거 대기를 잘게 나눠 중지 요청에 빨리 반응
+    private static final long REMOVAL_POLL_MS = 500;
+
+    private final SetupWorkflow workflow;
+    private final NfcReaderPort readerPort;
+    private final UserInteractionPort uiPort;
+    private final Supplier<WorkflowContext> contextFactory;
+    private volatile boolean stopRequested;
+    private volatile WorkflowContext activeContext;
+
+    public BatchProvisioningRunner(SetupWorkflow workflow, NfcReaderPort readerPort,
+                                   UserInteractionPort uiPort, Supplier<WorkflowContext> contextFactory) {
+        this.workflow = workflow;
+        this.readerPort = readerPort;
+        this.uiPort = uiPort;
+        this.contextFactory = contextFactory;
+    }
+
+    /**
+     * 배치 실행
+     *
+     * @param targetCount 설정에 성공해야 할 태그 수 (0이면 태그가 끊길 때까지)
+     * @param onTag       태그마다 호출 (원장 기록 등), 건너뛴 태그 여부 포함
+     * @return 배치 통계
+     */
+    public BatchStatistics run(int targetCount, TagResultListener onTag) throws NfcReaderPort.ReaderException {
+        BatchStatistics statistics = new BatchStatistics();
+
+        while ((targetCount <= 0 || statistics.succeeded() < targetCount) && !stopRequested) {
+            WorkflowContext context = contextFactory.get();
+            activeContext = context;
+            WorkflowResult result;
+            try {
+                result = workflow.execute(context);
+            } finally {
+                activeContext = null;
+            }
+
+            if (result.finalTag == null) {
+                if (!stopRequested) {
+                    uiPort.showInfo("감지된 태그가 없어 배치를 종료합니다.");
+                }
+                break;
+            }
+
+            boolean skipped = Boolean.TRUE.equals(context.getAttribute(WorkflowContext.ATTR_SKIPPED, Boolean.class));
+            statistics.record(result, skipped);
+            onTag.onResult(result, skipped, context);
+
+            if ((targetCount > 0 && statistics.succeeded() >= targetCount) || stopRequested) {
+                break;
+            }
+            uiPort.showInfo("태그를 제거하고 다음 태그를 올려주세요.");
+            while (!stopRequested && !readerPort.waitForTagRemoval(REMOVAL_POLL_MS)) {
+                // 제거될 때까지 대기
+            }
+        }
+
+        statistics.finish();
+        return statistics;
+    }
+
+    /**
+     * 진행 중인 태그를 마친 뒤 배치를 끝내도록 요청 (다른 스레드에서 호출)
+     * 태그 제거 대기는 곧 끝나고, 새 태그 감지 대기는 호출자가 실행 스레드를 인터럽트해 끝낸다.
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * 감지된 태그를 처리하는 중이 아닌지 (태그 대기 중이거나 배치 밖)
+     * 중지 시 유휴 상태인 실행기만 인터럽트해 진행 중인 태그를 버리지 않기 위함.
+     */
+    public boolean isIdle() {
+        WorkflowContext context = activeContext;
+        return context == null || context.currentTag() == null;
+    }
+
+    /**
+     * 태그별 결과 통지
+     */
+    @FunctionalInterface
+    public interface TagResultListener {
+        void onResult(WorkflowResult result, boolean skipped);
+
+        /**
+         * 컨텍스트(프로필/저널 항목 등)까지 필요한 기록용 (기본은 결과만 전달)
+         */
+        default void onResult(WorkflowResult result, boolean skipped, WorkflowContext context) {
+            onResult(result, skipped);
+        }
+    }
+}
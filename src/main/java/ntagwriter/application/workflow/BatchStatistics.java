@@ -0,0 +1,129 @@
+package ntagwriter.application.workflow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 배치 실행 통계
+ * 태그 처리량(tags/min), 성공률, 단계별 소요 시간 백분위(p50/p95/p99)를 집계한다.
+ */
+public final class BatchStatistics {
+
+    private final Map<String, List<Long>> stepNanos = new LinkedHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private long endNanos;
+    private int succeeded;
+    private int skipped;
+    private int failed;
+
+    /**
+     * 태그 한 개의 실행 결과 반영
+     *
+     * @param result    워크플로우 결과
+     * @param skipTag   이미 설정되어 건너뛴 태그 여부
+     */
+    public void record(WorkflowResult result, boolean skipTag) {
+        for (WorkflowResult.StepResult step : result.stepResults) {
+            stepNanos.computeIfAbsent(step.stepName, name -> new ArrayList<>()).add(step.duration.toNanos());
+        }
+
+        if (!result.success) {
+            failed++;
+        } else if (skipTag) {
+            skipped++;
+        } else {
+            succeeded++;
+        }
+    }
+
+    /**
+     * 집계 종료 시각 기록
+     */
+    public void finish() {
+        this.endNanos = System.nanoTime();
+    }
+
+    public int processed() {
+        return succeeded + skipped + failed;
+    }
+
+    public int succeeded() {
+        return succeeded;
+    }
+
+    public int skipped() {
+        return skipped;
+    }
+
+    public int failed() {
+        return failed;
+    }
+
+    public double elapsedMinutes() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return (end - startNanos) / 60_000_000_000.0;
+    }
+
+    /**
+     * 분당 처리 태그 수 (건너뛴 태그 포함)
+     */
+    public double tagsPerMinute() {
+        double minutes = elapsedMinutes();
+        return minutes > 0 ? processed() / minutes : 0.0;
+    }
+
+    /**
+     * 성공률 (건너뛴 태그는 성공으로 집계)
+     */
+    public double successRate() {
+        int processed = processed();
+        return processed > 0 ? (double) (succeeded + skipped) / processed : 0.0;
+    }
+
+    public Set<String> stepNames() {
+        return Collections.unmodifiableSet(stepNanos.keySet());
+    }
+
+    public int sampleCount(String stepName) {
+        List<Long> samples = stepNanos.get(stepName);
+        return samples != null ? samples.size() : 0;
+    }
+
+    /**
+     * 단계 평균 소요 시간
+     *
+     * @return 나노초, 표본이 없으면 0
+     */
+    public long meanNanos(String stepName) {
+        List<Long> samples = stepNanos.get(stepName);
+        if (samples == null || samples.isEmpty()) {
+            return 0;
+        }
+        long total = 0;
+        for (long sample : samples) {
+            total += sample;
+        }
+        return total / samples.size();
+    }
+
+    /**
+     * 단계 소요 시간 백분위 (nearest-rank)
+     *
+     * @param stepName   단계 이름
+     * @param percentile 0~100
+     * @return 나노초, 표본이 없으면 0
+     */
+    public long percentileNanos(String stepName, double percentile) {
+        List<Long> samples = stepNanos.get(stepName);
+        if (samples == null || samples.isEmpty()) {
+            return 0;
+        }
+        long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(rank, sorted.length) - 1)];
+    }
+}
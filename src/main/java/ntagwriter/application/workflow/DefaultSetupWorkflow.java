@@ -0,0 +1,328 @@
+package ntagwriter.application.workflow;
+
+import ntagwriter.application.handler.StepHandler;
+import ntagwriter.domain.port.UserInteractionPort;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * StepHandler 체인 기반 워크플로우 엔진
+ * 현재 WorkflowState를 처리할 수 있는 핸들러를 찾아 실행하고, 단계마다 소요 시간을 기록한다.
+ *
+ * 상태 전환 규칙:
+ * - 핸들러는 등록 순서대로 검사하며, 현재 상태를 처리할 수 있고 실행 후 상태가 바뀌는 첫 핸들러를 선택한다.
+ * - 핸들러가 실행 중 직접 상태를 바꾸면(예: 이미 설정된 태그 → COMPLETED) 그 상태를 따르고,
+ *   그렇지 않으면 핸들러의 nextState()로 전환한다.
+ * - AUTOMATIC 모드는 사용자 입력을 기다리지 않는다.
+ *
+ * 기한과 취소:
+ * - 태그가 감지된 뒤의 단계는 교환 스레드에서 실행하고, 단계/태그 기한을 넘기면 기다리지 않고 실패 처리한다.
+ * - 멈춘 교환은 abortExchange(카드 리셋 해제)로 풀고, 교환 스레드는 버린 뒤 다음 단계에서 새로 만든다.
+ * - 교환 스레드의 핸들러는 컨텍스트 사본에서 실행하고 제때 끝난 경우에만 반영한다. 버린 핸들러는
+ *   카드 해제 후 잠깐 기다려 저널 기록을 마치게 하고, 그 뒤에 무엇을 하든 워크플로우 컨텍스트는 바뀌지 않는다.
+ * - 핸들러의 RuntimeException(예: 저널 UncheckedIOException)도 실패한 단계로 기록한다.
+ * - cancel()은 진행 중인 단계도 같은 방식으로 중단하며 최종 상태는 CANCELLED가 된다.
+ */
+public class DefaultSetupWorkflow implements SetupWorkflow {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    // 버린 핸들러가 카드 해제 후 스스로 끝나기를 기다리는 시간
+    private static final long ABANDON_GRACE_MS = 1_000;
+
+    // 카드 해제가 막혀도 워크플로우 스레드가 기다리지 않도록 별도 스레드에서 호출
+    private static final ExecutorService ABORTER = Executors.newCachedThreadPool(daemonThreads("exchange-abort"));
+
+    private final List<StepHandler> handlers;
+    private final UserInteractionPort uiPort;
+    private final StepDeadlines deadlines;
+    private final Runnable abortExchange;
+
+    private volatile WorkflowContext activeContext;
+    private volatile boolean cancelled;
+    private volatile Future<?> inFlight;
+    private ExecutorService exchangeExecutor;
+    private WorkflowResult lastResult;
+
+    public DefaultSetupWorkflow(List<StepHandler> handlers, UserInteractionPort uiPort) {
+        this(handlers, uiPort, StepDeadlines.NONE, () -> { });
+    }
+
+    /**
+     * @param handlers      단계 핸들러 (등록 순서대로 검사)
+     * @param uiPort        사용자 인터랙션 포트
+     * @param deadlines     태그 감지 이후 단계의 단계별/태그별 기한
+     * @param abortExchange 기한 초과/취소 시 진행 중인 교환을 풀고 카드를 해제하는 동작
+     */
+    public DefaultSetupWorkflow(List<StepHandler> handlers, UserInteractionPort uiPort,
+                                StepDeadlines deadlines, Runnable abortExchange) {
+        if (handlers == null || handlers.isEmpty()) {
+            throw new IllegalArgumentException("핸들러가 최소 하나 이상 필요합니다");
+        }
+        this.handlers = List.copyOf(handlers);
+        this.uiPort = uiPort;
+        this.deadlines = deadlines;
+        this.abortExchange = abortExchange;
+    }
+
+    @Override
+    public WorkflowResult execute(WorkflowContext context) {
+        this.activeContext = context;
+        this.cancelled = false;
+
+        WorkflowResult.Builder result = WorkflowResult.builder().startTime(LocalDateTime.now());
+        long tagStartNanos = 0;
+
+        try {
+            while (!context.currentState().isTerminal()) {
+                if (cancelled) {
+                    context.transitionTo(WorkflowState.CANCELLED);
+                    break;
+                }
+
+                // 태그별 기한은 태그가 감지된 시점부터
+                if (tagStartNanos == 0 && context.currentTag() != null) {
+                    tagStartNanos = System.nanoTime();
+                }
+                long budgetNanos = stepBudgetNanos(context, tagStartNanos);
+                if (budgetNanos <= 0) {
+                    abandonExchange();
+                    context.recordError("태그 처리 기한 초과 (" + deadlines.tagTimeout().toMillis() + " ms)");
+                    break;
+                }
+
+                WorkflowState fromState = context.currentState();
+                StepHandler handler = findHandler(fromState);
+                if (handler == null) {
+                    context.recordError("상태를 처리할 핸들러가 없습니다: " + fromState);
+                    break;
+                }
+
+                if (context.mode == WorkflowMode.INTERACTIVE
+                        && !uiPort.requestConfirmation(handler.name() + " 단계를 진행하시겠습니까?")) {
+                    context.transitionTo(WorkflowState.CANCELLED);
+                    break;
+                }
+
+                result.addStepResult(executeStep(handler, fromState, context, budgetNanos));
+
+                if (context.mode == WorkflowMode.STEP_BY_STEP && !context.currentState().isTerminal()) {
+                    uiPort.requestInput("다음 단계로 진행하려면 Enter", "");
+                }
+            }
+        } finally {
+            // 성공/실패/취소와 관계없이 태그가 끝나면 세션 키 폐기
+            context.endSession();
+        }
+
+        WorkflowState finalState = context.currentState();
+        this.lastResult = result
+            .success(finalState == WorkflowState.COMPLETED)
+            .finalTag(context.currentTag())
+            .finalState(finalState)
+            .endTime(LocalDateTime.now())
+            .errorMessage(context.lastError())
+            .build();
+        return lastResult;
+    }
+
+    /**
+     * 이번 단계에 쓸 수 있는 시간 (단계 기한과 남은 태그 기한 중 짧은 쪽)
+     *
+     * @return 나노초, 태그 감지 전이거나 기한이 없으면 NO_DEADLINE
+     */
+    private long stepBudgetNanos(WorkflowContext context, long tagStartNanos) {
+        if (context.currentTag() == null) {
+            return NO_DEADLINE;
+        }
+        long budget = deadlines.hasStepTimeout() ? deadlines.stepTimeout().toNanos() : NO_DEADLINE;
+        if (deadlines.hasTagTimeout()) {
+            long remaining = tagStartNanos + deadlines.tagTimeout().toNanos() - System.nanoTime();
+            budget = Math.min(budget, remaining);
+        }
+        return budget;
+    }
+
+    /**
+     * 단계 실행 및 고해상도 소요 시간 측정 (System.nanoTime)
+     */
+    private WorkflowResult.StepResult executeStep(StepHandler handler, WorkflowState fromState,
+                                                  WorkflowContext context, long budgetNanos) {
+        long startNanos = System.nanoTime();
+        try {
+            if (budgetNanos == NO_DEADLINE) {
+                handler.execute(context);
+            } else {
+                executeWithDeadline(handler, context, budgetNanos);
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+            if (context.currentState() == fromState) {
+                context.transitionTo(handler.nextState());
+            }
+            return new WorkflowResult.StepResult(handler.name(), true, elapsed,
+                context.currentState().description);
+
+        } catch (StepHandler.StepExecutionException e) {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+            String message = e.getCause() != null
+                ? e.getMessage() + ": " + e.getCause().getMessage()
+                : e.getMessage();
+            context.recordError(message);
+            if (cancelled) {
+                context.transitionTo(WorkflowState.CANCELLED);
+            }
+            return new WorkflowResult.StepResult(handler.name(), false, elapsed, message);
+
+        } catch (RuntimeException e) {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+            String message = handler.name() + " 실패: " + e;
+            context.recordError(message);
+            return new WorkflowResult.StepResult(handler.name(), false, elapsed, message);
+        }
+    }
+
+    /**
+     * 교환 스레드에서 컨텍스트 사본으로 단계를 실행하고 기한까지만 기다린다.
+     * 제때 끝나면(실패 포함) 사본을 반영하고, 기한을 넘기거나 취소되면 교환과 사본을 버리고 실패로 처리한다.
+     */
+    private void executeWithDeadline(StepHandler handler, WorkflowContext context, long budgetNanos)
+            throws StepHandler.StepExecutionException {
+        WorkflowContext fork = context.fork();
+        CountDownLatch finished = new CountDownLatch(1);
+        Future<?> future = exchangeExecutor().submit(() -> {
+            try {
+                handler.execute(fork);
+                return null;
+            } finally {
+                finished.countDown();
+            }
+        });
+        inFlight = future;
+
+        try {
+            future.get(budgetNanos, TimeUnit.NANOSECONDS);
+            context.adopt(fork);
+
+        } catch (TimeoutException e) {
+            abandonHandler(fork, finished);
+            throw new StepHandler.StepExecutionException(
+                handler.name() + " 기한 초과 (" + TimeUnit.NANOSECONDS.toMillis(budgetNanos) + " ms)");
+        } catch (CancellationException e) {
+            abandonHandler(fork, finished);
+            throw new StepHandler.StepExecutionException(handler.name() + " 취소됨");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandonHandler(fork, finished);
+            throw new StepHandler.StepExecutionException(handler.name() + " 중단됨");
+        } catch (ExecutionException e) {
+            context.adopt(fork);
+            Throwable cause = e.getCause();
+            if (cause instanceof StepHandler.StepExecutionException stepException) {
+                throw stepException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new StepHandler.StepExecutionException(handler.name() + " 실패", cause);
+        } finally {
+            inFlight = null;
+        }
+    }
+
+    private ExecutorService exchangeExecutor() {
+        if (exchangeExecutor == null) {
+            exchangeExecutor = Executors.newSingleThreadExecutor(daemonThreads("tag-exchange"));
+        }
+        return exchangeExecutor;
+    }
+
+    /**
+     * 기한을 넘긴 핸들러 포기: 교환을 풀고 핸들러가 끝나기를 잠깐 기다린 뒤 사본을 버린다.
+     * 사본에서 새로 연 세션 키는 여기서 폐기한다 (아직 실행 중이면 이후 암호 연산이 실패해 스스로 끝난다).
+     */
+    private void abandonHandler(WorkflowContext fork, CountDownLatch finished) {
+        abandonExchange();
+        try {
+            finished.await(ABANDON_GRACE_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        fork.endSession();
+    }
+
+    /**
+     * 진행 중인 교환 포기: 교환 스레드를 인터럽트해 버리고 카드 해제는 별도 스레드에 맡긴다.
+     */
+    private void abandonExchange() {
+        if (exchangeExecutor != null) {
+            exchangeExecutor.shutdownNow();
+            exchangeExecutor = null;
+        }
+        ABORTER.execute(abortExchange);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private StepHandler findHandler(WorkflowState state) {
+        for (StepHandler handler : handlers) {
+            if (handler.canHandle(state) && handler.nextState() != state) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public WorkflowState currentState() {
+        WorkflowContext context = activeContext;
+        return context != null ? context.currentState() : WorkflowState.INITIALIZED;
+    }
+
+    /**
+     * 워크플로우 중단
+     * 단계 사이에서는 다음 단계로 넘어가지 않고, 기한이 적용된 단계가 진행 중이면 그 교환도 중단한다.
+     */
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+        Future<?> future = inFlight;
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    @Override
+    public void restart(WorkflowContext context) {
+        context.clearError();
+        context.transitionTo(WorkflowState.INITIALIZED);
+        execute(context);
+    }
+
+    /**
+     * 마지막 실행 결과 (restart 이후 조회용)
+     */
+    public WorkflowResult lastResult() {
+        return lastResult;
+    }
+}
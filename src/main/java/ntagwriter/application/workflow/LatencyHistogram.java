@@ -0,0 +1,74 @@
+package ntagwriter.application.workflow;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 락 없는 지연 시간 히스토그램
+ * 100µs부터 1.25배 간격의 로그 버킷(약 60초까지)에 카운트만 누적하므로
+ * 기록은 원자적 증가 한 번이고, 백분위는 버킷 상한으로 근사한다 (상대 오차 25% 이내).
+ */
+public final class LatencyHistogram {
+
+    private static final double MIN_MICROS = 100.0;
+    private static final double GROWTH = 1.25;
+    private static final int BUCKETS = 60;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * @param nanos 소요 시간 (나노초)
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+    }
+
+    private static int bucketOf(long nanos) {
+        double micros = nanos / 1_000.0;
+        if (micros <= MIN_MICROS) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log(micros / MIN_MICROS) / LOG_GROWTH);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long upperBoundNanos(int bucket) {
+        return (long) (MIN_MICROS * Math.pow(GROWTH, bucket) * 1_000);
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * 백분위 근사값
+     *
+     * @param percentile 0~100
+     * @return 나노초 (해당 버킷 상한), 표본이 없으면 0
+     */
+    public long percentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += snapshot[i];
+            if (cumulative >= rank) {
+                return upperBoundNanos(i);
+            }
+        }
+        return upperBoundNanos(BUCKETS - 1);
+    }
+}
@@ -0,0 +1,132 @@
+package ntagwriter.application.workflow;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 병합 가능한 지연 시간 분위수 스케치 (DDSketch 방식)
+ * 값을 고정된 로그 버킷(γ = 1.02)에 세기만 하므로 분위수의 상대 오차가 1% 이내이고,
+ * 같은 버킷 경계를 쓰는 스케치끼리는 카운트를 더하는 것만으로 정확히 병합된다 (리더기/스테이션/교대 간).
+ * 1µs ~ 10분 범위를 버킷 약 1000개로 덮는다. 범위 밖의 값은 양 끝 버킷에 넣는다.
+ *
+ * 동기화하지 않는다 - 호출하는 쪽이 잠근다. 실시간 대시보드용 락 없는 기록은 {@link LatencyHistogram}을 쓴다.
+ */
+public final class LatencySketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final long MIN_NANOS = 1_000;
+    private static final long MAX_NANOS = 600_000_000_000L;
+    private static final int MIN_INDEX = index(MIN_NANOS);
+    private static final int BUCKETS = index(MAX_NANOS) - MIN_INDEX + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long minNanos = Long.MAX_VALUE;
+    private long maxNanos;
+
+    /**
+     * @param nanos 소요 시간 (나노초)
+     */
+    public void record(long nanos) {
+        counts[bucketOf(nanos)]++;
+        count++;
+        minNanos = Math.min(minNanos, nanos);
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    /**
+     * 다른 스케치의 표본을 이 스케치에 더함
+     */
+    public void merge(LatencySketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        minNanos = Math.min(minNanos, other.minNanos);
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    public LatencySketch copy() {
+        LatencySketch copy = new LatencySketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * 분위수 근사값 (상대 오차 1% 이내, 최소/최대로 제한)
+     *
+     * @param quantile 0~1
+     * @return 나노초, 표본이 없으면 0
+     */
+    public long quantileNanos(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                long estimate = (long) (2 * Math.pow(GAMMA, i + MIN_INDEX) / (GAMMA + 1));
+                return Math.max(minNanos, Math.min(maxNanos, estimate));
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * 비어 있지 않은 버킷만 기록 (교대 통계 저장용)
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int used = 0;
+        for (long bucketCount : counts) {
+            if (bucketCount != 0) {
+                used++;
+            }
+        }
+        out.writeLong(minNanos);
+        out.writeLong(maxNanos);
+        out.writeShort(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    public static LatencySketch readFrom(DataInput in) throws IOException {
+        LatencySketch sketch = new LatencySketch();
+        sketch.minNanos = in.readLong();
+        sketch.maxNanos = in.readLong();
+        int used = in.readUnsignedShort();
+        for (int i = 0; i < used; i++) {
+            int bucket = in.readUnsignedShort();
+            long bucketCount = in.readLong();
+            if (bucket >= BUCKETS || bucketCount < 0) {
+                throw new IOException("지연 스케치 형식 오류");
+            }
+            sketch.counts[bucket] += bucketCount;
+            sketch.count += bucketCount;
+        }
+        return sketch;
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos <= MIN_NANOS) {
+            return 0;
+        }
+        return Math.min(index(nanos) - MIN_INDEX, BUCKETS - 1);
+    }
+
+    private static int index(long nanos) {
+        return (int) Math.ceil(Math.log(nanos) / LOG_GAMMA);
+    }
+}
@@ -0,0 +1,348 @@
+package ntagwriter.application.workflow;
+
+import ntagwriter.domain.ProvisioningRecord;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * 교대별 누적 통계 (교대 × 리더기 × 프로필)
+ * 태그 한 개가 끝날 때마다 원장 기록으로 집계를 갱신하므로, 보고서는 원장을 다시 읽지 않고 집계를 합치기만 한다.
+ *
+ * - 수율: 성공/건너뜀/실패 수
+ * - 실패 분류: 실패 태그가 마지막으로 받은 상태 워드별 수 (상태 워드 없이 실패하면 {@link #NO_STATUS_WORD})
+ * - 지연: 단계별, 태그 전체 {@link LatencySketch} (병합 가능)
+ *
+ * 새 교대의 첫 태그가 들어오면 이전 교대 보고서를 알림으로 넘긴다. 최근 {@link #RETAINED_SHIFTS}개 교대만 보관한다.
+ */
+public final class ShiftStatistics {
+
+    public static final List<LocalTime> DEFAULT_SHIFT_STARTS =
+        List.of(LocalTime.of(6, 0), LocalTime.of(14, 0), LocalTime.of(22, 0));
+    public static final int NO_STATUS_WORD = 0;
+    public static final String TAG_TOTAL = "태그 전체";
+
+    private static final int RETAINED_SHIFTS = 6;
+    private static final int MAGIC = 0x4E545331; // "NTS1"
+    private static final String UNKNOWN = "-";
+    private static final DateTimeFormatter SHIFT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final List<LocalTime> shiftStarts;
+    private final Consumer<Report> onShiftClosed;
+    private final Map<GroupKey, Aggregate> groups = new HashMap<>();
+    private final TreeSet<String> shifts = new TreeSet<>();
+    private String currentShift;
+
+    /**
+     * @param shiftStarts   교대 시작 시각 (하루 안, 순서 무관)
+     * @param onShiftClosed 교대가 바뀔 때 지난 교대 보고서 (기록 스레드에서 호출)
+     */
+    public ShiftStatistics(List<LocalTime> shiftStarts, Consumer<Report> onShiftClosed) {
+        if (shiftStarts.isEmpty()) {
+            throw new IllegalArgumentException("교대 시작 시각이 없습니다");
+        }
+        List<LocalTime> sorted = new ArrayList<>(shiftStarts);
+        Collections.sort(sorted);
+        this.shiftStarts = List.copyOf(sorted);
+        this.onShiftClosed = onShiftClosed;
+    }
+
+    /**
+     * 태그 한 개의 결과 반영
+     */
+    public void record(ProvisioningRecord record) {
+        String shift = shiftOf(record.recordedAt);
+        Report closed = null;
+        synchronized (this) {
+            if (currentShift == null || shift.compareTo(currentShift) > 0) {
+                if (currentShift != null) {
+                    closed = reportLocked(currentShift);
+                }
+                currentShift = shift;
+            }
+            shifts.add(shift);
+            groups.computeIfAbsent(new GroupKey(shift, nonNull(record.readerName), nonNull(record.profileName)),
+                key -> new Aggregate()).add(record);
+            evictOldShifts();
+        }
+        if (closed != null) {
+            onShiftClosed.accept(closed);
+        }
+    }
+
+    /**
+     * 시각이 속한 교대 (교대 시작 일시, "yyyy-MM-dd HH:mm" - 문자열 순서가 시간 순서)
+     */
+    public String shiftOf(LocalDateTime time) {
+        LocalTime clock = time.toLocalTime();
+        for (int i = shiftStarts.size() - 1; i >= 0; i--) {
+            if (!clock.isBefore(shiftStarts.get(i))) {
+                return time.toLocalDate().atTime(shiftStarts.get(i)).format(SHIFT_FORMAT);
+            }
+        }
+        // 첫 교대 시작 전이면 전날 마지막 교대
+        return time.toLocalDate().minusDays(1).atTime(shiftStarts.get(shiftStarts.size() - 1)).format(SHIFT_FORMAT);
+    }
+
+    /**
+     * 현재 교대 보고서 (기록이 없으면 빈 보고서)
+     */
+    public synchronized Report currentReport() {
+        return reportLocked(currentShift != null ? currentShift : shiftOf(LocalDateTime.now()));
+    }
+
+    public synchronized Report report(String shift) {
+        return reportLocked(shift);
+    }
+
+    /**
+     * 보관 중인 교대 (오래된 순)
+     */
+    public synchronized List<String> shifts() {
+        return List.copyOf(shifts);
+    }
+
+    private Report reportLocked(String shift) {
+        Aggregate total = new Aggregate();
+        Map<String, Aggregate> byReader = new TreeMap<>();
+        Map<String, Aggregate> byProfile = new TreeMap<>();
+        for (Map.Entry<GroupKey, Aggregate> entry : groups.entrySet()) {
+            GroupKey key = entry.getKey();
+            if (!key.shift.equals(shift)) {
+                continue;
+            }
+            total.merge(entry.getValue());
+            byReader.computeIfAbsent(key.reader, name -> new Aggregate()).merge(entry.getValue());
+            byProfile.computeIfAbsent(key.profile, name -> new Aggregate()).merge(entry.getValue());
+        }
+        return new Report(shift, total, byReader, byProfile);
+    }
+
+    private void evictOldShifts() {
+        while (shifts.size() > RETAINED_SHIFTS) {
+            String oldest = shifts.pollFirst();
+            groups.keySet().removeIf(key -> key.shift.equals(oldest));
+        }
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+
+    // ===== 저장/복원 (재시작해도 교대 집계 유지) =====
+
+    public synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(groups.size());
+        for (Map.Entry<GroupKey, Aggregate> entry : groups.entrySet()) {
+            GroupKey key = entry.getKey();
+            out.writeUTF(key.shift);
+            out.writeUTF(key.reader);
+            out.writeUTF(key.profile);
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    /**
+     * 저장된 집계를 합침 (다른 스테이션 프로세스의 집계도 같은 방법으로 합칠 수 있음)
+     */
+    public void readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("교대 통계 형식이 아닙니다");
+        }
+        int groupCount = in.readInt();
+        Map<GroupKey, Aggregate> loaded = new HashMap<>();
+        for (int i = 0; i < groupCount; i++) {
+            GroupKey key = new GroupKey(in.readUTF(), in.readUTF(), in.readUTF());
+            loaded.computeIfAbsent(key, k -> new Aggregate()).merge(Aggregate.readFrom(in));
+        }
+        synchronized (this) {
+            for (Map.Entry<GroupKey, Aggregate> entry : loaded.entrySet()) {
+                String shift = entry.getKey().shift;
+                groups.computeIfAbsent(entry.getKey(), key -> new Aggregate()).merge(entry.getValue());
+                shifts.add(shift);
+                if (currentShift == null || shift.compareTo(currentShift) > 0) {
+                    currentShift = shift;
+                }
+            }
+            evictOldShifts();
+        }
+    }
+
+    private static final class GroupKey {
+        final String shift;
+        final String reader;
+        final String profile;
+
+        GroupKey(String shift, String reader, String profile) {
+            this.shift = shift;
+            this.reader = reader;
+            this.profile = profile;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof GroupKey other)) return false;
+            return shift.equals(other.shift) && reader.equals(other.reader) && profile.equals(other.profile);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(shift, reader, profile);
+        }
+    }
+
+    /**
+     * 병합 가능한 집계 단위
+     */
+    public static final class Aggregate {
+        private long succeeded;
+        private long skipped;
+        private long failed;
+        private final Map<Integer, Long> failuresByStatusWord = new TreeMap<>();
+        private final Map<String, LatencySketch> stepLatencies = new LinkedHashMap<>();
+
+        void add(ProvisioningRecord record) {
+            switch (record.outcome) {
+                case SUCCESS -> succeeded++;
+                case SKIPPED -> skipped++;
+                case FAILED -> {
+                    failed++;
+                    int statusWord = record.statusWords.isEmpty()
+                        ? NO_STATUS_WORD
+                        : record.statusWords.get(record.statusWords.size() - 1);
+                    failuresByStatusWord.merge(statusWord, 1L, Long::sum);
+                }
+            }
+            for (ProvisioningRecord.StepTiming step : record.steps) {
+                sketchFor(step.name).record(step.duration.toNanos());
+            }
+            if (record.duration != null) {
+                sketchFor(TAG_TOTAL).record(record.duration.toNanos());
+            }
+        }
+
+        void merge(Aggregate other) {
+            succeeded += other.succeeded;
+            skipped += other.skipped;
+            failed += other.failed;
+            other.failuresByStatusWord.forEach((statusWord, count) ->
+                failuresByStatusWord.merge(statusWord, count, Long::sum));
+            other.stepLatencies.forEach((step, sketch) -> sketchFor(step).merge(sketch));
+        }
+
+        private LatencySketch sketchFor(String step) {
+            return stepLatencies.computeIfAbsent(step, name -> new LatencySketch());
+        }
+
+        public long processed() {
+            return succeeded + skipped + failed;
+        }
+
+        public long succeeded() {
+            return succeeded;
+        }
+
+        public long skipped() {
+            return skipped;
+        }
+
+        public long failed() {
+            return failed;
+        }
+
+        /**
+         * 수율 (성공 + 건너뜀) / 처리
+         */
+        public double yield() {
+            long processed = processed();
+            return processed > 0 ? (double) (succeeded + skipped) / processed : 0.0;
+        }
+
+        /**
+         * 상태 워드별 실패 수 (상태 워드 순)
+         */
+        public Map<Integer, Long> failuresByStatusWord() {
+            return Collections.unmodifiableMap(failuresByStatusWord);
+        }
+
+        /**
+         * 처음 기록된 순서대로의 단계 이름 (마지막에 {@link #TAG_TOTAL}이 올 수 있음)
+         */
+        public List<String> stepNames() {
+            List<String> names = new ArrayList<>(stepLatencies.keySet());
+            if (names.remove(TAG_TOTAL)) {
+                names.add(TAG_TOTAL);
+            }
+            return names;
+        }
+
+        public LatencySketch stepLatency(String step) {
+            return stepLatencies.get(step);
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            out.writeLong(succeeded);
+            out.writeLong(skipped);
+            out.writeLong(failed);
+            out.writeInt(failuresByStatusWord.size());
+            for (Map.Entry<Integer, Long> entry : failuresByStatusWord.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.writeInt(stepLatencies.size());
+            for (Map.Entry<String, LatencySketch> entry : stepLatencies.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        }
+
+        static Aggregate readFrom(DataInput in) throws IOException {
+            Aggregate aggregate = new Aggregate();
+            aggregate.succeeded = in.readLong();
+            aggregate.skipped = in.readLong();
+            aggregate.failed = in.readLong();
+            int statusWords = in.readInt();
+            for (int i = 0; i < statusWords; i++) {
+                aggregate.failuresByStatusWord.put(in.readInt(), in.readLong());
+            }
+            int steps = in.readInt();
+            for (int i = 0; i < steps; i++) {
+                aggregate.stepLatencies.put(in.readUTF(), LatencySketch.readFrom(in));
+            }
+            return aggregate;
+        }
+    }
+
+    /**
+     * 교대 보고서 (집계 사본 - 이후 기록의 영향을 받지 않음)
+     */
+    public static final class Report {
+        public final String shift;
+        public final Aggregate total;
+        public final Map<String, Aggregate> byReader;
+        public final Map<String, Aggregate> byProfile;
+
+        Report(String shift, Aggregate total, Map<String, Aggregate> byReader, Map<String, Aggregate> byProfile) {
+            this.shift = shift;
+            this.total = total;
+            this.byReader = Collections.unmodifiableMap(byReader);
+            this.byProfile = Collections.unmodifiableMap(byProfile);
+        }
+    }
+}
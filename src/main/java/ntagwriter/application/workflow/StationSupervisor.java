@@ -0,0 +1,332 @@
+package ntagwriter.application.workflow;
+
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.port.UserInteractionPort;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 다중 리더기 스테이션 감독자
+ * 리더기마다 독립된 실행 범위(스레드 + 그 안에서 연 스테이션 자원)를 두어, 한 리더기가 뽑히거나
+ * 드라이버 오류를 내도 나머지 리더기는 계속 태그를 설정한다.
+ *
+ * - 장애: 스테이션을 닫고 지수 백오프 후 새로 연다. 리더기가 목록에서 사라졌으면 범위를 끝낸다.
+ *   태그를 처리했거나 감지 타임아웃까지 정상으로 돈 배치가 있으면, 또는 스테이션이 {@link #HEALTHY_UPTIME} 넘게
+ *   살아 있었으면 백오프를 처음부터 다시 센다 (며칠에 한 번 나는 장애가 최대 백오프로 재시작되지 않게).
+ * - 재탐색: 주기적으로 리더기 목록을 읽어, 새로 꽂히거나 다시 꽂힌 리더기에 범위를 연다.
+ * - 종료: 모든 스테이션에 중지를 요청해 진행 중인 태그는 마치게 하고, 태그를 기다리던 스테이션만 인터럽트한다.
+ *   범위 실행기를 닫으면 모든 리더기 범위가 끝날 때까지 기다린다.
+ *
+ * 리더기 범위는 가상 스레드가 아닌 플랫폼 스레드에서 실행한다 (PC/SC 호출은 네이티브 블로킹이라 캐리어 스레드를 붙잡음).
+ */
+public final class StationSupervisor implements AutoCloseable {
+
+    private static final Duration DISCOVERY_INTERVAL = Duration.ofSeconds(2);
+    private static final Duration INITIAL_RESTART_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RESTART_BACKOFF = Duration.ofSeconds(30);
+    // 태그 없이 이보다 빨리 끝난 배치는 감지 타임아웃이 아니라 리더기 오류로 본다
+    private static final Duration MIN_HEALTHY_BATCH = Duration.ofSeconds(1);
+    // 이보다 오래 살아 있던 스테이션의 장애는 연속 장애로 세지 않는다
+    private static final Duration HEALTHY_UPTIME = Duration.ofMinutes(1);
+
+    private final ReaderDiscovery discovery;
+    private final StationFactory stationFactory;
+    private final UserInteractionPort uiPort;
+    private final Duration initialRestartBackoff;
+    private final ExecutorService scopes;
+    private final Map<String, ReaderScope> activeScopes = new ConcurrentSkipListMap<>();
+    private final Map<String, ThroughputMetrics> metrics = new ConcurrentSkipListMap<>();
+    private final AtomicInteger scopeCounter = new AtomicInteger();
+    private volatile boolean stopping;
+    private Thread discoveryThread;
+
+    /**
+     * @param discovery      현재 연결된 리더기 이름 조회
+     * @param stationFactory 리더기 이름으로 스테이션 생성
+     * @param uiPort         장애/재시작 알림
+     */
+    public StationSupervisor(ReaderDiscovery discovery, StationFactory stationFactory, UserInteractionPort uiPort) {
+        this(discovery, stationFactory, uiPort, INITIAL_RESTART_BACKOFF);
+    }
+
+    /**
+     * @param initialRestartBackoff 첫 재시작 전 대기 (이후 두 배씩, 최대 30초)
+     */
+    StationSupervisor(ReaderDiscovery discovery, StationFactory stationFactory, UserInteractionPort uiPort,
+                      Duration initialRestartBackoff) {
+        this.discovery = discovery;
+        this.stationFactory = stationFactory;
+        this.uiPort = uiPort;
+        this.initialRestartBackoff = initialRestartBackoff;
+        this.scopes = Executors.newThreadPerTaskExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "station-" + scopeCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 재탐색 루프 시작 (첫 탐색은 즉시)
+     */
+    public synchronized void start() {
+        if (discoveryThread != null) {
+            return;
+        }
+        discoveryThread = new Thread(this::discoveryLoop, "station-discovery");
+        discoveryThread.setDaemon(true);
+        discoveryThread.start();
+    }
+
+    /**
+     * 리더기별 지표 (재시작해도 같은 리더기는 같은 지표를 이어 씀, 이름순)
+     */
+    public List<ThroughputMetrics> metrics() {
+        return List.copyOf(metrics.values());
+    }
+
+    /**
+     * 현재 실행 중인 리더기 이름
+     */
+    public List<String> activeReaders() {
+        return List.copyOf(activeScopes.keySet());
+    }
+
+    private void discoveryLoop() {
+        while (!stopping) {
+            try {
+                for (String readerName : discovery.readerNames()) {
+                    launchIfAbsent(readerName);
+                }
+            } catch (NfcReaderPort.ReaderException e) {
+                uiPort.showError("리더기 탐색 실패: " + e.getMessage());
+            }
+            if (!sleep(DISCOVERY_INTERVAL)) {
+                return;
+            }
+        }
+    }
+
+    private void launchIfAbsent(String readerName) {
+        if (stopping || activeScopes.containsKey(readerName)) {
+            return;
+        }
+        ReaderScope scope = new ReaderScope(readerName,
+            metrics.computeIfAbsent(readerName, ThroughputMetrics::new));
+        if (activeScopes.putIfAbsent(readerName, scope) != null) {
+            return;
+        }
+        try {
+            scope.future = scopes.submit(scope::run);
+            uiPort.showInfo("리더기 스테이션 시작: " + readerName);
+        } catch (RuntimeException e) {
+            // 종료 중 실행기가 닫힘
+            activeScopes.remove(readerName, scope);
+        }
+    }
+
+    /**
+     * 종료: 진행 중인 태그를 마칠 때까지 기다리고, 기한을 넘기면 남은 교환을 버린다
+     *
+     * @param drainTimeout 진행 중인 태그를 기다릴 최대 시간
+     */
+    public void shutdown(Duration drainTimeout) {
+        synchronized (this) {
+            if (stopping) {
+                return;
+            }
+            stopping = true;
+            if (discoveryThread != null) {
+                discoveryThread.interrupt();
+            }
+        }
+
+        for (ReaderScope scope : new ArrayList<>(activeScopes.values())) {
+            scope.requestStop();
+        }
+        scopes.shutdown();
+        try {
+            if (!scopes.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                uiPort.showWarning("기한 안에 끝나지 않은 태그 교환을 중단합니다.");
+                scopes.shutdownNow();
+                scopes.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scopes.shutdownNow();
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown(Duration.ofSeconds(15));
+    }
+
+    private boolean isAttached(String readerName) {
+        try {
+            return discovery.readerNames().contains(readerName);
+        } catch (NfcReaderPort.ReaderException e) {
+            return false;
+        }
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 리더기 한 대의 실행 범위
+     * 스테이션은 범위 안에서 열고 닫으므로, 범위가 끝나면 그 리더기의 스레드/자원도 모두 정리된다.
+     */
+    private final class ReaderScope {
+
+        private final String readerName;
+        private final ThroughputMetrics readerMetrics;
+        private volatile Station station;
+        private volatile Future<?> future;
+        // 마지막 정상 배치 이후 연속 재시작 횟수 (범위 스레드만 사용)
+        private int restarts;
+
+        private ReaderScope(String readerName, ThroughputMetrics readerMetrics) {
+            this.readerName = readerName;
+            this.readerMetrics = readerMetrics;
+        }
+
+        private void run() {
+            try {
+                while (!stopping) {
+                    long openedNanos = System.nanoTime();
+                    try (Station opened = stationFactory.open(readerName, readerMetrics)) {
+                        station = opened;
+                        if (stopping) {
+                            break;
+                        }
+                        runUntilStopped(opened);
+                    } catch (Exception e) {
+                        if (stopping) {
+                            break;
+                        }
+                        if (System.nanoTime() - openedNanos >= HEALTHY_UPTIME.toNanos()) {
+                            restarts = 0;
+                        }
+                        uiPort.showError(readerName + " 장애: " + e.getMessage());
+                    } finally {
+                        station = null;
+                    }
+
+                    if (stopping) {
+                        break;
+                    }
+                    if (!isAttached(readerName)) {
+                        uiPort.showWarning(readerName + " 분리됨 - 다시 연결되면 재시작합니다.");
+                        break;
+                    }
+                    Duration backoff = restartBackoff(restarts++);
+                    uiPort.showWarning(String.format("%s %d ms 후 재시작 (%d회째)",
+                        readerName, backoff.toMillis(), restarts));
+                    if (!sleep(backoff)) {
+                        break;
+                    }
+                }
+            } finally {
+                activeScopes.remove(readerName, this);
+            }
+        }
+
+        /**
+         * 중지 요청 전까지 배치를 반복 (태그가 끊겨 끝난 배치는 다시 시작)
+         * 태그를 처리했거나 감지 타임아웃까지 돈 배치는 연속 재시작 횟수를 초기화한다.
+         *
+         * @throws Exception 리더기 오류 (태그 없이 곧바로 끝나는 배치 포함)
+         */
+        private void runUntilStopped(Station opened) throws Exception {
+            while (!stopping) {
+                long startNanos = System.nanoTime();
+                int processed = opened.runBatch();
+                if (stopping) {
+                    return;
+                }
+                if (processed == 0 && System.nanoTime() - startNanos < MIN_HEALTHY_BATCH.toNanos()) {
+                    throw new NfcReaderPort.ReaderException("태그 감지 없이 배치가 즉시 종료되었습니다");
+                }
+                // 정상 배치: 다음 장애는 첫 장애로 센다
+                restarts = 0;
+            }
+        }
+
+        /**
+         * 진행 중인 태그는 마치게 하고, 태그를 기다리던 중이면 대기를 끊는다
+         */
+        private void requestStop() {
+            Station current = station;
+            if (current != null) {
+                current.requestStop();
+            }
+            Future<?> running = future;
+            if (running != null && (current == null || current.isIdle())) {
+                running.cancel(true);
+            }
+        }
+
+        private Duration restartBackoff(int restartsSoFar) {
+            Duration backoff = initialRestartBackoff.multipliedBy(1L << Math.min(restartsSoFar, 5));
+            return backoff.compareTo(MAX_RESTART_BACKOFF) > 0 ? MAX_RESTART_BACKOFF : backoff;
+        }
+    }
+
+    /**
+     * 연결된 리더기 이름 조회
+     */
+    @FunctionalInterface
+    public interface ReaderDiscovery {
+        List<String> readerNames() throws NfcReaderPort.ReaderException;
+    }
+
+    /**
+     * 리더기 이름으로 스테이션 생성 (리더기 연결은 스테이션이 첫 배치에서 연다)
+     */
+    @FunctionalInterface
+    public interface StationFactory {
+        Station open(String readerName, ThroughputMetrics metrics) throws Exception;
+    }
+
+    /**
+     * 리더기 한 대의 설정 스테이션
+     */
+    public interface Station extends AutoCloseable {
+
+        /**
+         * 태그가 끊기거나 중지가 요청될 때까지 연속 설정
+         *
+         * @return 처리한 태그 수
+         */
+        int runBatch() throws Exception;
+
+        /**
+         * 진행 중인 태그를 마친 뒤 배치를 끝내도록 요청 (다른 스레드에서 호출)
+         */
+        void requestStop();
+
+        /**
+         * 감지된 태그를 처리하는 중이 아닌지
+         */
+        boolean isIdle();
+
+        @Override
+        void close();
+    }
+}
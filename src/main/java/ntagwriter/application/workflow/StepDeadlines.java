@@ -0,0 +1,61 @@
+package ntagwriter.application.workflow;
+
+import java.time.Duration;
+
+/**
+ * 태그 교환 단계의 시간 제한
+ * 태그가 필드 가장자리에 걸쳐 있으면 transmit이 응답 없이 멈출 수 있으므로,
+ * 단계별/태그별 기한을 넘기면 진행 중인 교환을 중단하고 다음 태그로 넘어간다.
+ *
+ * 태그가 감지되기 전 단계(리더기 연결, 태그 대기)는 작업자를 기다리는 시간이므로 기한을 적용하지 않고,
+ * 태그별 기한도 태그가 감지된 시점부터 잰다.
+ */
+public final class StepDeadlines {
+
+    // 정상 태그는 단계당 수십 ms, 태그 전체 1초 이내로 끝난다
+    public static final Duration DEFAULT_STEP_TIMEOUT = Duration.ofSeconds(3);
+    public static final Duration DEFAULT_TAG_TIMEOUT = Duration.ofSeconds(10);
+
+    public static final StepDeadlines DEFAULT = new StepDeadlines(DEFAULT_STEP_TIMEOUT, DEFAULT_TAG_TIMEOUT);
+    public static final StepDeadlines NONE = new StepDeadlines(Duration.ZERO, Duration.ZERO);
+
+    private final Duration stepTimeout;
+    private final Duration tagTimeout;
+
+    private StepDeadlines(Duration stepTimeout, Duration tagTimeout) {
+        this.stepTimeout = stepTimeout;
+        this.tagTimeout = tagTimeout;
+    }
+
+    /**
+     * @param stepTimeout 단계별 기한 (0이면 제한 없음)
+     * @param tagTimeout  태그별 기한 (0이면 제한 없음)
+     */
+    public static StepDeadlines of(Duration stepTimeout, Duration tagTimeout) {
+        if (stepTimeout.isNegative() || tagTimeout.isNegative()) {
+            throw new IllegalArgumentException("기한은 0 이상이어야 합니다");
+        }
+        return new StepDeadlines(stepTimeout, tagTimeout);
+    }
+
+    public Duration stepTimeout() {
+        return stepTimeout;
+    }
+
+    public Duration tagTimeout() {
+        return tagTimeout;
+    }
+
+    public boolean hasStepTimeout() {
+        return !stepTimeout.isZero();
+    }
+
+    public boolean hasTagTimeout() {
+        return !tagTimeout.isZero();
+    }
+
+    @Override
+    public String toString() {
+        return "StepDeadlines{step=" + stepTimeout.toMillis() + "ms, tag=" + tagTimeout.toMillis() + "ms}";
+    }
+}
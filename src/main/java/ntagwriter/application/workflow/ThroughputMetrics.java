@@ -0,0 +1,133 @@
+package ntagwriter.application.workflow;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 리더기별 실시간 처리량 지표 (락 없음)
+ * 설정 스레드는 원자적 갱신만 하고, 대시보드는 임의 시점에 값을 읽기만 한다.
+ *
+ * 최근 성공률은 마지막 64개 태그의 성공/실패를 64비트 시프트 레지스터 하나에 담아 CAS로 갱신한다.
+ */
+public final class ThroughputMetrics {
+
+    private static final int WINDOW = Long.SIZE;
+
+    private final String readerName;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong recentOutcomes = new AtomicLong();
+    private final AtomicInteger recentCount = new AtomicInteger();
+    private final AtomicInteger lastErrorStatusWord = new AtomicInteger();
+    private final Map<String, LatencyHistogram> stepLatencies = new ConcurrentHashMap<>();
+    private final List<String> stepOrder = new CopyOnWriteArrayList<>();
+
+    public ThroughputMetrics(String readerName) {
+        this.readerName = readerName;
+    }
+
+    /**
+     * 태그 한 개의 결과 반영
+     */
+    public void record(WorkflowResult result, boolean skipTag) {
+        for (WorkflowResult.StepResult step : result.stepResults) {
+            histogramFor(step.stepName).record(step.duration.toNanos());
+        }
+
+        if (!result.success) {
+            failed.increment();
+        } else if (skipTag) {
+            skipped.increment();
+        } else {
+            succeeded.increment();
+        }
+
+        long bit = result.success ? 1L : 0L;
+        recentOutcomes.getAndUpdate(window -> (window << 1) | bit);
+        recentCount.getAndUpdate(count -> Math.min(count + 1, WINDOW));
+    }
+
+    private LatencyHistogram histogramFor(String stepName) {
+        LatencyHistogram histogram = stepLatencies.get(stepName);
+        if (histogram != null) {
+            return histogram;
+        }
+        LatencyHistogram created = new LatencyHistogram();
+        histogram = stepLatencies.putIfAbsent(stepName, created);
+        if (histogram == null) {
+            stepOrder.add(stepName);
+            return created;
+        }
+        return histogram;
+    }
+
+    /**
+     * 실패 응답의 상태 워드 기록 (SW1 << 8 | SW2)
+     */
+    public void recordErrorStatusWord(int statusWord) {
+        lastErrorStatusWord.set(statusWord);
+    }
+
+    public String readerName() {
+        return readerName;
+    }
+
+    public long processed() {
+        return succeeded.sum() + skipped.sum() + failed.sum();
+    }
+
+    public long succeeded() {
+        return succeeded.sum();
+    }
+
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    public long failed() {
+        return failed.sum();
+    }
+
+    public double tagsPerMinute() {
+        double minutes = (System.nanoTime() - startNanos) / 60_000_000_000.0;
+        return minutes > 0 ? processed() / minutes : 0.0;
+    }
+
+    /**
+     * 최근 최대 64개 태그의 성공률
+     */
+    public double recentSuccessRatio() {
+        int count = recentCount.get();
+        if (count == 0) {
+            return 0.0;
+        }
+        long mask = count == WINDOW ? -1L : (1L << count) - 1;
+        return (double) Long.bitCount(recentOutcomes.get() & mask) / count;
+    }
+
+    /**
+     * 마지막 오류 상태 워드, 없으면 0
+     */
+    public int lastErrorStatusWord() {
+        return lastErrorStatusWord.get();
+    }
+
+    /**
+     * 처음 기록된 순서대로의 단계 이름
+     */
+    public List<String> stepNames() {
+        return Collections.unmodifiableList(stepOrder);
+    }
+
+    public LatencyHistogram stepLatency(String stepName) {
+        return stepLatencies.get(stepName);
+    }
+}
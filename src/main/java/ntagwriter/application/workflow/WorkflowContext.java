@@ -2,6 +2,7 @@ package ntagwriter.application.workflow;
 
 import ntagwriter.domain.tag.Tag;
 import ntagwriter.domain.config.SdmConfiguration;
+import ntagwriter.util.SessionContext;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,11 +16,12 @@ public final class WorkflowContext {
     public final WorkflowMode mode;
     public final SdmConfiguration sdmConfig;
 
-    // Mutable state
-    private Tag currentTag;
+    // Mutable state (currentTag는 스테이션 감독자가 다른 스레드에서 읽음)
+    private volatile Tag currentTag;
     private WorkflowState state;
     private final Map<String, Object> attributes;
     private String lastError;
+    private TransitionListener transitionListener;
 
     public WorkflowContext(WorkflowMode mode, SdmConfiguration sdmConfig) {
         this.mode = mode;
@@ -39,7 +41,18 @@ public final class WorkflowContext {
 
     // State management
     public void transitionTo(WorkflowState newState) {
+        WorkflowState previous = this.state;
         this.state = newState;
+        if (transitionListener != null && previous != newState) {
+            transitionListener.onTransition(this, previous, newState);
+        }
+    }
+
+    /**
+     * 상태 전이마다 호출할 리스너 (진행 저널 기록 등)
+     */
+    public void setTransitionListener(TransitionListener listener) {
+        this.transitionListener = listener;
     }
 
     public WorkflowState currentState() {
@@ -68,10 +81,45 @@ public final class WorkflowContext {
         return attributes.containsKey(key);
     }
 
+    /**
+     * 기한이 걸린 단계를 교환 스레드에서 실행할 사본 (전이 리스너 없음, 속성 맵은 얕은 복사)
+     * 단계가 끝나면 {@link #adopt}로 반영하고, 기한을 넘겨 버린 교환의 사본은 반영하지 않는다.
+     */
+    public WorkflowContext fork() {
+        WorkflowContext fork = new WorkflowContext(mode, sdmConfig);
+        fork.currentTag = currentTag;
+        fork.state = state;
+        fork.attributes.putAll(attributes);
+        fork.lastError = lastError;
+        return fork;
+    }
+
+    /**
+     * 끝난 단계의 사본을 반영 (상태 전이는 이 스레드에서 리스너에 통지)
+     */
+    public void adopt(WorkflowContext fork) {
+        currentTag = fork.currentTag;
+        attributes.clear();
+        attributes.putAll(fork.attributes);
+        lastError = fork.lastError;
+        transitionTo(fork.state);
+    }
+
+    /**
+     * 세션 키 폐기 (워크플로우 종료 또는 재인증 시)
+     */
+    public void endSession() {
+        SessionContext session = getAttribute(ATTR_SESSION_CONTEXT, SessionContext.class);
+        attributes.remove(ATTR_SESSION_CONTEXT);
+        if (session != null) {
+            session.close();
+        }
+    }
+
     // Error management
     public void recordError(String error) {
         this.lastError = error;
-        this.state = WorkflowState.ERROR;
+        transitionTo(WorkflowState.ERROR);
     }
 
     public String lastError() {
@@ -101,4 +149,20 @@ public final class WorkflowContext {
     public static final String ATTR_AUTH_KEY = "authKey";
     public static final String ATTR_RND_A = "rndA";
     public static final String ATTR_RND_B = "rndB";
-}
\ No newline at end of file
+    public static final String ATTR_SESSION_CONTEXT = "sessionContext";
+    public static final String ATTR_PROBE_RESULT = "probeResult";
+    public static final String ATTR_JOURNAL_ENTRY = "journalEntry";
+    public static final String ATTR_VERIFICATION_RESULT = "verificationResult";
+    public static final String ATTR_SKIPPED = "skipped";
+    public static final String ATTR_MATERIAL = "material";
+    public static final String ATTR_ESCROW_RECEIPT = "escrowReceipt";
+    public static final String ATTR_NEW_KEY = "newKey";
+
+    /**
+     * 상태 전이 리스너 (워크플로우 스레드에서 호출)
+     */
+    @FunctionalInterface
+    public interface TransitionListener {
+        void onTransition(WorkflowContext context, WorkflowState from, WorkflowState to);
+    }
+}
@@ -9,6 +9,7 @@ public enum WorkflowState {
     CONNECTED("리더기 연결됨"),
     DETECTING_TAG("태그 감지 중"),
     TAG_DETECTED("태그 감지됨"),
+    PROBED("설정 상태 확인됨"),
     AUTHENTICATING("인증 중"),
     AUTHENTICATED("인증 완료"),
     CONFIGURING_SDM("SDM 설정 중"),
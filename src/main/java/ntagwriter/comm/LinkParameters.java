@@ -0,0 +1,134 @@
+package ntagwriter.comm;
+
+import java.util.Arrays;
+
+/**
+ * ISO/IEC 14443-4 링크 파라미터.
+ * ATR/ATS에서 historical bytes와 태그 프레임 크기(FSC)를 읽고, 리더기 프레임 크기(FSD)와 함께
+ * 한 프레임(I-block 체이닝 없이)에 들어가는 최대 명령/응답 데이터 길이를 계산한다.
+ */
+public final class LinkParameters {
+
+    // FSCI → FSC (ISO/IEC 14443-4 Table 1, 9 이상은 256으로 취급)
+    private static final int[] FRAME_SIZES = {16, 24, 32, 40, 48, 64, 96, 128, 256};
+
+    // NTAG424 DNA 기본 ATS (06 77 77 71 02 80) 의 FSCI=7
+    public static final int DEFAULT_CARD_FRAME_SIZE = 128;
+    public static final int DEFAULT_READER_FRAME_SIZE = 256;
+
+    public static final LinkParameters DEFAULT =
+            new LinkParameters(new byte[0], DEFAULT_CARD_FRAME_SIZE, DEFAULT_READER_FRAME_SIZE);
+
+    private static final int ISO_DEP_OVERHEAD = 3;      // PCB + CRC_A(2)
+    private static final int APDU_HEADER_OVERHEAD = 6;  // CLA INS P1 P2 Lc Le
+    private static final int STATUS_WORD_LENGTH = 2;
+    private static final int SHORT_APDU_MAX_LC = 255;
+    private static final int SHORT_APDU_MAX_LE = 256;
+
+    private final byte[] historicalBytes;
+    private final int cardFrameSize;
+    private final int readerFrameSize;
+
+    private LinkParameters(byte[] historicalBytes, int cardFrameSize, int readerFrameSize) {
+        this.historicalBytes = historicalBytes.clone();
+        this.cardFrameSize = cardFrameSize;
+        this.readerFrameSize = readerFrameSize;
+    }
+
+    /**
+     * ATR에서 historical bytes 추출 (ISO/IEC 7816-3 T0/TDi 인터페이스 바이트를 건너뜀)
+     * PC/SC 비접촉 ATR의 historical bytes는 Type A의 경우 ATS historical bytes와 같다.
+     * ATR에는 FSC가 없으므로 프레임 크기는 기본값을 사용한다.
+     *
+     * @param atr ATR 바이트 배열
+     * @return 링크 파라미터
+     */
+    public static LinkParameters fromAtr(byte[] atr) {
+        if (atr == null || atr.length < 2) {
+            return DEFAULT;
+        }
+
+        int historicalLength = atr[1] & 0x0F;
+        int indicators = (atr[1] >> 4) & 0x0F;
+        int index = 2;
+        while (index < atr.length) {
+            index += Integer.bitCount(indicators & 0x07);  // TAi, TBi, TCi
+            if ((indicators & 0x08) == 0 || index >= atr.length) {
+                break;
+            }
+            indicators = (atr[index++] >> 4) & 0x0F;       // TDi
+        }
+
+        int end = Math.min(index + historicalLength, atr.length);
+        byte[] historical = index < end ? Arrays.copyOfRange(atr, index, end) : new byte[0];
+        return new LinkParameters(historical, DEFAULT_CARD_FRAME_SIZE, DEFAULT_READER_FRAME_SIZE);
+    }
+
+    /**
+     * 리더기가 전체 ATS(TL부터)를 돌려준 경우 FSC와 historical bytes를 ATS 값으로 갱신
+     * TL이 응답 길이와 다르면 historical bytes만 돌려준 것으로 보고 그대로 둔다.
+     *
+     * @param ats GET DATA(P1=01) 응답, null 가능
+     * @return 갱신된 링크 파라미터
+     */
+    public LinkParameters withAts(byte[] ats) {
+        if (ats == null || ats.length < 2 || (ats[0] & 0xFF) != ats.length) {
+            return this;
+        }
+
+        int t0 = ats[1] & 0xFF;
+        int fsci = t0 & 0x0F;
+        int index = 2 + Integer.bitCount(t0 & 0x70);  // TA(1), TB(1), TC(1)
+        byte[] historical = index < ats.length ? Arrays.copyOfRange(ats, index, ats.length) : new byte[0];
+        return new LinkParameters(historical, frameSizeOf(fsci), readerFrameSize);
+    }
+
+    /**
+     * 리더기 최대 프레임 크기(FSD) 지정
+     */
+    public LinkParameters withReaderFrameSize(int frameSize) {
+        return new LinkParameters(historicalBytes, cardFrameSize, frameSize);
+    }
+
+    private static int frameSizeOf(int fsci) {
+        return FRAME_SIZES[Math.min(fsci, FRAME_SIZES.length - 1)];
+    }
+
+    /**
+     * 한 프레임에 실을 수 있는 최대 명령 데이터 길이
+     *
+     * @param commandHeaderLength Lc 데이터 중 청크 앞에 붙는 명령 헤더 길이
+     *                            (예: WriteData = FileNo + Offset(3) + Length(3) = 7)
+     * @return 청크당 최대 데이터 길이
+     */
+    public int maxCommandDataLength(int commandHeaderLength) {
+        int frameLimit = cardFrameSize - ISO_DEP_OVERHEAD - APDU_HEADER_OVERHEAD - commandHeaderLength;
+        return Math.min(frameLimit, SHORT_APDU_MAX_LC - commandHeaderLength);
+    }
+
+    /**
+     * 한 프레임으로 받을 수 있는 최대 응답 데이터 길이 (SW 제외)
+     */
+    public int maxResponseDataLength() {
+        int frameLimit = readerFrameSize - ISO_DEP_OVERHEAD - STATUS_WORD_LENGTH;
+        return Math.min(frameLimit, SHORT_APDU_MAX_LE);
+    }
+
+    public byte[] historicalBytes() {
+        return historicalBytes.clone();
+    }
+
+    public int cardFrameSize() {
+        return cardFrameSize;
+    }
+
+    public int readerFrameSize() {
+        return readerFrameSize;
+    }
+
+    @Override
+    public String toString() {
+        return "LinkParameters{FSC=" + cardFrameSize + ", FSD=" + readerFrameSize
+                + ", historical=" + historicalBytes.length + " bytes}";
+    }
+}
@@ -0,0 +1,36 @@
+package ntagwriter.crypto;
+
+import java.util.Objects;
+
+/**
+ * CommMode.Full 명령 IV(IVc) 입력 생성기.
+ * NT4H2421Gx CommMode.Full 공식 (AN12196 Table 25/26): IVc = E(KSesAuthENC, A5 || 5A || TI || CmdCtr || 00 * 8)
+ */
+public final class CommandIvBuilder {
+
+    private static final byte LABEL_1 = (byte) 0xA5;
+    private static final byte LABEL_2 = (byte) 0x5A;
+
+    private CommandIvBuilder() {
+    }
+
+    /**
+     * @param transactionId TI (4 bytes)
+     * @param commandCounter CmdCtr (2 bytes, LSB first)
+     * @return 암호화 전 16바이트 IVc 입력
+     */
+    public static byte[] build(byte[] transactionId, byte[] commandCounter) {
+        Objects.requireNonNull(transactionId, "transactionId");
+        Objects.requireNonNull(commandCounter, "commandCounter");
+        if (transactionId.length != 4 || commandCounter.length != 2) {
+            throw new IllegalArgumentException("TI는 4바이트, CmdCtr는 2바이트여야 합니다.");
+        }
+
+        byte[] ivInput = new byte[16];
+        ivInput[0] = LABEL_1;
+        ivInput[1] = LABEL_2;
+        System.arraycopy(transactionId, 0, ivInput, 2, 4);
+        System.arraycopy(commandCounter, 0, ivInput, 6, 2);
+        return ivInput;
+    }
+}
@@ -0,0 +1,252 @@
+package ntagwriter.crypto;
+
+import org.bouncycastle.crypto.BlockCipher;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.macs.CMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 힙 밖에 보관하는 AES-128 키 (세션 키, 인증 키)
+ * 키 바이트는 GC가 옮기거나 복사하지 않는 direct 버퍼에 한 벌만 두고, {@link #close()}에서 0으로 덮어쓴다.
+ *
+ * 암호 연산은 처음 쓸 때 키 스케줄을 만든 AES 엔진과 CMAC을 재사용하므로,
+ * 호출마다 키 배열을 복제하거나 Cipher/SecretKeySpec을 새로 만들지 않는다.
+ * 한 태그 세션 안에서 쓰는 객체라 연산은 동기화만 하고 (기한 초과로 버려진 교환 스레드와 close 경합 대비),
+ * 폐기된 키로 연산하면 IllegalStateException.
+ */
+public final class KeyHandle implements AutoCloseable {
+
+    public static final int KEY_LENGTH = 16;
+    private static final int BLOCK_SIZE = 16;
+
+    private final ByteBuffer key;
+    private BlockCipher encryptEngine;
+    private BlockCipher decryptEngine;
+    private CMac cmac;
+    private boolean destroyed;
+
+    private KeyHandle(ByteBuffer key) {
+        this.key = key;
+    }
+
+    /**
+     * 키를 힙 밖으로 복사 (원본 배열은 호출자가 관리)
+     *
+     * @throws IllegalArgumentException 16바이트가 아닌 키
+     */
+    public static KeyHandle copyOf(byte[] key) {
+        if (key == null || key.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("AES-128 키는 16바이트여야 합니다");
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(KEY_LENGTH);
+        buffer.put(0, key);
+        return new KeyHandle(buffer);
+    }
+
+    /**
+     * 키를 힙 밖으로 옮기고 원본 배열을 0으로 덮어씀 (방금 유도한 세션 키 등)
+     */
+    public static KeyHandle adopt(byte[] key) {
+        try {
+            return copyOf(key);
+        } finally {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+
+    /**
+     * AES-128 ECB 암호화
+     *
+     * @param data 16의 배수 길이
+     */
+    public synchronized byte[] encryptECB(byte[] data) {
+        BlockCipher engine = encryptEngine();
+        byte[] out = new byte[checkBlocks(data)];
+        for (int offset = 0; offset < data.length; offset += BLOCK_SIZE) {
+            engine.processBlock(data, offset, out, offset);
+        }
+        return out;
+    }
+
+    /**
+     * AES-128 ECB 복호화
+     *
+     * @param data 16의 배수 길이
+     */
+    public synchronized byte[] decryptECB(byte[] data) {
+        BlockCipher engine = decryptEngine();
+        byte[] out = new byte[checkBlocks(data)];
+        for (int offset = 0; offset < data.length; offset += BLOCK_SIZE) {
+            engine.processBlock(data, offset, out, offset);
+        }
+        return out;
+    }
+
+    /**
+     * AES-128 CBC 암호화 (패딩 없음)
+     *
+     * @param iv   16바이트 초기화 벡터
+     * @param data 16의 배수 길이
+     */
+    public synchronized byte[] encryptCBC(byte[] iv, byte[] data) {
+        BlockCipher engine = encryptEngine();
+        byte[] out = new byte[checkBlocks(data)];
+        byte[] block = new byte[BLOCK_SIZE];
+        byte[] chain = iv;
+        int chainOffset = 0;
+        for (int offset = 0; offset < data.length; offset += BLOCK_SIZE) {
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                block[i] = (byte) (data[offset + i] ^ chain[chainOffset + i]);
+            }
+            engine.processBlock(block, 0, out, offset);
+            chain = out;
+            chainOffset = offset;
+        }
+        return out;
+    }
+
+    /**
+     * AES-128 CBC 복호화 (패딩 없음)
+     *
+     * @param iv   16바이트 초기화 벡터
+     * @param data 16의 배수 길이
+     */
+    public synchronized byte[] decryptCBC(byte[] iv, byte[] data) {
+        BlockCipher engine = decryptEngine();
+        byte[] out = new byte[checkBlocks(data)];
+        byte[] chain = iv;
+        int chainOffset = 0;
+        for (int offset = 0; offset < data.length; offset += BLOCK_SIZE) {
+            engine.processBlock(data, offset, out, offset);
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                out[offset + i] ^= chain[chainOffset + i];
+            }
+            chain = data;
+            chainOffset = offset;
+        }
+        return out;
+    }
+
+    /**
+     * AES-CMAC (16바이트)
+     */
+    public byte[] cmac(byte[] data) {
+        return cmac(data, BLOCK_SIZE);
+    }
+
+    /**
+     * AES-CMAC (앞에서부터 macLength 바이트)
+     */
+    public synchronized byte[] cmac(byte[] data, int macLength) {
+        if (cmac == null) {
+            CMac mac = new CMac(new AESEngine());
+            KeyParameter parameter = keyParameter();
+            try {
+                mac.init(parameter);
+            } finally {
+                wipe(parameter);
+            }
+            cmac = mac;
+        }
+        cmac.update(data, 0, data.length);
+        byte[] output = new byte[cmac.getMacSize()];
+        cmac.doFinal(output, 0);
+        return macLength < output.length ? Arrays.copyOf(output, macLength) : output;
+    }
+
+    /**
+     * 키 바이트 복사본 (디버그 출력용 - 호출자가 다 쓰면 0으로 덮어쓸 것)
+     */
+    public synchronized byte[] export() {
+        checkAlive();
+        byte[] copy = new byte[KEY_LENGTH];
+        key.get(0, copy);
+        return copy;
+    }
+
+    public synchronized boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * 키를 0으로 덮어쓰고 키 스케줄을 버림 (여러 번 호출해도 됨)
+     */
+    @Override
+    public synchronized void close() {
+        if (destroyed) {
+            return;
+        }
+        destroyed = true;
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            key.put(i, (byte) 0);
+        }
+        encryptEngine = null;
+        decryptEngine = null;
+        cmac = null;
+    }
+
+    private BlockCipher encryptEngine() {
+        if (encryptEngine == null) {
+            BlockCipher engine = new AESEngine();
+            KeyParameter parameter = keyParameter();
+            try {
+                engine.init(true, parameter);
+            } finally {
+                wipe(parameter);
+            }
+            encryptEngine = engine;
+        }
+        return encryptEngine;
+    }
+
+    private BlockCipher decryptEngine() {
+        if (decryptEngine == null) {
+            BlockCipher engine = new AESEngine();
+            KeyParameter parameter = keyParameter();
+            try {
+                engine.init(false, parameter);
+            } finally {
+                wipe(parameter);
+            }
+            decryptEngine = engine;
+        }
+        return decryptEngine;
+    }
+
+    /**
+     * 키 스케줄 생성용 파라미터 (힙에 잠깐 꺼낸 키는 바로 지우고, 파라미터는 초기화 직후 {@link #wipe})
+     */
+    private KeyParameter keyParameter() {
+        checkAlive();
+        byte[] scratch = new byte[KEY_LENGTH];
+        key.get(0, scratch);
+        KeyParameter parameter = new KeyParameter(scratch);
+        Arrays.fill(scratch, (byte) 0);
+        return parameter;
+    }
+
+    private static void wipe(KeyParameter parameter) {
+        Arrays.fill(parameter.getKey(), (byte) 0);
+    }
+
+    private void checkAlive() {
+        if (destroyed) {
+            throw new IllegalStateException("이미 폐기된 키입니다");
+        }
+    }
+
+    private static int checkBlocks(byte[] data) {
+        if (data.length % BLOCK_SIZE != 0) {
+            throw new IllegalArgumentException("데이터 길이가 16의 배수가 아닙니다: " + data.length);
+        }
+        return data.length;
+    }
+
+    @Override
+    public String toString() {
+        return destroyed ? "KeyHandle[폐기됨]" : "KeyHandle[AES-128]";
+    }
+}
@@ -11,7 +11,8 @@ public final class MacUtils {
     }
 
     /**
-     * CMAC 16바이트 결과에서 인덱스 0, 2, 4...14만 추출해 8바이트 MACt 생성.
+     * CMAC 16바이트 결과에서 인덱스 1, 3, 5...15만 추출해 8바이트 MACt 생성.
+     * (데이터시트의 "짝수 번째 바이트"는 1부터 센 순번 - AN12196 SUN 예제 MAC 94EED9EE65337086으로 확인)
      */
     public static byte[] truncateMac(byte[] fullMac) {
         Objects.requireNonNull(fullMac, "fullMac");
@@ -20,7 +21,7 @@ public final class MacUtils {
         }
         byte[] truncated = new byte[8];
         for (int i = 0; i < 8; i++) {
-            truncated[i] = fullMac[i * 2];
+            truncated[i] = fullMac[i * 2 + 1];
         }
         return truncated;
     }
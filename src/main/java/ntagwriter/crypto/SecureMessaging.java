@@ -71,7 +71,7 @@ public class SecureMessaging {
      * @return 8바이트 트렁케이티드 MAC
      */
     public byte[] calculateMAC(byte[] data) {
-        // Full CMAC 계산 후 짝수 인덱스 바이트만 추출
+        // Full CMAC 계산 후 홀수 인덱스(1부터 세면 짝수 번째) 바이트만 추출
         byte[] fullMAC = calculateFullCMAC(sesAuthMACKey, data);
         return MacUtils.truncateMac(fullMAC);
     }
@@ -0,0 +1,65 @@
+package ntagwriter.domain;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 태그별 데이터 피드의 한 행 (고유 URL 경로/시리얼 등)
+ * 행 번호와 파일 내 바이트 위치를 함께 가지고 있어, UID에 배정된 행을 재시작 후 바로 다시 읽을 수 있다.
+ */
+public final class FeedRow {
+
+    private final long rowNumber;
+    private final long offset;
+    private final int length;
+    private final Map<String, String> values;
+
+    /**
+     * @param rowNumber 데이터 행 번호 (헤더 제외, 1부터)
+     * @param offset    파일 내 행 시작 바이트 위치
+     * @param length    줄바꿈을 포함한 행 바이트 길이
+     * @param values    헤더 컬럼명 → 값
+     */
+    public FeedRow(long rowNumber, long offset, int length, Map<String, String> values) {
+        this.rowNumber = rowNumber;
+        this.offset = offset;
+        this.length = length;
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    public long rowNumber() {
+        return rowNumber;
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 다음 행의 시작 위치
+     */
+    public long endOffset() {
+        return offset + length;
+    }
+
+    public Map<String, String> values() {
+        return values;
+    }
+
+    /**
+     * 컬럼 값 (없으면 null)
+     */
+    public String value(String column) {
+        return values.get(column);
+    }
+
+    @Override
+    public String toString() {
+        return "FeedRow{row=" + rowNumber + ", offset=" + offset + ", values=" + values + "}";
+    }
+}
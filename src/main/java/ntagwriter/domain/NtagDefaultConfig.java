@@ -107,23 +107,24 @@ public enum NtagDefaultConfig {
     }
 
     /**
-     * Access Rights를 4바이트로 반환 (RRWW RRWW CRWU)
-     * RR = Read, WW = Write, C = Change, R/W = ReadWrite, U = Unused
+     * Access Rights를 2바이트로 반환 (ChangeFileSettings 전송 순서)
      */
     public byte[] getAccessRightsBytes() {
-        // NTAG424 Access Rights 포맷:
-        // Byte 0: Read/Write access (4 bits each)
-        // Byte 1: Change/ReadWrite access (4 bits each)
-        byte byte0 = (byte) ((readAccess << 4) | writeAccess);
-        byte byte1 = (byte) ((changeAccess << 4) | readWriteAccess);
+        // NTAG424 Access Rights 포맷 (AN12196 Table 18: 00E0 = RW 0, Change 0, Read E, Write 0):
+        // Byte 0: ReadWrite/Change access (4 bits each)
+        // Byte 1: Read/Write access (4 bits each)
+        byte byte0 = (byte) ((readWriteAccess << 4) | changeAccess);
+        byte byte1 = (byte) ((readAccess << 4) | writeAccess);
         return new byte[] { byte0, byte1 };
     }
 
     /**
-     * SDM Access Rights를 반환
+     * SDM Access Rights를 2바이트로 반환 (AN12196 Table 18: F121 = RFU F, CtrRet 1, MetaRead 2, FileRead 1)
      */
     public byte[] getSdmAccessRightsBytes() {
-        return new byte[] { sdmMetaRead, sdmFileRead, sdmCounterRet };
+        byte byte0 = (byte) (0xF0 | sdmCounterRet);
+        byte byte1 = (byte) ((sdmMetaRead << 4) | sdmFileRead);
+        return new byte[] { byte0, byte1 };
     }
 
     @Override
@@ -0,0 +1,160 @@
+package ntagwriter.domain;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 태그 한 개의 설정 원장 기록
+ * UID, 프로필, 태그 URL, 키 버전, 실패 상태 워드, 단계별 소요 시간을 담는다. 키 값은 담지 않는다.
+ */
+public final class ProvisioningRecord {
+
+    /**
+     * 태그 처리 결과
+     */
+    public enum Outcome {
+        SUCCESS, SKIPPED, FAILED
+    }
+
+    public final LocalDateTime recordedAt;
+    public final String readerName;
+    public final String uid;
+    public final Outcome outcome;
+    public final String finalState;
+    // 프로필/키 버전은 상태 확인 전에 실패하거나 건너뛴 태그면 null
+    public final String profileName;
+    public final String url;
+    public final Integer keyVersion;
+    // 태그 처리 중 받은 실패 상태 워드 (SW1 << 8 | SW2, 받은 순서)
+    public final List<Integer> statusWords;
+    public final Duration duration;
+    public final List<StepTiming> steps;
+    public final String message;
+
+    private ProvisioningRecord(Builder builder) {
+        this.recordedAt = builder.recordedAt != null ? builder.recordedAt : LocalDateTime.now();
+        this.readerName = builder.readerName;
+        this.uid = builder.uid;
+        this.outcome = builder.outcome;
+        this.finalState = builder.finalState;
+        this.profileName = builder.profileName;
+        this.url = builder.url;
+        this.keyVersion = builder.keyVersion;
+        this.statusWords = List.copyOf(builder.statusWords);
+        this.duration = builder.duration;
+        this.steps = List.copyOf(builder.steps);
+        this.message = builder.message;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private LocalDateTime recordedAt;
+        private String readerName;
+        private String uid;
+        private Outcome outcome;
+        private String finalState;
+        private String profileName;
+        private String url;
+        private Integer keyVersion;
+        private final List<Integer> statusWords = new ArrayList<>();
+        private Duration duration = Duration.ZERO;
+        private final List<StepTiming> steps = new ArrayList<>();
+        private String message;
+
+        public Builder recordedAt(LocalDateTime time) {
+            this.recordedAt = time;
+            return this;
+        }
+
+        public Builder readerName(String readerName) {
+            this.readerName = readerName;
+            return this;
+        }
+
+        public Builder uid(String uid) {
+            this.uid = uid;
+            return this;
+        }
+
+        public Builder outcome(Outcome outcome) {
+            this.outcome = outcome;
+            return this;
+        }
+
+        public Builder finalState(String finalState) {
+            this.finalState = finalState;
+            return this;
+        }
+
+        public Builder profileName(String profileName) {
+            this.profileName = profileName;
+            return this;
+        }
+
+        /**
+         * 태그에 쓴 SDM 기본 URL (피드 행이 있으면 행별 URL)
+         */
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder keyVersion(Integer keyVersion) {
+            this.keyVersion = keyVersion;
+            return this;
+        }
+
+        public Builder statusWords(List<Integer> statusWords) {
+            this.statusWords.addAll(statusWords);
+            return this;
+        }
+
+        public Builder duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        public Builder addStep(String name, boolean success, Duration duration) {
+            this.steps.add(new StepTiming(name, success, duration));
+            return this;
+        }
+
+        public Builder message(String message) {
+            this.message = message;
+            return this;
+        }
+
+        public ProvisioningRecord build() {
+            if (uid == null || outcome == null) {
+                throw new IllegalStateException("UID와 처리 결과는 필수입니다");
+            }
+            return new ProvisioningRecord(this);
+        }
+    }
+
+    /**
+     * 단계별 소요 시간
+     */
+    public static final class StepTiming {
+        public final String name;
+        public final boolean success;
+        public final Duration duration;
+
+        public StepTiming(String name, boolean success, Duration duration) {
+            this.name = name;
+            this.success = success;
+            this.duration = duration;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ProvisioningRecord{uid=" + uid + ", outcome=" + outcome + ", finalState=" + finalState
+            + ", profile=" + profileName + ", steps=" + steps.size() + "}";
+    }
+}
@@ -0,0 +1,31 @@
+package ntagwriter.domain;
+
+/**
+ * 인증 전 프로브로 판별한 태그의 설정 상태
+ */
+public enum ProvisioningState {
+    /**
+     * SDM 비활성, 모든 키가 공장 초기값 - 전체 설정 진행
+     */
+    FACTORY_FRESH("공장 초기 상태"),
+
+    /**
+     * SDM 또는 일부 키만 설정됨 - 남은 단계부터 재개
+     */
+    PARTIALLY_PROVISIONED("부분 설정됨"),
+
+    /**
+     * SDM 활성, 모든 키 변경 완료 - 건너뜀
+     */
+    FULLY_PROVISIONED("설정 완료됨");
+
+    private final String displayName;
+
+    ProvisioningState(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
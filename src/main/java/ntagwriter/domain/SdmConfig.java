@@ -18,6 +18,13 @@ public class SdmConfig {
         this.aesKey = aesKey;
     }
 
+    public SdmConfig(String baseUrl, int picOffset, int sdmMacInputOffset, int sdmMacOffset) {
+        this.baseUrl = baseUrl;
+        this.picOffset = picOffset;
+        this.sdmMacInputOffset = sdmMacInputOffset;
+        this.sdmMacOffset = sdmMacOffset;
+    }
+
     // Getters and Setters
     public String getBaseUrl() {
         return baseUrl;
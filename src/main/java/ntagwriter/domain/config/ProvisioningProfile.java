@@ -0,0 +1,251 @@
+package ntagwriter.domain.config;
+
+import ntagwriter.domain.NtagDefaultConfig;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 프로덕션 설정 프로필 (외부 JSON 또는 내장 NtagDefaultConfig에서 생성)
+ * Immutable value object - Builder.build()에서 검증을 통과한 값만 가진다.
+ *
+ * URL에는 SDM 미러 자리 표시자(enc=0…0 32자, cmac=0…0 16자)가 있어야 하며,
+ * 미러 오프셋은 이 자리 표시자 위치에서 계산한다. 프로필에 오프셋을 적으면 계산값과 일치하는지 검사한다.
+ */
+public final class ProvisioningProfile {
+
+    public static final String ENC_PARAMETER = "enc=";
+    public static final String CMAC_PARAMETER = "cmac=";
+    public static final int ENC_PLACEHOLDER_LENGTH = 32;   // PICCData 16바이트 HEX
+    public static final int CMAC_PLACEHOLDER_LENGTH = 16;  // 절단 CMAC 8바이트 HEX
+
+    private static final String HTTPS_PREFIX = "https://";
+    private static final int MAX_ACCESS_VALUE = 0x0F;
+    // SDMOptions 0xC1 배치(ENCPICCData, SDMMACInput, SDMMAC)는 키로 보호된 미러/MAC만 표현한다 (AN12196 Table 18)
+    private static final int MAX_SDM_KEY_NUMBER = 0x04;
+
+    private final String name;
+    private final String baseUrl;
+
+    // Access Rights
+    private final byte readAccess;
+    private final byte writeAccess;
+    private final byte readWriteAccess;
+    private final byte changeAccess;
+
+    // SDM Access Rights
+    private final byte sdmMetaRead;
+    private final byte sdmFileRead;
+    private final byte sdmCounterRet;
+
+    // 프로필에 명시된 오프셋 (없으면 null - 계산값 사용)
+    private final Integer piccDataOffset;
+    private final Integer sdmMacInputOffset;
+    private final Integer sdmMacOffset;
+
+    private ProvisioningProfile(Builder builder) {
+        this.name = builder.name;
+        this.baseUrl = builder.baseUrl;
+        this.readAccess = builder.readAccess;
+        this.writeAccess = builder.writeAccess;
+        this.readWriteAccess = builder.readWriteAccess;
+        this.changeAccess = builder.changeAccess;
+        this.sdmMetaRead = builder.sdmMetaRead;
+        this.sdmFileRead = builder.sdmFileRead;
+        this.sdmCounterRet = builder.sdmCounterRet;
+        this.piccDataOffset = builder.piccDataOffset;
+        this.sdmMacInputOffset = builder.sdmMacInputOffset;
+        this.sdmMacOffset = builder.sdmMacOffset;
+    }
+
+    /**
+     * 내장 설정을 프로필로 변환 (외부 프로필이 없을 때의 기본값)
+     */
+    public static ProvisioningProfile from(NtagDefaultConfig config) {
+        return new Builder()
+            .name(config.name())
+            .baseUrl(config.getBaseUrl())
+            .accessRights(config.getReadAccess(), config.getWriteAccess(),
+                config.getReadWriteAccess(), config.getChangeAccess())
+            .sdmAccessRights(config.getSdmMetaRead(), config.getSdmFileRead(), config.getSdmCounterRet())
+            .offsets(config.getPiccDataOffset(), config.getSdmMacInputOffset(), config.getSdmMacOffset())
+            .build();
+    }
+
+    /**
+     * URL만 바꾼 프로필 (태그별 피드 행 적용용)
+     * URL 길이가 달라지므로 명시된 오프셋은 버리고 컴파일 시 다시 계산한다.
+     *
+     * @throws IllegalArgumentException URL이 유효하지 않은 경우
+     */
+    public ProvisioningProfile withBaseUrl(String url) {
+        return new Builder()
+            .name(name)
+            .baseUrl(url)
+            .accessRights(readAccess, writeAccess, readWriteAccess, changeAccess)
+            .sdmAccessRights(sdmMetaRead, sdmFileRead, sdmCounterRet)
+            .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public byte getReadAccess() {
+        return readAccess;
+    }
+
+    public byte getWriteAccess() {
+        return writeAccess;
+    }
+
+    public byte getReadWriteAccess() {
+        return readWriteAccess;
+    }
+
+    public byte getChangeAccess() {
+        return changeAccess;
+    }
+
+    public Integer getPiccDataOffset() {
+        return piccDataOffset;
+    }
+
+    public Integer getSdmMacInputOffset() {
+        return sdmMacInputOffset;
+    }
+
+    public Integer getSdmMacOffset() {
+        return sdmMacOffset;
+    }
+
+    /**
+     * Access Rights 2바이트 (NtagDefaultConfig.getAccessRightsBytes와 같은 배치)
+     */
+    public byte[] getAccessRightsBytes() {
+        byte byte0 = (byte) ((readWriteAccess << 4) | changeAccess);
+        byte byte1 = (byte) ((readAccess << 4) | writeAccess);
+        return new byte[] { byte0, byte1 };
+    }
+
+    /**
+     * SDM Access Rights 2바이트 (NtagDefaultConfig.getSdmAccessRightsBytes와 같은 배치)
+     */
+    public byte[] getSdmAccessRightsBytes() {
+        byte byte0 = (byte) (0xF0 | sdmCounterRet);
+        byte byte1 = (byte) ((sdmMetaRead << 4) | sdmFileRead);
+        return new byte[] { byte0, byte1 };
+    }
+
+    @Override
+    public String toString() {
+        return "ProvisioningProfile{name=" + name + ", baseUrl=" + baseUrl + "}";
+    }
+
+    /**
+     * Builder 패턴
+     */
+    public static class Builder {
+        private String name;
+        private String baseUrl;
+        private byte readAccess = 0x0E;
+        private byte writeAccess = 0x00;
+        private byte readWriteAccess = 0x00;
+        private byte changeAccess = 0x00;
+        private byte sdmMetaRead = 0x02;
+        private byte sdmFileRead = 0x01;
+        private byte sdmCounterRet = 0x01;
+        private Integer piccDataOffset;
+        private Integer sdmMacInputOffset;
+        private Integer sdmMacOffset;
+
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        public Builder accessRights(int read, int write, int readWrite, int change) {
+            this.readAccess = accessValue("read", read);
+            this.writeAccess = accessValue("write", write);
+            this.readWriteAccess = accessValue("readWrite", readWrite);
+            this.changeAccess = accessValue("change", change);
+            return this;
+        }
+
+        public Builder sdmAccessRights(int metaRead, int fileRead, int counterRet) {
+            this.sdmMetaRead = accessValue("metaRead", metaRead);
+            this.sdmFileRead = accessValue("fileRead", fileRead);
+            this.sdmCounterRet = accessValue("counterRet", counterRet);
+            return this;
+        }
+
+        /**
+         * 기대 오프셋 (선택) - 컴파일 시 URL에서 계산한 값과 비교한다.
+         */
+        public Builder offsets(Integer piccDataOffset, Integer sdmMacInputOffset, Integer sdmMacOffset) {
+            this.piccDataOffset = piccDataOffset;
+            this.sdmMacInputOffset = sdmMacInputOffset;
+            this.sdmMacOffset = sdmMacOffset;
+            return this;
+        }
+
+        private static byte accessValue(String field, int value) {
+            if (value < 0 || value > MAX_ACCESS_VALUE) {
+                throw new IllegalArgumentException(field + " 접근 권한은 0x0~0xF 범위여야 합니다: " + value);
+            }
+            return (byte) value;
+        }
+
+        /**
+         * @throws IllegalArgumentException 필수 값 누락, URL 형식 또는 자리 표시자 오류,
+         *                                  ChangeFileSettings 배치가 지원하지 않는 SDM 접근 권한
+         */
+        public ProvisioningProfile build() {
+            if (name == null || name.isBlank()) {
+                throw new IllegalArgumentException("프로필 이름이 없습니다");
+            }
+            if (baseUrl == null || !baseUrl.startsWith(HTTPS_PREFIX)) {
+                throw new IllegalArgumentException("baseUrl은 https://로 시작해야 합니다: " + baseUrl);
+            }
+            if (!StandardCharsets.US_ASCII.newEncoder().canEncode(baseUrl)) {
+                throw new IllegalArgumentException("baseUrl에 ASCII가 아닌 문자가 있습니다");
+            }
+            requirePlaceholder(ENC_PARAMETER, ENC_PLACEHOLDER_LENGTH);
+            requirePlaceholder(CMAC_PARAMETER, CMAC_PLACEHOLDER_LENGTH);
+            if (baseUrl.indexOf(ENC_PARAMETER) > baseUrl.indexOf(CMAC_PARAMETER)) {
+                throw new IllegalArgumentException("enc 자리 표시자가 cmac보다 앞에 있어야 합니다");
+            }
+            requireSdmKey("metaRead", sdmMetaRead,
+                "0xE(평문 UID/카운터 미러)와 0xF(미러 없음)는 ENCPICCData 배치로 쓸 수 없습니다");
+            requireSdmKey("fileRead", sdmFileRead, "0xF(SDM MAC 없음)는 SDMMAC 배치로 쓸 수 없습니다");
+            return new ProvisioningProfile(this);
+        }
+
+        /**
+         * ChangeFileSettings는 SDMOptions 0xC1과 암호화 미러/MAC 오프셋만 쓰므로 SDM 키(0x0~0x4)만 허용
+         */
+        private static void requireSdmKey(String field, byte value, String reason) {
+            if (value > MAX_SDM_KEY_NUMBER) {
+                throw new IllegalArgumentException(String.format(
+                    "SDM %s 접근 권한 0x%X은 지원하지 않습니다 - 키 번호 0x0~0x4만 가능 (%s)", field, value, reason));
+            }
+        }
+
+        private void requirePlaceholder(String parameter, int length) {
+            int index = baseUrl.indexOf(parameter);
+            String placeholder = "0".repeat(length);
+            if (index < 0 || !baseUrl.startsWith(placeholder, index + parameter.length())) {
+                throw new IllegalArgumentException(
+                    "baseUrl에 " + parameter + " 자리 표시자(0 × " + length + ")가 없습니다");
+            }
+        }
+    }
+}
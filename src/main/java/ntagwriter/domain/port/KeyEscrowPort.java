@@ -0,0 +1,90 @@
+package ntagwriter.domain.port;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * 키 에스크로 포트 인터페이스
+ * 태그에 적용하는 새 키를 UID별로 보관한다. 백엔드/재작업 스테이션이 UID로 키를 다시 찾는다.
+ *
+ * 기록은 두 단계다: {@link #deposit}은 기록만 하고 바로 반환하며, {@link #awaitDurable}이 디스크 반영까지 기다린다.
+ * 여러 기록이 한 번의 동기화를 나눠 쓰도록, 태그에 키를 쓰기(ChangeKey) 직전에만 반영을 기다리면 된다.
+ */
+public interface KeyEscrowPort extends AutoCloseable {
+
+    /**
+     * 키 기록 (디스크 반영은 기다리지 않음)
+     *
+     * @param uid        태그 UID (HEX)
+     * @param key        태그에 적용할 키
+     * @param keyVersion 키 버전
+     * @return {@link #awaitDurable}에 넘길 영수증
+     */
+    long deposit(String uid, byte[] key, byte keyVersion) throws EscrowException;
+
+    /**
+     * 영수증의 기록이 디스크에 반영될 때까지 대기
+     */
+    void awaitDurable(long receipt) throws EscrowException;
+
+    /**
+     * UID의 가장 최근 키 조회
+     */
+    Optional<EscrowedKey> find(String uid) throws EscrowException;
+
+    @Override
+    void close();
+
+    /**
+     * 보관된 키
+     */
+    final class EscrowedKey {
+        private final String uid;
+        private final byte[] key;
+        private final byte keyVersion;
+        private final Instant depositedAt;
+
+        public EscrowedKey(String uid, byte[] key, byte keyVersion, Instant depositedAt) {
+            this.uid = uid;
+            this.key = key.clone();
+            this.keyVersion = keyVersion;
+            this.depositedAt = depositedAt;
+        }
+
+        public String uid() {
+            return uid;
+        }
+
+        public byte[] key() {
+            return key.clone();
+        }
+
+        public byte keyVersion() {
+            return keyVersion;
+        }
+
+        public Instant depositedAt() {
+            return depositedAt;
+        }
+
+        @Override
+        public String toString() {
+            // 키 값은 출력하지 않음
+            return "EscrowedKey{uid=" + uid + ", keyVersion=" + String.format("0x%02X", keyVersion)
+                + ", depositedAt=" + depositedAt + '}';
+        }
+    }
+
+    /**
+     * 에스크로 예외
+     */
+    class EscrowException extends Exception {
+        public EscrowException(String message) {
+            super(message);
+        }
+
+        public EscrowException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
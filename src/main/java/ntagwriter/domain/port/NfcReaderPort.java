@@ -1,5 +1,6 @@
 package ntagwriter.domain.port;
 
+import ntagwriter.comm.LinkParameters;
 import ntagwriter.domain.tag.Tag;
 
 /**
@@ -12,8 +13,9 @@ public interface NfcReaderPort {
      * 리더기 연결
      *
      * @return 연결 성공 여부
+     * @throws ReaderException 리더기 조회 중 오류 시
      */
-    boolean connect();
+    boolean connect() throws ReaderException;
 
     /**
      * 리더기 연결 해제
@@ -32,8 +34,18 @@ public interface NfcReaderPort {
      *
      * @param timeoutMs 타임아웃 (밀리초)
      * @return 감지된 태그, 없으면 null
+     * @throws ReaderException 감지 중 오류 시
      */
-    Tag waitForTag(long timeoutMs);
+    Tag waitForTag(long timeoutMs) throws ReaderException;
+
+    /**
+     * 태그 제거 대기
+     *
+     * @param timeoutMs 타임아웃 (밀리초, 0이면 무한 대기)
+     * @return 제거되었으면 true, 타임아웃이면 false
+     * @throws ReaderException 대기 중 오류 시
+     */
+    boolean waitForTagRemoval(long timeoutMs) throws ReaderException;
 
     /**
      * 태그 존재 여부 확인
@@ -51,6 +63,41 @@ public interface NfcReaderPort {
      */
     byte[] sendCommand(byte[] command) throws ReaderException;
 
+    /**
+     * APDU 명령 전송 (상태 워드 검사 없이 원시 응답 반환)
+     * 91AF(추가 프레임) 등 9000 이외의 정상 응답을 쓰는 NTAG424 네이티브 명령용
+     *
+     * @param command APDU 명령 바이트 배열
+     * @return 응답 데이터 + SW1 SW2
+     * @throws ReaderException 통신 오류 시
+     */
+    byte[] transmit(byte[] command) throws ReaderException;
+
+    /**
+     * 감지된 태그와의 링크 파라미터 (프레임 크기 기반 청크 분할용)
+     *
+     * @return 링크 파라미터, 알 수 없으면 기본값
+     */
+    default LinkParameters getLinkParameters() {
+        return LinkParameters.DEFAULT;
+    }
+
+    /**
+     * 진행 중인 교환을 중단하고 카드 연결을 해제 (다른 스레드에서 호출)
+     * 기한을 넘긴 태그를 포기하고 다음 태그로 넘어갈 때 사용한다.
+     */
+    default void abortExchange() {
+    }
+
+    /**
+     * 감지한 태그의 캐시된 타입을 버림 (다음 감지 때 GetVersion으로 다시 확인)
+     * 애플리케이션 선택이나 인증이 실패해 캐시된 타입이 틀렸을 수 있을 때 호출한다.
+     *
+     * @param tag 감지된 태그
+     */
+    default void invalidateTagType(Tag tag) {
+    }
+
     /**
      * 리더기 정보 조회
      *
@@ -0,0 +1,57 @@
+package ntagwriter.domain.port;
+
+import ntagwriter.domain.ProvisioningRecord;
+import ntagwriter.domain.tag.Tag;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+/**
+ * 설정 원장 포트 인터페이스
+ * 태그마다 설정 결과를 영속 기록한다. 기록 호출은 설정 스레드에서 오므로 저장 지연을 더하지 않아야 한다.
+ */
+public interface ProvisioningLedgerPort extends AutoCloseable {
+
+    /**
+     * 기록 요청 (저장은 비동기일 수 있음)
+     *
+     * @param record 태그 한 개의 설정 기록
+     */
+    void record(ProvisioningRecord record);
+
+    /**
+     * 설정 완료 UID를 기록 순번 순으로 전달 (UID 등록부 적재용)
+     *
+     * @param afterSequence 이 순번 이후만 (처음부터는 0)
+     * @param consumer      UID 키 ({@link Tag#uidKey}) 수신
+     * @return 마지막으로 전달한 순번 (없으면 afterSequence)
+     */
+    long loadProvisionedUids(long afterSequence, LongConsumer consumer) throws LedgerException;
+
+    /**
+     * 설정 완료 기록이 있는 UID의 첫 완료 시각 (UID 색인 조회)
+     *
+     * @param uidKey UID 키 ({@link Tag#uidKey})
+     */
+    Optional<LocalDateTime> findProvisioned(long uidKey) throws LedgerException;
+
+    /**
+     * 대기 중인 기록을 모두 저장한 뒤 닫기
+     */
+    @Override
+    void close();
+
+    /**
+     * 원장 예외
+     */
+    class LedgerException extends Exception {
+        public LedgerException(String message) {
+            super(message);
+        }
+
+        public LedgerException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ntagwriter.domain.port;
+
+import ntagwriter.domain.FeedRow;
+
+import java.util.Optional;
+
+/**
+ * 태그별 데이터 피드 포트 인터페이스
+ * 입력 파일의 행을 순서대로 내주고, 어떤 UID가 어떤 행을 썼는지 기록해 재시작 시 정확히 이어서 진행한다.
+ */
+public interface TagFeedPort extends AutoCloseable {
+
+    /**
+     * 아직 배정되지 않은 다음 행 (파일 순서)
+     *
+     * @return 다음 행, 더 없으면 null
+     * @throws FeedException 읽기/형식 오류 시
+     */
+    FeedRow next() throws FeedException;
+
+    /**
+     * UID에 이미 배정된 행 (재투입/재개된 태그용)
+     *
+     * @param uid 태그 UID (HEX)
+     * @return 배정된 행
+     * @throws FeedException 읽기 오류 시
+     */
+    Optional<FeedRow> assignedRow(String uid) throws FeedException;
+
+    /**
+     * 행을 UID에 배정 (영속 기록)
+     *
+     * @param uid 태그 UID (HEX)
+     * @param row next()로 받은 행
+     * @throws FeedException 기록 오류 시
+     */
+    void assign(String uid, FeedRow row) throws FeedException;
+
+    /**
+     * 피드 닫기 (배정 기록 정리, 빌린 자원 반납)
+     */
+    @Override
+    void close() throws FeedException;
+
+    /**
+     * 피드 예외
+     */
+    class FeedException extends Exception {
+        public FeedException(String message) {
+            super(message);
+        }
+
+        public FeedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ntagwriter.domain.port;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 설정 완료 UID 등록부 포트 인터페이스
+ * 감지한 UID가 이전에 설정을 끝낸 태그인지 확인해 이중 설정과 일련번호 중복 배정을 막는다.
+ *
+ * {@link #contains}는 태그마다 설정 스레드에서 호출되므로 메모리에서만 답한다 (수천만 개에서도 수 마이크로초).
+ * 영속 기록은 원장의 UID 색인이 맡고, {@link #confirm}은 중복으로 판정된 드문 경우에만 원장을 조회한다.
+ */
+public interface UidRegistryPort extends AutoCloseable {
+
+    /**
+     * 이전에 설정을 끝낸 UID인지 (메모리 조회)
+     *
+     * @param uid 태그 UID (HEX)
+     */
+    boolean contains(String uid);
+
+    /**
+     * 설정을 끝낸 UID 등록 (원장 기록은 원장 포트가 따로 함)
+     */
+    void add(String uid);
+
+    /**
+     * 원장 색인에서 이전 설정 기록 확인
+     *
+     * @return 이전 설정 완료 시각, 원장에 아직 반영되지 않았거나 원장이 없으면 빈 값
+     */
+    Optional<LocalDateTime> confirm(String uid);
+
+    /**
+     * 등록부 스냅샷을 저장한 뒤 닫기
+     */
+    @Override
+    void close();
+
+    /**
+     * 등록부 예외
+     */
+    class RegistryException extends Exception {
+        public RegistryException(String message) {
+            super(message);
+        }
+
+        public RegistryException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
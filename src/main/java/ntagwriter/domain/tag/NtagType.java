@@ -25,24 +25,106 @@ public enum NtagType {
         return supportsSdm;
     }
 
+    // GetVersion HW 정보 (NT4H2421Gx Table 54)
+    private static final byte VENDOR_NXP = 0x04;
+    private static final byte HW_TYPE_NTAG = 0x04;
+    private static final byte HW_SUBTYPE_424_DNA = 0x02;
+    private static final byte HW_SUBTYPE_424_DNA_TT = 0x08;
+
+    // 네이티브 GET_VERSION(60h) 응답 (NTAG213/215/216 Table 28): 고정 헤더 7바이트 + 저장 크기 + 프로토콜
+    private static final byte NATIVE_HW_SUBTYPE_NTAG21X = 0x02;
+    private static final byte NATIVE_STORAGE_213 = 0x0F;
+    private static final byte NATIVE_STORAGE_215 = 0x11;
+    private static final byte NATIVE_STORAGE_216 = 0x13;
+    private static final byte NATIVE_PROTOCOL_ISO14443_3 = 0x03;
+
+    // PC/SC Part 3 비접촉 스토리지 카드 ATR historical bytes: 80 4F 0C, RID A0 00 00 03 06, 표준, 카드 이름(2)
+    private static final byte[] PCSC_STORAGE_CARD_PREFIX = {
+        (byte) 0x80, 0x4F, 0x0C, (byte) 0xA0, 0x00, 0x00, 0x03, 0x06
+    };
+    private static final byte PCSC_STANDARD_ISO14443A_PART3 = 0x03;
+    private static final int PCSC_CARD_NAME_ULTRALIGHT = 0x0003;
+    private static final int PCSC_CARD_NAME_ULTRALIGHT_C = 0x003A;
+
     /**
-     * UID 기반으로 태그 타입 식별
+     * UID가 NXP 제조사 코드(0x04)로 시작하는지 확인
+     * UID만으로는 NTAG 제품군을 구분할 수 없으므로 타입 식별은 GetVersion 응답을 사용
      *
      * @param uid UID 바이트 배열
+     * @return NXP 7바이트 UID이면 true
+     */
+    public static boolean isNxpUid(byte[] uid) {
+        return uid != null && uid.length >= 7 && uid[0] == VENDOR_NXP;
+    }
+
+    /**
+     * ISO 래핑 GetVersion(90 60) 첫 프레임으로 태그 타입 식별
+     * NTAG424 DNA 계열만 응답한다: 7바이트 (VendorID, HWType, HWSubType, Major, Minor, Storage, Protocol)
+     *
+     * NTAG21x는 ISO-DEP가 아니라 90 60에 응답하지 않으므로 UNKNOWN이 된다.
+     * NTAG21x는 {@link #isType2StorageCard}로 먼저 가려 {@link #identifyByNativeVersion}으로 식별한다.
+     *
+     * @param version GetVersion 응답 데이터 (SW 제외)
      * @return 식별된 태그 타입
      */
-    public static NtagType identifyByUid(byte[] uid) {
-        if (uid == null || uid.length < 7) {
+    public static NtagType identifyByVersion(byte[] version) {
+        if (version == null) {
             return UNKNOWN;
         }
 
-        // NXP 제조사 코드 확인 (0x04)
-        if (uid[0] != 0x04) {
-            return UNKNOWN;
+        if (version.length == 7 && version[0] == VENDOR_NXP && version[1] == HW_TYPE_NTAG) {
+            return switch (version[2]) {
+                case HW_SUBTYPE_424_DNA -> NTAG_424_DNA;
+                case HW_SUBTYPE_424_DNA_TT -> NTAG_424_DNA_TT;
+                default -> UNKNOWN;
+            };
+        }
+
+        return UNKNOWN;
+    }
+
+    /**
+     * ATR historical bytes가 PC/SC Part 3 Type 2(Ultralight 계열) 스토리지 카드인지 확인
+     * NTAG21x는 리더기가 이 형식의 ATR을 만들어 주며, ISO-DEP 태그(NTAG424)는 ATS historical bytes가 온다.
+     *
+     * @param historicalBytes ATR historical bytes
+     * @return ISO14443A Part 3 Ultralight 계열이면 true
+     */
+    public static boolean isType2StorageCard(byte[] historicalBytes) {
+        if (historicalBytes == null || historicalBytes.length < PCSC_STORAGE_CARD_PREFIX.length + 3) {
+            return false;
         }
+        for (int i = 0; i < PCSC_STORAGE_CARD_PREFIX.length; i++) {
+            if (historicalBytes[i] != PCSC_STORAGE_CARD_PREFIX[i]) {
+                return false;
+            }
+        }
+        int standard = PCSC_STORAGE_CARD_PREFIX.length;
+        int cardName = ((historicalBytes[standard + 1] & 0xFF) << 8) | (historicalBytes[standard + 2] & 0xFF);
+        return historicalBytes[standard] == PCSC_STANDARD_ISO14443A_PART3
+            && (cardName == PCSC_CARD_NAME_ULTRALIGHT || cardName == PCSC_CARD_NAME_ULTRALIGHT_C);
+    }
 
-        // TODO: 실제 태그 타입 식별 로직 구현
-        // 현재는 NTAG 424 DNA로 가정
-        return NTAG_424_DNA;
+    /**
+     * 네이티브 GET_VERSION(60h) 응답으로 NTAG21x 식별
+     * 8바이트 (고정 헤더, VendorID, ProductType, SubType, Major, Minor, StorageSize, Protocol)의 저장 크기로 구분
+     *
+     * @param version 네이티브 GET_VERSION 응답 데이터 (SW 제외)
+     * @return 식별된 태그 타입 (NTAG21x가 아니면 UNKNOWN)
+     */
+    public static NtagType identifyByNativeVersion(byte[] version) {
+        if (version == null || version.length != 8) {
+            return UNKNOWN;
+        }
+        if (version[0] != 0x00 || version[1] != VENDOR_NXP || version[2] != HW_TYPE_NTAG
+            || version[3] != NATIVE_HW_SUBTYPE_NTAG21X || version[7] != NATIVE_PROTOCOL_ISO14443_3) {
+            return UNKNOWN;
+        }
+        return switch (version[6]) {
+            case NATIVE_STORAGE_213 -> NTAG_213;
+            case NATIVE_STORAGE_215 -> NTAG_215;
+            case NATIVE_STORAGE_216 -> NTAG_216;
+            default -> UNKNOWN;
+        };
     }
-}
\ No newline at end of file
+}
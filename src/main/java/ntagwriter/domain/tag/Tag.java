@@ -18,7 +18,7 @@ public final class Tag {
     public final boolean isLocked;
 
     public Tag(byte[] uid) {
-        this(uid, NtagType.identifyByUid(uid), TagStatus.DETECTED, null, 0, false, false);
+        this(uid, NtagType.UNKNOWN, TagStatus.DETECTED, null, 0, false, false);
     }
 
     public Tag(byte[] uid, NtagType type) {
@@ -70,6 +70,27 @@ public final class Tag {
         return sb.toString();
     }
 
+    public long uidKey() {
+        return uidKey(uid);
+    }
+
+    /**
+     * UID를 long 하나로 압축 (최상위 바이트 = UID 길이, 나머지 = UID 바이트)
+     * 7바이트 UID와 4바이트 랜덤 ID가 서로 겹치지 않고, 0은 나오지 않는다.
+     *
+     * @throws IllegalArgumentException UID가 비었거나 7바이트보다 길면
+     */
+    public static long uidKey(byte[] uid) {
+        if (uid == null || uid.length == 0 || uid.length > 7) {
+            throw new IllegalArgumentException("UID는 1~7바이트여야 합니다: " + (uid == null ? null : uid.length));
+        }
+        long key = uid.length;
+        for (byte b : uid) {
+            key = (key << 8) | (b & 0xFF);
+        }
+        return key << (8 * (7 - uid.length));
+    }
+
     public boolean isNtag424() {
         return type == NtagType.NTAG_424_DNA || type == NtagType.NTAG_424_DNA_TT;
     }
@@ -0,0 +1,102 @@
+package ntagwriter.domain.tag;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UID 접두사(생산 배치) 단위 태그 타입 캐시
+ * 같은 릴의 태그는 UID 상위 바이트를 공유하므로, 같은 타입이 연속으로 확인된
+ * 접두사는 이후 GetVersion 왕복 없이 타입을 결정한다.
+ */
+public final class TagTypeCache {
+
+    private static final int DEFAULT_PREFIX_LENGTH = 3;       // 0x04(NXP) + 상위 2바이트
+    private static final int DEFAULT_REQUIRED_CONFIRMATIONS = 3;
+
+    private final int prefixLength;
+    private final int requiredConfirmations;
+    private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    public TagTypeCache() {
+        this(DEFAULT_PREFIX_LENGTH, DEFAULT_REQUIRED_CONFIRMATIONS);
+    }
+
+    public TagTypeCache(int prefixLength, int requiredConfirmations) {
+        if (prefixLength < 1 || prefixLength > 4) {
+            throw new IllegalArgumentException("UID 접두사 길이는 1~4 바이트여야 합니다");
+        }
+        if (requiredConfirmations < 1) {
+            throw new IllegalArgumentException("확인 횟수는 1 이상이어야 합니다");
+        }
+        this.prefixLength = prefixLength;
+        this.requiredConfirmations = requiredConfirmations;
+    }
+
+    /**
+     * 충분히 확인된 접두사의 태그 타입 조회
+     *
+     * @param uid 태그 UID
+     * @return 확정된 타입, 아직 확인이 부족하면 empty
+     */
+    public Optional<NtagType> lookup(byte[] uid) {
+        if (!NtagType.isNxpUid(uid)) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(prefixKey(uid));
+        if (entry == null || entry.confirmations < requiredConfirmations) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.type);
+    }
+
+    /**
+     * GetVersion으로 식별한 결과 기록
+     * 같은 접두사에서 다른 타입이 나오면 확인 횟수를 처음부터 다시 센다.
+     *
+     * @param uid  태그 UID
+     * @param type GetVersion으로 식별한 타입
+     */
+    public void record(byte[] uid, NtagType type) {
+        if (!NtagType.isNxpUid(uid) || type == NtagType.UNKNOWN) {
+            return;
+        }
+        entries.compute(prefixKey(uid), (key, current) ->
+            current != null && current.type == type
+                ? new Entry(type, current.confirmations + 1)
+                : new Entry(type, 1));
+    }
+
+    /**
+     * 캐시된 타입이 실제 태그와 맞지 않았을 때 해당 접두사 무효화
+     *
+     * @param uid 태그 UID
+     */
+    public void invalidate(byte[] uid) {
+        if (NtagType.isNxpUid(uid)) {
+            entries.remove(prefixKey(uid));
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private int prefixKey(byte[] uid) {
+        int key = 0;
+        for (int i = 0; i < prefixLength; i++) {
+            key = (key << 8) | (uid[i] & 0xFF);
+        }
+        return key;
+    }
+
+    private static final class Entry {
+        final NtagType type;
+        final int confirmations;
+
+        Entry(NtagType type, int confirmations) {
+            this.type = type;
+            this.confirmations = confirmations;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package ntagwriter.infrastructure.nfc.emulator;
+
+import ntagwriter.comm.LinkParameters;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.tag.NtagType;
+import ntagwriter.domain.tag.Tag;
+import ntagwriter.domain.tag.TagTypeCache;
+import ntagwriter.util.ApduCommand;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 프로세스 내 NTAG424 에뮬레이터를 태그로 내보내는 가상 리더기
+ * 실제 리더기와 같은 NfcReaderPort 뒤에 있으므로 ReaderPortStrategy/핸들러 체인이 그대로 동작한다.
+ *
+ * 정해진 수의 새 태그를 차례로 올려주고, 다 쓰면 감지 타임아웃(null)을 돌려 배치를 끝낸다.
+ * 에뮬레이터 안에서 쓴 CPU 시간/할당 바이트를 따로 집계해 벤치마크가 호스트 비용만 분리할 수 있게 한다.
+ */
+public class EmulatedNfcReader implements NfcReaderPort {
+
+    private static final byte[] GET_UID_COMMAND = {(byte) 0xFF, (byte) 0xCA, 0x00, 0x00, 0x00};
+    private static final byte[] GET_ATS_PREFIX = {(byte) 0xFF, (byte) 0xCA, 0x01, 0x00};
+    // TL || T0(FSCI=7 → 128바이트) || TA || TB || TC || 히스토리컬 바이트
+    private static final byte[] ATS = {0x06, 0x77, 0x77, 0x71, 0x02, (byte) 0x80};
+    private static final byte[] SW_SUCCESS = {(byte) 0x90, 0x00};
+    private static final byte[] SW_NOT_SUPPORTED = {0x6A, (byte) 0x81};
+    private static final byte UID_BATCH_MARKER = (byte) 0xBE;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final String readerName;
+    private final int readerIndex;
+    private final AtomicInteger remainingTags = new AtomicInteger();
+    private final TagTypeCache tagTypeCache = new TagTypeCache();
+    private final LongAdder emulatorCpuNanos = new LongAdder();
+    private final LongAdder emulatorAllocatedBytes = new LongAdder();
+    private final LongAdder exchanges = new LongAdder();
+    private int serial;
+
+    private boolean connected;
+    // abortExchange가 감시 스레드에서 비우므로 volatile
+    private volatile Ntag424Emulator tag;
+    private LinkParameters linkParameters = LinkParameters.DEFAULT;
+
+    /**
+     * @param readerIndex 리더기 번호 (UID에 넣어 리더기 간 UID가 겹치지 않게 함)
+     */
+    public EmulatedNfcReader(int readerIndex) {
+        this.readerIndex = readerIndex;
+        this.readerName = "Emulated NTAG424 #" + readerIndex;
+    }
+
+    /**
+     * 올려줄 태그 수 추가
+     *
+     * @param count 태그 수
+     */
+    public void load(int count) {
+        remainingTags.addAndGet(count);
+    }
+
+    /**
+     * 에뮬레이터가 태그 쪽 처리에 쓴 CPU 시간 (나노초, 측정 불가 시 0)
+     */
+    public long emulatorCpuNanos() {
+        return emulatorCpuNanos.sum();
+    }
+
+    /**
+     * 에뮬레이터가 태그 쪽 처리에 할당한 바이트 (측정 불가 시 0)
+     */
+    public long emulatorAllocatedBytes() {
+        return emulatorAllocatedBytes.sum();
+    }
+
+    public long exchanges() {
+        return exchanges.sum();
+    }
+
+    @Override
+    public boolean connect() {
+        connected = true;
+        return true;
+    }
+
+    @Override
+    public void disconnect() {
+        connected = false;
+        tag = null;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public Tag waitForTag(long timeoutMs) throws ReaderException {
+        if (!connected) {
+            throw new ReaderException("리더기가 연결되지 않았습니다");
+        }
+        if (remainingTags.getAndDecrement() <= 0) {
+            remainingTags.incrementAndGet();
+            return null;  // 더 올릴 태그 없음 = 감지 타임아웃
+        }
+
+        // 04(NXP) || BE || 리더기 번호 || 일련번호(4) - 같은 리더기의 태그는 UID 접두사(릴)를 공유
+        int number = serial++;
+        byte[] uid = {0x04, UID_BATCH_MARKER, (byte) readerIndex,
+            (byte) (number >> 24), (byte) (number >> 16), (byte) (number >> 8), (byte) number};
+        Ntag424Emulator emulator = new Ntag424Emulator(uid);
+        tag = emulator;
+        linkParameters = LinkParameters.DEFAULT.withAts(ATS);
+        return new Tag(uid, identifyTagType(emulator, uid));
+    }
+
+    private NtagType identifyTagType(Ntag424Emulator emulator, byte[] uid) {
+        NtagType cachedType = tagTypeCache.lookup(uid).orElse(null);
+        if (cachedType != null) {
+            return cachedType;
+        }
+
+        // 실제 리더기 경로와 같이 91AF 체인을 끝까지 받음 (열어 두면 다음 명령이 91CA)
+        byte[] response = exchange(emulator, ApduCommand.getVersion());
+        NtagType type = NtagType.identifyByVersion(Arrays.copyOf(response, response.length - 2));
+        while (isAdditionalFrame(response)) {
+            response = exchange(emulator, ApduCommand.additionalFrame());
+        }
+        tagTypeCache.record(uid, type);
+        return type;
+    }
+
+    private static boolean isAdditionalFrame(byte[] response) {
+        return response.length >= 2 && response[response.length - 2] == (byte) 0x91
+            && response[response.length - 1] == (byte) 0xAF;
+    }
+
+    @Override
+    public void invalidateTagType(Tag tag) {
+        if (tag != null) {
+            tagTypeCache.invalidate(tag.uid);
+        }
+    }
+
+    @Override
+    public boolean waitForTagRemoval(long timeoutMs) {
+        Ntag424Emulator removed = tag;
+        tag = null;
+        if (removed != null) {
+            removed.leaveField();
+        }
+        linkParameters = LinkParameters.DEFAULT;
+        return true;
+    }
+
+    @Override
+    public boolean isTagPresent() {
+        return connected && tag != null;
+    }
+
+    @Override
+    public byte[] sendCommand(byte[] command) throws ReaderException {
+        byte[] response = transmit(command);
+        int length = response.length;
+        if (response[length - 2] != (byte) 0x90 || response[length - 1] != 0x00) {
+            throw new ReaderException(String.format("APDU 오류 (SW=%02X%02X)", response[length - 2], response[length - 1]));
+        }
+        return Arrays.copyOf(response, length - 2);
+    }
+
+    @Override
+    public byte[] transmit(byte[] command) throws ReaderException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ReaderException("교환이 중단되었습니다");
+        }
+        Ntag424Emulator activeTag = tag;
+        if (activeTag == null) {
+            throw new ReaderException("태그가 연결되지 않았습니다");
+        }
+
+        // 리더기 의사 APDU (FF CA): UID / ATS
+        if (Arrays.equals(command, GET_UID_COMMAND)) {
+            return concat(activeTag.uid(), SW_SUCCESS);
+        }
+        if (command.length >= 4 && Arrays.equals(Arrays.copyOf(command, 4), GET_ATS_PREFIX)) {
+            return concat(ATS, SW_SUCCESS);
+        }
+        if (command[0] == (byte) 0xFF) {
+            return SW_NOT_SUPPORTED.clone();
+        }
+        return exchange(activeTag, command);
+    }
+
+    private byte[] exchange(Ntag424Emulator emulator, byte[] command) {
+        exchanges.increment();
+        if (THREADS == null) {
+            return emulator.process(command);
+        }
+        long cpuStart = THREADS.getCurrentThreadCpuTime();
+        long allocatedStart = THREADS.getCurrentThreadAllocatedBytes();
+        byte[] response = emulator.process(command);
+        emulatorAllocatedBytes.add(THREADS.getCurrentThreadAllocatedBytes() - allocatedStart);
+        emulatorCpuNanos.add(THREADS.getCurrentThreadCpuTime() - cpuStart);
+        return response;
+    }
+
+    @Override
+    public LinkParameters getLinkParameters() {
+        return linkParameters;
+    }
+
+    /**
+     * 기한 초과 시 태그를 필드에서 뺀 것으로 처리 (다음 transmit은 실패)
+     */
+    @Override
+    public void abortExchange() {
+        Ntag424Emulator abandoned = tag;
+        tag = null;
+        if (abandoned != null) {
+            abandoned.leaveField();
+        }
+    }
+
+    @Override
+    public String getReaderName() {
+        return readerName;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * 스레드별 CPU/할당 측정 지원 JVM이면 HotSpot 확장 빈, 아니면 null
+     */
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)) {
+            return null;
+        }
+        if (!bean.isCurrentThreadCpuTimeSupported() || !bean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        bean.setThreadCpuTimeEnabled(true);
+        bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+}
@@ -0,0 +1,627 @@
+package ntagwriter.infrastructure.nfc.emulator;
+
+import ntagwriter.crypto.AesEncryption;
+import ntagwriter.crypto.ByteRotation;
+import ntagwriter.crypto.CmacCalculator;
+import ntagwriter.crypto.MacUtils;
+import ntagwriter.crypto.SessionKeyGenerator;
+import ntagwriter.reader.ApduStatusWord;
+import ntagwriter.util.ApduCommand;
+import ntagwriter.util.CommandCounterManager;
+import ntagwriter.util.HexUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * 프로세스 내 NTAG424 DNA 태그 에뮬레이터 (태그 한 개)
+ * 자동 설정 흐름이 쓰는 명령을 태그 쪽에서 처리한다:
+ * SELECT, GetVersion, GetFileSettings, GetKeyVersion, AuthenticateEV2First, ChangeFileSettings,
+ * WriteData, ReadData(SDM 미러 포함), ChangeKey.
+ *
+ * RF 지연 없이 즉시 응답하므로 벤치마크에서는 호스트 측 처리 비용만 드러난다.
+ * File Settings는 AN12196 Table 18 배치로 해석하고, IVc/SV2는 호스트 코드를 빌리지 않고 데이터시트 공식대로 만든다.
+ * ChangeKey, ChangeFileSettings, SDM MAC은 Ntag424EmulatorTest가 AN12196 예제 C-APDU/미러로 고정한다
+ * (호스트가 틀려도 에뮬레이터가 같이 틀려 통과하지 않도록).
+ * 처리량 측정용 모델이며 그 밖의 데이터시트 적합성은 검사하지 않는다.
+ */
+public final class Ntag424Emulator {
+
+    private static final byte[] NTAG424_AID = HexUtils.hexToBytes("D2760000850101");
+    private static final int KEY_COUNT = 5;
+    private static final int NDEF_FILE_NUMBER = 0x02;
+    private static final int NDEF_FILE_SIZE = 256;
+    private static final byte[] ZERO_IV = new byte[16];
+
+    // GetVersion 프레임 (NT4H2421Gx Table 54): HW 정보, SW 정보, 이후 UID + 생산 정보
+    private static final byte[] VERSION_HW = {0x04, 0x04, 0x02, 0x30, 0x00, 0x11, 0x05};
+    private static final byte[] VERSION_SW = {0x04, 0x04, 0x02, 0x01, 0x02, 0x11, 0x05};
+    private static final byte[] VERSION_PRODUCTION = {(byte) 0xBA, 0x5E, 0x00, 0x00, 0x00, 0x26, 0x25};
+
+    // File Option bit 6 = SDM 활성화, Access Rights 니블 E = 자유 접근
+    private static final int FILE_OPTION_SDM_ENABLED = 0x40;
+    private static final int ACCESS_FREE = 0x0E;
+    // 공장 초기값: ReadWrite = E, Change = Key 0 || Read = E, Write = E (AN12196 Table 18 니블 배치)
+    private static final byte[] FACTORY_ACCESS_RIGHTS = {(byte) 0xE0, (byte) 0xEE};
+
+    // SDM Options bit 7 = UID 미러, bit 6 = SDMReadCtr 미러
+    private static final int SDM_OPTION_UID = 0x80;
+    private static final int SDM_OPTION_READ_COUNTER = 0x40;
+    private static final int SDM_READ_COUNTER_LIMIT = 0xFFFFFF;
+    private static final byte[] SV2_PREFIX = {0x3C, (byte) 0xC3, 0x00, 0x01, 0x00, (byte) 0x80};
+    private static final byte[] IVC_LABEL = {(byte) 0xA5, 0x5A};
+
+    private static final int SW_ISO_OK = ApduStatusWord.NORMAL_PROCESSING.getCode();
+    private static final int SW_OK = ApduStatusWord.OPERATION_OK.getCode();
+    private static final int SW_ADDITIONAL_FRAME = ApduStatusWord.ADDITIONAL_FRAME.getCode();
+
+    private enum PendingFrame { NONE, AUTH_PART2, VERSION_SW, VERSION_PRODUCTION }
+
+    private final byte[] uid;
+    private final byte[][] keys = new byte[KEY_COUNT][16];
+    private final byte[] keyVersions = new byte[KEY_COUNT];
+    private final byte[] ndefFile = new byte[NDEF_FILE_SIZE];
+    private byte[] fileSettings = {0x00, FACTORY_ACCESS_RIGHTS[0], FACTORY_ACCESS_RIGHTS[1]};
+    private int sdmReadCounter;
+
+    // 선택/인증 상태 (SELECT 또는 필드 이탈 시 초기화)
+    private boolean applicationSelected;
+    private PendingFrame pending = PendingFrame.NONE;
+    private int pendingKeyNo;
+    private byte[] rndB;
+    private int authenticatedKeyNo = -1;
+    private byte[] kSesAuthEnc;
+    private byte[] kSesAuthMac;
+    private byte[] transactionId;
+    private final byte[] commandCounter = new byte[2];
+    // 선택 이후 첫 미러 읽기에서 SDMReadCtr를 올리고 같은 이미지를 재사용
+    private byte[] mirroredFile;
+
+    /**
+     * 공장 초기 상태 태그 (모든 키 0, 키 버전 0, SDM 비활성)
+     *
+     * @param uid 7바이트 UID
+     */
+    public Ntag424Emulator(byte[] uid) {
+        this.uid = uid.clone();
+    }
+
+    public byte[] uid() {
+        return uid.clone();
+    }
+
+    /**
+     * APDU 한 개 처리
+     *
+     * @param apdu 명령 APDU
+     * @return 응답 데이터 + SW1 SW2
+     */
+    public byte[] process(byte[] apdu) {
+        if (apdu.length < 4) {
+            return status(ApduStatusWord.WRONG_LENGTH);
+        }
+        byte cla = apdu[0];
+        byte ins = apdu[1];
+        byte[] data = commandData(apdu);
+        if (data == null) {
+            return status(ApduStatusWord.WRONG_LENGTH);
+        }
+
+        if (cla == ApduCommand.CLA_ISO && ins == ApduCommand.INS_SELECT) {
+            return select(apdu[2], data);
+        }
+        if (cla != ApduCommand.CLA_PROPRIETARY) {
+            return status(ApduStatusWord.CLASS_NOT_SUPPORTED);
+        }
+
+        // 추가 프레임 외의 명령은 진행 중인 체인을 끊고 그 명령 자체는 91CA로 거부한다 (실제 태그 동작)
+        PendingFrame previous = pending;
+        pending = PendingFrame.NONE;
+        if (previous != PendingFrame.NONE && ins != ApduCommand.INS_ADDITIONAL_FRAME) {
+            return status(ApduStatusWord.COMMAND_ABORTED);
+        }
+
+        try {
+            return switch (ins) {
+                case ApduCommand.INS_ADDITIONAL_FRAME -> continueFrame(previous, data);
+                case ApduCommand.INS_GET_VERSION -> frame(VERSION_HW, PendingFrame.VERSION_SW);
+                case ApduCommand.INS_GET_FILE_SETTINGS -> getFileSettings(data);
+                case ApduCommand.INS_GET_KEY_VERSION -> getKeyVersion(data);
+                case ApduCommand.INS_AUTHENTICATE_EV2_FIRST -> authenticateFirst(data);
+                case ApduCommand.INS_CHANGE_FILE_SETTINGS -> changeFileSettings(data);
+                case ApduCommand.INS_WRITE_DATA -> writeData(data);
+                case ApduCommand.INS_READ_DATA -> readData(data);
+                case ApduCommand.INS_CHANGE_KEY -> changeKey(data);
+                default -> status(ApduStatusWord.ILLEGAL_COMMAND_CODE);
+            };
+        } catch (GeneralSecurityException e) {
+            resetAuthentication();
+            return status(ApduStatusWord.INTEGRITY_ERROR);
+        }
+    }
+
+    /**
+     * 필드 이탈 (선택/인증 상태만 잃고 비휘발성 내용은 유지)
+     */
+    public void leaveField() {
+        applicationSelected = false;
+        pending = PendingFrame.NONE;
+        mirroredFile = null;
+        resetAuthentication();
+    }
+
+    /**
+     * 데이터시트 예제의 인증 세션을 그대로 복원 (예제 C-APDU를 재생하는 테스트용)
+     *
+     * @param commandCounter CmdCtr (2바이트, LSB 먼저)
+     */
+    void restoreSession(int keyNo, byte[] sesAuthEncKey, byte[] sesAuthMacKey, byte[] ti, byte[] commandCounter) {
+        resetAuthentication();
+        authenticatedKeyNo = keyNo;
+        kSesAuthEnc = sesAuthEncKey.clone();
+        kSesAuthMac = sesAuthMacKey.clone();
+        transactionId = ti.clone();
+        System.arraycopy(commandCounter, 0, this.commandCounter, 0, 2);
+    }
+
+    byte[] key(int keyNo) {
+        return keys[keyNo].clone();
+    }
+
+    byte keyVersion(int keyNo) {
+        return keyVersions[keyNo];
+    }
+
+    byte[] fileSettings() {
+        return fileSettings.clone();
+    }
+
+    private byte[] select(byte p1, byte[] aid) {
+        if (p1 != 0x04 || !Arrays.equals(aid, NTAG424_AID)) {
+            return status(ApduStatusWord.FILE_OR_APPLICATION_NOT_FOUND);
+        }
+        leaveField();
+        applicationSelected = true;
+        return status(SW_ISO_OK);
+    }
+
+    private byte[] continueFrame(PendingFrame previous, byte[] data) throws GeneralSecurityException {
+        return switch (previous) {
+            case AUTH_PART2 -> authenticatePart2(data);
+            case VERSION_SW -> frame(VERSION_SW, PendingFrame.VERSION_PRODUCTION);
+            case VERSION_PRODUCTION -> response(concat(uid, VERSION_PRODUCTION), SW_OK);
+            case NONE -> status(ApduStatusWord.ILLEGAL_COMMAND_CODE);
+        };
+    }
+
+    private byte[] frame(byte[] data, PendingFrame next) {
+        pending = next;
+        return response(data, SW_ADDITIONAL_FRAME);
+    }
+
+    // ---- 조회 (인증 세션 중에는 CommMode.MAC 응답) ----
+
+    private byte[] getFileSettings(byte[] data) {
+        if (data.length != 1) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        if (data[0] != NDEF_FILE_NUMBER) {
+            return status(ApduStatusWord.FILE_NOT_FOUND);
+        }
+        // FileType(Standard) || FileOption || AccessRights(2) || FileSize(3) || SDM 설정
+        byte[] settings = new byte[1 + 3 + 3 + fileSettings.length - 3];
+        settings[0] = 0x00;
+        System.arraycopy(fileSettings, 0, settings, 1, 3);
+        writeLittleEndian3Bytes(settings, 4, NDEF_FILE_SIZE);
+        System.arraycopy(fileSettings, 3, settings, 7, fileSettings.length - 3);
+        return macResponse(settings);
+    }
+
+    private byte[] getKeyVersion(byte[] data) {
+        if (data.length != 1) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        int keyNo = data[0] & 0xFF;
+        if (keyNo >= KEY_COUNT) {
+            return status(ApduStatusWord.NO_SUCH_KEY);
+        }
+        return macResponse(new byte[] {keyVersions[keyNo]});
+    }
+
+    // ---- AuthenticateEV2First ----
+
+    private byte[] authenticateFirst(byte[] data) throws GeneralSecurityException {
+        if (data.length < 2 || data.length != 2 + (data[1] & 0xFF)) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        int keyNo = data[0] & 0xFF;
+        if (keyNo >= KEY_COUNT) {
+            return status(ApduStatusWord.NO_SUCH_KEY);
+        }
+
+        resetAuthentication();
+        rndB = randomBytes(16);
+        pendingKeyNo = keyNo;
+        pending = PendingFrame.AUTH_PART2;
+        return response(AesEncryption.encryptCBC(keys[keyNo], ZERO_IV, rndB), SW_ADDITIONAL_FRAME);
+    }
+
+    private byte[] authenticatePart2(byte[] data) throws GeneralSecurityException {
+        if (data.length != 32) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        byte[] key = keys[pendingKeyNo];
+        byte[] decrypted = AesEncryption.decryptCBC(key, ZERO_IV, data);
+        byte[] rndA = Arrays.copyOfRange(decrypted, 0, 16);
+        byte[] rndBPrime = Arrays.copyOfRange(decrypted, 16, 32);
+        if (!Arrays.equals(rndBPrime, ByteRotation.rotateLeft(rndB))) {
+            return status(ApduStatusWord.AUTHENTICATION_ERROR);
+        }
+
+        // TI || RndA' || PDcap2(6) || PCDcap2(6)
+        transactionId = randomBytes(4);
+        byte[] plain = new byte[32];
+        System.arraycopy(transactionId, 0, plain, 0, 4);
+        System.arraycopy(ByteRotation.rotateLeft(rndA), 0, plain, 4, 16);
+
+        byte[][] sessionKeys = SessionKeyGenerator.generateSessionKeys(key, rndA, rndB);
+        kSesAuthEnc = sessionKeys[0];
+        kSesAuthMac = sessionKeys[1];
+        CommandCounterManager.fromInt(0, commandCounter);
+        authenticatedKeyNo = pendingKeyNo;
+        return response(AesEncryption.encryptCBC(key, ZERO_IV, plain), SW_OK);
+    }
+
+    // ---- ChangeFileSettings (CommMode.Full) ----
+
+    private byte[] changeFileSettings(byte[] data) throws GeneralSecurityException {
+        int changeKey = fileSettings[1] & 0x0F;
+        if (authenticatedKeyNo < 0 || authenticatedKeyNo != changeKey) {
+            return status(ApduStatusWord.AUTHENTICATION_ERROR);
+        }
+        if (data.length < 1 + 16 + 8 || (data.length - 1 - 8) % 16 != 0) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        if (data[0] != NDEF_FILE_NUMBER) {
+            return status(ApduStatusWord.FILE_NOT_FOUND);
+        }
+
+        byte[] settings = decryptFullCommand(ApduCommand.INS_CHANGE_FILE_SETTINGS, data);
+        if (settings == null) {
+            return status(ApduStatusWord.INTEGRITY_ERROR);
+        }
+        if (!validFileSettings(settings)) {
+            return status(ApduStatusWord.PARAMETER_ERROR);
+        }
+
+        fileSettings = settings;
+        mirroredFile = null;
+        return fullResponse();
+    }
+
+    /**
+     * AN12196 Table 18 배치 (SdmConfigurationService.buildFileSettingsData):
+     * FileOption || AccessRights(2) || [SDMOptions || SDMAccessRights(2) || PICC/MACInput/MAC 오프셋(3×3)]
+     */
+    private boolean validFileSettings(byte[] settings) {
+        if (settings.length < 3) {
+            return false;
+        }
+        if ((settings[0] & FILE_OPTION_SDM_ENABLED) == 0) {
+            return settings.length == 3;
+        }
+        if (settings.length != 15) {
+            return false;
+        }
+        int piccOffset = readLittleEndian3Bytes(settings, 6);
+        int macInputOffset = readLittleEndian3Bytes(settings, 9);
+        int macOffset = readLittleEndian3Bytes(settings, 12);
+        return piccOffset + 32 <= NDEF_FILE_SIZE
+            && macInputOffset <= macOffset
+            && macOffset + 16 <= NDEF_FILE_SIZE;
+    }
+
+    // ---- WriteData / ReadData (CommMode.Plain) ----
+
+    private byte[] writeData(byte[] data) {
+        if (data.length < 7) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        if (data[0] != NDEF_FILE_NUMBER) {
+            return status(ApduStatusWord.FILE_NOT_FOUND);
+        }
+        if (!hasAccess(fileSettings[2] & 0x0F) && !hasAccess((fileSettings[1] >> 4) & 0x0F)) {
+            return status(ApduStatusWord.AUTHENTICATION_ERROR);
+        }
+        int offset = readLittleEndian3Bytes(data, 1);
+        int length = readLittleEndian3Bytes(data, 4);
+        if (length != data.length - 7) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        if (offset + length > NDEF_FILE_SIZE) {
+            return status(ApduStatusWord.BOUNDARY_ERROR);
+        }
+
+        System.arraycopy(data, 7, ndefFile, offset, length);
+        mirroredFile = null;
+        return macResponse(new byte[0]);
+    }
+
+    private byte[] readData(byte[] data) throws GeneralSecurityException {
+        if (data.length != 7) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        if (data[0] != NDEF_FILE_NUMBER) {
+            return status(ApduStatusWord.FILE_NOT_FOUND);
+        }
+        if (!hasAccess((fileSettings[2] >> 4) & 0x0F) && !hasAccess((fileSettings[1] >> 4) & 0x0F)) {
+            return status(ApduStatusWord.AUTHENTICATION_ERROR);
+        }
+        int offset = readLittleEndian3Bytes(data, 1);
+        int length = readLittleEndian3Bytes(data, 4);
+        if (length == 0) {
+            length = NDEF_FILE_SIZE - offset;
+        }
+        if (offset + length > NDEF_FILE_SIZE) {
+            return status(ApduStatusWord.BOUNDARY_ERROR);
+        }
+
+        byte[] image = sdmEnabled() && authenticatedKeyNo < 0 ? mirroredFile() : ndefFile;
+        return macResponse(Arrays.copyOfRange(image, offset, offset + length));
+    }
+
+    private boolean hasAccess(int access) {
+        return access == ACCESS_FREE || access == authenticatedKeyNo;
+    }
+
+    private boolean sdmEnabled() {
+        return (fileSettings[0] & FILE_OPTION_SDM_ENABLED) != 0;
+    }
+
+    /**
+     * SDM 미러 적용 이미지: PICCData(암호문)와 SDM MAC을 ASCII HEX로 파일 내용에 덮어쓴다.
+     * 선택 이후 첫 읽기에서만 SDMReadCtr를 올린다.
+     */
+    private byte[] mirroredFile() throws GeneralSecurityException {
+        if (mirroredFile != null) {
+            return mirroredFile;
+        }
+        if (sdmReadCounter < SDM_READ_COUNTER_LIMIT) {
+            sdmReadCounter++;
+        }
+
+        int sdmOptions = fileSettings[3] & 0xFF;
+        int metaReadKey = (fileSettings[5] >> 4) & 0x0F;
+        int fileReadKey = fileSettings[5] & 0x0F;
+        int piccOffset = readLittleEndian3Bytes(fileSettings, 6);
+        int macInputOffset = readLittleEndian3Bytes(fileSettings, 9);
+        int macOffset = readLittleEndian3Bytes(fileSettings, 12);
+        byte[] image = ndefFile.clone();
+        if (metaReadKey >= KEY_COUNT || fileReadKey >= KEY_COUNT) {
+            mirroredFile = image;
+            return image;
+        }
+
+        byte[] readCounter = new byte[3];
+        writeLittleEndian3Bytes(readCounter, 0, sdmReadCounter);
+
+        // PICCDataTag || UID || SDMReadCtr || 랜덤 패딩
+        byte[] piccData = randomBytes(16);
+        int piccTag = (sdmOptions & (SDM_OPTION_UID | SDM_OPTION_READ_COUNTER)) | uid.length;
+        piccData[0] = (byte) piccTag;
+        System.arraycopy(uid, 0, piccData, 1, uid.length);
+        System.arraycopy(readCounter, 0, piccData, 1 + uid.length, 3);
+        writeAscii(image, piccOffset, AesEncryption.encryptCBC(keys[metaReadKey], ZERO_IV, piccData));
+
+        // SDM MAC = MACt(CMAC(SesSDMFileReadMACKey, 파일[MACInputOffset..MACOffset)))
+        byte[] sv2 = new byte[32];
+        System.arraycopy(SV2_PREFIX, 0, sv2, 0, SV2_PREFIX.length);
+        System.arraycopy(uid, 0, sv2, SV2_PREFIX.length, uid.length);
+        System.arraycopy(readCounter, 0, sv2, SV2_PREFIX.length + uid.length, 3);
+        byte[] sv2Block = Arrays.copyOf(sv2, (SV2_PREFIX.length + uid.length + 3 + 15) / 16 * 16);
+        byte[] sessionMacKey = CmacCalculator.calculateCmac(keys[fileReadKey], sv2Block);
+        byte[] macInput = Arrays.copyOfRange(image, macInputOffset, macOffset);
+        writeAscii(image, macOffset, MacUtils.truncateMac(CmacCalculator.calculateCmac(sessionMacKey, macInput)));
+
+        mirroredFile = image;
+        return image;
+    }
+
+    private static void writeAscii(byte[] image, int offset, byte[] value) {
+        byte[] ascii = HexUtils.bytesToHex(value).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(ascii, 0, image, offset, ascii.length);
+    }
+
+    // ---- ChangeKey (CommMode.Full) ----
+
+    private byte[] changeKey(byte[] data) throws GeneralSecurityException {
+        if (authenticatedKeyNo != 0) {
+            return status(ApduStatusWord.AUTHENTICATION_ERROR);
+        }
+        if (data.length != 1 + 32 + 8) {
+            return status(ApduStatusWord.LENGTH_ERROR);
+        }
+        int keyNo = data[0] & 0xFF;
+        if (keyNo >= KEY_COUNT) {
+            return status(ApduStatusWord.NO_SUCH_KEY);
+        }
+
+        byte[] keyData = decryptFullCommand(ApduCommand.INS_CHANGE_KEY, data);
+        if (keyData == null) {
+            return status(ApduStatusWord.INTEGRITY_ERROR);
+        }
+
+        // 인증 키: NewKey || KeyVer → 세션 종료, 응답 MAC 없음
+        if (keyNo == authenticatedKeyNo) {
+            if (keyData.length != 17) {
+                return status(ApduStatusWord.INTEGRITY_ERROR);
+            }
+            keys[keyNo] = Arrays.copyOf(keyData, 16);
+            keyVersions[keyNo] = keyData[16];
+            resetAuthentication();
+            return status(SW_OK);
+        }
+
+        // 그 외 키: (NewKey XOR OldKey) || KeyVer || CRC32NK(NewKey)
+        if (keyData.length != 21) {
+            return status(ApduStatusWord.INTEGRITY_ERROR);
+        }
+        byte[] newKey = new byte[16];
+        for (int i = 0; i < 16; i++) {
+            newKey[i] = (byte) (keyData[i] ^ keys[keyNo][i]);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(newKey, 0, 16);
+        int crc32nk = (int) ~crc.getValue();
+        int received = (keyData[17] & 0xFF) | (keyData[18] & 0xFF) << 8
+            | (keyData[19] & 0xFF) << 16 | (keyData[20] & 0xFF) << 24;
+        if (crc32nk != received) {
+            resetAuthentication();
+            return status(ApduStatusWord.INTEGRITY_ERROR);
+        }
+
+        keys[keyNo] = newKey;
+        keyVersions[keyNo] = keyData[16];
+        return fullResponse();
+    }
+
+    // ---- 보안 메시징 ----
+
+    /**
+     * CommMode.Full 명령 검증/복호화
+     * MACt = MACt(CMAC(KSesAuthMAC, Cmd || CmdCtr || TI || 헤더(1) || 암호문)), 평문은 ISO 9797-1 M2 패딩
+     *
+     * @param data 헤더(1) || 암호문 || MACt(8)
+     * @return 패딩을 뗀 평문, 검증 실패 시 null (세션도 종료)
+     */
+    private byte[] decryptFullCommand(byte ins, byte[] data) throws GeneralSecurityException {
+        int encryptedLength = data.length - 1 - 8;
+        byte[] macInput = new byte[1 + 2 + 4 + 1 + encryptedLength];
+        macInput[0] = ins;
+        System.arraycopy(commandCounter, 0, macInput, 1, 2);
+        System.arraycopy(transactionId, 0, macInput, 3, 4);
+        System.arraycopy(data, 0, macInput, 7, 1 + encryptedLength);
+        byte[] expectedMac = MacUtils.truncateMac(CmacCalculator.calculateCmac(kSesAuthMac, macInput));
+        if (!Arrays.equals(expectedMac, Arrays.copyOfRange(data, data.length - 8, data.length))) {
+            resetAuthentication();
+            return null;
+        }
+
+        byte[] plain = AesEncryption.decryptCBC(kSesAuthEnc, commandIv(),
+            Arrays.copyOfRange(data, 1, 1 + encryptedLength));
+        int end = plain.length - 1;
+        while (end >= 0 && plain[end] == 0x00) {
+            end--;
+        }
+        if (end < 0 || plain[end] != (byte) 0x80) {
+            resetAuthentication();
+            return null;
+        }
+        return Arrays.copyOf(plain, end);
+    }
+
+    /**
+     * IVc = E(KSesAuthENC, A5 5A || TI || CmdCtr || 0 패딩)
+     */
+    private byte[] commandIv() throws GeneralSecurityException {
+        byte[] ivInput = new byte[16];
+        System.arraycopy(IVC_LABEL, 0, ivInput, 0, 2);
+        System.arraycopy(transactionId, 0, ivInput, 2, 4);
+        System.arraycopy(commandCounter, 0, ivInput, 6, 2);
+        return AesEncryption.encryptECB(kSesAuthEnc, ivInput);
+    }
+
+    /**
+     * 인증 세션 중이면 CmdCtr를 올리고 응답 MACt를 붙인다 (CommMode.MAC), 아니면 평문 응답
+     */
+    private byte[] macResponse(byte[] data) {
+        if (authenticatedKeyNo < 0) {
+            return response(data, SW_OK);
+        }
+        CommandCounterManager.increment(commandCounter);
+        return response(concat(data, responseMac(data)), SW_OK);
+    }
+
+    /**
+     * CommMode.Full 명령 성공 응답 (응답 데이터 없이 MACt만)
+     */
+    private byte[] fullResponse() {
+        CommandCounterManager.increment(commandCounter);
+        return response(responseMac(new byte[0]), SW_OK);
+    }
+
+    /**
+     * 응답 MACt = MACt(CMAC(KSesAuthMAC, RC(00) || CmdCtr || TI || 응답 데이터))
+     */
+    private byte[] responseMac(byte[] data) {
+        byte[] macInput = new byte[1 + 2 + 4 + data.length];
+        System.arraycopy(commandCounter, 0, macInput, 1, 2);
+        System.arraycopy(transactionId, 0, macInput, 3, 4);
+        System.arraycopy(data, 0, macInput, 7, data.length);
+        return MacUtils.truncateMac(CmacCalculator.calculateCmac(kSesAuthMac, macInput));
+    }
+
+    private void resetAuthentication() {
+        authenticatedKeyNo = -1;
+        kSesAuthEnc = null;
+        kSesAuthMac = null;
+        transactionId = null;
+        CommandCounterManager.fromInt(0, commandCounter);
+    }
+
+    // ---- APDU 인코딩 ----
+
+    /**
+     * 명령 데이터 필드 (Lc 없으면 빈 배열, 길이가 맞지 않으면 null)
+     */
+    private static byte[] commandData(byte[] apdu) {
+        if (apdu.length <= 5) {
+            return new byte[0];
+        }
+        int lc = apdu[4] & 0xFF;
+        if (apdu.length != 5 + lc && apdu.length != 5 + lc + 1) {
+            return null;
+        }
+        return Arrays.copyOfRange(apdu, 5, 5 + lc);
+    }
+
+    private static byte[] response(byte[] data, int statusWord) {
+        byte[] response = Arrays.copyOf(data, data.length + 2);
+        response[data.length] = (byte) (statusWord >> 8);
+        response[data.length + 1] = (byte) statusWord;
+        return response;
+    }
+
+    private static byte[] status(int statusWord) {
+        return response(new byte[0], statusWord);
+    }
+
+    private static byte[] status(ApduStatusWord statusWord) {
+        return status(statusWord.getCode());
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static int readLittleEndian3Bytes(byte[] buffer, int offset) {
+        return (buffer[offset] & 0xFF) | (buffer[offset + 1] & 0xFF) << 8 | (buffer[offset + 2] & 0xFF) << 16;
+    }
+
+    private static void writeLittleEndian3Bytes(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >> 8);
+        buffer[offset + 2] = (byte) (value >> 16);
+    }
+}
@@ -1,10 +1,15 @@
 package ntagwriter.infrastructure.nfc.reader;
 
+import ntagwriter.comm.LinkParameters;
 import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.domain.tag.NtagType;
 import ntagwriter.domain.tag.Tag;
+import ntagwriter.domain.tag.TagTypeCache;
+import ntagwriter.util.ApduCommand;
 import ntagwriter.util.HexUtils;
 
 import javax.smartcardio.*;
+import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
 /**
@@ -21,20 +26,43 @@ public class IdentivNfcReader implements NfcReaderPort {
     private static final int SW_WRONG_DATA = 0x6A80;
     private static final int SW_FILE_NOT_FOUND = 0x6A82;
     private static final int SW_INCORRECT_PARAMETERS = 0x6A86;
+    private static final int SW_ADDITIONAL_FRAME = 0x91AF;
+    // GetVersion 응답 프레임 수 (HW 정보, SW 정보, UID/생산 정보)
+    private static final int GET_VERSION_FRAMES = 3;
 
     // 태그 감지 설정
     private static final int TAG_DETECTION_RETRY_DELAY_MS = 500;
     private static final int TAG_DETECTION_MAX_RETRIES = 60;  // 30초 = 60 * 500ms
 
-    // ATR (Answer To Reset) 관련
+    // ATR/ATS 및 프레임 크기 관련
     private static final int ATR_MIN_LENGTH = 2;
+    private static final int READER_FRAME_SIZE = 256;  // uTrust 3700 F FSDI=8
 
     private CardTerminal terminal;
-    private Card card;
-    private CardChannel channel;
+    // abortExchange가 감시 스레드에서 비우므로 volatile
+    private volatile Card card;
+    private volatile CardChannel channel;
+    private LinkParameters linkParameters = LinkParameters.DEFAULT;
+
+    // 같은 릴(UID 접두사)에서 반복되는 GetVersion 왕복 생략
+    private final TagTypeCache tagTypeCache = new TagTypeCache();
+
+    // 리더기 이름 필터 (null이면 Identiv 우선, 없으면 첫 번째 리더기)
+    private final String readerNameFilter;
+
+    public IdentivNfcReader() {
+        this(null);
+    }
+
+    /**
+     * @param readerNameFilter 사용할 리더기 이름에 포함된 문자열 (대소문자 무시)
+     */
+    public IdentivNfcReader(String readerNameFilter) {
+        this.readerNameFilter = readerNameFilter;
+    }
 
     @Override
-    public boolean connect() {
+    public boolean connect() throws ReaderException {
         try {
             TerminalFactory factory = TerminalFactory.getDefault();
             List<CardTerminal> terminals = factory.terminals().list();
@@ -43,6 +71,18 @@ public class IdentivNfcReader implements NfcReaderPort {
                 return false;
             }
 
+            // 지정된 리더기만 사용
+            if (readerNameFilter != null) {
+                String filter = readerNameFilter.toUpperCase();
+                for (CardTerminal candidateTerminal : terminals) {
+                    if (candidateTerminal.getName().toUpperCase().contains(filter)) {
+                        this.terminal = candidateTerminal;
+                        return true;
+                    }
+                }
+                return false;
+            }
+
             // Identiv 리더기 찾기
             for (CardTerminal candidateTerminal : terminals) {
                 String terminalName = candidateTerminal.getName();
@@ -61,6 +101,34 @@ public class IdentivNfcReader implements NfcReaderPort {
         }
     }
 
+    /**
+     * 현재 연결된 PC/SC 리더기 이름 목록 (핫플러그 재탐색용)
+     * 기본 팩토리는 처음 만든 PC/SC 컨텍스트를 재사용해 리더기를 다시 꽂아도 목록이 갱신되지 않는 경우가 있으므로
+     * 호출마다 새 팩토리로 조회한다.
+     *
+     * @return 리더기 이름 (없으면 빈 목록)
+     * @throws ReaderException PC/SC 서비스 조회 실패 시
+     */
+    public static List<String> discoverReaderNames() throws ReaderException {
+        try {
+            TerminalFactory factory;
+            try {
+                factory = TerminalFactory.getInstance("PC/SC", null);
+            } catch (NoSuchAlgorithmException e) {
+                factory = TerminalFactory.getDefault();
+            }
+            return factory.terminals().list().stream().map(CardTerminal::getName).toList();
+        } catch (CardException exception) {
+            // 리더기가 하나도 없으면 일부 플랫폼은 SCARD_E_NO_READERS_AVAILABLE 예외를 던진다
+            for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+                if (cause.getMessage() != null && cause.getMessage().contains("NO_READERS_AVAILABLE")) {
+                    return List.of();
+                }
+            }
+            throw new ReaderException("리더기 목록 조회 실패", exception);
+        }
+    }
+
     private boolean isIdentivReader(String terminalName) {
         String upperCaseName = terminalName.toUpperCase();
         return upperCaseName.contains(IDENTIV_READER_NAME_PREFIX.toUpperCase()) ||
@@ -69,16 +137,7 @@ public class IdentivNfcReader implements NfcReaderPort {
 
     @Override
     public void disconnect() {
-        if (card != null) {
-            try {
-                card.disconnect(false);
-            } catch (CardException ignored) {
-                // 연결 해제 실패 무시
-            } finally {
-                card = null;
-                channel = null;
-            }
-        }
+        releaseCard();
         terminal = null;
     }
 
@@ -88,7 +147,7 @@ public class IdentivNfcReader implements NfcReaderPort {
     }
 
     @Override
-    public Tag waitForTag(long timeoutMs) {
+    public Tag waitForTag(long timeoutMs) throws ReaderException {
         if (terminal == null) {
             throw new ReaderException("리더기가 연결되지 않았습니다");
         }
@@ -116,21 +175,98 @@ public class IdentivNfcReader implements NfcReaderPort {
     }
 
     private Tag detectTag() throws CardException {
-        // 카드 연결
+        // 이전 태그 연결 해제 후 새 카드 연결
+        releaseCard();
         card = terminal.connect("*");
         channel = card.getBasicChannel();
 
-        // ATR 읽기
+        // ATR 읽기 및 링크 파라미터 결정
         ATR atr = card.getATR();
         byte[] atrBytes = atr.getBytes();
+        linkParameters = negotiateLinkParameters(atrBytes);
 
         // UID 읽기 (간단한 구현 - 실제로는 GET_DATA 명령 사용)
         byte[] uid = readTagUid();
 
-        Tag detectedTag = new Tag(uid);
+        Tag detectedTag = new Tag(uid, identifyTagType(uid));
         return detectedTag.withAtr(atrBytes);
     }
 
+    private LinkParameters negotiateLinkParameters(byte[] atrBytes) throws CardException {
+        if (atrBytes.length < ATR_MIN_LENGTH) {
+            return LinkParameters.DEFAULT;
+        }
+        LinkParameters parameters = LinkParameters.fromAtr(atrBytes).withReaderFrameSize(READER_FRAME_SIZE);
+
+        // GET DATA (P1=01) - 리더기에 따라 전체 ATS 또는 historical bytes만 반환
+        byte[] getAtsCommand = new byte[] {(byte) 0xFF, (byte) 0xCA, 0x01, 0x00, 0x00};
+        ResponseAPDU response = channel.transmit(new CommandAPDU(getAtsCommand));
+        if (response.getSW() == SW_SUCCESS) {
+            parameters = parameters.withAts(response.getData());
+        }
+        return parameters;
+    }
+
+    @Override
+    public LinkParameters getLinkParameters() {
+        return linkParameters;
+    }
+
+    private NtagType identifyTagType(byte[] uid) throws CardException {
+        NtagType cachedType = tagTypeCache.lookup(uid).orElse(null);
+        if (cachedType != null) {
+            return cachedType;
+        }
+
+        // NTAG21x는 ISO-DEP가 아니라 90 60에 응답하지 않음: 리더기가 만든 Type 2 ATR이면 투과 명령으로 네이티브 GET_VERSION
+        if (NtagType.isType2StorageCard(linkParameters.historicalBytes())) {
+            return identifyType2TagType(uid);
+        }
+
+        // 식별은 첫 프레임(HW 정보)으로 하지만, 체인을 열어 두면 다음 명령이 91CA(체인 중단)로 실패하므로
+        // 91AF가 이어지는 동안 추가 프레임(SW 정보, UID/생산 정보)까지 모두 받는다
+        ResponseAPDU response = transmitLogged(ApduCommand.getVersion());
+        if (response.getSW() != SW_ADDITIONAL_FRAME && response.getSW() != SW_SUCCESS) {
+            return NtagType.UNKNOWN;
+        }
+        byte[] hardwareInfo = response.getData();
+        for (int frame = 1; frame < GET_VERSION_FRAMES && response.getSW() == SW_ADDITIONAL_FRAME; frame++) {
+            response = transmitLogged(ApduCommand.additionalFrame());
+        }
+        if (response.getSW() != SW_SUCCESS) {
+            return NtagType.UNKNOWN;
+        }
+
+        NtagType type = NtagType.identifyByVersion(hardwareInfo);
+        tagTypeCache.record(uid, type);
+        return type;
+    }
+
+    private NtagType identifyType2TagType(byte[] uid) throws CardException {
+        ResponseAPDU response = transmitLogged(ApduCommand.nativeGetVersion());
+        if (response.getSW() != SW_SUCCESS) {
+            // 투과 명령을 지원하지 않는 리더기: 종류를 알 수 없는 것으로 남김 (캐시하지 않음)
+            return NtagType.UNKNOWN;
+        }
+        NtagType type = NtagType.identifyByNativeVersion(response.getData());
+        tagTypeCache.record(uid, type);
+        return type;
+    }
+
+    private ResponseAPDU transmitLogged(byte[] command) throws CardException {
+        logCommand("TX", command);
+        ResponseAPDU response = channel.transmit(new CommandAPDU(command));
+        logCommand("RX", response.getBytes());
+        return response;
+    }
+
+    @Override
+    public void invalidateTagType(Tag tag) {
+        if (tag != null) {
+            tagTypeCache.invalidate(tag.uid);
+        }
+    }
+
     private byte[] readTagUid() throws CardException {
         // GET DATA 명령으로 UID 읽기
         // CLA=0x00, INS=0xCA, P1=0x00, P2=0x00
@@ -152,6 +288,57 @@ public class IdentivNfcReader implements NfcReaderPort {
         return response.getData();
     }
 
+    @Override
+    public boolean waitForTagRemoval(long timeoutMs) throws ReaderException {
+        if (terminal == null) {
+            throw new ReaderException("리더기가 연결되지 않았습니다");
+        }
+
+        try {
+            boolean removed = terminal.waitForCardAbsent(timeoutMs);
+            if (removed) {
+                releaseCard();
+            }
+            return removed;
+        } catch (CardException cardException) {
+            throw new ReaderException("태그 제거 대기 중 오류", cardException);
+        }
+    }
+
+    private void releaseCard() {
+        if (card == null) {
+            return;
+        }
+        try {
+            card.disconnect(false);
+        } catch (CardException ignored) {
+            // 이미 제거된 태그
+        } finally {
+            card = null;
+            channel = null;
+            linkParameters = LinkParameters.DEFAULT;
+        }
+    }
+
+    /**
+     * 기한 초과/취소 시 카드를 리셋하며 해제해 멈춘 transmit을 풀어준다.
+     * 교환 스레드가 transmit 안에서 막혀 있을 수 있으므로 필드만 비우고 disconnect는 이쪽에서 호출한다.
+     */
+    @Override
+    public void abortExchange() {
+        Card abandoned = card;
+        card = null;
+        channel = null;
+        if (abandoned == null) {
+            return;
+        }
+        try {
+            abandoned.disconnect(true);
+        } catch (CardException | IllegalStateException ignored) {
+            // 이미 제거되었거나 해제된 태그
+        }
+    }
+
     @Override
     public boolean isTagPresent() {
         if (terminal == null) {
@@ -167,15 +354,13 @@ public class IdentivNfcReader implements NfcReaderPort {
 
     @Override
     public byte[] sendCommand(byte[] command) throws ReaderException {
-        if (channel == null) {
-            throw new ReaderException("태그가 연결되지 않았습니다");
-        }
+        CardChannel activeChannel = activeChannel();
 
         try {
             CommandAPDU commandApdu = new CommandAPDU(command);
             logCommand("TX", command);
 
-            ResponseAPDU response = channel.transmit(commandApdu);
+            ResponseAPDU response = activeChannel.transmit(commandApdu);
             byte[] responseBytes = response.getBytes();
             logCommand("RX", responseBytes);
 
@@ -192,6 +377,35 @@ public class IdentivNfcReader implements NfcReaderPort {
         }
     }
 
+    @Override
+    public byte[] transmit(byte[] command) throws ReaderException {
+        CardChannel activeChannel = activeChannel();
+
+        try {
+            logCommand("TX", command);
+            byte[] responseBytes = activeChannel.transmit(new CommandAPDU(command)).getBytes();
+            logCommand("RX", responseBytes);
+            return responseBytes;
+
+        } catch (CardException cardException) {
+            throw new ReaderException("APDU 전송 실패", cardException);
+        }
+    }
+
+    /**
+     * 현재 카드 채널 (중단된 교환 스레드가 다음 태그에 명령을 보내지 않도록 인터럽트도 확인)
+     */
+    private CardChannel activeChannel() throws ReaderException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ReaderException("교환이 중단되었습니다");
+        }
+        CardChannel activeChannel = channel;
+        if (activeChannel == null) {
+            throw new ReaderException("태그가 연결되지 않았습니다");
+        }
+        return activeChannel;
+    }
+
     private String formatApduError(int statusWord) {
         String hexStatus = String.format("%04X", statusWord);
 
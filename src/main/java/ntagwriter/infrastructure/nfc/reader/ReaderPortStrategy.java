@@ -0,0 +1,90 @@
+package ntagwriter.infrastructure.nfc.reader;
+
+import ntagwriter.comm.LinkParameters;
+import ntagwriter.domain.port.NfcReaderPort;
+import ntagwriter.reader.ApduStatusWord;
+import ntagwriter.reader.NfcReaderStrategy;
+import ntagwriter.reader.ReaderException;
+
+import javax.smartcardio.ResponseAPDU;
+import java.util.function.IntConsumer;
+
+/**
+ * NfcReaderPort를 NfcReaderStrategy로 감싸는 어댑터
+ * 워크플로우 핸들러가 기존 서비스(NfcReaderService 기반)를 같은 카드 채널 위에서 재사용하기 위함.
+ *
+ * 리더기/카드 연결 수명은 워크플로우(ConnectReader/DetectTag 단계)가 관리하므로
+ * connect/disconnect는 포트 상태만 확인하고 실제 연결을 열거나 닫지 않는다.
+ */
+public class ReaderPortStrategy implements NfcReaderStrategy {
+
+    private static final byte[] GET_UID_COMMAND = {(byte) 0xFF, (byte) 0xCA, 0x00, 0x00, 0x00};
+    private static final int SW_SUCCESS = 0x9000;
+    private static final int SW_ADDITIONAL_FRAME = 0x91AF;
+
+    private final NfcReaderPort port;
+    private final IntConsumer errorStatusWordObserver;
+
+    public ReaderPortStrategy(NfcReaderPort port) {
+        this(port, statusWord -> { });
+    }
+
+    /**
+     * @param port                    리더기 포트
+     * @param errorStatusWordObserver 실패 상태 워드 통지 (대시보드 지표용)
+     */
+    public ReaderPortStrategy(NfcReaderPort port, IntConsumer errorStatusWordObserver) {
+        this.port = port;
+        this.errorStatusWordObserver = errorStatusWordObserver;
+    }
+
+    @Override
+    public void connect() throws ReaderException {
+        if (!port.isConnected() || !port.isTagPresent()) {
+            throw new ReaderException("감지된 태그가 없습니다. 태그 감지 단계를 먼저 실행하세요.");
+        }
+    }
+
+    @Override
+    public byte[] readUid() throws ReaderException {
+        ResponseAPDU response = sendCommand(GET_UID_COMMAND);
+        if (response.getSW() != SW_SUCCESS) {
+            throw new ReaderException("UID 읽기 실패: " + String.format("%04X", response.getSW()));
+        }
+        return response.getData();
+    }
+
+    @Override
+    public ResponseAPDU sendCommand(byte[] apdu) throws ReaderException {
+        try {
+            ResponseAPDU response = new ResponseAPDU(port.transmit(apdu));
+            int statusWord = response.getSW();
+            if (!ApduStatusWord.isSuccessSw(statusWord) && statusWord != SW_ADDITIONAL_FRAME) {
+                errorStatusWordObserver.accept(statusWord);
+            }
+            return response;
+        } catch (NfcReaderPort.ReaderException e) {
+            throw new ReaderException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        // 연결 해제는 포트 소유자가 담당
+    }
+
+    @Override
+    public boolean isConnected() {
+        return port.isConnected();
+    }
+
+    @Override
+    public String getReaderName() {
+        return port.getReaderName();
+    }
+
+    @Override
+    public LinkParameters getLinkParameters() {
+        return port.getLinkParameters();
+    }
+}
@@ -0,0 +1,85 @@
+package ntagwriter.infrastructure.persistence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 태그 설정 결과 원장 (CSV, 추가 전용)
+ * 배치 실행 결과를 라인 제어 스크립트가 읽을 수 있도록 태그당 한 줄씩 기록한다.
+ * 키는 기록하지 않는다.
+ */
+public class CsvTagLedger implements AutoCloseable {
+
+    private static final String HEADER = "timestamp,uid,result,final_state,duration_ms,message";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final BufferedWriter writer;
+
+    public CsvTagLedger(Path path) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            boolean newFile = !Files.exists(path) || Files.size(path) == 0;
+            this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (newFile) {
+                writer.write(HEADER);
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("원장 파일 열기 실패: " + path, e);
+        }
+    }
+
+    /**
+     * 결과 한 줄 기록 (태그마다 flush - 중간에 종료되어도 기록 유지)
+     *
+     * @param uid        태그 UID (HEX)
+     * @param result     SUCCESS / SKIPPED / FAILED
+     * @param finalState 최종 워크플로우 상태
+     * @param durationMs 태그 처리 시간
+     * @param message    오류 메시지 (없으면 빈 문자열)
+     */
+    public synchronized void record(String uid, String result, String finalState, long durationMs, String message) {
+        try {
+            writer.write(String.join(",",
+                LocalDateTime.now().format(TIMESTAMP_FORMAT),
+                uid,
+                result,
+                finalState,
+                Long.toString(durationMs),
+                escape(message)));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("원장 기록 실패", e);
+        }
+    }
+
+    private static String escape(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("원장 파일 닫기 실패", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ntagwriter.infrastructure.persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 임시 파일 + 원자적 교체를 정전에도 남도록 마무리하는 도우미
+ *
+ * ATOMIC_MOVE만으로는 이름 바꾸기가 원자적일 뿐 내용과 디렉터리 항목이 디스크에 있다는 보장이 없다.
+ * 임시 파일을 동기화한 뒤 옮기고, 이름 바꾸기가 기록된 디렉터리까지 동기화한다.
+ */
+final class DurableFiles {
+
+    private DurableFiles() {
+    }
+
+    /**
+     * temp 내용을 동기화하고 target으로 원자적으로 교체
+     */
+    static void replace(Path temp, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * 디렉터리 항목 동기화 (디렉터리를 열 수 없는 플랫폼에서는 건너뜀)
+     */
+    static void syncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Windows는 디렉터리 채널을 지원하지 않는다 - 이름 바꾸기 자체가 메타데이터 저널에 남는다
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package ntagwriter.infrastructure.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * 피드 행 배정 기록 (CSV, 추가 전용)
+ * UID마다 배정된 행 번호와 바이트 위치를 한 줄씩 남기고 기록마다 디스크에 강제 반영한다.
+ * 행은 파일 순서대로 배정되므로 마지막 기록의 끝 위치가 재시작 시 읽기 시작점이 된다.
+ *
+ * 형식: uid,row,offset,length,crc (crc는 앞 네 필드 텍스트의 CRC32, HEX 8자리)
+ *
+ * 기록 파일을 통째로 읽지 않도록 UID 조회와 마지막 배정은 옆의 색인(이름.index.db)이 맡는다.
+ * 색인은 기록 파일의 어디까지 반영했는지(체크포인트)를 같은 트랜잭션에 남기므로, 열 때는 그 뒤만 확인한다.
+ * 줄바꿈이 없거나 CRC가 맞지 않는 줄(기록 도중 종료)부터는 잘라내 다음 기록이 붙어 버리지 않게 한다.
+ * 색인은 기록 파일에서 다시 만들 수 있으며, 없거나 기록 파일보다 앞서 있으면 처음부터 다시 채운다.
+ */
+class FeedAssignmentLog implements AutoCloseable {
+
+    private static final String HEADER = "uid,row,offset,length,crc";
+    private static final int FIELD_COUNT = 5;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    private static final int CATCH_UP_BATCH = 10_000;
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS assignment ("
+            + "uid TEXT PRIMARY KEY, "
+            + "row_number INTEGER NOT NULL, "
+            + "row_offset INTEGER NOT NULL, "
+            + "row_length INTEGER NOT NULL)",
+        // 한 행짜리 체크포인트: 반영한 기록 파일 위치와 마지막 배정
+        "CREATE TABLE IF NOT EXISTS checkpoint ("
+            + "id INTEGER PRIMARY KEY CHECK (id = 1), "
+            + "indexed_until INTEGER NOT NULL, "
+            + "last_uid TEXT, "
+            + "last_row INTEGER, "
+            + "last_offset INTEGER, "
+            + "last_length INTEGER)"
+    };
+    private static final String UPSERT_ASSIGNMENT = "INSERT OR REPLACE INTO assignment "
+        + "(uid, row_number, row_offset, row_length) VALUES (?, ?, ?, ?)";
+    private static final String UPSERT_CHECKPOINT = "INSERT OR REPLACE INTO checkpoint "
+        + "(id, indexed_until, last_uid, last_row, last_offset, last_length) VALUES (1, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ASSIGNMENT =
+        "SELECT uid, row_number, row_offset, row_length FROM assignment WHERE uid = ?";
+    private static final String SELECT_CHECKPOINT =
+        "SELECT indexed_until, last_uid, last_row, last_offset, last_length FROM checkpoint WHERE id = 1";
+
+    private final Path path;
+    private final Path indexPath;
+    private final FileChannel channel;
+    private final Connection index;
+    private final PreparedStatement upsertAssignment;
+    private final PreparedStatement upsertCheckpoint;
+    private final PreparedStatement selectAssignment;
+    private long end;
+    private Assignment last;
+
+    FeedAssignmentLog(Path path) throws IOException {
+        this.path = path;
+        this.indexPath = path.resolveSibling(path.getFileName() + ".index.db");
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        Connection opened = null;
+        try {
+            opened = openIndex(indexPath);
+            this.upsertAssignment = opened.prepareStatement(UPSERT_ASSIGNMENT);
+            this.upsertCheckpoint = opened.prepareStatement(UPSERT_CHECKPOINT);
+            this.selectAssignment = opened.prepareStatement(SELECT_ASSIGNMENT);
+            this.index = opened;
+            recover();
+        } catch (SQLException | IOException e) {
+            SqliteProvisioningLedger.closeQuietly(opened);
+            channel.close();
+            throw e instanceof IOException io ? io : new IOException("배정 색인 열기 실패: " + indexPath, e);
+        }
+    }
+
+    private static Connection openIndex(Path indexPath) throws SQLException {
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + indexPath.toAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+        } catch (SQLException e) {
+            SqliteProvisioningLedger.closeQuietly(connection);
+            throw e;
+        }
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    /**
+     * 체크포인트 이후의 줄만 검증해 색인에 반영하고, 온전하지 않은 꼬리는 잘라냄
+     */
+    private void recover() throws IOException, SQLException {
+        long size = channel.size();
+        if (size > 0 && size <= HEADER.length() && HEADER.startsWith(readPrefix((int) size))) {
+            // 헤더를 쓰는 도중 종료된 새 파일
+            channel.truncate(0);
+            size = 0;
+        }
+        if (size == 0) {
+            write(HEADER);
+            channel.force(false);
+            resetIndex(channel.size());
+            return;
+        }
+
+        long indexedUntil = readCheckpoint();
+        if (indexedUntil <= 0 || indexedUntil > size) {
+            // 색인이 없거나 다른 기록 파일의 것: 헤더 다음부터 다시 채움
+            indexedUntil = headerEnd();
+            resetIndex(indexedUntil);
+        }
+
+        long valid = catchUp(indexedUntil, size);
+        if (valid < size) {
+            channel.truncate(valid);
+            channel.force(true);
+        }
+        end = valid;
+    }
+
+    private long headerEnd() throws IOException {
+        String text = readPrefix(HEADER.length() + 1);
+        if (!text.equals(HEADER + "\n")) {
+            throw new IOException("배정 기록 형식이 아닙니다: " + path);
+        }
+        return text.length();
+    }
+
+    private String readPrefix(int length) throws IOException {
+        ByteBuffer prefix = ByteBuffer.allocate(length);
+        while (prefix.hasRemaining() && channel.read(prefix, prefix.position()) > 0) {
+            // 짧게 읽히면 이어서 읽음
+        }
+        return new String(prefix.array(), 0, prefix.position(), StandardCharsets.US_ASCII);
+    }
+
+    private long readCheckpoint() throws SQLException {
+        try (Statement statement = index.createStatement();
+             ResultSet rows = statement.executeQuery(SELECT_CHECKPOINT)) {
+            if (!rows.next()) {
+                return 0;
+            }
+            String uid = rows.getString(2);
+            last = uid == null ? null
+                : new Assignment(uid, rows.getLong(3), rows.getLong(4), rows.getInt(5));
+            return rows.getLong(1);
+        }
+    }
+
+    private void resetIndex(long indexedUntil) throws SQLException {
+        try (Statement statement = index.createStatement()) {
+            statement.execute("DELETE FROM assignment");
+        }
+        last = null;
+        end = indexedUntil;
+        writeCheckpoint(indexedUntil);
+        index.commit();
+    }
+
+    /**
+     * from부터 온전한 줄을 색인에 반영
+     *
+     * @return 마지막 온전한 줄의 끝 위치
+     */
+    private long catchUp(long from, long size) throws IOException, SQLException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long position = from;
+        long valid = from;
+        int batched = 0;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                Assignment assignment = parse(line.toString(StandardCharsets.US_ASCII));
+                if (assignment == null) {
+                    return commitCatchUp(valid);
+                }
+                line.reset();
+                valid = position + i + 1;
+                index(assignment);
+                if (++batched == CATCH_UP_BATCH) {
+                    commitCatchUp(valid);
+                    batched = 0;
+                }
+            }
+            position += read;
+        }
+        // 줄바꿈 없이 끝난 마지막 줄은 버림
+        return commitCatchUp(valid);
+    }
+
+    private long commitCatchUp(long valid) throws SQLException {
+        upsertAssignment.executeBatch();
+        writeCheckpoint(valid);
+        index.commit();
+        return valid;
+    }
+
+    private void index(Assignment assignment) throws SQLException {
+        upsertAssignment.setString(1, assignment.uid);
+        upsertAssignment.setLong(2, assignment.row);
+        upsertAssignment.setLong(3, assignment.offset);
+        upsertAssignment.setInt(4, assignment.length);
+        upsertAssignment.addBatch();
+        if (last == null || assignment.row > last.row) {
+            last = assignment;
+        }
+    }
+
+    private void writeCheckpoint(long indexedUntil) throws SQLException {
+        upsertCheckpoint.setLong(1, indexedUntil);
+        if (last == null) {
+            upsertCheckpoint.setNull(2, Types.VARCHAR);
+            upsertCheckpoint.setNull(3, Types.INTEGER);
+            upsertCheckpoint.setNull(4, Types.INTEGER);
+            upsertCheckpoint.setNull(5, Types.INTEGER);
+        } else {
+            upsertCheckpoint.setString(2, last.uid);
+            upsertCheckpoint.setLong(3, last.row);
+            upsertCheckpoint.setLong(4, last.offset);
+            upsertCheckpoint.setInt(5, last.length);
+        }
+        upsertCheckpoint.executeUpdate();
+    }
+
+    /**
+     * 한 줄 해석 (필드 수, 숫자, CRC가 맞지 않으면 null)
+     */
+    private static Assignment parse(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != FIELD_COUNT) {
+            return null;
+        }
+        String body = line.substring(0, line.lastIndexOf(','));
+        if (!checksum(body).equals(fields[4])) {
+            return null;
+        }
+        try {
+            return new Assignment(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                Integer.parseInt(fields[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String checksum(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.US_ASCII));
+        return String.format("%08X", crc.getValue());
+    }
+
+    /**
+     * @throws IOException 색인 조회 실패
+     */
+    synchronized Optional<Assignment> find(String uid) throws IOException {
+        try {
+            selectAssignment.setString(1, uid);
+            try (ResultSet rows = selectAssignment.executeQuery()) {
+                return rows.next()
+                    ? Optional.of(new Assignment(rows.getString(1), rows.getLong(2), rows.getLong(3), rows.getInt(4)))
+                    : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new IOException("배정 색인 조회 실패: " + indexPath, e);
+        }
+    }
+
+    /**
+     * 가장 마지막에 배정된 행 (없으면 빈 값)
+     */
+    synchronized Optional<Assignment> last() {
+        return Optional.ofNullable(last);
+    }
+
+    /**
+     * 기록 파일에 한 줄을 쓰고 디스크에 반영한 뒤 색인과 체크포인트 갱신
+     * 색인 커밋 전에 종료되면 다음에 열 때 기록 파일에서 따라잡는다.
+     */
+    synchronized void append(String uid, long row, long offset, int length) throws IOException {
+        String body = uid + "," + row + "," + offset + "," + length;
+        end += write(body + "," + checksum(body));
+        channel.force(false);
+        try {
+            index(new Assignment(uid, row, offset, length));
+            commitCatchUp(end);
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new IOException("배정 색인 갱신 실패: " + indexPath, e);
+        }
+    }
+
+    private int write(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.US_ASCII));
+        int length = buffer.remaining();
+        long position = end;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return length;
+    }
+
+    private void rollbackQuietly() {
+        try {
+            index.rollback();
+        } catch (SQLException ignored) {
+            // 다음에 열 때 기록 파일에서 따라잡음
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        SqliteProvisioningLedger.closeQuietly(index);
+        channel.close();
+    }
+
+    /**
+     * 배정 기록 한 건
+     */
+    static final class Assignment {
+        final String uid;
+        final long row;
+        final long offset;
+        final int length;
+
+        Assignment(String uid, long row, long offset, int length) {
+            this.uid = uid;
+            this.row = row;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
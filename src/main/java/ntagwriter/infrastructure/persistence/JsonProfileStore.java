@@ -0,0 +1,244 @@
+package ntagwriter.infrastructure.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import ntagwriter.domain.config.ProvisioningProfile;
+import ntagwriter.service.CompiledProfile;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Supplier;
+
+/**
+ * JSON 설정 프로필 저장소 (핫 리로드)
+ * 프로필 파일을 읽어 검증·컴파일한 결과를 보관하고, 파일이 바뀌면 감시 스레드가 다시 컴파일해 교체한다.
+ * 태그 처리 경로는 get()으로 volatile 참조만 읽는다.
+ *
+ * 새 내용이 검증에 실패하면(편집 중 저장 포함) 이전 프로필을 계속 사용한다.
+ *
+ * 파일 형식:
+ * <pre>
+ * {
+ *   "name": "walkd_production",
+ *   "baseUrl": "https://.../dashboard?enc=000…(32)&amp;cmac=000…(16)",
+ *   "accessRights": {"read": "E", "write": "0", "readWrite": "0", "change": "0"},
+ *   "sdmAccessRights": {"metaRead": "2", "fileRead": "1", "counterRet": "1"},
+ *   "offsets": {"piccData": 43, "sdmMacInput": 81, "sdmMac": 81}
+ * }
+ * </pre>
+ * accessRights/sdmAccessRights/offsets는 생략 가능하며, offsets를 적으면 URL 기준 계산값과 비교한다.
+ * sdmAccessRights의 metaRead/fileRead는 키 번호(0~4)만 받는다 - 평문 미러(E)나 미러/MAC 없음(F)은 거부.
+ */
+public class JsonProfileStore implements Supplier<CompiledProfile>, AutoCloseable {
+
+    public static final Path DEFAULT_PATH = Paths.get("profiles", "walkd_production.json");
+
+    // 편집기가 여러 번 나눠 쓰는 경우를 위해 마지막 변경 후 잠시 기다렸다가 읽는다
+    private static final long RELOAD_SETTLE_MS = 200;
+
+    private final Path path;
+    private final ReloadListener listener;
+    private volatile CompiledProfile current;
+    private WatchService watchService;
+
+    /**
+     * @throws ProfileException 파일을 읽을 수 없거나 프로필이 유효하지 않은 경우
+     */
+    public JsonProfileStore(Path path, ReloadListener listener) throws ProfileException {
+        this.path = path;
+        this.listener = listener;
+        this.current = load(path);
+    }
+
+    /**
+     * 프로필 파일 읽기 + 검증 + 컴파일
+     *
+     * @throws ProfileException 파일을 읽을 수 없거나 프로필이 유효하지 않은 경우
+     */
+    public static CompiledProfile load(Path path) throws ProfileException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            ProfileDocument document = new Gson().fromJson(reader, ProfileDocument.class);
+            if (document == null) {
+                throw new ProfileException(path + ": 빈 프로필 파일");
+            }
+            return CompiledProfile.compile(document.toProfile());
+        } catch (IOException e) {
+            throw new ProfileException(path + ": 프로필 파일을 읽을 수 없습니다 - " + e.getMessage(), e);
+        } catch (JsonParseException | IllegalArgumentException e) {
+            throw new ProfileException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CompiledProfile get() {
+        return current;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * 파일 변경 감시 시작 (데몬 스레드)
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        Path directory = path.toAbsolutePath().getParent();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        Thread watcher = new Thread(() -> watch(watchService), "profile-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch(WatchService service) {
+        Path fileName = path.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+
+                if (changed) {
+                    Thread.sleep(RELOAD_SETTLE_MS);
+                    drain(service);
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // close()
+        }
+    }
+
+    private static void drain(WatchService service) {
+        WatchKey key;
+        while ((key = service.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    /**
+     * 파일을 다시 읽어 교체 (실패하면 이전 프로필 유지)
+     */
+    public void reload() {
+        try {
+            CompiledProfile reloaded = load(path);
+            current = reloaded;
+            listener.onReloaded(reloaded);
+        } catch (ProfileException e) {
+            listener.onRejected(e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // 종료 중
+        }
+        watchService = null;
+    }
+
+    /**
+     * 리로드 결과 통지
+     */
+    public interface ReloadListener {
+        void onReloaded(CompiledProfile profile);
+
+        void onRejected(String reason);
+    }
+
+    /**
+     * 프로필 로드 예외
+     */
+    public static class ProfileException extends Exception {
+        public ProfileException(String message) {
+            super(message);
+        }
+
+        public ProfileException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * JSON 문서 구조 (Gson 매핑용)
+     */
+    private static final class ProfileDocument {
+        String name;
+        String baseUrl;
+        AccessRights accessRights;
+        SdmAccessRights sdmAccessRights;
+        Offsets offsets;
+
+        ProvisioningProfile toProfile() {
+            ProvisioningProfile.Builder builder = new ProvisioningProfile.Builder()
+                .name(name)
+                .baseUrl(baseUrl);
+            if (accessRights != null) {
+                builder.accessRights(nibble("read", accessRights.read), nibble("write", accessRights.write),
+                    nibble("readWrite", accessRights.readWrite), nibble("change", accessRights.change));
+            }
+            if (sdmAccessRights != null) {
+                builder.sdmAccessRights(nibble("metaRead", sdmAccessRights.metaRead),
+                    nibble("fileRead", sdmAccessRights.fileRead),
+                    nibble("counterRet", sdmAccessRights.counterRet));
+            }
+            if (offsets != null) {
+                builder.offsets(offsets.piccData, offsets.sdmMacInput, offsets.sdmMac);
+            }
+            return builder.build();
+        }
+
+        private static int nibble(String field, String value) {
+            if (value == null || value.length() != 1) {
+                throw new IllegalArgumentException(field + " 접근 권한은 HEX 한 자리(0~F)여야 합니다: " + value);
+            }
+            return Integer.parseInt(value, 16);
+        }
+    }
+
+    private static final class AccessRights {
+        String read;
+        String write;
+        String readWrite;
+        String change;
+    }
+
+    private static final class SdmAccessRights {
+        String metaRead;
+        String fileRead;
+        String counterRet;
+    }
+
+    private static final class Offsets {
+        Integer piccData;
+        Integer sdmMacInput;
+        Integer sdmMac;
+    }
+}
@@ -0,0 +1,719 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.util.HexUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * 암호화 키 에스크로 (추가 전용 로그 + 메모리 매핑 UID 색인)
+ *
+ * 로그: 헤더 뒤에 64바이트 고정 길이 레코드를 덧붙이기만 한다. 키는 마스터 키로 AES-GCM 암호화하고,
+ * UID/키 버전/시각은 평문으로 두되 인증 데이터(AAD)로 묶어 바꿔치기를 막는다.
+ *
+ *   [0] UID 길이  [1..7] UID  [8] 키 버전  [9..11] 예약  [12..19] 기록 시각(epoch ms)
+ *   [20..31] GCM nonce  [32..63] 암호문 16 + 인증 태그 16
+ *
+ * 색인: (UID 키, 레코드 번호) 16바이트 항목을 UID 키 순으로 정렬한 파일을 읽기 전용으로 매핑해 이진 탐색한다.
+ * 열 때 색인 이후에 덧붙은 레코드를 병합해 다시 쓰고, 실행 중 기록은 메모리 맵에 둔다 (같은 UID는 최신 기록이 이김).
+ * 메모리 맵이 {@link #RECENT_MERGE_THRESHOLD}개를 넘으면 동기화 스레드가 디스크에 반영된 기록까지 색인에 병합한다.
+ * 로그가 원본이므로 색인이 없거나 깨져도 열 때 로그 전체를 훑어 다시 만든다.
+ *
+ * 동기화: 기록은 OS 버퍼에만 쓰고, 백그라운드 스레드가 {@link #GROUP_COMMIT_INTERVAL}마다 한 번 fsync해
+ * 그 사이 모든 스테이션의 기록을 함께 반영한다. {@link #awaitDurable}은 이미 반영됐으면 바로 반환한다.
+ *
+ * 파일 잠금: 쓰는 프로세스는 하나뿐이다 (파일 끝 너머 1바이트 배타 잠금). 조회 전용({@link #openReadOnly})은
+ * 여는 동안만 헤더 구간을 공유 잠금해, 쓰는 쪽이 잘린 레코드를 정리하거나 색인을 다시 쓰는 중에는 열지 않는다.
+ * 그 뒤에는 잠금 없이 연 시점까지의 레코드만 읽으므로 설정 프로세스가 실행 중이어도 조회할 수 있다.
+ */
+public class KeyEscrowStore implements KeyEscrowPort {
+
+    public static final Path DEFAULT_PATH = Paths.get("data", "key-escrow.log");
+    public static final String MASTER_KEY_ENV = "NTAG_ESCROW_KEY";
+
+    private static final int MAGIC = 0x4E544B45;        // "NTKE"
+    private static final int INDEX_MAGIC = 0x4E544B49;  // "NTKI"
+    private static final short FORMAT_VERSION = 1;
+    // magic 4, 버전 2, 레코드 크기 2, 마스터 키 확인값 8
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 64;
+    // magic 4, 버전 2, 예약 2, 색인이 포함하는 레코드 수 8
+    private static final int INDEX_HEADER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = 16;
+    private static final int SCAN_CHUNK_RECORDS = 4096;
+    // 쓰는 프로세스 잠금 위치 (레코드와 겹치지 않도록 파일 끝 너머)
+    private static final long WRITER_LOCK_POSITION = Long.MAX_VALUE - 1;
+    static final int RECENT_MERGE_THRESHOLD = 1 << 16;
+
+    private static final int MAX_UID_LENGTH = 7;
+    private static final int KEY_LENGTH = 16;
+    private static final int OFFSET_UID = 1;
+    private static final int OFFSET_KEY_VERSION = 8;
+    private static final int OFFSET_DEPOSITED_AT = 12;
+    private static final int OFFSET_NONCE = 20;
+    private static final int OFFSET_CIPHERTEXT = 32;
+    private static final int AAD_LENGTH = OFFSET_NONCE;
+    private static final int NONCE_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private static final Duration GROUP_COMMIT_INTERVAL = Duration.ofMillis(20);
+
+    private final Path path;
+    private final Path indexPath;
+    private final SecretKeySpec masterKey;
+    private final SecureRandom random = new SecureRandom();
+    private final boolean readOnly;
+    private final FileChannel log;
+    private final FileLock writerLock;
+    private final Object syncLock = new Object();
+    private final int recentMergeThreshold;
+    // 매핑한 정렬 색인 (병합하면 통째로 교체, this로 동기화)
+    private SortedIndex index;
+    // 색인에 아직 없는 UID 키 → 레코드 번호 (this로 동기화)
+    private final Map<Long, Long> recent = new HashMap<>();
+    // 병합에 실패하면 기록이 더 쌓인 뒤 다시 시도 (this로 동기화)
+    private int nextMergeSize;
+    private volatile long appended;
+    private volatile long durable;
+    private volatile boolean closed;
+    private final Thread syncThread;
+
+    /**
+     * @param path      로그 파일 (색인은 같은 이름의 .idx)
+     * @param masterKey AES 마스터 키 (16/24/32바이트)
+     */
+    public KeyEscrowStore(Path path, byte[] masterKey) throws EscrowException {
+        this(path, masterKey, false, RECENT_MERGE_THRESHOLD);
+    }
+
+    /**
+     * @param recentMergeThreshold 색인에 병합할 메모리 맵 크기 (테스트용)
+     */
+    KeyEscrowStore(Path path, byte[] masterKey, int recentMergeThreshold) throws EscrowException {
+        this(path, masterKey, false, recentMergeThreshold);
+    }
+
+    /**
+     * 조회 전용으로 열기 (설정 프로세스가 쓰는 중에도 열 수 있음)
+     * 연 시점까지 기록된 레코드만 보이며, 색인 파일은 고치지 않는다.
+     */
+    public static KeyEscrowStore openReadOnly(Path path, byte[] masterKey) throws EscrowException {
+        return new KeyEscrowStore(path, masterKey, true, RECENT_MERGE_THRESHOLD);
+    }
+
+    private KeyEscrowStore(Path path, byte[] masterKey, boolean readOnly, int recentMergeThreshold)
+            throws EscrowException {
+        if (masterKey == null || (masterKey.length != 16 && masterKey.length != 24 && masterKey.length != 32)) {
+            throw new EscrowException("마스터 키는 16/24/32바이트여야 합니다");
+        }
+        if (recentMergeThreshold <= 0) {
+            throw new IllegalArgumentException("recentMergeThreshold는 1 이상이어야 합니다: " + recentMergeThreshold);
+        }
+        this.path = path;
+        this.indexPath = indexPathFor(path);
+        this.masterKey = new SecretKeySpec(masterKey, "AES");
+        this.readOnly = readOnly;
+        this.recentMergeThreshold = recentMergeThreshold;
+        this.nextMergeSize = recentMergeThreshold;
+
+        FileChannel opened = null;
+        try {
+            if (readOnly) {
+                opened = FileChannel.open(path, StandardOpenOption.READ);
+                this.writerLock = null;
+            } else {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                opened = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+                this.writerLock = tryLock(opened, WRITER_LOCK_POSITION, 1, false);
+                if (writerLock == null) {
+                    throw new EscrowException("다른 프로세스가 키 에스크로에 쓰는 중입니다: " + path);
+                }
+            }
+            this.log = opened;
+            FileLock openLock = tryLock(opened, 0, HEADER_SIZE, readOnly);
+            if (openLock == null) {
+                throw new EscrowException("다른 프로세스가 키 에스크로를 여는 중입니다. 잠시 후 다시 시도하세요: " + path);
+            }
+            try {
+                long records = openLog();
+                this.appended = records;
+                this.durable = records;
+                loadIndex(records);
+            } finally {
+                openLock.release();
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            closeQuietly(opened);
+            throw new EscrowException("키 에스크로 열기 실패: " + path, e);
+        } catch (EscrowException e) {
+            closeQuietly(opened);
+            throw e;
+        }
+
+        if (readOnly) {
+            this.syncThread = null;
+        } else {
+            this.syncThread = new Thread(this::syncLoop, "escrow-sync");
+            this.syncThread.setDaemon(true);
+            this.syncThread.start();
+        }
+    }
+
+    /**
+     * 잠금 시도 (같은 JVM이 이미 잡은 구간이면 null)
+     */
+    private static FileLock tryLock(FileChannel channel, long position, long size, boolean shared)
+            throws IOException {
+        try {
+            return channel.tryLock(position, size, shared);
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 환경 변수 {@value #MASTER_KEY_ENV}의 HEX 마스터 키
+     */
+    public static byte[] masterKeyFromEnvironment() throws EscrowException {
+        String hex = System.getenv(MASTER_KEY_ENV);
+        if (hex == null || hex.isBlank()) {
+            throw new EscrowException("키 에스크로 마스터 키가 없습니다. 환경 변수 " + MASTER_KEY_ENV
+                + "에 32/48/64자리 HEX 키를 설정하세요.");
+        }
+        String trimmed = hex.trim();
+        if (!trimmed.matches("[0-9A-Fa-f]{32}|[0-9A-Fa-f]{48}|[0-9A-Fa-f]{64}")) {
+            throw new EscrowException(MASTER_KEY_ENV + "는 32/48/64자리 HEX여야 합니다");
+        }
+        return HexUtils.hexToBytes(trimmed);
+    }
+
+    private static Path indexPathFor(Path logPath) {
+        String name = logPath.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return logPath.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".idx");
+    }
+
+    /**
+     * 헤더 확인 (새 파일이면 기록) 후 온전한 레코드 수 반환
+     * 기록 도중 종료되어 잘린 마지막 레코드는 잘라낸다.
+     */
+    private long openLog() throws IOException, GeneralSecurityException, EscrowException {
+        byte[] keyCheck = keyCheck();
+        if (readOnly && log.size() < HEADER_SIZE) {
+            throw new EscrowException("키 에스크로 파일 형식이 아닙니다: " + path);
+        }
+        if (log.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) RECORD_SIZE).put(keyCheck);
+            writeFully(header.flip(), 0);
+            log.force(true);
+            return 0;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getShort() != FORMAT_VERSION || header.getShort() != RECORD_SIZE) {
+            throw new EscrowException("키 에스크로 파일 형식이 아닙니다: " + path);
+        }
+        byte[] storedCheck = new byte[keyCheck.length];
+        header.get(storedCheck);
+        if (!MessageDigest.isEqual(storedCheck, keyCheck)) {
+            throw new EscrowException("마스터 키가 이 키 에스크로 파일의 키와 다릅니다: " + path);
+        }
+
+        long body = log.size() - HEADER_SIZE;
+        long records = body / RECORD_SIZE;
+        if (body % RECORD_SIZE != 0 && !readOnly) {
+            log.truncate(recordPosition(records));
+            log.force(true);
+        }
+        return records;
+    }
+
+    /**
+     * 마스터 키 확인값 (0 블록 암호화 결과 앞 8바이트)
+     */
+    private byte[] keyCheck() throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, masterKey);
+        return Arrays.copyOf(cipher.doFinal(new byte[16]), 8);
+    }
+
+    /**
+     * 색인을 로그 끝까지 따라잡은 뒤 매핑
+     * 조회 전용이면 색인 파일은 그대로 두고 따라잡지 못한 레코드만 메모리 맵에 둔다.
+     */
+    private void loadIndex(long records) throws IOException {
+        SortedIndex existing = SortedIndex.open(indexPath, records);
+        long covered = existing != null ? existing.coveredRecords : -1;
+        if (covered == records) {
+            this.index = existing;
+            return;
+        }
+        TreeMap<Long, Long> tail = scanRecords(Math.max(covered, 0), records);
+        if (readOnly) {
+            this.index = existing != null ? existing : SortedIndex.EMPTY;
+            recent.putAll(tail);
+            return;
+        }
+        rewriteIndex(existing != null, tail, records);
+        this.index = SortedIndex.open(indexPath, records);
+        if (index == null) {
+            throw new IOException("다시 쓴 색인을 읽을 수 없습니다: " + indexPath);
+        }
+    }
+
+    /**
+     * 레코드 [from, to)의 UID 키 → 레코드 번호 (같은 UID는 뒤 레코드가 이김)
+     */
+    private TreeMap<Long, Long> scanRecords(long from, long to) throws IOException {
+        TreeMap<Long, Long> tail = new TreeMap<>();
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_CHUNK_RECORDS * RECORD_SIZE);
+        for (long start = from; start < to; start += SCAN_CHUNK_RECORDS) {
+            int count = (int) Math.min(SCAN_CHUNK_RECORDS, to - start);
+            chunk.clear().limit(count * RECORD_SIZE);
+            readFully(chunk, recordPosition(start));
+            for (int i = 0; i < count; i++) {
+                tail.put(uidKey(chunk, i * RECORD_SIZE), start + i);
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * 기존 색인과 새 항목을 병합해 임시 파일에 쓴 뒤 원자적으로 교체
+     */
+    private void rewriteIndex(boolean mergeExisting, TreeMap<Long, Long> tail, long records) throws IOException {
+        Path parent = indexPath.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(parent, "escrow-index", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)));
+             DataInputStream existing = mergeExisting ? openIndexEntries() : null) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeShort(0);
+            out.writeLong(records);
+
+            Iterator<Map.Entry<Long, Long>> added = tail.entrySet().iterator();
+            Map.Entry<Long, Long> next = added.hasNext() ? added.next() : null;
+            long remaining = existing != null ? (Files.size(indexPath) - INDEX_HEADER_SIZE) / INDEX_ENTRY_SIZE : 0;
+            for (; remaining > 0; remaining--) {
+                long key = existing.readLong();
+                long recordNumber = existing.readLong();
+                while (next != null && next.getKey() < key) {
+                    writeEntry(out, next.getKey(), next.getValue());
+                    next = added.hasNext() ? added.next() : null;
+                }
+                if (next != null && next.getKey() == key) {
+                    // 같은 UID를 다시 기록한 경우 새 레코드로 대체
+                    recordNumber = next.getValue();
+                    next = added.hasNext() ? added.next() : null;
+                }
+                writeEntry(out, key, recordNumber);
+            }
+            while (next != null) {
+                writeEntry(out, next.getKey(), next.getValue());
+                next = added.hasNext() ? added.next() : null;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        DurableFiles.replace(temp, indexPath);
+    }
+
+    private DataInputStream openIndexEntries() throws IOException {
+        InputStream in = Files.newInputStream(indexPath);
+        in.skipNBytes(INDEX_HEADER_SIZE);
+        return new DataInputStream(new BufferedInputStream(in));
+    }
+
+    private static void writeEntry(DataOutputStream out, long key, long recordNumber) throws IOException {
+        out.writeLong(key);
+        out.writeLong(recordNumber);
+    }
+
+    @Override
+    public long deposit(String uid, byte[] key, byte keyVersion) throws EscrowException {
+        byte[] uidBytes = HexUtils.hexToBytes(uid);
+        if (uidBytes.length == 0 || uidBytes.length > MAX_UID_LENGTH) {
+            throw new EscrowException("지원하지 않는 UID 길이입니다: " + uid);
+        }
+        if (key == null || key.length != KEY_LENGTH) {
+            throw new EscrowException("AES-128 키만 보관할 수 있습니다");
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        byte[] nonce = new byte[NONCE_LENGTH];
+        random.nextBytes(nonce);
+        record.put((byte) uidBytes.length)
+            .put(uidBytes)
+            .put(OFFSET_KEY_VERSION, keyVersion)
+            .putLong(OFFSET_DEPOSITED_AT, System.currentTimeMillis())
+            .put(OFFSET_NONCE, nonce);
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, masterKey, new GCMParameterSpec(GCM_TAG_BITS, nonce));
+            cipher.updateAAD(record.array(), 0, AAD_LENGTH);
+            cipher.doFinal(key, 0, KEY_LENGTH, record.array(), OFFSET_CIPHERTEXT);
+        } catch (GeneralSecurityException e) {
+            throw new EscrowException("키 암호화 실패: " + uid, e);
+        }
+        record.clear();
+
+        synchronized (this) {
+            if (closed) {
+                throw new EscrowException("키 에스크로가 닫혔습니다");
+            }
+            if (readOnly) {
+                throw new EscrowException("조회 전용으로 연 키 에스크로에는 기록할 수 없습니다");
+            }
+            long recordNumber = appended;
+            try {
+                writeFully(record, recordPosition(recordNumber));
+            } catch (IOException e) {
+                throw new EscrowException("키 에스크로 기록 실패: " + uid, e);
+            }
+            recent.put(uidKey(record, 0), recordNumber);
+            appended = recordNumber + 1;
+            return recordNumber + 1;
+        }
+    }
+
+    @Override
+    public void awaitDurable(long receipt) throws EscrowException {
+        if (durable >= receipt) {
+            return;
+        }
+        try {
+            forceLog();
+        } catch (IOException e) {
+            throw new EscrowException("키 에스크로 동기화 실패", e);
+        }
+    }
+
+    /**
+     * 지금까지 기록한 레코드를 한 번의 fsync로 반영 (동시에 부른 스레드는 앞선 fsync 결과를 함께 씀)
+     */
+    private void forceLog() throws IOException {
+        synchronized (syncLock) {
+            long target = appended;
+            if (durable >= target) {
+                return;
+            }
+            log.force(false);
+            durable = target;
+        }
+    }
+
+    private void syncLoop() {
+        while (!closed) {
+            try {
+                Thread.sleep(GROUP_COMMIT_INTERVAL.toMillis());
+                forceLog();
+                mergeRecentIfFull();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                // 동기화 오류는 awaitDurable이 호출자에게 전달, 병합 오류는 메모리 맵에 남아 다음에 다시 시도
+            }
+        }
+    }
+
+    /**
+     * 메모리 맵이 임계값을 넘으면 디스크에 반영된 기록까지 색인에 병합
+     * 색인 쓰기는 잠금 밖에서 하고, 색인 교체와 메모리 맵 정리만 잠금 안에서 한다.
+     */
+    private void mergeRecentIfFull() throws IOException {
+        long covered;
+        TreeMap<Long, Long> merged = new TreeMap<>();
+        synchronized (this) {
+            if (recent.size() < nextMergeSize) {
+                return;
+            }
+            covered = durable;
+            for (Map.Entry<Long, Long> entry : recent.entrySet()) {
+                if (entry.getValue() < covered) {
+                    merged.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+
+        SortedIndex rewritten;
+        try {
+            rewriteIndex(true, merged, covered);
+            rewritten = SortedIndex.open(indexPath, covered);
+            if (rewritten == null) {
+                throw new IOException("다시 쓴 색인을 읽을 수 없습니다: " + indexPath);
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                nextMergeSize = recent.size() + recentMergeThreshold;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            index = rewritten;
+            recent.values().removeIf(recordNumber -> recordNumber < covered);
+            nextMergeSize = recentMergeThreshold;
+        }
+    }
+
+    /**
+     * 색인에 아직 병합하지 않은 UID 수
+     */
+    synchronized int pendingIndexEntries() {
+        return recent.size();
+    }
+
+    @Override
+    public Optional<EscrowedKey> find(String uid) throws EscrowException {
+        byte[] uidBytes = HexUtils.hexToBytes(uid);
+        if (uidBytes.length == 0 || uidBytes.length > MAX_UID_LENGTH) {
+            return Optional.empty();
+        }
+        long key = uidKey(uidBytes);
+        Long recordNumber;
+        SortedIndex current;
+        synchronized (this) {
+            recordNumber = recent.get(key);
+            current = index;
+        }
+        if (recordNumber == null) {
+            recordNumber = current.search(key);
+        }
+        if (recordNumber == null) {
+            return Optional.empty();
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        try {
+            readFully(record, recordPosition(recordNumber));
+        } catch (IOException e) {
+            throw new EscrowException("키 에스크로 읽기 실패: " + uid, e);
+        }
+        return Optional.of(decrypt(record, uidBytes));
+    }
+
+    private EscrowedKey decrypt(ByteBuffer record, byte[] uidBytes) throws EscrowException {
+        byte[] array = record.array();
+        if (array[0] != uidBytes.length
+                || !Arrays.equals(array, OFFSET_UID, OFFSET_UID + uidBytes.length, uidBytes, 0, uidBytes.length)) {
+            throw new EscrowException("색인이 가리키는 레코드의 UID가 다릅니다: " + HexUtils.bytesToHex(uidBytes));
+        }
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, masterKey,
+                new GCMParameterSpec(GCM_TAG_BITS, array, OFFSET_NONCE, NONCE_LENGTH));
+            cipher.updateAAD(array, 0, AAD_LENGTH);
+            byte[] key = cipher.doFinal(array, OFFSET_CIPHERTEXT, RECORD_SIZE - OFFSET_CIPHERTEXT);
+            try {
+                return new EscrowedKey(HexUtils.bytesToHex(uidBytes), key, array[OFFSET_KEY_VERSION],
+                    Instant.ofEpochMilli(record.getLong(OFFSET_DEPOSITED_AT)));
+            } finally {
+                Arrays.fill(key, (byte) 0);
+            }
+        } catch (GeneralSecurityException e) {
+            throw new EscrowException("키 복호화 실패 (레코드 손상 또는 변조): " + HexUtils.bytesToHex(uidBytes), e);
+        }
+    }
+
+    /**
+     * UID → 정렬 키 (상위 바이트에 길이, 나머지에 UID)
+     */
+    private static long uidKey(byte[] uid) {
+        long value = uid.length;
+        for (byte b : uid) {
+            value = (value << 8) | (b & 0xFF);
+        }
+        return value << (8 * (MAX_UID_LENGTH - uid.length));
+    }
+
+    private static long uidKey(ByteBuffer buffer, int recordOffset) {
+        int length = buffer.get(recordOffset) & 0xFF;
+        long value = length;
+        for (int i = 0; i < length && i < MAX_UID_LENGTH; i++) {
+            value = (value << 8) | (buffer.get(recordOffset + OFFSET_UID + i) & 0xFF);
+        }
+        return value << (8 * (MAX_UID_LENGTH - Math.min(length, MAX_UID_LENGTH)));
+    }
+
+    /**
+     * 레코드 번호 → 로그 파일 위치 (long으로 계산해 2GB 이후 레코드도 넘치지 않음)
+     */
+    private static long recordPosition(long recordNumber) {
+        return HEADER_SIZE + recordNumber * (long) RECORD_SIZE;
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += log.write(buffer, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = log.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("키 에스크로 파일이 예상보다 짧습니다");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * 기록한 레코드 수
+     */
+    public long size() {
+        return appended;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 남은 기록을 반영한 뒤 닫기 (색인은 다음에 열 때 따라잡음)
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (syncThread != null) {
+            syncThread.interrupt();
+            try {
+                syncThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                forceLog();
+            } catch (IOException ignored) {
+                // 반영하지 못한 기록의 키는 아직 태그에 쓰지 않았음 (ChangeKey 전에 반영을 기다림)
+            }
+        }
+        closeQuietly(log);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 닫는 중 오류는 무시
+        }
+    }
+
+    /**
+     * 매핑한 정렬 색인 (병합하면 새로 매핑해 교체하고, 기존 매핑은 그대로 읽을 수 있음)
+     * 매핑 하나는 2GB를 넘을 수 없어 1GB 구간으로 나눠 매핑한다. 항목이 16바이트라 구간 경계에 걸치지 않는다.
+     */
+    private static final class SortedIndex {
+        private static final int SEGMENT_SHIFT = 30;
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+        static final SortedIndex EMPTY = new SortedIndex(new MappedByteBuffer[0], 0, 0);
+
+        private final MappedByteBuffer[] segments;
+        private final long entries;
+        final long coveredRecords;
+
+        private SortedIndex(MappedByteBuffer[] segments, long entries, long coveredRecords) {
+            this.segments = segments;
+            this.entries = entries;
+            this.coveredRecords = coveredRecords;
+        }
+
+        /**
+         * 색인 파일 매핑 (없거나, 형식이 다르거나, 로그보다 많은 레코드를 포함하면 null)
+         */
+        static SortedIndex open(Path indexPath, long records) throws IOException {
+            if (!Files.exists(indexPath)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < INDEX_HEADER_SIZE || (size - INDEX_HEADER_SIZE) % INDEX_ENTRY_SIZE != 0) {
+                    return null;
+                }
+                MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+                for (int i = 0; i < segments.length; i++) {
+                    long position = (long) i << SEGMENT_SHIFT;
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(SEGMENT_MASK + 1, size - position));
+                }
+                MappedByteBuffer header = segments[0];
+                if (header.getInt(0) != INDEX_MAGIC || header.getShort(4) != FORMAT_VERSION) {
+                    return null;
+                }
+                long covered = header.getLong(8);
+                if (covered > records) {
+                    return null;
+                }
+                return new SortedIndex(segments, (size - INDEX_HEADER_SIZE) / INDEX_ENTRY_SIZE, covered);
+            }
+        }
+
+        /**
+         * UID 키 이진 탐색
+         */
+        Long search(long key) {
+            long low = 0;
+            long high = entries - 1;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                long offset = INDEX_HEADER_SIZE + mid * INDEX_ENTRY_SIZE;
+                long midKey = readLong(offset);
+                if (midKey < key) {
+                    low = mid + 1;
+                } else if (midKey > key) {
+                    high = mid - 1;
+                } else {
+                    return readLong(offset + Long.BYTES);
+                }
+            }
+            return null;
+        }
+
+        private long readLong(long position) {
+            return segments[(int) (position >>> SEGMENT_SHIFT)].getLong((int) (position & SEGMENT_MASK));
+        }
+    }
+}
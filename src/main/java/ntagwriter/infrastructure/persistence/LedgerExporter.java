@@ -0,0 +1,327 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.port.ProvisioningLedgerPort.LedgerException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 설정 원장 내보내기 (MES 연동용)
+ * 설정을 마친(SUCCESS) 태그를 원장 ID 순으로 CSV 또는 JSON Lines로 쓴다.
+ * 원장 파티션(진행 중과 보관된 것 모두)을 번호 순으로 하나씩 열어 이어 붙인다.
+ *
+ * - 페이징: OFFSET 없이 마지막 ID 다음부터 {@link #PAGE_SIZE}행씩 읽는다 (기본 키 색인만 탐색).
+ * - 메모리: 한 행씩 고정 크기 버퍼에 인코딩해 채널로 내보내므로 행 수와 관계없이 일정하다.
+ * - 증분: 워터마크(마지막으로 내보낸 원장 ID) 이후만 내보내고, 새 워터마크를 돌려준다.
+ *
+ * 실행 중인 설정 스테이션과 같은 원장을 읽어도 된다 (파티션마다 WAL 읽기 전용 연결).
+ */
+public class LedgerExporter {
+
+    /**
+     * 내보내기 형식
+     */
+    public enum Format {
+        CSV, JSONL
+    }
+
+    public static final int PAGE_SIZE = 5_000;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final String[] COLUMNS =
+        {"ledger_id", "uid", "url", "key_version", "profile", "reader", "started_at", "completed_at"};
+    private static final String SELECT_PAGE = "SELECT id, uid, url, key_version, profile, reader, recorded_at, "
+        + "duration_us FROM provisioning_ledger WHERE id > ? AND result = 'SUCCESS' ORDER BY id LIMIT ?";
+    private static final DateTimeFormatter STORED_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final DateTimeFormatter EXPORT_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    private final Path ledgerDirectory;
+    private final ZoneId zone;
+
+    /**
+     * @param ledgerDirectory 파티션 원장 디렉토리
+     * @param zone            내보낼 시각의 시간대 (원장은 로컬 시각으로 기록)
+     */
+    public LedgerExporter(Path ledgerDirectory, ZoneId zone) throws LedgerException {
+        if (!Files.isDirectory(ledgerDirectory)) {
+            throw new LedgerException("원장 디렉토리가 없습니다: " + ledgerDirectory);
+        }
+        this.ledgerDirectory = ledgerDirectory;
+        this.zone = zone;
+    }
+
+    /**
+     * 워터마크 이후의 완료 태그 내보내기
+     *
+     * @param afterId 이 원장 ID 이후만 (처음부터는 0)
+     * @param format  출력 형식
+     * @param out     출력 채널 (닫지 않음)
+     * @return 내보낸 행 수와 새 워터마크
+     */
+    public Result export(long afterId, Format format, WritableByteChannel out) throws LedgerException, IOException {
+        RowWriter writer = new RowWriter(out);
+        if (format == Format.CSV) {
+            writer.csvHeader();
+        }
+
+        List<LedgerPartition> partitions;
+        try {
+            partitions = LedgerPartition.list(ledgerDirectory);
+        } catch (IOException e) {
+            throw new LedgerException("원장 파티션 목록 읽기 실패: " + ledgerDirectory, e);
+        }
+
+        long lastId = afterId;
+        long rows = 0;
+        for (LedgerPartition partition : partitions) {
+            // 파티션 번호가 ID 범위를 정하므로 워터마크 이전 파티션은 열지 않음
+            if (partition.maxId() <= afterId) {
+                continue;
+            }
+            try (Connection connection = SqliteProvisioningLedger.openReadOnly(partition.existingPath());
+                 PreparedStatement selectPage = connection.prepareStatement(SELECT_PAGE)) {
+                while (true) {
+                    selectPage.setLong(1, lastId);
+                    selectPage.setInt(2, PAGE_SIZE);
+                    int pageRows = 0;
+                    try (ResultSet page = selectPage.executeQuery()) {
+                        while (page.next()) {
+                            lastId = page.getLong(1);
+                            String[] values = rowValues(page);
+                            if (format == Format.CSV) {
+                                writer.csvRow(values);
+                            } else {
+                                writer.jsonRow(values);
+                            }
+                            pageRows++;
+                        }
+                    }
+                    rows += pageRows;
+                    if (pageRows < PAGE_SIZE) {
+                        break;
+                    }
+                }
+            } catch (SQLException e) {
+                throw new LedgerException("원장 조회 실패 (" + partition + ", 원장 ID " + lastId + " 이후)", e);
+            }
+        }
+        writer.finish();
+        return new Result(rows, lastId);
+    }
+
+    /**
+     * 파일로 내보내기 (임시 파일에 쓰고 동기화한 뒤 원자적으로 교체 - 중간에 실패하면 기존 파일 유지)
+     */
+    public Result exportTo(Path output, long afterId, Format format) throws LedgerException, IOException {
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(output.getFileName() + ".partial");
+        Result result;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            result = export(afterId, format, channel);
+            channel.force(true);
+        } catch (LedgerException | IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        DurableFiles.replace(temp, output);
+        return result;
+    }
+
+    private String[] rowValues(ResultSet row) throws SQLException {
+        LocalDateTime completedAt = LocalDateTime.parse(row.getString(7), STORED_FORMAT);
+        LocalDateTime startedAt = completedAt.minusNanos(row.getLong(8) * 1_000);
+        int keyVersion = row.getInt(4);
+        boolean noKeyVersion = row.wasNull();
+        return new String[] {
+            Long.toString(row.getLong(1)),
+            row.getString(2),
+            row.getString(3),
+            noKeyVersion ? null : String.format("0x%02X", keyVersion),
+            row.getString(5),
+            row.getString(6),
+            startedAt.atZone(zone).format(EXPORT_FORMAT),
+            completedAt.atZone(zone).format(EXPORT_FORMAT)
+        };
+    }
+
+    /**
+     * 워터마크 파일 읽기 (없으면 0 - 처음부터)
+     */
+    public static long readWatermark(Path path) throws IOException {
+        try {
+            String text = Files.readString(path, StandardCharsets.UTF_8).trim();
+            return text.isEmpty() ? 0 : Long.parseLong(text);
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (NumberFormatException e) {
+            throw new IOException("워터마크 파일 형식 오류: " + path, e);
+        }
+    }
+
+    /**
+     * 워터마크 파일 원자적 교체 (내보내기 파일을 옮긴 뒤에 호출)
+     */
+    public static void writeWatermark(Path path, long lastId) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(path.getFileName() + ".tmp");
+        Files.writeString(temp, lastId + System.lineSeparator(), StandardCharsets.UTF_8);
+        DurableFiles.replace(temp, path);
+    }
+
+    /**
+     * 내보내기 결과
+     */
+    public static final class Result {
+        public final long rows;
+        // 마지막으로 내보낸 원장 ID (다음 증분의 워터마크, 행이 없으면 입력 워터마크 그대로)
+        public final long lastId;
+
+        Result(long rows, long lastId) {
+            this.rows = rows;
+            this.lastId = lastId;
+        }
+    }
+
+    /**
+     * 행을 고정 크기 바이트 버퍼에 UTF-8로 인코딩해 채널로 내보냄
+     */
+    private static final class RowWriter {
+        private final WritableByteChannel out;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final StringBuilder line = new StringBuilder(256);
+
+        RowWriter(WritableByteChannel out) {
+            this.out = out;
+        }
+
+        void csvHeader() throws IOException {
+            line.setLength(0);
+            line.append(String.join(",", COLUMNS)).append('\n');
+            emit();
+        }
+
+        void csvRow(String[] values) throws IOException {
+            line.setLength(0);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendCsv(values[i]);
+            }
+            line.append('\n');
+            emit();
+        }
+
+        void jsonRow(String[] values) throws IOException {
+            line.setLength(0);
+            line.append('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append('"').append(COLUMNS[i]).append("\":");
+                if (values[i] == null) {
+                    line.append("null");
+                } else if (i == 0) {
+                    line.append(values[i]);
+                } else {
+                    appendJson(values[i]);
+                }
+            }
+            line.append("}\n");
+            emit();
+        }
+
+        private void appendCsv(String value) {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        private void appendJson(String value) {
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> line.append("\\\"");
+                    case '\\' -> line.append("\\\\");
+                    case '\n' -> line.append("\\n");
+                    case '\r' -> line.append("\\r");
+                    case '\t' -> line.append("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            line.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            line.append(c);
+                        }
+                    }
+                }
+            }
+            line.append('"');
+        }
+
+        private void emit() throws IOException {
+            CharBuffer chars = CharBuffer.wrap(line);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isOverflow()) {
+                    drain();
+                    continue;
+                }
+                if (result.isError()) {
+                    result.throwException();
+                }
+                break;
+            }
+            encoder.reset();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void finish() throws IOException {
+            drain();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ntagwriter.infrastructure.persistence;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 원장 파티션 파일 하나 (ledger-000012-20261018.db)
+ * 파티션 번호 N의 원장 ID와 완료 UID 순번은 N × 2^32 부터 시작하므로, 파티션을 넘어도 ID 순서가 시간 순서다.
+ * 진행 중인 파티션은 원장 디렉토리에, 닫힌 파티션은 archive 하위 디렉토리에 있다.
+ */
+final class LedgerPartition {
+
+    static final String ARCHIVE_DIRECTORY = "archive";
+    private static final Pattern FILE_NAME = Pattern.compile("ledger-(\\d{6})-(\\d{8})\\.db");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    final int number;
+    final LocalDate date;
+    final Path path;
+    final boolean archived;
+
+    private LedgerPartition(int number, LocalDate date, Path path, boolean archived) {
+        this.number = number;
+        this.date = date;
+        this.path = path;
+        this.archived = archived;
+    }
+
+    static LedgerPartition live(Path directory, int number, LocalDate date) {
+        return new LedgerPartition(number, date, directory.resolve(fileName(number, date)), false);
+    }
+
+    static String fileName(int number, LocalDate date) {
+        return String.format("ledger-%06d-%s.db", number, date.format(DATE_FORMAT));
+    }
+
+    /**
+     * 이 파티션의 첫 ID 직전 값 (AUTOINCREMENT 시작값)
+     */
+    long idBase() {
+        return (long) number << 32;
+    }
+
+    /**
+     * 이 파티션이 가질 수 있는 가장 큰 ID
+     */
+    long maxId() {
+        return idBase() + 0xFFFF_FFFFL;
+    }
+
+    Path archivePath() {
+        Path directory = archived ? path.getParent() : path.getParent().resolve(ARCHIVE_DIRECTORY);
+        return directory.resolve(path.getFileName());
+    }
+
+    /**
+     * 지금 존재하는 파일 (목록을 읽은 뒤 보관 처리되었으면 보관 파일)
+     */
+    Path existingPath() {
+        return Files.exists(path) ? path : archivePath();
+    }
+
+    /**
+     * 원장 디렉토리와 보관 디렉토리의 파티션 (번호 순, 보관 복사가 끝나기 전이라 두 곳에 다 있으면 원장 디렉토리 파일)
+     */
+    static List<LedgerPartition> list(Path directory) throws IOException {
+        Map<Integer, LedgerPartition> partitions = new TreeMap<>();
+        scan(directory.resolve(ARCHIVE_DIRECTORY), true, partitions);
+        scan(directory, false, partitions);
+        return new ArrayList<>(partitions.values());
+    }
+
+    private static void scan(Path directory, boolean archived, Map<Integer, LedgerPartition> partitions)
+            throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "ledger-*.db")) {
+            for (Path file : files) {
+                parse(file, archived).ifPresent(partition -> partitions.put(partition.number, partition));
+            }
+        }
+    }
+
+    private static Optional<LedgerPartition> parse(Path file, boolean archived) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new LedgerPartition(Integer.parseInt(matcher.group(1)),
+                LocalDate.parse(matcher.group(2), DATE_FORMAT), file, archived));
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path.getFileName() + (archived ? " (보관)" : "");
+    }
+}
@@ -0,0 +1,213 @@
+package ntagwriter.infrastructure.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import ntagwriter.domain.ProvisioningRecord;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * 원장 DB에 넣지 못한 배치의 보관 파일 (원장 파일 옆 .spill, 배치 하나가 JSON 한 줄)
+ *
+ * 쓰기마다 force로 디스크에 남긴 뒤 반환하므로, DB가 잠겨 있거나 망가져도 기록이 사라지지 않는다.
+ * 배치마다 ID를 붙여 원장이 다시 넣은 배치를 기억하므로, 넣은 뒤 파일을 지우기 전에 죽어도 두 번 들어가지 않는다.
+ * 마지막 줄이 잘렸으면(쓰는 중 정전) 그 줄만 건너뛴다 - 아직 force되지 않은 배치라 보관된 적이 없다.
+ */
+final class LedgerSpillFile {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final Gson GSON = new Gson();
+
+    private LedgerSpillFile() {
+    }
+
+    /**
+     * 원장 DB 파일의 보관 파일 경로
+     */
+    static Path pathFor(Path database) {
+        return database.resolveSibling(database.getFileName() + ".spill");
+    }
+
+    /**
+     * 배치 하나를 덧붙이고 디스크에 동기화
+     *
+     * @return 배치 ID
+     */
+    static String append(Path spill, List<ProvisioningRecord> batch) throws IOException {
+        SpilledBatch document = new SpilledBatch();
+        document.batchId = UUID.randomUUID().toString();
+        document.records = new ArrayList<>(batch.size());
+        for (ProvisioningRecord record : batch) {
+            document.records.add(SpilledRecord.from(record));
+        }
+        byte[] line = (GSON.toJson(document) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        boolean created = !Files.exists(spill);
+        try (FileChannel channel = FileChannel.open(spill,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // 잘린 줄 뒤에 바로 붙이면 온전한 배치까지 그 줄과 함께 버려지므로 새 줄에서 시작
+            long size = channel.size();
+            ByteBuffer last = ByteBuffer.allocate(1);
+            boolean torn = size > 0 && channel.read(last, size - 1) == 1 && last.get(0) != '\n';
+            channel.position(size);
+            ByteBuffer buffer = ByteBuffer.wrap(torn ? prependNewline(line) : line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        if (created) {
+            DurableFiles.syncDirectory(spill.toAbsolutePath().getParent());
+        }
+        return document.batchId;
+    }
+
+    /**
+     * 보관된 배치 읽기 (파일이 없으면 빈 목록)
+     *
+     * @param errorListener 잘린 줄 알림
+     */
+    static List<Batch> read(Path spill, Consumer<String> errorListener) throws IOException {
+        List<Batch> batches = new ArrayList<>();
+        if (!Files.exists(spill)) {
+            return batches;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(spill, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    SpilledBatch document = GSON.fromJson(line, SpilledBatch.class);
+                    List<ProvisioningRecord> records = new ArrayList<>(document.records.size());
+                    for (SpilledRecord record : document.records) {
+                        records.add(record.toRecord());
+                    }
+                    batches.add(new Batch(document.batchId, records));
+                } catch (JsonParseException e) {
+                    errorListener.accept("원장 보관 파일의 잘린 줄을 건너뜁니다 (" + spill + ":" + lineNumber + ")");
+                }
+            }
+        }
+        return batches;
+    }
+
+    private static byte[] prependNewline(byte[] line) {
+        byte[] prefixed = new byte[line.length + 1];
+        prefixed[0] = '\n';
+        System.arraycopy(line, 0, prefixed, 1, line.length);
+        return prefixed;
+    }
+
+    /**
+     * 모두 원장에 넣은 뒤 삭제
+     */
+    static void delete(Path spill) throws IOException {
+        if (Files.deleteIfExists(spill)) {
+            DurableFiles.syncDirectory(spill.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * 보관된 배치
+     */
+    static final class Batch {
+        final String batchId;
+        final List<ProvisioningRecord> records;
+
+        private Batch(String batchId, List<ProvisioningRecord> records) {
+            this.batchId = batchId;
+            this.records = records;
+        }
+    }
+
+    private static final class SpilledBatch {
+        String batchId;
+        List<SpilledRecord> records;
+    }
+
+    private static final class SpilledRecord {
+        String recordedAt;
+        String readerName;
+        String uid;
+        String outcome;
+        String finalState;
+        String profileName;
+        String url;
+        Integer keyVersion;
+        List<Integer> statusWords;
+        long durationNanos;
+        List<SpilledStep> steps;
+        String message;
+
+        static SpilledRecord from(ProvisioningRecord record) {
+            SpilledRecord spilled = new SpilledRecord();
+            spilled.recordedAt = record.recordedAt.format(TIMESTAMP_FORMAT);
+            spilled.readerName = record.readerName;
+            spilled.uid = record.uid;
+            spilled.outcome = record.outcome.name();
+            spilled.finalState = record.finalState;
+            spilled.profileName = record.profileName;
+            spilled.url = record.url;
+            spilled.keyVersion = record.keyVersion;
+            spilled.statusWords = record.statusWords;
+            spilled.durationNanos = record.duration != null ? record.duration.toNanos() : 0;
+            spilled.steps = new ArrayList<>(record.steps.size());
+            for (ProvisioningRecord.StepTiming step : record.steps) {
+                SpilledStep spilledStep = new SpilledStep();
+                spilledStep.name = step.name;
+                spilledStep.success = step.success;
+                spilledStep.durationNanos = step.duration != null ? step.duration.toNanos() : 0;
+                spilled.steps.add(spilledStep);
+            }
+            spilled.message = record.message;
+            return spilled;
+        }
+
+        ProvisioningRecord toRecord() {
+            ProvisioningRecord.Builder builder = ProvisioningRecord.builder()
+                .recordedAt(LocalDateTime.parse(recordedAt, TIMESTAMP_FORMAT))
+                .readerName(readerName)
+                .uid(uid)
+                .outcome(ProvisioningRecord.Outcome.valueOf(outcome))
+                .finalState(finalState)
+                .profileName(profileName)
+                .url(url)
+                .keyVersion(keyVersion)
+                .duration(Duration.ofNanos(durationNanos))
+                .message(message);
+            if (statusWords != null) {
+                builder.statusWords(statusWords);
+            }
+            if (steps != null) {
+                for (SpilledStep step : steps) {
+                    builder.addStep(step.name, step.success, Duration.ofNanos(step.durationNanos));
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    private static final class SpilledStep {
+        String name;
+        boolean success;
+        long durationNanos;
+    }
+}
@@ -0,0 +1,168 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.port.ProvisioningLedgerPort.LedgerException;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * 파티션 원장 전체의 설정 완료 UID 색인 (원장 디렉토리의 uid-index.db)
+ *
+ * 파티션마다 있는 완료 UID 표는 그 파티션 안에서만 유일하므로, 모든 날짜에 걸친 첫 완료 시각은 이 색인이 맡는다.
+ * 기록 스레드는 파티션에만 쓰고, 색인은 파티션별로 어디까지 반영했는지(완료 UID 순번)를 기억해 뒤따라 채운다.
+ * - 진행 중 파티션: 확인 조회 직전에 따라잡음 (중복 판정 때만이라 드묾)
+ * - 닫힌 파티션: 보관 직전에 마지막으로 따라잡음. 색인 파일이 새로 생겼으면 열 때 모든 파티션에서 다시 채운다.
+ * 반영 순번은 UID와 같은 트랜잭션으로 남기므로, 색인 커밋이 사라져도 다시 따라잡으면 같은 결과가 된다.
+ */
+final class LedgerUidIndex implements AutoCloseable {
+
+    static final String FILE_NAME = "uid-index.db";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS provisioned_uid ("
+            + "uid_key INTEGER PRIMARY KEY, "
+            + "partition_number INTEGER NOT NULL, "
+            + "recorded_at TEXT NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS indexed_partition ("
+            + "partition_number INTEGER PRIMARY KEY, "
+            + "last_seq INTEGER NOT NULL)"
+    };
+
+    // 여러 파티션에 완료 기록이 있으면 가장 이른 기록을 유지 (ISO 시각은 문자열 순서가 시간 순서)
+    private static final String UPSERT_UID = "INSERT INTO provisioned_uid (uid_key, partition_number, recorded_at) "
+        + "VALUES (?, ?, ?) ON CONFLICT(uid_key) DO UPDATE SET "
+        + "partition_number = excluded.partition_number, recorded_at = excluded.recorded_at "
+        + "WHERE excluded.recorded_at < provisioned_uid.recorded_at";
+    private static final String UPSERT_WATERMARK = "INSERT INTO indexed_partition (partition_number, last_seq) "
+        + "VALUES (?, ?) ON CONFLICT(partition_number) DO UPDATE SET last_seq = excluded.last_seq";
+    private static final String SELECT_WATERMARK =
+        "SELECT last_seq FROM indexed_partition WHERE partition_number = ?";
+    private static final String SELECT_RECORDED_AT = "SELECT recorded_at FROM provisioned_uid WHERE uid_key = ?";
+    private static final String SELECT_PARTITION_SINCE = "SELECT p.seq, p.uid_key, l.recorded_at "
+        + "FROM provisioned_uid p JOIN provisioning_ledger l ON l.id = p.ledger_id WHERE p.seq > ? ORDER BY p.seq";
+    private static final int CATCH_UP_FETCH_SIZE = 10_000;
+
+    private final Path path;
+    private final Connection connection;
+    private final PreparedStatement upsertUid;
+    private final PreparedStatement upsertWatermark;
+    private final PreparedStatement selectWatermark;
+    private final PreparedStatement selectRecordedAt;
+
+    /**
+     * @param directory 원장 디렉토리
+     */
+    LedgerUidIndex(Path directory) throws LedgerException {
+        this.path = directory.resolve(FILE_NAME);
+        Connection opened = null;
+        try {
+            opened = DriverManager.getConnection("jdbc:sqlite:" + path.toAbsolutePath());
+            try (Statement statement = opened.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("PRAGMA busy_timeout=5000");
+                for (String ddl : SCHEMA) {
+                    statement.execute(ddl);
+                }
+            }
+            opened.setAutoCommit(false);
+            this.upsertUid = opened.prepareStatement(UPSERT_UID);
+            this.upsertWatermark = opened.prepareStatement(UPSERT_WATERMARK);
+            this.selectWatermark = opened.prepareStatement(SELECT_WATERMARK);
+            this.selectRecordedAt = opened.prepareStatement(SELECT_RECORDED_AT);
+            this.connection = opened;
+        } catch (SQLException e) {
+            SqliteProvisioningLedger.closeQuietly(opened);
+            throw new LedgerException("원장 UID 색인 열기 실패: " + path, e);
+        }
+    }
+
+    /**
+     * 파티션을 한 번이라도 반영했는지 (보관된 파티션은 보관 직전에 다 반영됨)
+     */
+    synchronized boolean isIndexed(LedgerPartition partition) throws LedgerException {
+        try {
+            return watermark(partition.number).isPresent();
+        } catch (SQLException e) {
+            throw new LedgerException("원장 UID 색인 조회 실패: " + path, e);
+        }
+    }
+
+    /**
+     * 파티션에서 마지막 반영 이후의 완료 UID를 한 트랜잭션으로 반영
+     */
+    synchronized void catchUp(LedgerPartition partition) throws LedgerException {
+        try (Connection source = SqliteProvisioningLedger.openReadOnly(partition.existingPath());
+             PreparedStatement select = source.prepareStatement(SELECT_PARTITION_SINCE)) {
+            long last = watermark(partition.number).orElse(partition.idBase());
+            long from = last;
+            select.setFetchSize(CATCH_UP_FETCH_SIZE);
+            select.setLong(1, from);
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    last = rows.getLong(1);
+                    upsertUid.setLong(1, rows.getLong(2));
+                    upsertUid.setInt(2, partition.number);
+                    upsertUid.setString(3, rows.getString(3));
+                    upsertUid.addBatch();
+                }
+            }
+            upsertUid.executeBatch();
+            if (last != from || watermark(partition.number).isEmpty()) {
+                upsertWatermark.setInt(1, partition.number);
+                upsertWatermark.setLong(2, last);
+                upsertWatermark.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            rollbackQuietly();
+            throw new LedgerException("원장 UID 색인 갱신 실패 (" + partition + ")", e);
+        }
+    }
+
+    /**
+     * 모든 파티션에 걸친 첫 완료 시각
+     */
+    synchronized Optional<LocalDateTime> find(long uidKey) throws LedgerException {
+        try {
+            selectRecordedAt.setLong(1, uidKey);
+            try (ResultSet rows = selectRecordedAt.executeQuery()) {
+                return rows.next()
+                    ? Optional.of(LocalDateTime.parse(rows.getString(1), TIMESTAMP_FORMAT))
+                    : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new LedgerException("원장 UID 색인 조회 실패: " + path, e);
+        }
+    }
+
+    private Optional<Long> watermark(int partitionNumber) throws SQLException {
+        selectWatermark.setInt(1, partitionNumber);
+        try (ResultSet rows = selectWatermark.executeQuery()) {
+            return rows.next() ? Optional.of(rows.getLong(1)) : Optional.empty();
+        }
+    }
+
+    private void rollbackQuietly() {
+        try {
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // 연결이 끊긴 경우: 다음 갱신에서 다시 따라잡음
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        SqliteProvisioningLedger.closeQuietly(connection);
+    }
+}
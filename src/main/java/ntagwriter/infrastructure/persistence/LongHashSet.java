@@ -0,0 +1,117 @@
+package ntagwriter.infrastructure.persistence;
+
+import java.util.function.LongConsumer;
+
+/**
+ * long 키 전용 해시 집합 (개방 주소법, 선형 탐사)
+ * 박싱 없이 long 배열 하나에 담아 키당 약 16바이트만 쓰고, 배열을 그대로 스냅샷에 쓰고 읽을 수 있다.
+ * 0은 빈 칸 표시라 키로 쓸 수 없다 (UID 키는 길이 바이트 때문에 0이 나오지 않음).
+ * 동기화하지 않는다 - 호출하는 쪽이 잠근다.
+ */
+final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] table;
+    private int mask;
+    private int size;
+
+    LongHashSet(int expectedSize) {
+        this(new long[tableCapacity(expectedSize)], 0);
+    }
+
+    /**
+     * 스냅샷에서 읽은 배열로 복원 (길이는 2의 거듭제곱)
+     */
+    LongHashSet(long[] table, int size) {
+        if (Integer.bitCount(table.length) != 1) {
+            throw new IllegalArgumentException("테이블 크기는 2의 거듭제곱이어야 합니다: " + table.length);
+        }
+        this.table = table;
+        this.mask = table.length - 1;
+        this.size = size;
+    }
+
+    boolean contains(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == key) {
+                return true;
+            }
+            if (current == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return 새로 추가했으면 true
+     */
+    boolean add(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("0은 키로 쓸 수 없습니다");
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == key) {
+                return false;
+            }
+            if (current == 0) {
+                table[slot] = key;
+                if (++size * 2 > table.length) {
+                    resize(table.length * 2);
+                }
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(LongConsumer consumer) {
+        for (long key : table) {
+            if (key != 0) {
+                consumer.accept(key);
+            }
+        }
+    }
+
+    /**
+     * 스냅샷 저장용 내부 배열 (복사하지 않음)
+     */
+    long[] table() {
+        return table;
+    }
+
+    private int slot(long key) {
+        return (int) UidBloomFilter.mix(key) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        mask = capacity - 1;
+        for (long key : old) {
+            if (key != 0) {
+                int slot = slot(key);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * 부하율 0.5 이하가 되는 2의 거듭제곱 크기
+     */
+    private static int tableCapacity(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1;
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("예상 크기가 너무 큽니다: " + expectedSize);
+        }
+        return capacity;
+    }
+}
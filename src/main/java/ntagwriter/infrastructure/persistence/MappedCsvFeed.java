@@ -0,0 +1,262 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.FeedRow;
+import ntagwriter.domain.port.TagFeedPort;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 메모리 매핑 CSV 태그 데이터 피드
+ * 수백만 행짜리 주문 파일을 통째로 읽지 않고, 고정 크기 창(window)만 매핑해 한 행씩 순서대로 읽는다.
+ * 창을 벗어나는 행을 만나면 그 행 시작 위치부터 다시 매핑하므로 메모리 사용량은 창 크기로 제한된다.
+ *
+ * 첫 줄은 헤더(컬럼명)이며, 값은 RFC 4180 방식의 큰따옴표 인용을 지원한다 (행 안의 줄바꿈은 지원하지 않음).
+ * UID별 배정은 FeedAssignmentLog에 남기고, 재시작하면 마지막 배정 행 다음부터 읽는다.
+ */
+public class MappedCsvFeed implements TagFeedPort, AutoCloseable {
+
+    private static final long DEFAULT_WINDOW_SIZE = 16L * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+    private final FeedAssignmentLog assignments;
+    private final List<String> columns;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long nextOffset;
+    private long nextRow;
+
+    /**
+     * @param path           피드 CSV 파일
+     * @param assignmentPath 배정 기록 파일
+     */
+    public MappedCsvFeed(Path path, Path assignmentPath) throws FeedException {
+        this(path, assignmentPath, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedCsvFeed(Path path, Path assignmentPath, long windowSize) throws FeedException {
+        this.path = path;
+        this.windowSize = windowSize;
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.fileSize = channel.size();
+            this.assignments = new FeedAssignmentLog(assignmentPath);
+        } catch (IOException e) {
+            throw new FeedException("피드 파일 열기 실패: " + path, e);
+        }
+
+        Line header = readLine(0);
+        if (header == null || header.text.isBlank()) {
+            throw new FeedException("피드 파일에 헤더가 없습니다: " + path);
+        }
+        this.columns = parseFields(header.text, 0);
+
+        // 마지막 배정 행 다음부터 이어서 읽기
+        Optional<FeedAssignmentLog.Assignment> last = assignments.last();
+        this.nextOffset = last.map(a -> a.offset + a.length).orElse(header.end());
+        this.nextRow = last.map(a -> a.row + 1).orElse(1L);
+    }
+
+    /**
+     * 피드 파일명 기준 기본 배정 기록 경로 (data/이름.assignments.csv)
+     */
+    public static Path defaultAssignmentPath(Path feedPath) {
+        return Path.of("data", feedPath.getFileName() + ".assignments.csv");
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    @Override
+    public synchronized FeedRow next() throws FeedException {
+        while (nextOffset < fileSize) {
+            Line line = readLine(nextOffset);
+            nextOffset = line.end();
+            if (line.text.isBlank()) {
+                continue;
+            }
+            return toRow(nextRow++, line);
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized Optional<FeedRow> assignedRow(String uid) throws FeedException {
+        Optional<FeedAssignmentLog.Assignment> assignment;
+        try {
+            assignment = assignments.find(uid);
+        } catch (IOException e) {
+            throw new FeedException("행 배정 조회 실패 (UID " + uid + ")", e);
+        }
+        if (assignment.isEmpty()) {
+            return Optional.empty();
+        }
+        FeedAssignmentLog.Assignment recorded = assignment.get();
+        Line line = readLine(recorded.offset);
+        if (line == null || line.length != recorded.length) {
+            throw new FeedException("피드 파일이 배정 이후 변경되었습니다 (UID " + uid + ", 행 " + recorded.row + ")");
+        }
+        return Optional.of(toRow(recorded.row, line));
+    }
+
+    @Override
+    public void assign(String uid, FeedRow row) throws FeedException {
+        try {
+            assignments.append(uid, row.rowNumber(), row.offset(), row.length());
+        } catch (IOException e) {
+            throw new FeedException("행 배정 기록 실패 (행 " + row.rowNumber() + ")", e);
+        }
+    }
+
+    private FeedRow toRow(long rowNumber, Line line) throws FeedException {
+        List<String> fields = parseFields(line.text, rowNumber);
+        if (fields.size() != columns.size()) {
+            throw new FeedException(String.format("행 %d: 컬럼 수가 헤더와 다릅니다 (%d != %d)",
+                rowNumber, fields.size(), columns.size()));
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            values.put(columns.get(i), fields.get(i));
+        }
+        return new FeedRow(rowNumber, line.offset, line.length, values);
+    }
+
+    /**
+     * offset에서 시작하는 한 줄 읽기 (필요하면 그 위치부터 창을 다시 매핑)
+     *
+     * @return 줄, offset이 파일 끝이면 null
+     */
+    private Line readLine(long offset) throws FeedException {
+        if (offset >= fileSize) {
+            return null;
+        }
+        try {
+            if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+                map(offset);
+            }
+            int end = scanLineEnd(offset);
+            if (end < 0) {
+                if (windowStart + window.limit() >= fileSize) {
+                    end = window.limit();  // 마지막 줄 (줄바꿈 없음)
+                } else {
+                    map(offset);           // 줄이 창 경계에 걸림
+                    end = scanLineEnd(offset);
+                    if (end < 0 && windowStart + window.limit() < fileSize) {
+                        throw new FeedException("행이 너무 깁니다 (위치 " + offset + ")");
+                    }
+                    if (end < 0) {
+                        end = window.limit();
+                    }
+                }
+            }
+
+            int start = (int) (offset - windowStart);
+            int length = end - start;
+            byte[] bytes = new byte[length];
+            window.get(start, bytes);
+
+            int textLength = length;
+            while (textLength > 0 && (bytes[textLength - 1] == '\n' || bytes[textLength - 1] == '\r')) {
+                textLength--;
+            }
+            return new Line(offset, length, new String(bytes, 0, textLength, StandardCharsets.UTF_8));
+
+        } catch (IOException e) {
+            throw new FeedException("피드 파일 읽기 실패: " + path, e);
+        }
+    }
+
+    /**
+     * 창 안에서 offset 이후 첫 '\n' 다음 위치 (창 기준 인덱스), 없으면 -1
+     */
+    private int scanLineEnd(long offset) {
+        int limit = window.limit();
+        for (int i = (int) (offset - windowStart); i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private void map(long offset) throws IOException {
+        long size = Math.min(windowSize, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+    }
+
+    /**
+     * 한 줄을 필드로 분리 (큰따옴표 인용, "" 이스케이프)
+     */
+    private static List<String> parseFields(String line, long rowNumber) throws FeedException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new FeedException("행 " + rowNumber + ": 닫히지 않은 큰따옴표");
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    @Override
+    public synchronized void close() throws FeedException {
+        try {
+            channel.close();
+            assignments.close();
+        } catch (IOException e) {
+            throw new FeedException("피드 파일 닫기 실패", e);
+        }
+    }
+
+    private static final class Line {
+        final long offset;
+        final int length;
+        final String text;
+
+        Line(long offset, int length, String text) {
+            this.offset = offset;
+            this.length = length;
+            this.text = text;
+        }
+
+        long end() {
+            return offset + length;
+        }
+    }
+}
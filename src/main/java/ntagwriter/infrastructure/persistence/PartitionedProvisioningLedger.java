@@ -0,0 +1,472 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.ProvisioningRecord;
+import ntagwriter.domain.port.ProvisioningLedgerPort;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 날짜별 파티션 설정 원장
+ * 기록은 항상 작은 현재 파티션(SQLite 파일 하나)에만 들어가므로, 원장이 몇 달 쌓여도 삽입/색인 비용과 백업 단위가 커지지 않는다.
+ *
+ * - 회전: 기록 날짜가 바뀌거나 파티션 행 수가 상한에 닿으면 다음 번호의 파티션으로 바꾼다.
+ *   다음 파티션은 보관 스레드가 미리 열어 두므로(평소에는 다음 날짜, 상한이 가까우면 같은 날짜) 기록 스레드는 참조만 바꾼다.
+ *   미리 연 파티션이 아직 없거나 날짜가 다르면 보관 스레드가 새로 여는 동안 현재 파티션에 계속 기록한다 (상한을 잠시 넘을 수 있음).
+ * - 보관: 닫힌 파티션은 보관 스레드가 남은 기록을 마저 넣은 뒤 VACUUM INTO로 빈 페이지 없이 archive 디렉토리에 복사하고 원본을 지운다.
+ *   보관 파일도 같은 스키마의 SQLite라 그대로 조회한다.
+ * - 조회: 완료 UID 적재는 파티션을 번호 순으로 훑는다. 파티션 번호가 ID 범위를 정하므로 워터마크 이전 파티션은 열지 않는다.
+ *   완료 UID 확인은 파티션 전체에 걸친 UID 색인({@link LedgerUidIndex}) 하나만 조회한다 - 파티션의 UID 표는 그날 안에서만 유일하다.
+ *
+ * 파티션 하나만 쓰던 이전 원장 DB가 있으면 처음 열 때 0번 파티션으로 보관한다 (원본은 .migrated로 이름만 바꿈).
+ */
+public class PartitionedProvisioningLedger implements ProvisioningLedgerPort {
+
+    public static final Path DEFAULT_DIRECTORY = Paths.get("data", "ledger");
+    public static final long DEFAULT_MAX_RECORDS = 1_000_000;
+
+    private static final long ARCHIVE_DRAIN_TIMEOUT_SECONDS = 60;
+    // 행 수가 상한에서 이만큼 남으면 같은 날짜의 다음 파티션을 미리 엶
+    private static final long SPARE_HEADROOM_RECORDS = 1_000;
+
+    private final Path directory;
+    private final long maxRecordsPerPartition;
+    private final Consumer<String> errorListener;
+    private final ExecutorService archiver;
+    private final LedgerUidIndex uidIndex;
+    // 보관 후 원본 삭제와 파티션 조회가 겹치지 않도록
+    private final ReadWriteLock partitionFiles = new ReentrantReadWriteLock();
+    private LedgerPartition activePartition;
+    private SqliteProvisioningLedger active;
+    private long activeRecords;
+    // 보관 스레드가 미리 연 다음 번호 파티션 (아직 기록 없음)
+    private LedgerPartition sparePartition;
+    private SqliteProvisioningLedger spare;
+    private long spareRecords;
+    // 보관 스레드에 준비를 맡긴 날짜 (준비 중이거나 준비됨), 없으면 null
+    private LocalDate requestedSpareDate;
+    private boolean closed;
+
+    /**
+     * @param directory              파티션 디렉토리 (없으면 생성)
+     * @param legacyDatabase         파티션 이전의 단일 원장 DB, 없으면 null
+     * @param maxRecordsPerPartition 파티션 하나의 최대 행 수 (날짜가 같아도 넘으면 회전)
+     * @param errorListener          기록/보관 실패 알림
+     */
+    public PartitionedProvisioningLedger(Path directory, Path legacyDatabase, long maxRecordsPerPartition,
+                                         Consumer<String> errorListener) throws LedgerException {
+        this.directory = directory;
+        this.maxRecordsPerPartition = maxRecordsPerPartition;
+        this.errorListener = errorListener;
+        try {
+            Files.createDirectories(directory.resolve(LedgerPartition.ARCHIVE_DIRECTORY));
+        } catch (IOException e) {
+            throw new LedgerException("원장 디렉토리 생성 실패: " + directory, e);
+        }
+        this.uidIndex = new LedgerUidIndex(directory);
+        this.archiver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        migrateLegacy(legacyDatabase);
+        LocalDate today = LocalDate.now();
+        List<LedgerPartition> partitions = dropUnusedSpares(listPartitions(), today);
+        // 색인이 새로 생겼거나(업그레이드) 이전 원장을 옮겨 온 경우 보관된 파티션을 한 번 반영
+        for (LedgerPartition partition : partitions) {
+            if (partition.archived && !uidIndex.isIndexed(partition)) {
+                uidIndex.catchUp(partition);
+            }
+        }
+
+        // 오늘 날짜의 마지막 진행 파티션은 이어 쓰고, 나머지 진행 파티션(비정상 종료 등)은 보관
+        LedgerPartition last = partitions.isEmpty() ? null : partitions.get(partitions.size() - 1);
+        boolean resume = last != null && !last.archived && last.date.equals(today);
+        for (LedgerPartition partition : partitions) {
+            if (!partition.archived && !(resume && partition == last)) {
+                archiver.execute(() -> archive(partition));
+            }
+        }
+        if (resume) {
+            open(last);
+            if (activeRecords >= maxRecordsPerPartition) {
+                rotate(today);
+            }
+        } else {
+            open(LedgerPartition.live(directory, last != null ? last.number + 1 : 1, today));
+        }
+        prepareSpare(spareDate());
+    }
+
+    /**
+     * 현재 파티션 큐에 넣고 바로 반환 (회전도 미리 열어 둔 파티션으로 참조만 바꾸므로 파일을 열지 않음)
+     */
+    @Override
+    public synchronized void record(ProvisioningRecord record) {
+        LocalDate day = record.recordedAt.toLocalDate();
+        if (day.isAfter(activePartition.date) || activeRecords >= maxRecordsPerPartition) {
+            swapToSpare(day.isAfter(activePartition.date) ? day : activePartition.date);
+        }
+        active.record(record);
+        activeRecords++;
+        if (activeRecords + SPARE_HEADROOM_RECORDS >= maxRecordsPerPartition) {
+            prepareSpare(activePartition.date);
+        }
+    }
+
+    /**
+     * 미리 연 파티션이 그 날짜면 현재 파티션으로 바꾸고, 아니면 보관 스레드에 준비를 맡기고 현재 파티션에 계속 기록
+     */
+    private void swapToSpare(LocalDate date) {
+        if (spare == null || !sparePartition.date.equals(date)) {
+            prepareSpare(date);
+            return;
+        }
+        SqliteProvisioningLedger previous = active;
+        LedgerPartition previousPartition = activePartition;
+        this.active = spare;
+        this.activePartition = sparePartition;
+        this.activeRecords = spareRecords;
+        this.spare = null;
+        this.sparePartition = null;
+        this.requestedSpareDate = null;
+        retire(previous, previousPartition);
+        prepareSpare(spareDate());
+    }
+
+    /**
+     * 다음에 필요할 파티션 날짜 (상한이 가까우면 같은 날짜, 아니면 다음 날)
+     */
+    private LocalDate spareDate() {
+        return activeRecords + SPARE_HEADROOM_RECORDS >= maxRecordsPerPartition
+            ? activePartition.date
+            : activePartition.date.plusDays(1);
+    }
+
+    /**
+     * 보관 스레드에 다음 번호 파티션 준비를 맡김 (같은 날짜를 이미 맡겼으면 무시)
+     */
+    private synchronized void prepareSpare(LocalDate date) {
+        if (closed || date.equals(requestedSpareDate)) {
+            return;
+        }
+        requestedSpareDate = date;
+        int number = activePartition.number + 1;
+        archiver.execute(() -> openSpare(number, date));
+    }
+
+    /**
+     * 다음 번호 파티션을 열어 둠 (보관 스레드, 그 사이 다른 날짜를 맡겼거나 회전했으면 버림)
+     */
+    private void openSpare(int number, LocalDate date) {
+        SqliteProvisioningLedger stale;
+        LedgerPartition stalePartition;
+        synchronized (this) {
+            if (!isWanted(number, date)) {
+                return;
+            }
+            stale = spare;
+            stalePartition = sparePartition;
+            spare = null;
+            sparePartition = null;
+        }
+        if (stale != null) {
+            discard(stale, stalePartition);
+        }
+
+        LedgerPartition partition = LedgerPartition.live(directory, number, date);
+        SqliteProvisioningLedger opened;
+        long records;
+        try {
+            opened = new SqliteProvisioningLedger(partition.path, partition.idBase(), errorListener);
+            records = opened.storedRecords();
+        } catch (LedgerException e) {
+            synchronized (this) {
+                if (isWanted(number, date)) {
+                    // 다음 회전 시점에 다시 맡김
+                    requestedSpareDate = null;
+                }
+            }
+            errorListener.accept("원장 파티션 준비 실패 (" + partition + "): " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            if (isWanted(number, date)) {
+                spare = opened;
+                sparePartition = partition;
+                spareRecords = records;
+                return;
+            }
+        }
+        discard(opened, partition);
+    }
+
+    private boolean isWanted(int number, LocalDate date) {
+        return !closed && date.equals(requestedSpareDate) && number == activePartition.number + 1;
+    }
+
+    /**
+     * 쓰지 않은 미리 연 파티션을 닫고 파일 삭제
+     */
+    private void discard(SqliteProvisioningLedger ledger, LedgerPartition partition) {
+        ledger.close();
+        partitionFiles.writeLock().lock();
+        try {
+            deleteDatabaseFiles(partition.path);
+        } catch (IOException e) {
+            errorListener.accept("미리 연 원장 파티션 삭제 실패 (" + partition + "): " + e.getMessage());
+        } finally {
+            partitionFiles.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 비정상 종료로 남은 미리 연 파티션(오늘 이후 날짜의 빈 진행 파티션)은 이어 쓰거나 보관하지 않고 지움
+     */
+    private List<LedgerPartition> dropUnusedSpares(List<LedgerPartition> partitions, LocalDate today)
+            throws LedgerException {
+        List<LedgerPartition> kept = new ArrayList<>();
+        for (LedgerPartition partition : partitions) {
+            if (!partition.archived && partition.date.isAfter(today) && isEmpty(partition)) {
+                try {
+                    deleteDatabaseFiles(partition.path);
+                    continue;
+                } catch (IOException e) {
+                    throw new LedgerException("미리 연 원장 파티션 삭제 실패: " + partition, e);
+                }
+            }
+            kept.add(partition);
+        }
+        return kept;
+    }
+
+    private static boolean isEmpty(LedgerPartition partition) throws LedgerException {
+        if (Files.exists(LedgerSpillFile.pathFor(partition.path))) {
+            return false;
+        }
+        try (Connection connection = SqliteProvisioningLedger.openReadOnly(partition.path);
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM provisioning_ledger)")) {
+            return rows.next() && rows.getInt(1) == 0;
+        } catch (SQLException e) {
+            throw new LedgerException("원장 파티션 열기 실패: " + partition, e);
+        }
+    }
+
+    private void open(LedgerPartition partition) throws LedgerException {
+        SqliteProvisioningLedger opened = new SqliteProvisioningLedger(partition.path, partition.idBase(), errorListener);
+        this.activeRecords = opened.storedRecords();
+        this.active = opened;
+        this.activePartition = partition;
+    }
+
+    /**
+     * 시작할 때 이어 쓸 파티션이 이미 가득 찼으면 다음 파티션을 바로 엶
+     */
+    private void rotate(LocalDate date) throws LedgerException {
+        SqliteProvisioningLedger previous = active;
+        LedgerPartition previousPartition = activePartition;
+        open(LedgerPartition.live(directory, previousPartition.number + 1, date));
+        retire(previous, previousPartition);
+    }
+
+    private void retire(SqliteProvisioningLedger previous, LedgerPartition previousPartition) {
+        archiver.execute(() -> {
+            previous.close();
+            archive(previousPartition);
+        });
+    }
+
+    /**
+     * 닫힌 파티션을 보관 디렉토리로 압축 복사한 뒤 원본 삭제 (보관 스레드)
+     */
+    private void archive(LedgerPartition partition) {
+        try {
+            if (Files.exists(LedgerSpillFile.pathFor(partition.path))) {
+                // 보관 파일에 남은 기록을 먼저 넣음 (넣지 못하면 원본을 두고 다음 시작에서 다시)
+                new SqliteProvisioningLedger(partition.path, partition.idBase(), errorListener).close();
+            }
+            // 보관 뒤에는 다시 반영하지 않으므로 마지막 기록까지 색인에 넣음
+            uidIndex.catchUp(partition);
+            vacuumInto(partition.path, partition.archivePath());
+            partitionFiles.writeLock().lock();
+            try {
+                deleteDatabaseFiles(partition.path);
+            } finally {
+                partitionFiles.writeLock().unlock();
+            }
+        } catch (IOException | SQLException | LedgerException e) {
+            // 원본이 남아 있으므로 다음 시작에서 다시 보관
+            errorListener.accept("원장 파티션 보관 실패 (" + partition + "): " + e.getMessage());
+        }
+    }
+
+    private void migrateLegacy(Path legacyDatabase) throws LedgerException {
+        if (legacyDatabase == null || !Files.exists(legacyDatabase)) {
+            return;
+        }
+        // 최신 스키마(URL 컬럼, 완료 UID 색인)로 올린 뒤 0번 파티션으로 보관
+        new SqliteProvisioningLedger(legacyDatabase, errorListener).close();
+        try {
+            LocalDate date = LocalDate.ofInstant(Files.getLastModifiedTime(legacyDatabase).toInstant(),
+                ZoneId.systemDefault());
+            LedgerPartition partition = LedgerPartition.live(directory, 0, date);
+            vacuumInto(legacyDatabase, partition.archivePath());
+            Files.move(legacyDatabase, legacyDatabase.resolveSibling(legacyDatabase.getFileName() + ".migrated"));
+            errorListener.accept("이전 원장을 0번 파티션으로 보관했습니다: " + partition.archivePath());
+        } catch (IOException | SQLException e) {
+            throw new LedgerException("이전 원장 이전 실패: " + legacyDatabase, e);
+        }
+    }
+
+    private static void vacuumInto(Path source, Path target) throws IOException, SQLException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.deleteIfExists(temp);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + source.toAbsolutePath());
+             Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout=5000");
+            statement.execute("VACUUM INTO '" + temp.toAbsolutePath().toString().replace("'", "''") + "'");
+        }
+        DurableFiles.replace(temp, target);
+    }
+
+    private static void deleteDatabaseFiles(Path database) throws IOException {
+        Files.deleteIfExists(database.resolveSibling(database.getFileName() + "-wal"));
+        Files.deleteIfExists(database.resolveSibling(database.getFileName() + "-shm"));
+        Files.deleteIfExists(database);
+    }
+
+    @Override
+    public long loadProvisionedUids(long afterSequence, LongConsumer consumer) throws LedgerException {
+        long last = afterSequence;
+        partitionFiles.readLock().lock();
+        try {
+            for (LedgerPartition partition : recordedPartitions()) {
+                if (partition.maxId() <= afterSequence) {
+                    continue;
+                }
+                SqliteProvisioningLedger live = liveLedger(partition);
+                long partitionLast;
+                if (live != null) {
+                    partitionLast = live.loadProvisionedUids(afterSequence, consumer);
+                } else {
+                    try (Connection connection = SqliteProvisioningLedger.openReadOnly(partition.existingPath())) {
+                        partitionLast = SqliteProvisioningLedger.loadProvisionedUids(connection, afterSequence, consumer);
+                    } catch (SQLException e) {
+                        throw new LedgerException("원장 파티션 열기 실패: " + partition, e);
+                    }
+                }
+                last = Math.max(last, partitionLast);
+            }
+            return last;
+        } finally {
+            partitionFiles.readLock().unlock();
+        }
+    }
+
+    /**
+     * 모든 파티션에 걸친 첫 완료 시각 반환 (중복 판정 때만 호출되므로 진행 중 파티션은 그때 색인에 반영)
+     */
+    @Override
+    public Optional<LocalDateTime> findProvisioned(long uidKey) throws LedgerException {
+        partitionFiles.readLock().lock();
+        try {
+            for (LedgerPartition partition : recordedPartitions()) {
+                if (!partition.archived || !uidIndex.isIndexed(partition)) {
+                    uidIndex.catchUp(partition);
+                }
+            }
+            return uidIndex.find(uidKey);
+        } finally {
+            partitionFiles.readLock().unlock();
+        }
+    }
+
+    private synchronized SqliteProvisioningLedger liveLedger(LedgerPartition partition) {
+        return partition.number == activePartition.number ? active : null;
+    }
+
+    /**
+     * 기록이 있을 수 있는 파티션 (미리 연 다음 파티션은 기록이 없고 스키마를 만드는 중일 수 있어 뺌)
+     */
+    private List<LedgerPartition> recordedPartitions() throws LedgerException {
+        int activeNumber;
+        synchronized (this) {
+            activeNumber = activePartition.number;
+        }
+        List<LedgerPartition> partitions = listPartitions();
+        partitions.removeIf(partition -> partition.number > activeNumber);
+        return partitions;
+    }
+
+        private List<LedgerPartition> listPartitions() throws LedgerException {
+        try {
+            return LedgerPartition.list(directory);
+        } catch (IOException e) {
+            throw new LedgerException("원장 파티션 목록 읽기 실패: " + directory, e);
+        }
+    }
+
+    /**
+     * 현재 파티션을 닫고 진행 중인 보관을 마칠 때까지 대기 (현재 파티션은 다음 시작에서 이어 쓰거나 보관)
+     */
+    /**
+     * 미리 열어 둔 다음 파티션 (테스트 확인용)
+     */
+    synchronized LedgerPartition sparePartition() {
+        return sparePartition;
+    }
+
+    synchronized LedgerPartition activePartition() {
+        return activePartition;
+    }
+
+    @Override
+    public void close() {
+        SqliteProvisioningLedger current;
+        SqliteProvisioningLedger unused;
+        LedgerPartition unusedPartition;
+        synchronized (this) {
+            closed = true;
+            current = active;
+            unused = spare;
+            unusedPartition = sparePartition;
+            spare = null;
+            sparePartition = null;
+        }
+        current.close();
+        if (unused != null) {
+            discard(unused, unusedPartition);
+        }
+        archiver.shutdown();
+        try {
+            if (!archiver.awaitTermination(ARCHIVE_DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                errorListener.accept("원장 파티션 보관이 끝나지 않았습니다 - 다음 시작에서 다시 보관합니다");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        uidIndex.close();
+    }
+}
@@ -0,0 +1,281 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.port.ProvisioningLedgerPort;
+import ntagwriter.domain.port.UidRegistryPort;
+import ntagwriter.domain.tag.Tag;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 설정 완료 UID 등록부 (메모리 + 스냅샷 파일 + 원장 색인)
+ *
+ * - 조회: 블록 블룸 필터(캐시 라인 하나)가 처음 보는 UID를 걸러내고, 통과한 경우만 long 해시 집합으로 확정한다.
+ *   UID는 7바이트라 long 하나({@link Tag#uidKey})로 담으므로 수천만 개에서도 객체 없이 수 마이크로초 안에 답한다.
+ * - 시작: 스냅샷 파일의 블룸 비트와 해시 테이블 배열을 그대로 읽고, 스냅샷 이후 원장에 쌓인 완료 UID만 순번으로 이어 받는다.
+ *   스냅샷이 없거나 깨졌으면 원장 전체에서 다시 만든다.
+ * - 저장: 닫을 때 임시 파일에 쓰고 원자적으로 교체한다. 중간에 종료되어도 다음 시작에서 원장으로 따라잡는다.
+ *
+ * 등록부는 UID를 잊지 않는다 - 원장이 초기화되어도 스냅샷의 UID는 계속 중복으로 본다.
+ */
+public class ProvisionedUidRegistry implements UidRegistryPort {
+
+    public static final Path DEFAULT_PATH = Paths.get("data", "provisioned-uids.snapshot");
+    public static final int DEFAULT_CAPACITY = 1 << 22;
+
+    private static final int MAGIC = 0x4E545531; // "NTU1"
+    private static final int HEADER_SIZE = 4 + 8 + 4 + 4 + 4 + 4;
+    private static final int IO_CHUNK_BYTES = 1 << 20;
+
+    private final Path snapshotPath;
+    private final ProvisioningLedgerPort ledger;
+    private final Consumer<String> errorListener;
+    private UidBloomFilter bloom;
+    private LongHashSet uids;
+    // 스냅샷에 반영된 원장 순번 (이후 순번만 원장에서 다시 받음)
+    private long ledgerSequence;
+    private boolean dirty;
+    private boolean closed;
+
+    /**
+     * @param snapshotPath  스냅샷 파일 (없으면 원장에서 만듦)
+     * @param ledger        설정 원장 (완료 UID 색인), 없으면 null
+     * @param errorListener 스냅샷/원장 조회 실패 알림
+     */
+    public ProvisionedUidRegistry(Path snapshotPath, ProvisioningLedgerPort ledger, Consumer<String> errorListener)
+            throws RegistryException {
+        this.snapshotPath = snapshotPath;
+        this.ledger = ledger;
+        this.errorListener = errorListener;
+
+        if (!readSnapshot()) {
+            bloom = new UidBloomFilter(DEFAULT_CAPACITY);
+            uids = new LongHashSet(DEFAULT_CAPACITY);
+            ledgerSequence = 0;
+        }
+        if (ledger != null) {
+            try {
+                long last = ledger.loadProvisionedUids(ledgerSequence, this::addKey);
+                if (last != ledgerSequence) {
+                    ledgerSequence = last;
+                    dirty = true;
+                }
+            } catch (ProvisioningLedgerPort.LedgerException e) {
+                throw new RegistryException("원장에서 설정 완료 UID 적재 실패", e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean contains(String uid) {
+        long key = keyOf(uid);
+        return key != 0 && bloom.mightContain(key) && uids.contains(key);
+    }
+
+    @Override
+    public synchronized void add(String uid) {
+        long key = keyOf(uid);
+        if (key != 0) {
+            addKey(key);
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> confirm(String uid) {
+        long key = keyOf(uid);
+        if (ledger == null || key == 0) {
+            return Optional.empty();
+        }
+        try {
+            return ledger.findProvisioned(key);
+        } catch (ProvisioningLedgerPort.LedgerException e) {
+            errorListener.accept("원장에서 UID 확인 실패: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public synchronized int size() {
+        return uids.size();
+    }
+
+    private void addKey(long key) {
+        if (!uids.add(key)) {
+            return;
+        }
+        dirty = true;
+        if (uids.size() > bloom.capacity()) {
+            // 용량을 넘으면 거짓 양성이 늘어나므로 두 배 크기로 다시 만든다 (드묾)
+            UidBloomFilter grown = new UidBloomFilter(bloom.capacity() * 2);
+            uids.forEach(grown::add);
+            bloom = grown;
+        } else {
+            bloom.add(key);
+        }
+    }
+
+    /**
+     * HEX UID를 할당 없이 UID 키로 변환 (1~7바이트가 아니거나 HEX가 아니면 0)
+     */
+    private static long keyOf(String uid) {
+        if (uid == null || uid.isEmpty() || uid.length() > 14 || uid.length() % 2 != 0) {
+            return 0;
+        }
+        int length = uid.length() / 2;
+        long key = length;
+        for (int i = 0; i < uid.length(); i++) {
+            int digit = Character.digit(uid.charAt(i), 16);
+            if (digit < 0) {
+                return 0;
+            }
+            key = (key << 4) | digit;
+        }
+        return key << (8 * (7 - length));
+    }
+
+    // ===== 스냅샷 =====
+
+    /**
+     * 레이아웃: [MAGIC][원장 순번 8][블룸 용량 4][블룸 long 수 4][테이블 long 수 4][UID 수 4][블룸][테이블][CRC32 8]
+     *
+     * @return 읽었으면 true, 없거나 깨졌으면 false
+     */
+    private boolean readSnapshot() {
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header);
+            header.flip();
+            crc.update(header.duplicate());
+            if (header.getInt() != MAGIC) {
+                errorListener.accept("UID 등록부 스냅샷 형식이 아닙니다 - 원장에서 다시 만듭니다: " + snapshotPath);
+                return false;
+            }
+            long sequence = header.getLong();
+            int bloomCapacity = header.getInt();
+            int bloomLongs = header.getInt();
+            int tableLongs = header.getInt();
+            int size = header.getInt();
+            long expectedSize = HEADER_SIZE + 8L * bloomLongs + 8L * tableLongs + 8;
+            if (bloomLongs <= 0 || tableLongs <= 0 || channel.size() != expectedSize) {
+                errorListener.accept("UID 등록부 스냅샷 크기가 맞지 않습니다 - 원장에서 다시 만듭니다: " + snapshotPath);
+                return false;
+            }
+
+            long[] bloomBits = new long[bloomLongs];
+            long[] table = new long[tableLongs];
+            readLongs(channel, bloomBits, crc);
+            readLongs(channel, table, crc);
+            ByteBuffer trailer = ByteBuffer.allocate(8);
+            readFully(channel, trailer);
+            if (trailer.flip().getLong() != crc.getValue()) {
+                errorListener.accept("UID 등록부 스냅샷 체크섬 불일치 - 원장에서 다시 만듭니다: " + snapshotPath);
+                return false;
+            }
+
+            this.bloom = new UidBloomFilter(bloomBits, bloomCapacity);
+            this.uids = new LongHashSet(table, size);
+            this.ledgerSequence = sequence;
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException | IllegalArgumentException e) {
+            errorListener.accept("UID 등록부 스냅샷 읽기 실패 - 원장에서 다시 만듭니다: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putLong(ledgerSequence)
+                .putInt(bloom.capacity())
+                .putInt(bloom.bits().length)
+                .putInt(uids.table().length)
+                .putInt(uids.size())
+                .flip();
+            crc.update(header.duplicate());
+            writeFully(channel, header);
+            writeLongs(channel, bloom.bits(), crc);
+            writeLongs(channel, uids.table(), crc);
+            writeFully(channel, ByteBuffer.allocate(8).putLong(crc.getValue()).flip());
+            channel.force(true);
+        }
+        DurableFiles.replace(temp, snapshotPath);
+    }
+
+    private static void readLongs(FileChannel channel, long[] target, CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_CHUNK_BYTES);
+        for (int offset = 0; offset < target.length; ) {
+            int count = Math.min(target.length - offset, IO_CHUNK_BYTES / 8);
+            buffer.clear().limit(count * 8);
+            readFully(channel, buffer);
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            buffer.asLongBuffer().get(target, offset, count);
+            offset += count;
+        }
+    }
+
+    private static void writeLongs(FileChannel channel, long[] source, CRC32 crc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_CHUNK_BYTES);
+        for (int offset = 0; offset < source.length; ) {
+            int count = Math.min(source.length - offset, IO_CHUNK_BYTES / 8);
+            buffer.clear();
+            buffer.asLongBuffer().put(source, offset, count);
+            buffer.limit(count * 8);
+            crc.update(buffer.duplicate());
+            writeFully(channel, buffer);
+            offset += count;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("스냅샷이 중간에 끝났습니다");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * 바뀐 내용이 있으면 스냅샷 저장
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!dirty) {
+            return;
+        }
+        try {
+            writeSnapshot();
+            dirty = false;
+        } catch (IOException e) {
+            errorListener.accept("UID 등록부 스냅샷 저장 실패 (다음 시작에서 원장으로 다시 만듦): " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,784 @@
+package ntagwriter.infrastructure.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import ntagwriter.application.workflow.WorkflowContext;
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.util.HexUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * UID별 설정 진행 저널 (바이너리, 추가 전용)
+ * 설정 도중 태그가 제거되어도 완료된 단계와 키 슬롯별 상태(공장 키/새 키)를 기록해 두고,
+ * 다시 태깅했을 때 올바른 키로 인증해 남은 단계부터 이어서 진행할 수 있게 한다.
+ * 태그 감지 이후의 워크플로우 상태 전이도 함께 기록해, 정전 후 어느 태그가 어디까지 진행됐는지 보여 준다.
+ *
+ * 키 값은 저널에 쓰지 않는다 (UID, 키 버전, 슬롯 상태만). 새 키는 ChangeKey 전에 키 에스크로에 반영되어 있으므로
+ * 재개할 때 에스크로에서 UID로 찾는다. 키를 평문으로 담던 이전 형식(NTJ1, JSON)은 열 때 키를 에스크로로 옮기고
+ * 키 없는 형식으로 다시 쓴다.
+ *
+ * 레코드: [길이 u16][종류 u8][시각 epoch ms 8][UID 길이 u8][UID][종류별 내용][CRC32 4]
+ * 열 때 처음부터 재생해 진행 중인 태그를 복원하고, 끝이 잘렸거나 CRC가 맞지 않는 레코드부터는 잘라낸다.
+ * 상태/슬롯은 enum 순서 번호로 저장하므로 {@link WorkflowState}, {@link KeySlotState}의 순서를 바꾸면 안 된다.
+ *
+ * 그룹 커밋: 기록은 메모리 버퍼에 쌓기만 하고, 백그라운드 스레드가 {@link #GROUP_COMMIT_INTERVAL}마다
+ * 모든 리더기/태그의 레코드를 한 번에 쓰고 fsync한다. 디스크 반영을 기다리는 곳은 ChangeKey 직전(PENDING) 한 곳뿐이며,
+ * 그때 쌓여 있던 다른 스테이션의 레코드도 같은 fsync로 함께 반영된다.
+ * 그 밖의 레코드는 정전으로 잃어도 재개 시 태그 상태 프로브로 복구된다 (단계 재실행 또는 검증만 다시 수행).
+ *
+ * 완료된 태그는 저널에서 제거된다. 파일이 {@link #COMPACT_THRESHOLD_BYTES}를 넘으면 진행 중인 태그만 새 파일로 옮겨 쓴다.
+ * 압축은 스냅샷 인코딩만 잠금 안에서 하고 파일 쓰기/fsync는 잠금 밖에서 하므로, 그동안에도 스테이션은 기록을 계속한다.
+ */
+public class ProvisioningJournal implements AutoCloseable {
+
+    public static final Path DEFAULT_PATH = Paths.get("data", "provisioning-journal.bin");
+    // 이전 버전의 JSON 저널 (같은 이름의 .json이 있으면 처음 열 때 가져옴)
+    private static final String LEGACY_EXTENSION = ".json";
+
+    private static final int MAGIC = 0x4E544A32; // "NTJ2"
+    // 시작 레코드에 키를 평문으로 담던 이전 형식
+    private static final int MAGIC_WITH_KEYS = 0x4E544A31; // "NTJ1"
+    private static final int FILE_HEADER_SIZE = 8;
+    // 길이 2 + 종류 1
+    private static final int RECORD_HEADER_SIZE = 3;
+    private static final int CRC_SIZE = 4;
+
+    private static final byte TYPE_BEGIN = 1;
+    private static final byte TYPE_STEP = 2;
+    private static final byte TYPE_KEY_SLOT = 3;
+    private static final byte TYPE_COMPLETE = 4;
+    private static final byte TYPE_TRANSITION = 5;
+
+    private static final Duration GROUP_COMMIT_INTERVAL = Duration.ofMillis(5);
+    private static final long COMPACT_THRESHOLD_BYTES = 16L * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final KeyEscrowPort escrow;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private FileChannel channel;
+    // 아직 파일에 쓰지 않은 레코드 (this로 보호)
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    // 파일에 쓰는 동안 새 레코드를 받는 두 번째 버퍼 (flushLock 안에서만 null)
+    private ByteBuffer spare = ByteBuffer.allocate(BUFFER_SIZE);
+    // 다음 쓰기의 파일 위치
+    private long filePosition;
+    // 파일에 넘긴 누적 바이트 (압축해도 줄지 않음, 레코드 반영 위치 비교용)
+    private long appendedBytes;
+    private volatile long durableBytes;
+    private volatile boolean closed;
+    private final Thread flushThread;
+    // 연 파일이 키를 담은 이전 형식인지 (열 때만 사용)
+    private boolean keysInFile;
+
+    /**
+     * @param path   저널 파일
+     * @param escrow 이전 형식 저널에 남은 키를 옮길 키 에스크로
+     * @throws IllegalStateException 이전 형식의 키를 에스크로에 옮기지 못함 (이전 파일은 그대로 둠)
+     */
+    public ProvisioningJournal(Path path, KeyEscrowPort escrow) {
+        this.path = path;
+        this.escrow = Objects.requireNonNull(escrow, "escrow");
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            Map<String, LegacyKey> legacyKeys = new LinkedHashMap<>();
+            long end = replay(legacyKeys);
+            this.filePosition = end;
+            this.appendedBytes = end;
+            this.durableBytes = end;
+            if (keysInFile || end > COMPACT_THRESHOLD_BYTES) {
+                // 이전 형식은 키를 에스크로에 반영한 뒤 키 없는 형식으로 다시 씀
+                escrowLegacyKeys(legacyKeys.values());
+                compact();
+            }
+            importLegacy();
+        } catch (IOException e) {
+            throw new UncheckedIOException("설정 저널 열기 실패: " + path, e);
+        }
+
+        this.flushThread = new Thread(this::flushLoop, "journal-flush");
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    /**
+     * 진행 중인 태그 조회
+     */
+    public synchronized Optional<Entry> find(String uid) {
+        return Optional.ofNullable(entries.get(uid));
+    }
+
+    /**
+     * 끝나지 않은 태그 (정전/강제 종료 후 반쯤 설정되었을 수 있는 태그, 마지막 활동 순)
+     */
+    public synchronized List<Entry> inProgress() {
+        List<Entry> unfinished = new ArrayList<>(entries.values());
+        unfinished.sort(Comparator.comparing(Entry::lastActivity));
+        return unfinished;
+    }
+
+    /**
+     * 새 태그 설정 시작 기록 (새 키는 호출자가 키 에스크로에 기록)
+     *
+     * @param uid        태그 UID
+     * @param keyVersion 새 키 버전
+     * @param keyCount   키 슬롯 수
+     */
+    public synchronized Entry begin(String uid, byte keyVersion, int keyCount) {
+        Entry entry = new Entry(uid, keyVersion, keyCount);
+        entries.put(uid, entry);
+        append(TYPE_BEGIN, uid, 2).put(keyVersion).put((byte) keyCount);
+        seal();
+        return entry;
+    }
+
+    /**
+     * 단계 완료 기록
+     */
+    public synchronized void markCompleted(String uid, WorkflowState step) {
+        Entry entry = require(uid);
+        entry.complete(step);
+        append(TYPE_STEP, uid, 1).put((byte) step.ordinal());
+        seal();
+    }
+
+    /**
+     * 키 슬롯 상태 기록 (ChangeKey 전송 직전 PENDING, 성공 후 CHANGED)
+     * PENDING은 디스크에 반영된 뒤 반환한다 (기록 없이 키가 바뀌면 재개 시 인증 키를 알 수 없음).
+     */
+    public void markKeySlot(String uid, int keyNo, KeySlotState state) {
+        long position;
+        synchronized (this) {
+            position = appendKeySlot(require(uid), keyNo, state);
+        }
+        if (state == KeySlotState.PENDING) {
+            awaitDurable(position);
+        }
+    }
+
+    /**
+     * 여러 슬롯을 한 번에 PENDING으로 기록하고 한 번의 fsync로 반영 (ChangeKey 연속 전송 전)
+     * 재개 시 PENDING 슬롯은 GetKeyVersion으로 실제 적용 여부를 확정하므로, 아직 보내지 않은 슬롯을 미리 PENDING으로 둬도 안전하다.
+     */
+    public void markKeySlotsPending(String uid, Collection<Integer> keyNos) {
+        if (keyNos.isEmpty()) {
+            return;
+        }
+        long position;
+        synchronized (this) {
+            Entry entry = require(uid);
+            position = appendedBytes + pending.position();
+            for (int keyNo : keyNos) {
+                position = appendKeySlot(entry, keyNo, KeySlotState.PENDING);
+            }
+        }
+        awaitDurable(position);
+    }
+
+    private long appendKeySlot(Entry entry, int keyNo, KeySlotState state) {
+        entry.keySlots.set(keyNo, state);
+        append(TYPE_KEY_SLOT, entry.uid, 2).put((byte) keyNo).put((byte) state.ordinal());
+        return seal();
+    }
+
+    /**
+     * 태그 감지 이후의 워크플로우 상태 전이 기록 (진행 중인 태그만, 디스크 반영은 기다리지 않음)
+     * {@link WorkflowContext.TransitionListener}로 등록한다.
+     */
+    public void recordTransition(WorkflowContext context, WorkflowState from, WorkflowState to) {
+        if (context.currentTag() == null) {
+            return;
+        }
+        String uid = context.currentTag().uidAsHex();
+        synchronized (this) {
+            Entry entry = entries.get(uid);
+            if (entry == null) {
+                return;
+            }
+            entry.lastState = to;
+            entry.lastActivity = Instant.now();
+            append(TYPE_TRANSITION, uid, 2).put((byte) from.ordinal()).put((byte) to.ordinal());
+            seal();
+        }
+    }
+
+    /**
+     * 설정 완료 - 저널에서 제거
+     */
+    public synchronized void complete(String uid) {
+        if (entries.remove(uid) != null) {
+            append(TYPE_COMPLETE, uid, 0);
+            seal();
+        }
+    }
+
+    private Entry require(String uid) {
+        Entry entry = entries.get(uid);
+        if (entry == null) {
+            throw new IllegalStateException("저널에 없는 태그입니다: " + uid);
+        }
+        return entry;
+    }
+
+    // --- 레코드 인코딩 (this 잠금 안에서 호출) ---
+
+    private int recordStart;
+
+    /**
+     * 레코드 머리(길이/종류/시각/UID)를 쓰고 내용을 이어 쓸 버퍼 반환
+     */
+    private ByteBuffer append(byte type, String uid, int bodyLength) {
+        return append(type, uid, bodyLength, System.currentTimeMillis());
+    }
+
+    /**
+     * @param epochMillis 레코드 시각 (재생하면 마지막 활동 시각이 됨)
+     */
+    private ByteBuffer append(byte type, String uid, int bodyLength, long epochMillis) {
+        byte[] uidBytes = HexUtils.hexToBytes(uid);
+        int payloadLength = Long.BYTES + 1 + uidBytes.length + bodyLength;
+        ensureCapacity(RECORD_HEADER_SIZE + payloadLength + CRC_SIZE);
+        recordStart = pending.position();
+        return pending.putShort((short) payloadLength).put(type)
+            .putLong(epochMillis).put((byte) uidBytes.length).put(uidBytes);
+    }
+
+    /**
+     * 레코드 끝에 CRC를 붙이고 레코드 끝의 파일 위치 반환
+     */
+    private long seal() {
+        CRC32 crc = new CRC32();
+        crc.update(pending.array(), recordStart + 2, pending.position() - recordStart - 2);
+        pending.putInt((int) crc.getValue());
+        return appendedBytes + pending.position();
+    }
+
+    private void ensureCapacity(int needed) {
+        if (pending.remaining() < needed) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + needed));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+    }
+
+    // --- 그룹 커밋 ---
+
+    /**
+     * 위치까지의 레코드가 디스크에 반영될 때까지 대기 (먼저 들어온 스레드가 쌓인 레코드를 모두 함께 fsync)
+     */
+    private void awaitDurable(long position) {
+        try {
+            while (durableBytes < position) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("설정 저널 쓰기 실패: " + path, e);
+        }
+    }
+
+    /**
+     * 버퍼에 쌓인 레코드를 한 번에 쓰고 fsync (실패하면 레코드를 버퍼 앞으로 되돌려 다음에 다시 씀)
+     */
+    private void flush() throws IOException {
+        synchronized (flushLock) {
+            ByteBuffer batch;
+            int length;
+            long position;
+            long logicalEnd;
+            synchronized (this) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                batch = pending.flip();
+                length = batch.remaining();
+                pending = spare;
+                spare = null;
+                position = filePosition;
+                filePosition += length;
+                appendedBytes += length;
+                logicalEnd = appendedBytes;
+            }
+            try {
+                while (batch.hasRemaining()) {
+                    position += channel.write(batch, position);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    ByteBuffer merged = ByteBuffer.allocate(length + Math.max(pending.capacity(), BUFFER_SIZE));
+                    merged.put(batch.rewind()).put(pending.flip());
+                    pending = merged;
+                    spare = batch.clear();
+                    filePosition -= length;
+                    appendedBytes -= length;
+                }
+                throw e;
+            }
+            durableBytes = logicalEnd;
+            synchronized (this) {
+                spare = batch.clear();
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            try {
+                Thread.sleep(GROUP_COMMIT_INTERVAL.toMillis());
+                flush();
+                if (fileSize() > COMPACT_THRESHOLD_BYTES) {
+                    compact();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                // 다음 PENDING 기록이 같은 오류를 호출자에게 전달
+            }
+        }
+    }
+
+    private synchronized long fileSize() {
+        return filePosition;
+    }
+
+    // --- 재생/압축 ---
+
+    /**
+     * 처음부터 재생해 진행 중인 태그 복원 (새 파일이면 헤더 기록)
+     *
+     * @param legacyKeys 이전 형식(NTJ1)이면 진행 중인 태그의 키를 담아 돌려줌
+     * @return 온전한 마지막 레코드의 끝 위치
+     */
+    private long replay(Map<String, LegacyKey> legacyKeys) throws IOException {
+        if (channel.size() == 0) {
+            writeHeader(channel);
+            channel.force(true);
+            return FILE_HEADER_SIZE;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), Integer.MAX_VALUE - 8));
+        readFully(channel, buffer, 0);
+        buffer.flip();
+        int magic = buffer.remaining() >= FILE_HEADER_SIZE ? buffer.getInt() : 0;
+        if (magic != MAGIC && magic != MAGIC_WITH_KEYS) {
+            throw new IOException("설정 저널 형식이 아닙니다: " + path);
+        }
+        buffer.getInt();
+        keysInFile = magic == MAGIC_WITH_KEYS;
+        Map<String, LegacyKey> keys = keysInFile ? legacyKeys : null;
+
+        CRC32 crc = new CRC32();
+        long end = FILE_HEADER_SIZE;
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buffer.position();
+            int payloadLength = Short.toUnsignedInt(buffer.getShort(start));
+            if (buffer.remaining() < RECORD_HEADER_SIZE + payloadLength + CRC_SIZE) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), start + 2, 1 + payloadLength);
+            if ((int) crc.getValue() != buffer.getInt(start + RECORD_HEADER_SIZE + payloadLength)) {
+                break;
+            }
+            buffer.position(start + 2);
+            applyRecord(buffer, keys);
+            buffer.position(start + RECORD_HEADER_SIZE + payloadLength + CRC_SIZE);
+            end = buffer.position();
+        }
+
+        if (end < channel.size()) {
+            // 쓰는 도중 끊긴 마지막 레코드
+            channel.truncate(end);
+            channel.force(true);
+        }
+        if (keys != null) {
+            // 끝난 태그의 키는 옮기지 않음 (검증을 마쳤으면 이미 에스크로에 반영됨)
+            keys.keySet().retainAll(entries.keySet());
+        }
+        return end;
+    }
+
+    /**
+     * @param legacyKeys 이전 형식이면 시작 레코드의 키를 담을 맵, 아니면 null
+     */
+    private void applyRecord(ByteBuffer record, Map<String, LegacyKey> legacyKeys) {
+        byte type = record.get();
+        Instant time = Instant.ofEpochMilli(record.getLong());
+        byte[] uidBytes = new byte[Byte.toUnsignedInt(record.get())];
+        record.get(uidBytes);
+        String uid = HexUtils.bytesToHex(uidBytes);
+
+        if (type == TYPE_BEGIN) {
+            byte keyVersion = record.get();
+            int keyCount = Byte.toUnsignedInt(record.get());
+            if (legacyKeys != null) {
+                byte[] key = new byte[Byte.toUnsignedInt(record.get())];
+                record.get(key);
+                legacyKeys.put(uid, new LegacyKey(uid, key, keyVersion));
+            }
+            Entry entry = new Entry(uid, keyVersion, keyCount);
+            entry.lastActivity = time;
+            entries.put(uid, entry);
+            return;
+        }
+        if (type == TYPE_COMPLETE) {
+            entries.remove(uid);
+            return;
+        }
+        Entry entry = entries.get(uid);
+        if (entry == null) {
+            return;
+        }
+        entry.lastActivity = time;
+        switch (type) {
+            case TYPE_STEP -> entry.complete(WorkflowState.values()[record.get()]);
+            case TYPE_KEY_SLOT -> entry.keySlots.set(record.get(), KeySlotState.values()[record.get()]);
+            case TYPE_TRANSITION -> {
+                record.get();
+                entry.lastState = WorkflowState.values()[record.get()];
+            }
+            default -> {
+                // 알 수 없는 종류는 건너뜀
+            }
+        }
+    }
+
+    /**
+     * 진행 중인 태그만 새 파일에 옮겨 쓰고 교체
+     * flushLock을 쥐어 그동안의 파일 쓰기를 막고, this는 스냅샷 인코딩과 채널 교체 때만 잡는다.
+     * 스냅샷 이후에 들어온 레코드는 버퍼에 남았다가 교체 뒤 새 파일에 쓰인다 (재생하면 스냅샷 위에 덮어씀).
+     * 반영 위치(appendedBytes/durableBytes)는 파일과 무관한 누적 값이라 압축해도 바뀌지 않는다.
+     */
+    private void compact() throws IOException {
+        synchronized (flushLock) {
+            flush();
+            ByteBuffer snapshot;
+            synchronized (this) {
+                snapshot = encodeSnapshot();
+            }
+
+            Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), "journal", ".tmp");
+            long end = FILE_HEADER_SIZE;
+            FileChannel replaced;
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    writeHeader(out);
+                    while (snapshot.hasRemaining()) {
+                        end += out.write(snapshot, end);
+                    }
+                    out.force(true);
+                }
+                DurableFiles.replace(temp, path);
+                replaced = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+
+            FileChannel previous;
+            synchronized (this) {
+                previous = channel;
+                channel = replaced;
+                filePosition = end;
+            }
+            previous.close();
+        }
+    }
+
+    /**
+     * 진행 중인 태그의 스냅샷 레코드 (this 잠금 안에서 호출, 쌓여 있던 버퍼는 건드리지 않음)
+     */
+    private ByteBuffer encodeSnapshot() {
+        ByteBuffer live = pending;
+        pending = ByteBuffer.allocate(BUFFER_SIZE);
+        try {
+            for (Entry entry : entries.values()) {
+                appendSnapshot(entry);
+            }
+            return pending.flip();
+        } finally {
+            pending = live;
+        }
+    }
+
+    /**
+     * 태그 한 개의 현재 상태를 레코드로 다시 씀 (시각은 원래 마지막 활동 시각 - 압축해도 오래 멈춘 태그가 최근 것처럼 보이지 않게)
+     */
+    private void appendSnapshot(Entry entry) {
+        long time = entry.lastActivity.toEpochMilli();
+        append(TYPE_BEGIN, entry.uid, 2, time).put(entry.keyVersion).put((byte) entry.keySlots.size());
+        seal();
+        for (WorkflowState step : entry.completedSteps) {
+            append(TYPE_STEP, entry.uid, 1, time).put((byte) step.ordinal());
+            seal();
+        }
+        for (int keyNo = 0; keyNo < entry.keySlots.size(); keyNo++) {
+            if (entry.keySlots.get(keyNo) != KeySlotState.FACTORY) {
+                append(TYPE_KEY_SLOT, entry.uid, 2, time).put((byte) keyNo)
+                    .put((byte) entry.keySlots.get(keyNo).ordinal());
+                seal();
+            }
+        }
+        if (entry.lastState != null) {
+            append(TYPE_TRANSITION, entry.uid, 2, time).put((byte) entry.lastState.ordinal())
+                .put((byte) entry.lastState.ordinal());
+            seal();
+        }
+    }
+
+    private static void writeHeader(FileChannel target) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(0).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += target.write(header, position);
+        }
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position);
+            if (read < 0) {
+                return;
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * 이전 버전 JSON 저널의 진행 중인 태그를 가져오고 원본은 삭제
+     * 키는 에스크로에 반영하고 저널에는 슬롯 상태만 옮긴 뒤, 키가 평문으로 담긴 JSON(이전 버전이 남긴 .imported 포함)을 지운다.
+     */
+    private void importLegacy() throws IOException {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        Path legacy = path.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + LEGACY_EXTENSION);
+        Path imported = legacy.resolveSibling(legacy.getFileName() + ".imported");
+        if (!Files.exists(legacy)) {
+            deleteLegacy(imported);
+            return;
+        }
+
+        Type type = new TypeToken<LinkedHashMap<String, LegacyEntry>>() { }.getType();
+        Map<String, LegacyEntry> loaded;
+        try (Reader reader = Files.newBufferedReader(legacy, StandardCharsets.UTF_8)) {
+            loaded = new Gson().fromJson(reader, type);
+        }
+        List<LegacyKey> keys = new ArrayList<>();
+        List<Entry> imports = new ArrayList<>();
+        synchronized (this) {
+            for (LegacyEntry legacyEntry : loaded != null ? loaded.values() : List.<LegacyEntry>of()) {
+                if (entries.containsKey(legacyEntry.uid)) {
+                    continue;
+                }
+                keys.add(new LegacyKey(legacyEntry.uid, HexUtils.hexToBytes(legacyEntry.newKey),
+                    legacyEntry.keyVersion));
+                Entry entry = new Entry(legacyEntry.uid, legacyEntry.keyVersion, legacyEntry.keySlots.size());
+                entry.completedSteps.addAll(legacyEntry.completedSteps);
+                for (int keyNo = 0; keyNo < legacyEntry.keySlots.size(); keyNo++) {
+                    entry.keySlots.set(keyNo, legacyEntry.keySlots.get(keyNo));
+                }
+                imports.add(entry);
+            }
+        }
+        // 키가 에스크로에 반영된 뒤에만 저널에 기록 (저널만 남으면 재개할 때 키를 찾을 수 없음)
+        escrowLegacyKeys(keys);
+        long position;
+        synchronized (this) {
+            for (Entry entry : imports) {
+                entries.put(entry.uid, entry);
+                appendSnapshot(entry);
+            }
+            position = appendedBytes + pending.position();
+        }
+        awaitDurable(position);
+        deleteLegacy(legacy);
+        deleteLegacy(imported);
+    }
+
+    /**
+     * 이전 형식 저널의 키를 에스크로에 기록하고 디스크 반영까지 대기
+     */
+    private void escrowLegacyKeys(Collection<LegacyKey> keys) {
+        long receipt = 0;
+        try {
+            for (LegacyKey key : keys) {
+                receipt = escrow.deposit(key.uid, key.key, key.keyVersion);
+            }
+            if (receipt > 0) {
+                escrow.awaitDurable(receipt);
+            }
+        } catch (KeyEscrowPort.EscrowException e) {
+            throw new IllegalStateException("이전 형식 저널의 키를 키 에스크로에 옮기지 못했습니다: " + path, e);
+        } finally {
+            for (LegacyKey key : keys) {
+                Arrays.fill(key.key, (byte) 0);
+            }
+        }
+    }
+
+    private static void deleteLegacy(Path legacy) throws IOException {
+        if (Files.deleteIfExists(legacy)) {
+            DurableFiles.syncDirectory(legacy.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * 남은 레코드를 반영한 뒤 닫기
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flushThread.interrupt();
+        try {
+            flushThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("설정 저널 닫기 실패: " + path, e);
+        }
+    }
+
+    /**
+     * 키 슬롯 상태
+     */
+    public enum KeySlotState {
+        FACTORY,   // 공장 초기 키
+        PENDING,   // ChangeKey 전송 후 응답 미확인
+        CHANGED    // 새 키 적용 완료
+    }
+
+    /**
+     * 태그 한 개의 진행 기록
+     */
+    public static final class Entry {
+        private final String uid;
+        private final byte keyVersion;
+        private final List<WorkflowState> completedSteps = new ArrayList<>();
+        private final List<KeySlotState> keySlots;
+        // 마지막으로 기록된 워크플로우 상태 (전이 기록이 없으면 null)
+        private WorkflowState lastState;
+        private Instant lastActivity = Instant.now();
+
+        private Entry(String uid, byte keyVersion, int keyCount) {
+            this.uid = uid;
+            this.keyVersion = keyVersion;
+            this.keySlots = new ArrayList<>(Collections.nCopies(keyCount, KeySlotState.FACTORY));
+        }
+
+        private void complete(WorkflowState step) {
+            if (!completedSteps.contains(step)) {
+                completedSteps.add(step);
+            }
+        }
+
+        public String uid() {
+            return uid;
+        }
+
+        public byte keyVersion() {
+            return keyVersion;
+        }
+
+        public boolean isCompleted(WorkflowState step) {
+            return completedSteps.contains(step);
+        }
+
+        public KeySlotState keySlot(int keyNo) {
+            return keySlots.get(keyNo);
+        }
+
+        public int keyCount() {
+            return keySlots.size();
+        }
+
+        public Optional<WorkflowState> lastState() {
+            return Optional.ofNullable(lastState);
+        }
+
+        public Instant lastActivity() {
+            return lastActivity;
+        }
+
+        /**
+         * 새 키를 보냈을 수 있는 슬롯이 있는지 (있으면 에스크로의 키 없이는 재개할 수 없음)
+         */
+        public boolean hasChangedKeys() {
+            return keySlots.stream().anyMatch(state -> state != KeySlotState.FACTORY);
+        }
+
+        /**
+         * 슬롯에 현재 적용된 키 (PENDING은 호출 전에 GetKeyVersion으로 확정해야 함)
+         */
+        public byte[] activeKey(int keyNo, byte[] newKey, byte[] factoryKey) {
+            return keySlots.get(keyNo) == KeySlotState.CHANGED ? newKey.clone() : factoryKey.clone();
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{uid=" + uid + ", completed=" + completedSteps + ", keySlots=" + keySlots
+                + (lastState != null ? ", lastState=" + lastState : "") + '}';
+        }
+    }
+
+    /**
+     * 이전 형식 저널에서 에스크로로 옮길 키
+     */
+    private static final class LegacyKey {
+        private final String uid;
+        private final byte[] key;
+        private final byte keyVersion;
+
+        private LegacyKey(String uid, byte[] key, byte keyVersion) {
+            this.uid = uid;
+            this.key = key;
+            this.keyVersion = keyVersion;
+        }
+    }
+
+    /**
+     * 이전 버전 JSON 저널 항목
+     */
+    private static final class LegacyEntry {
+        private String uid;
+        private String newKey;
+        private byte keyVersion;
+        private List<WorkflowState> completedSteps = new ArrayList<>();
+        private List<KeySlotState> keySlots = new ArrayList<>();
+    }
+}
@@ -0,0 +1,345 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.port.TagFeedPort.FeedException;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 일련번호 블록 임대 할당기
+ * 같은 호스트의 여러 스테이션(프로세스)이 공유 SQLite 파일에서 일련번호를 블록 단위로 빌려 가고,
+ * 블록 안에서는 메모리의 원자적 카운터로만 번호를 내준다 (태그마다 공유 파일에 접근하지 않음).
+ *
+ * - 임대: BEGIN IMMEDIATE 트랜잭션 안에서 반납된 범위(작은 번호부터)를 먼저 쓰고, 없으면 최고 수위를 블록만큼 올린다.
+ *   공유 파일의 쓰기 잠금이 임대를 직렬화하므로 두 스테이션이 같은 번호를 받지 않는다.
+ * - 반납: 종료할 때 현재 블록의 남은 범위(와 호출자가 쓰지 않은 번호)를 반납 범위로 돌려준다.
+ *   반납하지 못하고 죽은 스테이션의 남은 번호는 건너뛴다 (빈 번호는 생겨도 중복은 생기지 않음).
+ * - 공유: 임대/반납 때만 연결을 열고 기본 롤백 저널을 쓴다. 중복 방지가 SQLite 파일 잠금에 달려 있는데
+ *   NFS/SMB는 잠금을 믿을 수 없으므로 네트워크 파일 시스템의 경로는 거부한다 (호스트끼리는 번호 범위를 나눠 쓸 것).
+ *
+ * 임대 기록(serial_lease)은 어느 스테이션이 어느 범위를 언제 빌렸는지 추적용으로 남긴다.
+ */
+public class SerialBlockAllocator implements AutoCloseable {
+
+    public static final Path DEFAULT_PATH = Path.of("data", "serial-leases.db");
+    public static final int DEFAULT_BLOCK_SIZE = 1_000;
+    public static final long DEFAULT_FIRST_SERIAL = 1;
+
+    private static final int BUSY_TIMEOUT_MS = 10_000;
+    // FileStore.type() 기준 (리눅스 /proc/mounts, 맥 statfs 이름), nfs*/smb*는 접두어로 따로 봄
+    private static final Set<String> NETWORK_FILE_SYSTEMS = Set.of(
+        "cifs", "afs", "9p", "ncpfs", "fuse.sshfs", "webdav");
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS serial_state ("
+            + "id INTEGER PRIMARY KEY CHECK (id = 1), "
+            + "next_serial INTEGER NOT NULL)",
+        // 반납된 범위 [start, end)
+        "CREATE TABLE IF NOT EXISTS serial_free_range ("
+            + "range_start INTEGER PRIMARY KEY, "
+            + "range_end INTEGER NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS serial_lease ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "range_start INTEGER NOT NULL, "
+            + "range_end INTEGER NOT NULL, "
+            + "holder TEXT NOT NULL, "
+            + "leased_at TEXT NOT NULL, "
+            + "returned_from INTEGER, "
+            + "returned_at TEXT)"
+    };
+
+    private final Path path;
+    private final int blockSize;
+    private final String holder;
+    private volatile Block block;
+    private boolean closed;
+
+    /**
+     * @param path        공유 임대 DB 파일 (없으면 생성)
+     * @param blockSize   한 번에 빌릴 번호 수
+     * @param firstSerial 새 DB의 첫 번호 (이미 쓰던 DB면 무시)
+     */
+    public SerialBlockAllocator(Path path, int blockSize, long firstSerial) throws FeedException {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("블록 크기는 1 이상이어야 합니다");
+        }
+        this.path = path;
+        this.blockSize = blockSize;
+        this.holder = ManagementFactory.getRuntimeMXBean().getName();
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            throw new FeedException("일련번호 임대 DB 디렉토리 생성 실패: " + path, e);
+        }
+        requireLocal(path);
+        try (Connection connection = open();
+             Statement statement = connection.createStatement()) {
+            for (String ddl : SCHEMA) {
+                statement.execute(ddl);
+            }
+            try (PreparedStatement seed = connection.prepareStatement(
+                    "INSERT OR IGNORE INTO serial_state (id, next_serial) VALUES (1, ?)")) {
+                seed.setLong(1, firstSerial);
+                seed.executeUpdate();
+            }
+        } catch (SQLException e) {
+            throw new FeedException("일련번호 임대 DB 열기 실패: " + path, e);
+        }
+    }
+
+    /**
+     * 다음 일련번호 (블록 안에서는 잠금 없이 원자적 증가만)
+     */
+    public long allocate() throws FeedException {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long serial = current.next.getAndIncrement();
+                if (serial < current.end) {
+                    return serial;
+                }
+            }
+            renew(current);
+        }
+    }
+
+    /**
+     * 소진된 블록을 새 블록으로 교체 (다른 스레드가 이미 바꿨으면 그대로)
+     */
+    private synchronized void renew(Block exhausted) throws FeedException {
+        if (closed) {
+            throw new FeedException("일련번호 할당기가 닫혔습니다");
+        }
+        if (block == exhausted) {
+            block = lease();
+        }
+    }
+
+    private Block lease() throws FeedException {
+        String now = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        try (Connection connection = open();
+             Statement statement = connection.createStatement()) {
+            statement.execute("BEGIN IMMEDIATE");
+            try {
+                long start = -1;
+                long freeEnd = -1;
+                try (ResultSet free = statement.executeQuery(
+                        "SELECT range_start, range_end FROM serial_free_range ORDER BY range_start LIMIT 1")) {
+                    if (free.next()) {
+                        start = free.getLong(1);
+                        freeEnd = free.getLong(2);
+                    }
+                }
+                long end;
+                if (start >= 0) {
+                    end = Math.min(freeEnd, start + blockSize);
+                    takeFreeRange(connection, start, end, freeEnd);
+                } else {
+                    try (ResultSet state = statement.executeQuery("SELECT next_serial FROM serial_state WHERE id = 1")) {
+                        state.next();
+                        start = state.getLong(1);
+                    }
+                    end = start + blockSize;
+                    try (PreparedStatement advance = connection.prepareStatement(
+                            "UPDATE serial_state SET next_serial = ? WHERE id = 1")) {
+                        advance.setLong(1, end);
+                        advance.executeUpdate();
+                    }
+                }
+                try (PreparedStatement record = connection.prepareStatement(
+                        "INSERT INTO serial_lease (range_start, range_end, holder, leased_at) VALUES (?, ?, ?, ?)")) {
+                    record.setLong(1, start);
+                    record.setLong(2, end);
+                    record.setString(3, holder);
+                    record.setString(4, now);
+                    record.executeUpdate();
+                }
+                long leaseId;
+                try (ResultSet id = statement.executeQuery("SELECT last_insert_rowid()")) {
+                    id.next();
+                    leaseId = id.getLong(1);
+                }
+                statement.execute("COMMIT");
+                return new Block(leaseId, start, end);
+            } catch (SQLException e) {
+                statement.execute("ROLLBACK");
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new FeedException("일련번호 블록 임대 실패: " + path, e);
+        }
+    }
+
+    /**
+     * 반납 범위 [start, freeEnd)에서 [start, end)를 가져감 (뒷부분이 남으면 시작점만 옮김)
+     */
+    private static void takeFreeRange(Connection connection, long start, long end, long freeEnd) throws SQLException {
+        String sql = end < freeEnd
+            ? "UPDATE serial_free_range SET range_start = ? WHERE range_start = ?"
+            : "DELETE FROM serial_free_range WHERE range_start = ?";
+        try (PreparedStatement take = connection.prepareStatement(sql)) {
+            if (end < freeEnd) {
+                take.setLong(1, end);
+                take.setLong(2, start);
+            } else {
+                take.setLong(1, start);
+            }
+            take.executeUpdate();
+        }
+    }
+
+    /**
+     * 현재 블록의 남은 번호를 반납 (여러 번 호출해도 됨)
+     */
+    @Override
+    public void close() throws FeedException {
+        close(Collections.emptySortedSet());
+    }
+
+    /**
+     * 현재 블록의 남은 번호와, 내줬지만 쓰지 않은 번호를 반납 (연속된 번호는 한 범위로 합침)
+     *
+     * @param unused 이 할당기에서 받았지만 쓰지 않은 번호
+     */
+    public synchronized void close(SortedSet<Long> unused) throws FeedException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        Block current = block;
+        block = null;
+
+        List<long[]> ranges = new ArrayList<>();
+        for (long serial : unused) {
+            addRange(ranges, serial, serial + 1);
+        }
+        // 남은 범위를 원자적으로 거둬 닫는 중에 다른 스레드가 같은 번호를 받지 않도록
+        long from = current != null ? Math.min(current.next.getAndSet(current.end), current.end) : 0;
+        if (current != null && from < current.end) {
+            addRange(ranges, from, current.end);
+        }
+        if (ranges.isEmpty() && current == null) {
+            return;
+        }
+
+        String now = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        try (Connection connection = open();
+             Statement statement = connection.createStatement()) {
+            statement.execute("BEGIN IMMEDIATE");
+            try {
+                try (PreparedStatement release = connection.prepareStatement(
+                        "INSERT INTO serial_free_range (range_start, range_end) VALUES (?, ?)")) {
+                    for (long[] range : ranges) {
+                        release.setLong(1, range[0]);
+                        release.setLong(2, range[1]);
+                        release.addBatch();
+                    }
+                    release.executeBatch();
+                }
+                if (current != null) {
+                    try (PreparedStatement record = connection.prepareStatement(
+                            "UPDATE serial_lease SET returned_from = ?, returned_at = ? WHERE id = ?")) {
+                        record.setLong(1, from);
+                        record.setString(2, now);
+                        record.setLong(3, current.leaseId);
+                        record.executeUpdate();
+                    }
+                }
+                statement.execute("COMMIT");
+            } catch (SQLException e) {
+                statement.execute("ROLLBACK");
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new FeedException("일련번호 반납 실패 (" + ranges.size() + "개 범위는 건너뜀): " + path, e);
+        }
+    }
+
+    /**
+     * 오름차순으로 들어오는 범위를 앞 범위와 이어지면 합쳐서 추가
+     */
+    private static void addRange(List<long[]> ranges, long start, long end) {
+        if (!ranges.isEmpty()) {
+            long[] last = ranges.get(ranges.size() - 1);
+            if (last[1] == start) {
+                last[1] = end;
+                return;
+            }
+        }
+        ranges.add(new long[] {start, end});
+    }
+
+    /**
+     * 임대 DB가 로컬 파일 시스템에 있는지 확인 (네트워크 파일 시스템의 잠금으로는 임대가 직렬화되지 않음)
+     */
+    private static void requireLocal(Path path) throws FeedException {
+        Path absolute = path.toAbsolutePath();
+        Path root = absolute.getRoot();
+        String type;
+        try {
+            type = Files.getFileStore(absolute.getParent()).type();
+        } catch (IOException e) {
+            throw new FeedException("일련번호 임대 DB 파일 시스템 확인 실패: " + path, e);
+        }
+        // 윈도우 UNC 경로(\\서버\공유)는 파일 시스템 이름이 NTFS로 보일 수 있음
+        if ((root != null && root.toString().startsWith("\\\\")) || isNetworkFileSystem(type)) {
+            throw new FeedException("일련번호 임대 DB는 로컬 디스크에 두어야 합니다 (" + type
+                + " 파일 잠금은 믿을 수 없음): " + path);
+        }
+    }
+
+    static boolean isNetworkFileSystem(String type) {
+        String normalized = type.toLowerCase(Locale.ROOT);
+        return NETWORK_FILE_SYSTEMS.contains(normalized)
+            || normalized.startsWith("nfs")
+            || normalized.startsWith("smb");
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + path.toAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MS);
+        } catch (SQLException e) {
+            SqliteProvisioningLedger.closeQuietly(connection);
+            throw e;
+        }
+        return connection;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * 임대한 범위 [start, end)와 다음에 내줄 번호
+     */
+    private static final class Block {
+        final long leaseId;
+        final long end;
+        final AtomicLong next;
+
+        Block(long leaseId, long start, long end) {
+            this.leaseId = leaseId;
+            this.end = end;
+            this.next = new AtomicLong(start);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.FeedRow;
+import ntagwriter.domain.port.TagFeedPort;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 일련번호 피드
+ * 파일 대신 {@link SerialBlockAllocator}에서 번호를 받아 {@value #SERIAL_COLUMN} 컬럼 하나짜리 행으로 내준다.
+ * 프로필 baseUrl의 {serial} 자리 표시자가 이 값으로 바뀐다.
+ *
+ * UID별 배정은 CSV 피드와 같은 배정 기록에 남겨(행 번호 자리에 일련번호) 재투입/재개된 태그가 같은 번호를 받는다.
+ * 자료 파이프라인이 미리 꺼냈지만 어느 태그에도 배정되지 않은 번호는 닫을 때 블록의 남은 범위와 함께 반납한다.
+ */
+public class SerialNumberFeed implements TagFeedPort {
+
+    public static final String SERIAL_COLUMN = "serial";
+    public static final Path DEFAULT_ASSIGNMENT_PATH = Path.of("data", "serial-assignments.csv");
+
+    private final SerialBlockAllocator allocator;
+    private final FeedAssignmentLog assignments;
+    // next()로 내줬지만 아직 배정되지 않은 번호
+    private final NavigableSet<Long> outstanding = new ConcurrentSkipListSet<>();
+
+    /**
+     * @param allocator      일련번호 할당기 (피드를 닫으면 함께 닫힘)
+     * @param assignmentPath 배정 기록 파일
+     */
+    public SerialNumberFeed(SerialBlockAllocator allocator, Path assignmentPath) throws FeedException {
+        this.allocator = allocator;
+        try {
+            this.assignments = new FeedAssignmentLog(assignmentPath);
+        } catch (IOException e) {
+            throw new FeedException("일련번호 배정 기록 열기 실패: " + assignmentPath, e);
+        }
+    }
+
+    @Override
+    public FeedRow next() throws FeedException {
+        long serial = allocator.allocate();
+        outstanding.add(serial);
+        return toRow(serial);
+    }
+
+    @Override
+    public Optional<FeedRow> assignedRow(String uid) throws FeedException {
+        try {
+            return assignments.find(uid).map(assignment -> toRow(assignment.row));
+        } catch (IOException e) {
+            throw new FeedException("일련번호 배정 조회 실패 (UID " + uid + ")", e);
+        }
+    }
+
+    @Override
+    public void assign(String uid, FeedRow row) throws FeedException {
+        try {
+            assignments.append(uid, row.rowNumber(), 0, 0);
+        } catch (IOException e) {
+            throw new FeedException("일련번호 배정 기록 실패 (" + row.rowNumber() + ")", e);
+        }
+        outstanding.remove(row.rowNumber());
+    }
+
+    private static FeedRow toRow(long serial) {
+        return new FeedRow(serial, 0, 0, Map.of(SERIAL_COLUMN, Long.toString(serial)));
+    }
+
+    /**
+     * 배정되지 않은 번호와 블록의 남은 범위를 반납하고 닫기
+     */
+    @Override
+    public void close() throws FeedException {
+        try {
+            allocator.close(outstanding);
+        } finally {
+            try {
+                assignments.close();
+            } catch (IOException e) {
+                throw new FeedException("일련번호 배정 기록 닫기 실패", e);
+            }
+        }
+    }
+}
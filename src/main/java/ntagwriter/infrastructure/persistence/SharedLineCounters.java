@@ -0,0 +1,439 @@
+package ntagwriter.infrastructure.persistence;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 라인 공유 카운터 (같은 호스트의 여러 설정 JVM이 하나의 메모리 매핑 파일에 현황을 씀)
+ * 프로세스마다 고정 크기 슬롯 하나를 차지하고, 태그 결과와 상태 워드별 오류 수를 VarHandle 원자 연산으로 더한다.
+ * 모니터 프로세스는 같은 파일을 읽기 전용으로 매핑해 값을 읽기만 하므로 IPC도 잠금도 없고, 스테이션은 보고 때문에 멈추지 않는다.
+ *
+ * - 기록: 태그당 getAndAdd 한두 번 (매핑된 페이지에 직접, 시스템 호출 없음)
+ * - 심박/처리율: 프로세스마다 데몬 스레드 하나가 1초마다 심박 시각과 최근 처리율(지수 이동 평균)을 setRelease로 갱신
+ * - 슬롯 점유: 심박을 먼저 쓰고 PID를 CAS로 기록. 프로세스가 없거나 심박이 끊긴 슬롯은 새 프로세스가 다시 점유한다.
+ *   살아 있는 프로세스라도 심박이 멈췄던 사이 슬롯을 빼앗겼으면 남의 슬롯에 더하지 않고, 다음 심박에서 새 슬롯을 잡아
+ *   마지막 심박 때의 결과 수부터 이어 쓴다 (빈 슬롯이 없으면 생길 때까지 보고하지 않음).
+ * - 읽기: 필드마다 getAcquire라 슬롯 하나의 값들이 한 시점에 맞춰져 있지는 않다 (현황 표시용으로 충분)
+ *
+ * 파일 레이아웃 (모두 호스트 바이트 순서의 8바이트 정수):
+ * 헤더 8칸 [매직, 버전, 슬롯 수, 상태 워드 칸 수] + 슬롯 {@value #SLOT_COUNT}개 × (고정 필드 8칸 + 상태 워드 표 {@value #STATUS_WORD_ENTRIES}×2칸)
+ */
+public class SharedLineCounters implements AutoCloseable {
+
+    public static final Path DEFAULT_PATH = Path.of("data", "line-counters.bin");
+
+    static final int SLOT_COUNT = 32;
+    static final int STATUS_WORD_ENTRIES = 32;
+
+    private static final long MAGIC = 0x4E5441474C494E45L; // "NTAGLINE"
+    private static final long VERSION = 1;
+    private static final long HEARTBEAT_INTERVAL_MS = 1_000;
+    // 이 시간 동안 심박이 없으면 응답 없는 슬롯
+    static final long STALE_AFTER_MS = 10_000;
+    // 처리율 지수 이동 평균 가중치 (1초 표본, 약 10초 시상수)
+    private static final double RATE_SMOOTHING = 0.1;
+
+    private static final int HEADER_LONGS = 8;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 1;
+    private static final int H_SLOTS = 2;
+    private static final int H_STATUS_WORDS = 3;
+
+    // 슬롯 고정 필드
+    private static final int S_PID = 0;
+    private static final int S_HEARTBEAT = 1;
+    private static final int S_STARTED = 2;
+    private static final int S_SUCCEEDED = 3;
+    private static final int S_SKIPPED = 4;
+    private static final int S_FAILED = 5;
+    // 분당 태그 수 × 100 (고정소수점)
+    private static final int S_RATE = 6;
+    // 상태 워드 표가 가득 차서 따로 세지 못한 오류 수
+    private static final int S_OTHER_STATUS_WORDS = 7;
+    private static final int S_STATUS_WORD_TABLE = 8;
+
+    private static final int SLOT_LONGS = S_STATUS_WORD_TABLE + STATUS_WORD_ENTRIES * 2;
+    static final int FILE_SIZE = (HEADER_LONGS + SLOT_COUNT * SLOT_LONGS) * Long.BYTES;
+
+    // 매핑 버퍼는 페이지 정렬이고 모든 칸이 8바이트 경계라 원자 접근이 허용된다
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long pid = ProcessHandle.current().pid();
+    private final long startedAt = System.currentTimeMillis();
+    // 점유한 슬롯, 빼앗기고 다시 잡지 못했으면 -1
+    private volatile int slot;
+    private final ScheduledExecutorService heartbeat;
+    // 마지막 심박 때의 결과 수 (슬롯을 다시 잡을 때 이어 씀)
+    private long lastSucceeded;
+    private long lastSkipped;
+    private long lastFailed;
+    private long lastProcessed;
+    private double rate;
+    private boolean closed;
+
+    /**
+     * 카운터 파일을 열고(없으면 생성) 이 프로세스의 슬롯을 점유
+     *
+     * @throws IOException 파일을 매핑할 수 없거나, 레이아웃이 다르거나, 빈 슬롯이 없음
+     */
+    public SharedLineCounters(Path path) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            initializeHeader();
+            this.slot = claimSlot(0, 0, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "line-counters-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::beat, HEARTBEAT_INTERVAL_MS, HEARTBEAT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 레이아웃 칸을 먼저 쓰고 매직을 CAS (동시에 만든 프로세스들은 같은 값을 쓰므로 경합해도 무방)
+     */
+    private void initializeHeader() throws IOException {
+        if ((long) LONGS.getAcquire(buffer, offset(H_MAGIC)) == 0) {
+            LONGS.setRelease(buffer, offset(H_VERSION), VERSION);
+            LONGS.setRelease(buffer, offset(H_SLOTS), (long) SLOT_COUNT);
+            LONGS.setRelease(buffer, offset(H_STATUS_WORDS), (long) STATUS_WORD_ENTRIES);
+            LONGS.compareAndSet(buffer, offset(H_MAGIC), 0L, MAGIC);
+        }
+        checkHeader(buffer, path);
+    }
+
+    private static void checkHeader(ByteBuffer buffer, Path path) throws IOException {
+        if ((long) LONGS.getAcquire(buffer, offset(H_MAGIC)) != MAGIC
+                || (long) LONGS.getAcquire(buffer, offset(H_VERSION)) != VERSION
+                || (long) LONGS.getAcquire(buffer, offset(H_SLOTS)) != SLOT_COUNT
+                || (long) LONGS.getAcquire(buffer, offset(H_STATUS_WORDS)) != STATUS_WORD_ENTRIES) {
+            throw new IOException("호환되지 않는 라인 카운터 파일입니다: " + path);
+        }
+    }
+
+    /**
+     * 빈 슬롯, 없으면 죽었거나 심박이 끊긴 프로세스의 슬롯을 CAS로 점유하고 카운터를 0으로 초기화
+     *
+     * 심박은 PID CAS보다 먼저 쓴다. 새 PID를 읽은 프로세스는 그 심박도 보게 되므로, 초기화 중인 슬롯을 끊긴 슬롯으로 보고 빼앗지 않는다.
+     * (CAS에 진 경우 남의 슬롯에 쓴 심박은 이긴 프로세스가 곧 덮어씀)
+     * 초기화하는 동안은 시작 시각을 0으로 두어 모니터가 그 슬롯을 건너뛴다.
+     *
+     * @param succeeded 이어 쓸 성공 수 (슬롯을 빼앗겨 다시 잡을 때)
+     */
+    private int claimSlot(long succeeded, long skipped, long failed) throws IOException {
+        long now = System.currentTimeMillis();
+        for (int pass = 0; pass < 2; pass++) {
+            for (int candidate = 0; candidate < SLOT_COUNT; candidate++) {
+                long owner = (long) LONGS.getAcquire(buffer, slotOffset(candidate, S_PID));
+                boolean reusable = pass == 0
+                    ? owner == 0
+                    : owner != 0 && isAbandoned(owner, (long) LONGS.getAcquire(buffer, slotOffset(candidate, S_HEARTBEAT)), now);
+                if (!reusable) {
+                    continue;
+                }
+                LONGS.setRelease(buffer, slotOffset(candidate, S_HEARTBEAT), now);
+                if (LONGS.compareAndSet(buffer, slotOffset(candidate, S_PID), owner, pid)) {
+                    for (int field = S_STARTED; field < SLOT_LONGS; field++) {
+                        LONGS.setRelease(buffer, slotOffset(candidate, field), 0L);
+                    }
+                    LONGS.setRelease(buffer, slotOffset(candidate, S_SUCCEEDED), succeeded);
+                    LONGS.setRelease(buffer, slotOffset(candidate, S_SKIPPED), skipped);
+                    LONGS.setRelease(buffer, slotOffset(candidate, S_FAILED), failed);
+                    LONGS.setRelease(buffer, slotOffset(candidate, S_STARTED), startedAt);
+                    return candidate;
+                }
+            }
+        }
+        throw new IOException("라인 카운터 슬롯이 모두 사용 중입니다 (" + SLOT_COUNT + "개): " + path);
+    }
+
+    private static boolean isAbandoned(long owner, long heartbeatMillis, long now) {
+        return ProcessHandle.of(owner).isEmpty() || now - heartbeatMillis > STALE_AFTER_MS;
+    }
+
+    /**
+     * 아직 이 프로세스의 슬롯인지 (심박이 멈춘 사이 다른 프로세스가 가져갔을 수 있음)
+     */
+    private boolean owns(int current) {
+        return current >= 0 && (long) LONGS.getAcquire(buffer, slotOffset(current, S_PID)) == pid;
+    }
+
+    /**
+     * 태그 한 개의 결과 반영 (락 없음, 슬롯을 빼앗겼으면 버림)
+     */
+    public void record(boolean success, boolean skipped) {
+        int current = slot;
+        if (!owns(current)) {
+            return;
+        }
+        int field = !success ? S_FAILED : skipped ? S_SKIPPED : S_SUCCEEDED;
+        LONGS.getAndAdd(buffer, slotOffset(current, field), 1L);
+    }
+
+    /**
+     * 실패 응답의 상태 워드 반영 (SW1 << 8 | SW2)
+     * 상태 워드마다 슬롯 안의 작은 개방 주소 표에서 칸을 CAS로 잡고 그 칸의 수를 더한다.
+     */
+    public void recordStatusWord(int statusWord) {
+        int slot = this.slot;
+        if (!owns(slot)) {
+            return;
+        }
+        long key = (statusWord & 0xFFFF) + 1L;
+        int start = (statusWord * 0x9E3779B9) >>> 27;
+        for (int probe = 0; probe < STATUS_WORD_ENTRIES; probe++) {
+            int entry = (start + probe) & (STATUS_WORD_ENTRIES - 1);
+            int keyField = S_STATUS_WORD_TABLE + entry * 2;
+            long current = (long) LONGS.getAcquire(buffer, slotOffset(slot, keyField));
+            if (current == 0 && LONGS.compareAndSet(buffer, slotOffset(slot, keyField), 0L, key)) {
+                current = key;
+            } else if (current == 0) {
+                current = (long) LONGS.getAcquire(buffer, slotOffset(slot, keyField));
+            }
+            if (current == key) {
+                LONGS.getAndAdd(buffer, slotOffset(slot, keyField + 1), 1L);
+                return;
+            }
+        }
+        LONGS.getAndAdd(buffer, slotOffset(slot, S_OTHER_STATUS_WORDS), 1L);
+    }
+
+    /**
+     * 심박 시각과 최근 처리율 갱신 (심박 스레드만 씀), 슬롯을 빼앗겼으면 새 슬롯을 먼저 잡음
+     */
+    synchronized void beat() {
+        if (closed) {
+            return;
+        }
+        int slot = this.slot;
+        if (!owns(slot)) {
+            slot = reclaimSlot();
+            if (slot < 0) {
+                return;
+            }
+        }
+        lastSucceeded = (long) LONGS.getAcquire(buffer, slotOffset(slot, S_SUCCEEDED));
+        lastSkipped = (long) LONGS.getAcquire(buffer, slotOffset(slot, S_SKIPPED));
+        lastFailed = (long) LONGS.getAcquire(buffer, slotOffset(slot, S_FAILED));
+        long processed = lastSucceeded + lastSkipped + lastFailed;
+        double perMinute = (processed - lastProcessed) * 60_000.0 / HEARTBEAT_INTERVAL_MS;
+        lastProcessed = processed;
+        rate += RATE_SMOOTHING * (perMinute - rate);
+        LONGS.setRelease(buffer, slotOffset(slot, S_RATE), Math.round(rate * 100));
+        LONGS.setRelease(buffer, slotOffset(slot, S_HEARTBEAT), System.currentTimeMillis());
+    }
+
+    /**
+     * 빼앗긴 슬롯 대신 새 슬롯 점유 (마지막 심박 이후의 결과와 상태 워드 표는 잃음)
+     *
+     * @return 새 슬롯, 빈 슬롯이 없으면 -1 (다음 심박에서 다시 시도)
+     */
+    private int reclaimSlot() {
+        slot = -1;
+        try {
+            slot = claimSlot(lastSucceeded, lastSkipped, lastFailed);
+        } catch (IOException e) {
+            // 빈 슬롯이 생길 때까지 보고하지 않음
+        }
+        return slot;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 슬롯을 비우고 매핑 해제 (모니터에서 사라짐, 여러 번 호출해도 됨)
+     */
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // 빼앗긴 슬롯이면 새 주인의 심박을 지우지 않음
+            if (owns(slot)) {
+                LONGS.setRelease(buffer, slotOffset(slot, S_HEARTBEAT), 0L);
+                LONGS.compareAndSet(buffer, slotOffset(slot, S_PID), pid, 0L);
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 매핑은 GC 때 해제되고 파일 내용은 이미 페이지 캐시에 있음
+        }
+    }
+
+    /**
+     * 카운터 파일을 읽기 전용으로 매핑해 현재 값 읽기 (모니터 프로세스용, 파일에 쓰지 않음)
+     *
+     * @throws IOException 파일이 없거나 레이아웃이 다름
+     */
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < FILE_SIZE) {
+                throw new IOException("라인 카운터 파일이 아직 초기화되지 않았습니다: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+            checkHeader(buffer, path);
+            return snapshot(buffer);
+        }
+    }
+
+    private static Snapshot snapshot(ByteBuffer buffer) {
+        long now = System.currentTimeMillis();
+        List<Station> stations = new ArrayList<>();
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            long pid = (long) LONGS.getAcquire(buffer, slotOffset(slot, S_PID));
+            long heartbeat = (long) LONGS.getAcquire(buffer, slotOffset(slot, S_HEARTBEAT));
+            long started = (long) LONGS.getAcquire(buffer, slotOffset(slot, S_STARTED));
+            // 비었거나, 닫는 중이거나, 점유 직후 초기화 중인 슬롯
+            if (pid == 0 || heartbeat == 0 || started == 0) {
+                continue;
+            }
+            Map<Integer, Long> statusWords = new TreeMap<>();
+            for (int entry = 0; entry < STATUS_WORD_ENTRIES; entry++) {
+                int keyField = S_STATUS_WORD_TABLE + entry * 2;
+                long key = (long) LONGS.getAcquire(buffer, slotOffset(slot, keyField));
+                long count = (long) LONGS.getAcquire(buffer, slotOffset(slot, keyField + 1));
+                if (key != 0 && count > 0) {
+                    statusWords.put((int) (key - 1), count);
+                }
+            }
+            stations.add(new Station(
+                pid,
+                started,
+                heartbeat,
+                now - heartbeat > STALE_AFTER_MS,
+                (long) LONGS.getAcquire(buffer, slotOffset(slot, S_SUCCEEDED)),
+                (long) LONGS.getAcquire(buffer, slotOffset(slot, S_SKIPPED)),
+                (long) LONGS.getAcquire(buffer, slotOffset(slot, S_FAILED)),
+                (long) LONGS.getAcquire(buffer, slotOffset(slot, S_RATE)) / 100.0,
+                statusWords,
+                (long) LONGS.getAcquire(buffer, slotOffset(slot, S_OTHER_STATUS_WORDS))));
+        }
+        return new Snapshot(stations);
+    }
+
+    private static int offset(int headerField) {
+        return headerField * Long.BYTES;
+    }
+
+    private static int slotOffset(int slot, int field) {
+        return (HEADER_LONGS + slot * SLOT_LONGS + field) * Long.BYTES;
+    }
+
+    /**
+     * 설정 프로세스 하나의 현황
+     */
+    public static final class Station {
+        public final long pid;
+        public final long startedAtMillis;
+        public final long heartbeatMillis;
+        // 심박이 끊김 (멈췄거나 비정상 종료 - 다음 프로세스가 슬롯을 다시 쓸 때까지 마지막 값 유지)
+        public final boolean stale;
+        public final long succeeded;
+        public final long skipped;
+        public final long failed;
+        public final double tagsPerMinute;
+        // 상태 워드별 오류 수 (SW 오름차순)
+        public final Map<Integer, Long> statusWordErrors;
+        public final long otherStatusWordErrors;
+
+        Station(long pid, long startedAtMillis, long heartbeatMillis, boolean stale, long succeeded, long skipped,
+                long failed, double tagsPerMinute, Map<Integer, Long> statusWordErrors, long otherStatusWordErrors) {
+            this.pid = pid;
+            this.startedAtMillis = startedAtMillis;
+            this.heartbeatMillis = heartbeatMillis;
+            this.stale = stale;
+            this.succeeded = succeeded;
+            this.skipped = skipped;
+            this.failed = failed;
+            this.tagsPerMinute = tagsPerMinute;
+            this.statusWordErrors = Collections.unmodifiableMap(statusWordErrors);
+            this.otherStatusWordErrors = otherStatusWordErrors;
+        }
+
+        public long processed() {
+            return succeeded + skipped + failed;
+        }
+    }
+
+    /**
+     * 라인 전체 현황 (프로세스별 값과 합계)
+     */
+    public static final class Snapshot {
+        public final List<Station> stations;
+
+        Snapshot(List<Station> stations) {
+            this.stations = Collections.unmodifiableList(stations);
+        }
+
+        public long processed() {
+            return stations.stream().mapToLong(Station::processed).sum();
+        }
+
+        public long succeeded() {
+            return stations.stream().mapToLong(station -> station.succeeded).sum();
+        }
+
+        public long skipped() {
+            return stations.stream().mapToLong(station -> station.skipped).sum();
+        }
+
+        public long failed() {
+            return stations.stream().mapToLong(station -> station.failed).sum();
+        }
+
+        /**
+         * 응답 중인 프로세스의 처리율 합
+         */
+        public double tagsPerMinute() {
+            return stations.stream().filter(station -> !station.stale).mapToDouble(station -> station.tagsPerMinute).sum();
+        }
+
+        /**
+         * 라인 전체 상태 워드별 오류 수 (SW 오름차순)
+         */
+        public Map<Integer, Long> statusWordErrors() {
+            Map<Integer, Long> merged = new TreeMap<>();
+            for (Station station : stations) {
+                station.statusWordErrors.forEach((statusWord, count) -> merged.merge(statusWord, count, Long::sum));
+            }
+            return merged;
+        }
+
+        public long otherStatusWordErrors() {
+            return stations.stream().mapToLong(station -> station.otherStatusWordErrors).sum();
+        }
+    }
+}
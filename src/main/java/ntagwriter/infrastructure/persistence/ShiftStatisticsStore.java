@@ -0,0 +1,60 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.application.workflow.ShiftStatistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 교대 통계 파일 저장소
+ * 종료할 때 집계를 저장하고 시작할 때 합쳐, 교대 중간에 재시작해도 교대 보고서가 이어진다.
+ */
+public class ShiftStatisticsStore {
+
+    public static final Path DEFAULT_PATH = Paths.get("data", "shift-statistics.bin");
+
+    private final Path path;
+
+    public ShiftStatisticsStore(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * 저장된 집계를 합침 (파일이 없으면 그대로)
+     */
+    public void loadInto(ShiftStatistics statistics) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            statistics.readFrom(in);
+        } catch (NoSuchFileException e) {
+            // 첫 실행
+        }
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 원자적으로 교체
+     */
+    public void save(ShiftStatistics statistics) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = parent.resolve(path.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            statistics.writeTo(out);
+        }
+        DurableFiles.replace(temp, path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
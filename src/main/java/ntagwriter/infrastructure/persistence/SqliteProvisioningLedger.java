@@ -0,0 +1,576 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.ProvisioningRecord;
+import ntagwriter.domain.port.ProvisioningLedgerPort;
+import ntagwriter.domain.tag.Tag;
+import ntagwriter.util.HexUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * 설정 원장 (SQLite)
+ * 설정 스레드는 기록을 큐에 넣기만 하고, 전용 기록 스레드가 모아서 한 트랜잭션으로 넣는다.
+ *
+ * - WAL 모드 + synchronous=NORMAL: 커밋마다 fsync하지 않고, 원장을 읽는 도구가 기록을 막지 않는다.
+ * - 배치 삽입: 큐에 쌓인 기록을 최대 {@link #MAX_BATCH}개씩 꺼내, 재사용하는 prepared statement로 넣는다.
+ * - 실패: 배치를 롤백하고 잠시 뒤 다시 시도한다. 끝내 넣지 못한 배치는 보관 파일(.spill)에 동기화해 남기고,
+ *   다음 배치가 들어가거나 원장을 다시 열 때 원장에 넣는다. 보관 파일에도 쓰지 못한 기록만 잃고 수를 센다.
+ *
+ * 설정 완료(SUCCESS) UID는 UID 키(유일 색인)로 따로 남겨 UID 등록부의 적재와 중복 확인에 쓴다.
+ * 조회는 별도 읽기 연결로 하므로 기록 스레드의 트랜잭션과 섞이지 않는다 (WAL은 읽기와 쓰기를 동시에 허용).
+ *
+ * 키 값은 기록하지 않는다 (키 버전만).
+ */
+public class SqliteProvisioningLedger implements ProvisioningLedgerPort {
+
+    public static final Path DEFAULT_PATH = Path.of("data", "provisioning.db");
+
+    private static final int MAX_BATCH = 256;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long IDLE_POLL_MS = 200;
+    private static final long RETRY_BACKOFF_MS = 50;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS provisioning_ledger ("
+            + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "recorded_at TEXT NOT NULL, "
+            + "reader TEXT, "
+            + "uid TEXT NOT NULL, "
+            + "result TEXT NOT NULL, "
+            + "final_state TEXT, "
+            + "profile TEXT, "
+            + "url TEXT, "
+            + "key_version INTEGER, "
+            + "status_words TEXT, "
+            + "duration_us INTEGER NOT NULL, "
+            + "message TEXT)",
+        "CREATE INDEX IF NOT EXISTS idx_provisioning_ledger_uid ON provisioning_ledger(uid)",
+        "CREATE TABLE IF NOT EXISTS provisioning_step ("
+            + "ledger_id INTEGER NOT NULL REFERENCES provisioning_ledger(id), "
+            + "step_index INTEGER NOT NULL, "
+            + "step_name TEXT NOT NULL, "
+            + "success INTEGER NOT NULL, "
+            + "duration_us INTEGER NOT NULL, "
+            + "PRIMARY KEY (ledger_id, step_index))",
+        "CREATE TABLE IF NOT EXISTS provisioned_uid ("
+            + "seq INTEGER PRIMARY KEY AUTOINCREMENT, "
+            + "uid_key INTEGER NOT NULL UNIQUE, "
+            + "ledger_id INTEGER NOT NULL REFERENCES provisioning_ledger(id))",
+        // 보관 파일에서 다시 넣은 배치 (같은 배치를 두 번 넣지 않도록)
+        "CREATE TABLE IF NOT EXISTS spilled_batch (batch_id TEXT PRIMARY KEY)"
+    };
+
+    private static final String INSERT_LEDGER = "INSERT INTO provisioning_ledger "
+        + "(recorded_at, reader, uid, result, final_state, profile, url, key_version, status_words, duration_us, message) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_STEP = "INSERT INTO provisioning_step "
+        + "(ledger_id, step_index, step_name, success, duration_us) VALUES (?, ?, ?, ?, ?)";
+    // 이미 완료 기록이 있는 UID는 첫 기록을 유지
+    private static final String INSERT_PROVISIONED = "INSERT OR IGNORE INTO provisioned_uid "
+        + "(uid_key, ledger_id) VALUES (?, ?)";
+    private static final String INSERT_SPILLED_BATCH = "INSERT OR IGNORE INTO spilled_batch (batch_id) VALUES (?)";
+    private static final String SEED_SEQUENCE = "INSERT INTO sqlite_sequence (name, seq) SELECT ?, ? "
+        + "WHERE NOT EXISTS (SELECT 1 FROM sqlite_sequence WHERE name = ?)";
+    private static final String SELECT_PROVISIONED_SINCE =
+        "SELECT seq, uid_key FROM provisioned_uid WHERE seq > ? ORDER BY seq";
+    private static final String SELECT_PROVISIONED_AT = "SELECT l.recorded_at FROM provisioned_uid p "
+        + "JOIN provisioning_ledger l ON l.id = p.ledger_id WHERE p.uid_key = ?";
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final int SQLITE_OPEN_READONLY = 0x01;
+
+    private final Path path;
+    private final Connection connection;
+    private final PreparedStatement insertLedger;
+    private final PreparedStatement insertStep;
+    private final PreparedStatement insertProvisioned;
+    private final PreparedStatement insertSpilledBatch;
+    private final Path spillPath;
+    private final Connection readConnection;
+    private final Consumer<String> errorListener;
+    private final BlockingQueue<ProvisioningRecord> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final Thread writerThread;
+    // 보관 파일에 아직 원장에 넣지 못한 배치가 있음 (기록 스레드만 사용)
+    private boolean spillPending;
+    private volatile boolean closed;
+
+    public SqliteProvisioningLedger() throws LedgerException {
+        this(DEFAULT_PATH, message -> { });
+    }
+
+    /**
+     * @param path          원장 DB 파일 (없으면 생성)
+     * @param errorListener 기록 실패 알림 (기록 스레드에서 호출)
+     */
+    public SqliteProvisioningLedger(Path path, Consumer<String> errorListener) throws LedgerException {
+        this(path, 0, errorListener);
+    }
+
+    /**
+     * @param path          원장 DB 파일 (없으면 생성)
+     * @param idBase        새 DB의 원장 ID/완료 UID 순번 시작값 (파티션끼리 ID가 겹치지 않도록)
+     * @param errorListener 기록 실패 알림 (기록 스레드에서 호출)
+     */
+    public SqliteProvisioningLedger(Path path, long idBase, Consumer<String> errorListener) throws LedgerException {
+        this.path = path;
+        this.spillPath = LedgerSpillFile.pathFor(path);
+        this.errorListener = errorListener;
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+        } catch (IOException e) {
+            throw new LedgerException("원장 디렉토리 생성 실패: " + path, e);
+        }
+
+        Connection opened = null;
+        Connection reader = null;
+        try {
+            opened = DriverManager.getConnection("jdbc:sqlite:" + path.toAbsolutePath());
+            try (Statement statement = opened.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("PRAGMA busy_timeout=5000");
+                for (String ddl : SCHEMA) {
+                    statement.execute(ddl);
+                }
+                addUrlColumnIfMissing(statement);
+            }
+            if (idBase > 0) {
+                seedSequences(opened, idBase);
+            }
+            opened.setAutoCommit(false);
+            this.connection = opened;
+            this.insertLedger = opened.prepareStatement(INSERT_LEDGER, Statement.RETURN_GENERATED_KEYS);
+            this.insertStep = opened.prepareStatement(INSERT_STEP);
+            this.insertProvisioned = opened.prepareStatement(INSERT_PROVISIONED);
+            this.insertSpilledBatch = opened.prepareStatement(INSERT_SPILLED_BATCH);
+            backfillProvisionedUids();
+            // 이전 실행이 보관 파일에 남긴 배치를 먼저 넣음 (넣지 못하면 원장을 열지 않음)
+            replaySpill();
+
+            reader = DriverManager.getConnection("jdbc:sqlite:" + path.toAbsolutePath());
+            try (Statement statement = reader.createStatement()) {
+                statement.execute("PRAGMA busy_timeout=5000");
+            }
+            this.readConnection = reader;
+        } catch (SQLException e) {
+            closeQuietly(reader);
+            closeQuietly(opened);
+            throw new LedgerException("원장 DB 열기 실패: " + path, e);
+        } catch (IOException e) {
+            closeQuietly(reader);
+            closeQuietly(opened);
+            throw new LedgerException("원장 보관 파일 읽기 실패: " + spillPath, e);
+        }
+
+        this.writerThread = new Thread(this::writeLoop, "ledger-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 큐에 넣고 바로 반환 (설정 스레드는 DB를 기다리지 않음)
+     */
+    @Override
+    public void record(ProvisioningRecord record) {
+        if (closed) {
+            failed.incrementAndGet();
+            errorListener.accept("원장이 닫힌 뒤 기록 요청: " + record.uid);
+            return;
+        }
+        queue.add(record);
+    }
+
+    @Override
+    public long loadProvisionedUids(long afterSequence, LongConsumer consumer) throws LedgerException {
+        synchronized (readConnection) {
+            return loadProvisionedUids(readConnection, afterSequence, consumer);
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> findProvisioned(long uidKey) throws LedgerException {
+        synchronized (readConnection) {
+            return findProvisioned(readConnection, uidKey);
+        }
+    }
+
+    /**
+     * 저장된 원장 행 수 (파티션 회전 기준)
+     */
+    public long storedRecords() throws LedgerException {
+        synchronized (readConnection) {
+            try (Statement statement = readConnection.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM provisioning_ledger")) {
+                return rows.next() ? rows.getLong(1) : 0;
+            } catch (SQLException e) {
+                throw new LedgerException("원장 행 수 조회 실패: " + path, e);
+            }
+        }
+    }
+
+    /**
+     * 읽기 전용 연결 (파일이 없으면 만들지 않고 실패)
+     */
+    static Connection openReadOnly(Path path) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("open_mode", Integer.toString(SQLITE_OPEN_READONLY));
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + path.toAbsolutePath(), properties);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout=5000");
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        return connection;
+    }
+
+    static long loadProvisionedUids(Connection connection, long afterSequence, LongConsumer consumer)
+            throws LedgerException {
+        try (PreparedStatement select = connection.prepareStatement(SELECT_PROVISIONED_SINCE)) {
+            select.setFetchSize(LOAD_FETCH_SIZE);
+            select.setLong(1, afterSequence);
+            long last = afterSequence;
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    last = rows.getLong(1);
+                    consumer.accept(rows.getLong(2));
+                }
+            }
+            return last;
+        } catch (SQLException e) {
+            throw new LedgerException("설정 완료 UID 조회 실패", e);
+        }
+    }
+
+    static Optional<LocalDateTime> findProvisioned(Connection connection, long uidKey) throws LedgerException {
+        try (PreparedStatement select = connection.prepareStatement(SELECT_PROVISIONED_AT)) {
+            select.setLong(1, uidKey);
+            try (ResultSet rows = select.executeQuery()) {
+                return rows.next()
+                    ? Optional.of(LocalDateTime.parse(rows.getString(1), TIMESTAMP_FORMAT))
+                    : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new LedgerException("설정 완료 UID 확인 실패", e);
+        }
+    }
+
+    /**
+     * 아직 DB에 넣지 않은 기록 수
+     */
+    public int pendingRecords() {
+        return queue.size();
+    }
+
+    public long writtenRecords() {
+        return written.get();
+    }
+
+    /**
+     * 원장에도 보관 파일에도 쓰지 못해 잃은 기록 수
+     */
+    public long failedRecords() {
+        return failed.get();
+    }
+
+    /**
+     * 재시도 후에도 넣지 못해 보관 파일에 남긴 기록 수
+     */
+    public long spilledRecords() {
+        return spilled.get();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private void writeLoop() {
+        List<ProvisioningRecord> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                if (batch.isEmpty()) {
+                    ProvisioningRecord first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (closed && queue.isEmpty()) {
+                            drainSpill();
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, MAX_BATCH - batch.size());
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // 닫기는 closed 플래그로 알리므로 인터럽트로 끝내지 않는다 (남은 배치는 다음 바퀴에 다시 넣음)
+            }
+        }
+    }
+
+    private void writeWithRetry(List<ProvisioningRecord> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeBatch(batch);
+                written.addAndGet(batch.size());
+                drainSpill();
+                return;
+            } catch (SQLException e) {
+                rollbackQuietly();
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    spill(batch, e);
+                    return;
+                }
+                Thread.sleep(RETRY_BACKOFF_MS * attempt);
+            }
+        }
+    }
+
+    /**
+     * 넣지 못한 배치를 보관 파일에 동기화해 남김
+     */
+    private void spill(List<ProvisioningRecord> batch, SQLException cause) {
+        try {
+            LedgerSpillFile.append(spillPath, batch);
+            spillPending = true;
+            spilled.addAndGet(batch.size());
+            errorListener.accept(String.format("원장 기록 실패 - %d건을 %s에 보관 (원장이 복구되면 넣음): %s",
+                batch.size(), spillPath, cause.getMessage()));
+        } catch (IOException e) {
+            failed.addAndGet(batch.size());
+            errorListener.accept(String.format("원장 기록 실패, 보관 파일에도 쓰지 못함 (%d건 유실): %s / %s",
+                batch.size(), cause.getMessage(), e.getMessage()));
+        }
+    }
+
+    /**
+     * 보관 파일의 배치를 원장에 넣어 봄 (기록 스레드, 실패하면 파일을 두고 다음에 다시)
+     */
+    private void drainSpill() {
+        if (!spillPending) {
+            return;
+        }
+        try {
+            replaySpill();
+            errorListener.accept("보관 파일의 원장 기록을 모두 넣었습니다: " + spillPath);
+        } catch (SQLException e) {
+            rollbackQuietly();
+        } catch (IOException e) {
+            errorListener.accept("원장 보관 파일 읽기 실패: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 보관 파일의 배치를 배치마다 한 트랜잭션으로 넣고 파일 삭제 (이미 넣은 배치 ID는 건너뜀)
+     */
+    private void replaySpill() throws SQLException, IOException {
+        List<LedgerSpillFile.Batch> batches = LedgerSpillFile.read(spillPath, errorListener);
+        for (LedgerSpillFile.Batch batch : batches) {
+            insertSpilledBatch.setString(1, batch.batchId);
+            if (insertSpilledBatch.executeUpdate() == 0) {
+                continue;
+            }
+            writeBatch(batch.records);
+            written.addAndGet(batch.records.size());
+        }
+        LedgerSpillFile.delete(spillPath);
+        spillPending = false;
+    }
+
+    /**
+     * 배치 하나를 한 트랜잭션으로 삽입
+     * 원장 행은 생성 키가 필요해 한 건씩, 단계 행은 JDBC 배치로 넣는다.
+     */
+    private void writeBatch(List<ProvisioningRecord> batch) throws SQLException {
+        for (ProvisioningRecord record : batch) {
+            long ledgerId = insertLedgerRow(record);
+            if (record.outcome == ProvisioningRecord.Outcome.SUCCESS && indexable(record.uid)) {
+                insertProvisioned.setLong(1, Tag.uidKey(HexUtils.hexToBytes(record.uid)));
+                insertProvisioned.setLong(2, ledgerId);
+                insertProvisioned.addBatch();
+            }
+            List<ProvisioningRecord.StepTiming> steps = record.steps;
+            for (int i = 0; i < steps.size(); i++) {
+                ProvisioningRecord.StepTiming step = steps.get(i);
+                insertStep.setLong(1, ledgerId);
+                insertStep.setInt(2, i);
+                insertStep.setString(3, step.name);
+                insertStep.setInt(4, step.success ? 1 : 0);
+                insertStep.setLong(5, toMicros(step.duration));
+                insertStep.addBatch();
+            }
+        }
+        insertStep.executeBatch();
+        insertProvisioned.executeBatch();
+        connection.commit();
+    }
+
+    /**
+     * 새 DB의 AUTOINCREMENT 시작값 지정 (이미 행이 있던 DB는 그대로)
+     */
+    private static void seedSequences(Connection connection, long idBase) throws SQLException {
+        try (PreparedStatement seed = connection.prepareStatement(SEED_SEQUENCE)) {
+            for (String table : new String[] {"provisioning_ledger", "provisioned_uid"}) {
+                seed.setString(1, table);
+                seed.setLong(2, idBase);
+                seed.setString(3, table);
+                seed.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * URL 컬럼이 생기기 전의 원장이면 컬럼 추가 (기존 행은 NULL)
+     */
+    private static void addUrlColumnIfMissing(Statement statement) throws SQLException {
+        try (ResultSet columns = statement.executeQuery("PRAGMA table_info(provisioning_ledger)")) {
+            while (columns.next()) {
+                if ("url".equals(columns.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        statement.execute("ALTER TABLE provisioning_ledger ADD COLUMN url TEXT");
+    }
+
+    /**
+     * UID 색인이 생기기 전의 원장이면 기존 완료 기록으로 한 번 채움
+     */
+    private void backfillProvisionedUids() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet indexed = statement.executeQuery("SELECT EXISTS (SELECT 1 FROM provisioned_uid)")) {
+                if (indexed.next() && indexed.getBoolean(1)) {
+                    return;
+                }
+            }
+            try (ResultSet rows = statement.executeQuery("SELECT id, uid FROM provisioning_ledger "
+                    + "WHERE result = 'SUCCESS' ORDER BY id")) {
+                while (rows.next()) {
+                    if (!indexable(rows.getString(2))) {
+                        continue;
+                    }
+                    insertProvisioned.setLong(1, Tag.uidKey(HexUtils.hexToBytes(rows.getString(2))));
+                    insertProvisioned.setLong(2, rows.getLong(1));
+                    insertProvisioned.addBatch();
+                }
+            }
+            insertProvisioned.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private long insertLedgerRow(ProvisioningRecord record) throws SQLException {
+        insertLedger.setString(1, record.recordedAt.format(TIMESTAMP_FORMAT));
+        insertLedger.setString(2, record.readerName);
+        insertLedger.setString(3, record.uid);
+        insertLedger.setString(4, record.outcome.name());
+        insertLedger.setString(5, record.finalState);
+        insertLedger.setString(6, record.profileName);
+        insertLedger.setString(7, record.url);
+        if (record.keyVersion != null) {
+            insertLedger.setInt(8, record.keyVersion);
+        } else {
+            insertLedger.setNull(8, Types.INTEGER);
+        }
+        insertLedger.setString(9, record.statusWords.isEmpty() ? null : record.statusWords.stream()
+            .map(statusWord -> String.format("%04X", statusWord))
+            .collect(Collectors.joining(",")));
+        insertLedger.setLong(10, toMicros(record.duration));
+        insertLedger.setString(11, record.message);
+        insertLedger.executeUpdate();
+
+        try (ResultSet keys = insertLedger.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("원장 행 ID를 받지 못했습니다: " + record.uid);
+            }
+            return keys.getLong(1);
+        }
+    }
+
+    /**
+     * UID 키로 압축할 수 있는 UID (1~7바이트)
+     */
+    private static boolean indexable(String uid) {
+        return uid != null && !uid.isEmpty() && uid.length() <= 14 && uid.length() % 2 == 0;
+    }
+
+    private static long toMicros(Duration duration) {
+        return duration != null ? duration.toNanos() / 1_000 : 0;
+    }
+
+    private void rollbackQuietly() {
+        try {
+            insertStep.clearBatch();
+            insertProvisioned.clearBatch();
+            connection.rollback();
+        } catch (SQLException ignored) {
+            // 다음 시도에서 같은 오류가 다시 보고됨
+        }
+    }
+
+    /**
+     * 큐에 남은 기록을 모두 넣은 뒤 닫기
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            insertLedger.close();
+            insertStep.close();
+            insertProvisioned.close();
+            insertSpilledBatch.close();
+        } catch (SQLException ignored) {
+            // 연결을 닫으면 함께 정리됨
+        }
+        synchronized (readConnection) {
+            closeQuietly(readConnection);
+        }
+        closeQuietly(connection);
+    }
+
+    static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // 닫는 중 오류는 무시
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ntagwriter.infrastructure.persistence;
+
+/**
+ * 블록 블룸 필터 (long 키 전용)
+ * 키 하나의 비트를 모두 512비트(캐시 라인 하나) 블록 안에 두어, 조회가 메모리 접근 한 번으로 끝난다.
+ * 키당 약 10비트, 해시 6개로 거짓 양성은 1% 안팎이다. 없는 키는 거의 항상 여기서 걸러진다.
+ * 동기화하지 않는다 - 호출하는 쪽이 잠근다.
+ */
+final class UidBloomFilter {
+
+    static final int BLOCK_LONGS = 8;
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 6;
+
+    private final long[] bits;
+    private final int blockMask;
+    private final int capacity;
+
+    /**
+     * @param capacity 거짓 양성률을 지킬 수 있는 키 수 (넘으면 다시 만들어야 함)
+     */
+    UidBloomFilter(int capacity) {
+        this(new long[blockCount(capacity) * BLOCK_LONGS], capacity);
+    }
+
+    /**
+     * 스냅샷에서 읽은 비트로 복원
+     */
+    UidBloomFilter(long[] bits, int capacity) {
+        int blocks = bits.length / BLOCK_LONGS;
+        if (blocks == 0 || Integer.bitCount(blocks) != 1 || bits.length % BLOCK_LONGS != 0) {
+            throw new IllegalArgumentException("블룸 필터 크기가 잘못되었습니다: " + bits.length);
+        }
+        this.bits = bits;
+        this.blockMask = blocks - 1;
+        this.capacity = capacity;
+    }
+
+    boolean mightContain(long key) {
+        long hash = mix(key);
+        int base = block(hash);
+        long probes = mix(hash);
+        for (int i = 0; i < HASHES; i++, probes >>>= 9) {
+            int bit = (int) probes & 511;
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void add(long key) {
+        long hash = mix(key);
+        int base = block(hash);
+        long probes = mix(hash);
+        for (int i = 0; i < HASHES; i++, probes >>>= 9) {
+            int bit = (int) probes & 511;
+            bits[base + (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 스냅샷 저장용 내부 배열 (복사하지 않음)
+     */
+    long[] bits() {
+        return bits;
+    }
+
+    private int block(long hash) {
+        return ((int) (hash >>> 32) & blockMask) * BLOCK_LONGS;
+    }
+
+    /**
+     * 64비트 혼합 함수 (MurmurHash3 fmix64) - UID는 앞자리가 제조사/릴 단위로 겹치므로 비트를 고르게 섞는다
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int blockCount(int capacity) {
+        long blocks = ((long) Math.max(capacity, 1) * BITS_PER_KEY + 511) / 512;
+        return Integer.highestOneBit((int) Math.min(blocks, 1 << 26) * 2 - 1);
+    }
+}
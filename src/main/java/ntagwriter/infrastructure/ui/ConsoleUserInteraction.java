@@ -1,10 +1,19 @@
 package ntagwriter.infrastructure.ui;
 
+import ntagwriter.application.workflow.LatencyHistogram;
+import ntagwriter.application.workflow.ThroughputMetrics;
 import ntagwriter.domain.port.UserInteractionPort;
+import ntagwriter.util.ConsoleHelper;
 import ntagwriter.util.HexUtils;
 
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * 콘솔 기반 사용자 인터랙션 구현
@@ -47,28 +56,57 @@ public class ConsoleUserInteraction implements UserInteractionPort {
     private static final int HEX_BYTES_PER_LINE = 16;
     private static final int HEX_ADDRESS_WIDTH = 4;
 
+    // 대시보드 설정
+    public static final long DEFAULT_DASHBOARD_REFRESH_MS = 500;
+    private static final String ANSI_CLEAR_LINE = "\u001B[2K";
+    private static final String ANSI_CURSOR_UP = "\u001B[%dA";
+    private static final DateTimeFormatter DASHBOARD_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // 대시보드 표시 중에는 이벤트 한 줄 출력을 멈추고 패널만 고정 주기로 다시 그린다
+    private volatile boolean dashboardActive;
+    private volatile String lastErrorMessage;
+    private ScheduledExecutorService dashboardScheduler;
+    private Supplier<List<ThroughputMetrics>> dashboardSources = List::of;
+    private int renderedLines;
+
     @Override
     public void showInfo(String message) {
+        if (dashboardActive) {
+            return;
+        }
         System.out.println(ANSI_CYAN + INFO_SYMBOL + ANSI_RESET + message);
     }
 
     @Override
     public void showWarning(String message) {
+        if (dashboardActive) {
+            return;
+        }
         System.out.println(ANSI_YELLOW + WARNING_SYMBOL + ANSI_RESET + message);
     }
 
     @Override
     public void showError(String message) {
+        if (dashboardActive) {
+            lastErrorMessage = message;
+            return;
+        }
         System.out.println(ANSI_RED + ERROR_SYMBOL + ANSI_RESET + message);
     }
 
     @Override
     public void showSuccess(String message) {
+        if (dashboardActive) {
+            return;
+        }
         System.out.println(ANSI_GREEN + SUCCESS_SYMBOL + ANSI_RESET + message);
     }
 
     @Override
     public void showSection(String title) {
+        if (dashboardActive) {
+            return;
+        }
         System.out.println();
         System.out.println(ANSI_BLUE + SECTION_BORDER + title + " " + SECTION_BORDER + ANSI_RESET);
         System.out.println();
@@ -76,6 +114,9 @@ public class ConsoleUserInteraction implements UserInteractionPort {
 
     @Override
     public void showProgress(int current, int total, String description) {
+        if (dashboardActive) {
+            return;
+        }
         int percentage = (current * PERCENTAGE_MAX) / total;
         int filledBarLength = (PROGRESS_BAR_LENGTH * current) / total;
 
@@ -117,6 +158,24 @@ public class ConsoleUserInteraction implements UserInteractionPort {
         return scanner.nextLine();
     }
 
+    /**
+     * 프롬프트 없이 한 줄 입력 대기 (대시보드 표시 중 명령용)
+     *
+     * @return 입력한 줄 (앞뒤 공백 제거), 입력이 닫혔으면 null
+     */
+    public String awaitLine() {
+        return scanner.hasNextLine() ? scanner.nextLine().trim() : null;
+    }
+
+    /**
+     * 프롬프트 없이 Enter 입력 대기 (대시보드 표시 중 종료 신호용, 입력이 닫혀도 반환)
+     */
+    public void awaitEnter() {
+        if (scanner.hasNextLine()) {
+            scanner.nextLine();
+        }
+    }
+
     @Override
     public boolean requestConfirmation(String prompt) {
         while (true) {
@@ -181,7 +240,7 @@ public class ConsoleUserInteraction implements UserInteractionPort {
 
     @Override
     public void showTable(List<String> headers, List<List<String>> rows) {
-        if (headers.isEmpty() || rows.isEmpty()) {
+        if (dashboardActive || headers.isEmpty() || rows.isEmpty()) {
             return;
         }
 
@@ -247,16 +306,123 @@ public class ConsoleUserInteraction implements UserInteractionPort {
 
     @Override
     public void beginTask(String taskName) {
+        if (dashboardActive) {
+            return;
+        }
         System.out.println();
         System.out.println(ANSI_BLUE + TASK_START_SYMBOL + taskName + ANSI_RESET);
     }
 
     @Override
     public void endTask(String taskName, boolean success) {
+        if (dashboardActive) {
+            return;
+        }
         if (success) {
             System.out.println(ANSI_GREEN + SUCCESS_SYMBOL + taskName + " 완료" + ANSI_RESET);
         } else {
             System.out.println(ANSI_RED + ERROR_SYMBOL + taskName + " 실패" + ANSI_RESET);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 고정 주기 대시보드 시작
+     * 리더기별 tags/min, 최근 성공률, 마지막 오류 SW, 단계별 p50/p95를 제자리에서 갱신한다.
+     * 지표는 락 없는 카운터에서 읽기만 하므로 설정 스레드를 막지 않는다.
+     *
+     * @param sources   리더기별 지표
+     * @param refreshMs 갱신 주기 (밀리초)
+     */
+    public void startDashboard(List<ThroughputMetrics> sources, long refreshMs) {
+        List<ThroughputMetrics> fixed = List.copyOf(sources);
+        startDashboard(() -> fixed, refreshMs);
+    }
+
+    /**
+     * 리더기가 실행 중에 늘거나 줄 수 있는 대시보드 시작 (그릴 때마다 목록을 다시 읽음)
+     *
+     * @param sources   현재 리더기별 지표 목록
+     * @param refreshMs 갱신 주기 (밀리초)
+     */
+    public synchronized void startDashboard(Supplier<List<ThroughputMetrics>> sources, long refreshMs) {
+        if (dashboardActive) {
+            return;
+        }
+        this.dashboardSources = sources;
+        this.renderedLines = 0;
+        this.dashboardActive = true;
+        ConsoleHelper.setQuiet(true);
+
+        dashboardScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dashboardScheduler.scheduleAtFixedRate(this::renderDashboard, 0, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 대시보드 종료 (마지막 상태를 한 번 더 그린 뒤 일반 출력으로 복귀)
+     */
+    public synchronized void stopDashboard() {
+        if (!dashboardActive) {
+            return;
+        }
+        dashboardScheduler.shutdownNow();
+        try {
+            dashboardScheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        renderDashboard();
+        dashboardActive = false;
+        ConsoleHelper.setQuiet(false);
+    }
+
+    private void renderDashboard() {
+        StringBuilder frame = new StringBuilder();
+        if (renderedLines > 0) {
+            frame.append(String.format(ANSI_CURSOR_UP, renderedLines)).append('\r');
+        }
+
+        int lines = 0;
+        lines += appendLine(frame, ANSI_BLUE + SECTION_BORDER + "NTAG424 설정 현황 "
+            + LocalTime.now().format(DASHBOARD_TIME_FORMAT) + " " + SECTION_BORDER + ANSI_RESET);
+
+        for (ThroughputMetrics metrics : dashboardSources.get()) {
+            int statusWord = metrics.lastErrorStatusWord();
+            lines += appendLine(frame, String.format(
+                "%s  %.1f tags/min | 처리 %d (성공 %d, 건너뜀 %d, 실패 %d) | 최근 성공률 %.1f%% | 마지막 오류 SW %s",
+                metrics.readerName(), metrics.tagsPerMinute(), metrics.processed(), metrics.succeeded(),
+                metrics.skipped(), metrics.failed(), metrics.recentSuccessRatio() * 100,
+                statusWord == 0 ? "-" : String.format("%04X", statusWord)));
+
+            for (String step : metrics.stepNames()) {
+                LatencyHistogram histogram = metrics.stepLatency(step);
+                lines += appendLine(frame, String.format("  %-14s p50 %8.1f ms   p95 %8.1f ms",
+                    step, histogram.percentileNanos(50) / 1_000_000.0, histogram.percentileNanos(95) / 1_000_000.0));
+            }
+        }
+
+        String error = lastErrorMessage;
+        lines += appendLine(frame, ANSI_RED + ERROR_SYMBOL + ANSI_RESET + (error != null ? error : "-"));
+
+        // 이전 프레임이 더 길었으면 남은 줄 지우기
+        for (int i = lines; i < renderedLines; i++) {
+            appendLine(frame, "");
+        }
+        int totalLines = Math.max(lines, renderedLines);
+        if (totalLines > lines) {
+            frame.append(String.format(ANSI_CURSOR_UP, totalLines - lines));
+        }
+        renderedLines = lines;
+
+        System.out.print(frame);
+        System.out.flush();
+    }
+
+    private static int appendLine(StringBuilder frame, String line) {
+        frame.append(ANSI_CLEAR_LINE).append(line).append('\n');
+        return 1;
+    }
+}
@@ -0,0 +1,77 @@
+package ntagwriter.infrastructure.ui;
+
+import ntagwriter.domain.port.UserInteractionPort;
+
+import java.util.List;
+
+/**
+ * 출력 없는 사용자 인터랙션 구현 (벤치마크 등 무인 실행용)
+ * 메시지는 버리고, 입력 요청에는 기본값/확인/첫 번째 선택지로 답한다.
+ */
+public class SilentUserInteraction implements UserInteractionPort {
+
+    @Override
+    public void showInfo(String message) {
+    }
+
+    @Override
+    public void showWarning(String message) {
+    }
+
+    @Override
+    public void showError(String message) {
+    }
+
+    @Override
+    public void showSuccess(String message) {
+    }
+
+    @Override
+    public void showSection(String title) {
+    }
+
+    @Override
+    public void showProgress(int current, int total, String description) {
+    }
+
+    @Override
+    public String requestInput(String prompt) {
+        return "";
+    }
+
+    @Override
+    public String requestInput(String prompt, String defaultValue) {
+        return defaultValue;
+    }
+
+    @Override
+    public String requestPassword(String prompt) {
+        return "";
+    }
+
+    @Override
+    public boolean requestConfirmation(String prompt) {
+        return true;
+    }
+
+    @Override
+    public int requestChoice(String prompt, List<String> options) {
+        return 0;
+    }
+
+    @Override
+    public void showHexData(String label, byte[] data) {
+    }
+
+    @Override
+    public void showTable(List<String> headers, List<List<String>> rows) {
+    }
+
+    @Override
+    public void beginTask(String taskName) {
+    }
+
+    @Override
+    public void endTask(String taskName, boolean success) {
+    }
+}
@@ -1,5 +1,6 @@
 package ntagwriter.reader;
 
+import ntagwriter.comm.LinkParameters;
 import ntagwriter.util.ConsoleHelper;
 import ntagwriter.util.HexUtils;
 
@@ -14,10 +15,15 @@ import java.util.List;
 public class IdentivReader implements NfcReaderStrategy {
 
     private static final String READER_NAME_PATTERN = "uTrust 3700";
+    private static final int READER_FRAME_SIZE = 256; // uTrust 3700 F FSDI=8
+
+    // PC/SC GET DATA (P1=01: ATS 또는 historical bytes)
+    private static final byte[] GET_ATS_COMMAND = {(byte) 0xFF, (byte) 0xCA, 0x01, 0x00, 0x00};
 
     private CardTerminal terminal;
     private Card card;
     private CardChannel channel;
+    private LinkParameters linkParameters = LinkParameters.DEFAULT;
 
     @Override
     public void connect() throws ReaderException {
@@ -56,6 +62,7 @@ public class IdentivReader implements NfcReaderStrategy {
             // 카드 연결
             card = terminal.connect("*");
             channel = card.getBasicChannel();
+            linkParameters = negotiateLinkParameters();
 
         } catch (CardException e) {
             throw new ReaderException("리더기 연결 실패: " + e.getMessage(), e);
@@ -70,7 +77,8 @@ public class IdentivReader implements NfcReaderStrategy {
             ResponseAPDU response = channel.transmit(new CommandAPDU(getUidCommand));
 
             if (response.getSW() != 0x9000) {
-                throw new ReaderException("UID 읽기 실패: " + String.format("%04X", response.getSW()));
+                throw new ReaderException("UID 읽기 실패: " + String.format("%04X", response.getSW()),
+                    response.getSW());
             }
 
             return response.getData();
@@ -80,6 +88,25 @@ public class IdentivReader implements NfcReaderStrategy {
         }
     }
 
+    /**
+     * ATR historical bytes와 (리더기가 지원하면) ATS의 FSCI로 링크 파라미터 결정
+     */
+    private LinkParameters negotiateLinkParameters() throws CardException {
+        LinkParameters parameters = LinkParameters.fromAtr(card.getATR().getBytes())
+                .withReaderFrameSize(READER_FRAME_SIZE);
+
+        ResponseAPDU response = channel.transmit(new CommandAPDU(GET_ATS_COMMAND));
+        if (response.getSW() == 0x9000) {
+            parameters = parameters.withAts(response.getData());
+        }
+        return parameters;
+    }
+
+    @Override
+    public LinkParameters getLinkParameters() {
+        return linkParameters;
+    }
+
     @Override
     public ResponseAPDU sendCommand(byte[] apdu) throws ReaderException {
         if (channel == null) {
@@ -109,6 +136,7 @@ public class IdentivReader implements NfcReaderStrategy {
                 card = null;
             }
             channel = null;
+            linkParameters = LinkParameters.DEFAULT;
             terminal = null;
         } catch (CardException e) {
             System.err.println("리더기 연결 해제 중 오류: " + e.getMessage());
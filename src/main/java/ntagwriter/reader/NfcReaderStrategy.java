@@ -1,5 +1,7 @@
 package ntagwriter.reader;
 
+import ntagwriter.comm.LinkParameters;
+
 import javax.smartcardio.ResponseAPDU;
 
 /**
@@ -50,4 +52,13 @@ public interface NfcReaderStrategy {
      * @return 리더기 이름
      */
     String getReaderName();
+
+    /**
+     * 연결된 태그와의 링크 파라미터 (프레임 크기 기반 청크 분할용)
+     *
+     * @return 링크 파라미터, 알 수 없으면 기본값
+     */
+    default LinkParameters getLinkParameters() {
+        return LinkParameters.DEFAULT;
+    }
 }
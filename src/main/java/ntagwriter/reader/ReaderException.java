@@ -2,18 +2,44 @@ package ntagwriter.reader;
 
 /**
  * NFC 리더기 관련 예외
+ * 태그가 오류 상태 워드로 응답한 경우 그 SW를 함께 담아 재시도 정책이 실패 종류를 구분할 수 있게 한다.
  */
 public class ReaderException extends Exception {
 
+    // 태그 응답 SW (SW1 << 8 | SW2), 응답 없이 실패했으면 0
+    private final int statusWord;
+
     public ReaderException(String message) {
+        this(message, 0);
+    }
+
+    /**
+     * @param message    오류 메시지
+     * @param statusWord 태그가 돌려준 실패 상태 워드
+     */
+    public ReaderException(String message, int statusWord) {
         super(message);
+        this.statusWord = statusWord;
     }
 
     public ReaderException(String message, Throwable cause) {
         super(message, cause);
+        this.statusWord = 0;
     }
 
     public ReaderException(Throwable cause) {
         super(cause);
+        this.statusWord = 0;
+    }
+
+    /**
+     * @return 태그 응답 SW, 응답 없이 실패했으면 0
+     */
+    public int getStatusWord() {
+        return statusWord;
+    }
+
+    public boolean hasStatusWord() {
+        return statusWord != 0;
     }
 }
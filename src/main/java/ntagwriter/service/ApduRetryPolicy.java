@@ -0,0 +1,184 @@
+package ntagwriter.service;
+
+import ntagwriter.reader.ApduStatusWord;
+import ntagwriter.reader.ReaderException;
+
+import javax.smartcardio.CardException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 상태 워드 기반 단계 재시도 정책
+ * 실패를 종류별로 나눠 종류마다 다른 대기 시간/횟수로 재시도한다.
+ *
+ * - 일시적 RF 손실: 응답 자체가 없거나(transmit 실패) 체인이 끊긴 경우(91CA). 수 ms 뒤 바로 재시도하고,
+ *   링크가 끊겼던 경우 태그가 리셋되어 세션이 사라졌으므로 재인증이 필요하다.
+ * - 태그 측 지연: 인증 실패가 누적된 태그가 91AD로 응답하는 경우. 태그가 정한 지연이 지날 때까지 길게 기다린다.
+ * - 치명적 오류: 인증/무결성/권한/파라미터 오류 등. 같은 명령을 반복해도 결과가 같으므로 자동 재시도하지 않는다.
+ */
+public final class ApduRetryPolicy {
+
+    /**
+     * 실패 종류
+     */
+    public enum FailureClass {
+        TRANSIENT("일시적 RF 손실"),
+        TAG_DELAY("태그 인증 지연"),
+        FATAL("치명적 오류");
+
+        public final String description;
+
+        FailureClass(String description) {
+            this.description = description;
+        }
+    }
+
+    public static final ApduRetryPolicy DEFAULT = new ApduRetryPolicy(new EnumMap<>(Map.of(
+        FailureClass.TRANSIENT, new Rule(3, Duration.ofMillis(5), Duration.ofMillis(40)),
+        FailureClass.TAG_DELAY, new Rule(4, Duration.ofMillis(100), Duration.ofSeconds(1)),
+        FailureClass.FATAL, new Rule(0, Duration.ZERO, Duration.ZERO)
+    )));
+
+    private final Map<FailureClass, Rule> rules;
+
+    private ApduRetryPolicy(Map<FailureClass, Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * 한 종류의 규칙만 바꾼 정책
+     *
+     * @param failureClass   실패 종류
+     * @param maxRetries     자동 재시도 횟수 (0이면 재시도 안 함)
+     * @param initialBackoff 첫 재시도 전 대기 (이후 두 배씩 증가)
+     * @param maxBackoff     대기 상한
+     */
+    public ApduRetryPolicy withRule(FailureClass failureClass, int maxRetries,
+                                    Duration initialBackoff, Duration maxBackoff) {
+        if (maxRetries < 0 || initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("재시도 횟수/대기 시간이 잘못되었습니다");
+        }
+        Map<FailureClass, Rule> changed = new EnumMap<>(rules);
+        changed.put(failureClass, new Rule(maxRetries, initialBackoff, maxBackoff));
+        return new ApduRetryPolicy(changed);
+    }
+
+    /**
+     * 실패 분류
+     * 상태 워드가 있으면 그것으로, 없으면 원인에 카드 통신 예외가 있을 때만 RF 손실로 본다
+     * (입력 검증 실패 등 태그와 무관한 예외는 재시도해도 소용없으므로 치명적 오류).
+     */
+    public static FailureClass classify(Throwable failure) {
+        if (failure instanceof ReaderException readerException && readerException.hasStatusWord()) {
+            int statusWord = readerException.getStatusWord();
+            if (ApduStatusWord.AUTHENTICATION_DELAY.matches(statusWord)) {
+                return FailureClass.TAG_DELAY;
+            }
+            if (ApduStatusWord.COMMAND_ABORTED.matches(statusWord)) {
+                return FailureClass.TRANSIENT;
+            }
+            return FailureClass.FATAL;
+        }
+        return isLinkLoss(failure) ? FailureClass.TRANSIENT : FailureClass.FATAL;
+    }
+
+    private static boolean isLinkLoss(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CardException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 단계 하나의 재시도 추적 시작 (종류별 횟수는 단계마다 새로 센다)
+     */
+    public Attempts start() {
+        return new Attempts();
+    }
+
+    /**
+     * 단계 하나의 종류별 재시도 횟수
+     */
+    public final class Attempts {
+
+        private final Map<FailureClass, Integer> retries = new EnumMap<>(FailureClass.class);
+
+        private Attempts() {
+        }
+
+        /**
+         * 실패 후 다음 행동 결정
+         *
+         * @param failure 단계 실행 중 발생한 예외
+         * @return 재시도 여부/대기 시간/재인증 필요 여부
+         */
+        public Decision next(Throwable failure) {
+            FailureClass failureClass = classify(failure);
+            Rule rule = rules.get(failureClass);
+            int used = retries.getOrDefault(failureClass, 0);
+            if (used >= rule.maxRetries) {
+                return new Decision(failureClass, false, Duration.ZERO, false, used);
+            }
+            retries.put(failureClass, used + 1);
+
+            // 응답 없이 링크가 끊겼으면 태그가 리셋되어 선택/인증 상태를 잃었다
+            boolean linkLost = failureClass == FailureClass.TRANSIENT
+                && !(failure instanceof ReaderException readerException && readerException.hasStatusWord());
+            return new Decision(failureClass, true, rule.backoff(used), linkLost, used + 1);
+        }
+
+        /**
+         * 사용자가 수동 재시도를 고르면 횟수를 초기화
+         */
+        public void reset() {
+            retries.clear();
+        }
+    }
+
+    /**
+     * 재시도 결정
+     */
+    public static final class Decision {
+
+        public final FailureClass failureClass;
+        public final boolean retry;
+        public final Duration backoff;
+        // 세션이 필요한 단계면 재시도 전에 선택/인증을 다시 해야 함
+        public final boolean reauthenticate;
+        // 이 종류로 몇 번째 재시도인지
+        public final int attempt;
+
+        private Decision(FailureClass failureClass, boolean retry, Duration backoff, boolean reauthenticate,
+                         int attempt) {
+            this.failureClass = failureClass;
+            this.retry = retry;
+            this.backoff = backoff;
+            this.reauthenticate = reauthenticate;
+            this.attempt = attempt;
+        }
+    }
+
+    private static final class Rule {
+
+        private final int maxRetries;
+        private final Duration initialBackoff;
+        private final Duration maxBackoff;
+
+        private Rule(int maxRetries, Duration initialBackoff, Duration maxBackoff) {
+            this.maxRetries = maxRetries;
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+        }
+
+        /**
+         * 지수 백오프 (initial × 2^n, 상한 적용)
+         */
+        private Duration backoff(int retriesSoFar) {
+            Duration backoff = initialBackoff.multipliedBy(1L << Math.min(retriesSoFar, 16));
+            return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ntagwriter.service;
+
+import ntagwriter.domain.FeedRow;
+import ntagwriter.domain.config.ProvisioningProfile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 컴파일된 설정 프로필
+ * 프로필 로드 시 NDEF 이미지, SDM 미러 오프셋, File Settings 평문을 한 번만 만들어 두고
+ * 태그마다 그대로 재사용한다 (태그당 직렬화/오프셋 계산 없음).
+ *
+ * 오프셋은 NDEF 파일(NLEN 포함) 기준으로 자리 표시자 위치에서 계산하므로
+ * URL이 바뀌어도 손으로 43/81/81 같은 값을 다시 셀 필요가 없다.
+ *
+ * 태그별 피드를 쓰는 경우 행마다 forRow()로 URL만 바꿔 다시 컴파일한다 (자료 파이프라인에서 미리 수행).
+ */
+public final class CompiledProfile {
+
+    // NTAG424 DNA NDEF 파일(File 02) 크기
+    public static final int NDEF_FILE_SIZE = 256;
+
+    // 피드 행의 url 컬럼이 있으면 URL 전체를 대체, 없으면 baseUrl의 {컬럼명}을 값으로 치환
+    public static final String URL_COLUMN = "url";
+    private static final int SHORT_RECORD_MAX_PAYLOAD = 255;
+
+    private final ProvisioningProfile profile;
+    private final byte[] ndefImage;
+    private final byte[] fileSettings;
+    private final int piccDataOffset;
+    private final int sdmMacInputOffset;
+    private final int sdmMacOffset;
+
+    private CompiledProfile(ProvisioningProfile profile, byte[] ndefImage, byte[] fileSettings,
+                            int piccDataOffset, int sdmMacInputOffset, int sdmMacOffset) {
+        this.profile = profile;
+        this.ndefImage = ndefImage;
+        this.fileSettings = fileSettings;
+        this.piccDataOffset = piccDataOffset;
+        this.sdmMacInputOffset = sdmMacInputOffset;
+        this.sdmMacOffset = sdmMacOffset;
+    }
+
+    /**
+     * 프로필 컴파일
+     *
+     * @throws IllegalArgumentException NDEF 파일 크기 초과, 명시된 오프셋과 계산값 불일치
+     */
+    public static CompiledProfile compile(ProvisioningProfile profile) {
+        String url = profile.getBaseUrl();
+        // URI 식별 코드(1바이트) + https:// 를 뺀 URL
+        int payloadLength = 1 + url.length() - "https://".length();
+        if (payloadLength > SHORT_RECORD_MAX_PAYLOAD) {
+            throw new IllegalArgumentException("URL이 너무 깁니다 (NDEF 페이로드 " + payloadLength + "바이트)");
+        }
+
+        byte[] ndefImage = NdefWriteService.createNdefMessage(url);
+        if (ndefImage.length > NDEF_FILE_SIZE) {
+            throw new IllegalArgumentException("NDEF 이미지가 파일 크기를 넘습니다: " + ndefImage.length);
+        }
+
+        int piccDataOffset = valueOffset(ndefImage, ProvisioningProfile.ENC_PARAMETER);
+        int sdmMacOffset = valueOffset(ndefImage, ProvisioningProfile.CMAC_PARAMETER);
+        // MAC 입력 범위를 따로 두지 않으면 빈 입력(MAC 위치와 같음)
+        int sdmMacInputOffset = profile.getSdmMacInputOffset() != null
+            ? profile.getSdmMacInputOffset() : sdmMacOffset;
+
+        checkOffset("PICC Data", profile.getPiccDataOffset(), piccDataOffset);
+        checkOffset("SDM MAC", profile.getSdmMacOffset(), sdmMacOffset);
+        if (sdmMacInputOffset < 0 || sdmMacInputOffset > sdmMacOffset) {
+            throw new IllegalArgumentException(
+                "SDM MAC Input 오프셋은 0 이상 SDM MAC 오프셋(" + sdmMacOffset + ") 이하여야 합니다: " + sdmMacInputOffset);
+        }
+
+        byte[] fileSettings = SdmConfigurationService.buildFileSettingsData(
+            profile.getAccessRightsBytes(),
+            profile.getSdmAccessRightsBytes(),
+            piccDataOffset,
+            sdmMacInputOffset,
+            sdmMacOffset
+        );
+        return new CompiledProfile(profile, ndefImage, fileSettings,
+            piccDataOffset, sdmMacInputOffset, sdmMacOffset);
+    }
+
+    /**
+     * 피드 행을 적용한 프로필
+     *
+     * @throws IllegalArgumentException 행 적용 후 URL이 유효하지 않은 경우
+     */
+    public CompiledProfile forRow(FeedRow row) {
+        String url = row.value(URL_COLUMN);
+        if (url == null || url.isEmpty()) {
+            url = profile.getBaseUrl();
+            for (Map.Entry<String, String> column : row.values().entrySet()) {
+                url = url.replace("{" + column.getKey() + "}", column.getValue());
+            }
+        }
+        if (url.indexOf('{') >= 0) {
+            throw new IllegalArgumentException("행 " + row.rowNumber() + ": 치환되지 않은 URL 자리 표시자 - " + url);
+        }
+        return compile(profile.withBaseUrl(url));
+    }
+
+    /**
+     * 이미지 안에서 "이름=" 다음 값이 시작하는 위치 (NDEF 파일 오프셋)
+     */
+    private static int valueOffset(byte[] image, String parameter) {
+        byte[] needle = parameter.getBytes(StandardCharsets.US_ASCII);
+        outer:
+        for (int i = 0; i <= image.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (image[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i + needle.length;
+        }
+        throw new IllegalArgumentException("NDEF 이미지에서 " + parameter + " 위치를 찾을 수 없습니다");
+    }
+
+    private static void checkOffset(String label, Integer declared, int computed) {
+        if (declared != null && declared != computed) {
+            throw new IllegalArgumentException(
+                label + " 오프셋 불일치: 프로필 " + declared + ", URL 기준 계산값 " + computed);
+        }
+    }
+
+    public ProvisioningProfile profile() {
+        return profile;
+    }
+
+    public String name() {
+        return profile.getName();
+    }
+
+    public String getBaseUrl() {
+        return profile.getBaseUrl();
+    }
+
+    public int getPiccDataOffset() {
+        return piccDataOffset;
+    }
+
+    public int getSdmMacInputOffset() {
+        return sdmMacInputOffset;
+    }
+
+    public int getSdmMacOffset() {
+        return sdmMacOffset;
+    }
+
+    public byte[] ndefImage() {
+        return ndefImage.clone();
+    }
+
+    public byte[] fileSettings() {
+        return fileSettings.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CompiledProfile{name=%s, ndef=%d bytes, offsets=%d/%d/%d}",
+            name(), ndefImage.length, piccDataOffset, sdmMacInputOffset, sdmMacOffset);
+    }
+}
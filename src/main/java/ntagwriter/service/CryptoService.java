@@ -2,6 +2,7 @@ package ntagwriter.service;
 
 import ntagwriter.crypto.AesEncryption;
 import ntagwriter.crypto.CmacCalculator;
+import ntagwriter.crypto.KeyHandle;
 
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
@@ -41,6 +42,13 @@ public class CryptoService {
         return CmacCalculator.calculateCmac(key, data, length);
     }
 
+    /**
+     * CMAC 계산 (힙 밖 키, 키 스케줄 재사용)
+     */
+    public byte[] calculateCmac(KeyHandle key, byte[] data) {
+        return key.cmac(data);
+    }
+
     /**
      * CMAC 검증
      */
@@ -62,6 +70,13 @@ public class CryptoService {
         return AesEncryption.encryptECB(key, data);
     }
 
+    /**
+     * AES ECB 암호화 (힙 밖 키)
+     */
+    public byte[] encryptECB(KeyHandle key, byte[] data) {
+        return key.encryptECB(data);
+    }
+
     /**
      * AES ECB 복호화
      */
@@ -76,6 +91,13 @@ public class CryptoService {
         return AesEncryption.encryptCBC(key, iv, data);
     }
 
+    /**
+     * AES CBC 암호화 (힙 밖 키)
+     */
+    public byte[] encryptCBC(KeyHandle key, byte[] iv, byte[] data) {
+        return key.encryptCBC(iv, data);
+    }
+
     /**
      * AES CBC 복호화
      */
@@ -83,6 +105,13 @@ public class CryptoService {
         return AesEncryption.decryptCBC(key, iv, data);
     }
 
+    /**
+     * AES CBC 복호화 (힙 밖 키)
+     */
+    public byte[] decryptCBC(KeyHandle key, byte[] iv, byte[] data) {
+        return key.decryptCBC(iv, data);
+    }
+
     /**
      * 패딩 추가
      */
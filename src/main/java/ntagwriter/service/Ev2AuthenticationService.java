@@ -1,6 +1,7 @@
 package ntagwriter.service;
 
 import ntagwriter.crypto.ByteRotation;
+import ntagwriter.crypto.KeyHandle;
 import ntagwriter.crypto.SessionVectorBuilder;
 import ntagwriter.reader.ReaderException;
 
@@ -30,17 +31,26 @@ public class Ev2AuthenticationService {
      *
      * @param keyNumber 인증에 사용할 키 번호
      * @param authKey   16바이트 인증 키 (Kx)
-     * @return EV2 세션 정보
+     * @return EV2 세션 정보 (세션이 끝나면 세션 키 폐기)
      */
     public Ev2Session authenticate(byte keyNumber, byte[] authKey)
             throws ReaderException, GeneralSecurityException {
+        // 인증 키 스케줄을 한 번만 만들어 복호화/암호화/세션 키 유도에 재사용하고 끝나면 폐기
+        try (KeyHandle auth = KeyHandle.copyOf(authKey)) {
+            return authenticate(keyNumber, auth);
+        }
+    }
+
+    private Ev2Session authenticate(byte keyNumber, KeyHandle authKey)
+            throws ReaderException, GeneralSecurityException {
 
         // Part 1: AuthenticateEV2First (Table 26)
         ResponseAPDU response1 = readerService.sendCommand(
                 ntagwriter.util.ApduCommand.authenticateEV2First(keyNumber, DEFAULT_PCD_CAP2));
 
         if (response1.getSW() != 0x91AF) {
-            throw new ReaderException("EV2 Part1 실패: " + readerService.getErrorMessage(response1));
+            throw new ReaderException("EV2 Part1 실패: " + readerService.getErrorMessage(response1),
+                    response1.getSW());
         }
 
         byte[] encRndB = response1.getData();
@@ -67,7 +77,7 @@ public class Ev2AuthenticationService {
 
         int sw = response2.getSW();
         if (sw != 0x9100 && sw != 0x9000) {
-            throw new ReaderException("EV2 Part2 실패: " + readerService.getErrorMessage(response2));
+            throw new ReaderException("EV2 Part2 실패: " + readerService.getErrorMessage(response2), sw);
         }
 
         // Part 2 응답 복호화 및 검증 (Table 29)
@@ -93,28 +103,29 @@ public class Ev2AuthenticationService {
             throw new ReaderException("EV2 검증 실패: RndA 불일치");
         }
 
-        byte[] kSesAuthEnc = deriveSessionKey(authKey, rndA, rndB, (byte) 0xA5, (byte) 0x5A);
-        byte[] kSesAuthMac = deriveSessionKey(authKey, rndA, rndB, (byte) 0x5A, (byte) 0xA5);
+        KeyHandle kSesAuthEnc = deriveSessionKey(authKey, rndA, rndB, (byte) 0xA5, (byte) 0x5A);
+        KeyHandle kSesAuthMac = deriveSessionKey(authKey, rndA, rndB, (byte) 0x5A, (byte) 0xA5);
 
         return new Ev2Session(transactionId, rndA, rndB, kSesAuthEnc, kSesAuthMac,
                 pcdCapabilities, pdCapabilities);
     }
 
-    private byte[] deriveSessionKey(byte[] authKey, byte[] rndA, byte[] rndB,
-                                    byte prefix1, byte prefix2) {
+    private KeyHandle deriveSessionKey(KeyHandle authKey, byte[] rndA, byte[] rndB,
+                                       byte prefix1, byte prefix2) {
         byte[] sv = SessionVectorBuilder.build(prefix1, prefix2, rndA, rndB);
-        return cryptoService.calculateCmac(authKey, sv);
+        return KeyHandle.adopt(cryptoService.calculateCmac(authKey, sv));
     }
 
     /**
      * EV2 인증 결과 (세션 정보).
+     * 세션 키는 복사 없이 핸들로 넘기며, 세션을 넘겨받은 쪽(SessionContext)이나 {@link #close()}가 폐기한다.
      */
-    public static final class Ev2Session {
+    public static final class Ev2Session implements AutoCloseable {
         private final byte[] transactionId;
         private final byte[] rndA;
         private final byte[] rndB;
-        private final byte[] kSesAuthEnc;
-        private final byte[] kSesAuthMac;
+        private final KeyHandle kSesAuthEnc;
+        private final KeyHandle kSesAuthMac;
         private final byte[] pcdCapabilities;
         private final byte[] pdCapabilities;
         private final byte[] commandCounter = new byte[] {0x00, 0x00}; // CmdCtr 초기화
@@ -122,15 +133,15 @@ public class Ev2AuthenticationService {
         private Ev2Session(byte[] transactionId,
                            byte[] rndA,
                            byte[] rndB,
-                           byte[] kSesAuthEnc,
-                           byte[] kSesAuthMac,
+                           KeyHandle kSesAuthEnc,
+                           KeyHandle kSesAuthMac,
                            byte[] pcdCapabilities,
                            byte[] pdCapabilities) {
             this.transactionId = transactionId.clone();
             this.rndA = rndA.clone();
             this.rndB = rndB.clone();
-            this.kSesAuthEnc = kSesAuthEnc.clone();
-            this.kSesAuthMac = kSesAuthMac.clone();
+            this.kSesAuthEnc = kSesAuthEnc;
+            this.kSesAuthMac = kSesAuthMac;
             this.pcdCapabilities = pcdCapabilities.clone();
             this.pdCapabilities = pdCapabilities.clone();
         }
@@ -147,12 +158,12 @@ public class Ev2AuthenticationService {
             return rndB.clone();
         }
 
-        public byte[] kSesAuthEnc() {
-            return kSesAuthEnc.clone();
+        public KeyHandle kSesAuthEnc() {
+            return kSesAuthEnc;
         }
 
-        public byte[] kSesAuthMac() {
-            return kSesAuthMac.clone();
+        public KeyHandle kSesAuthMac() {
+            return kSesAuthMac;
         }
 
         public byte[] pcdCapabilities() {
@@ -166,5 +177,14 @@ public class Ev2AuthenticationService {
         public byte[] commandCounter() {
             return commandCounter.clone();
         }
+
+        /**
+         * 세션 키 폐기
+         */
+        @Override
+        public void close() {
+            kSesAuthEnc.close();
+            kSesAuthMac.close();
+        }
     }
 }
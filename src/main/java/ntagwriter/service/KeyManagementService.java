@@ -1,10 +1,14 @@
 package ntagwriter.service;
 
+import ntagwriter.crypto.CommandIvBuilder;
+import ntagwriter.crypto.MacUtils;
 import ntagwriter.reader.ReaderException;
 import ntagwriter.util.*;
 
 import javax.smartcardio.ResponseAPDU;
 import java.security.GeneralSecurityException;
+import java.util.function.IntPredicate;
+import java.util.zip.CRC32;
 
 /**
  * 키 관리 서비스
@@ -12,6 +16,9 @@ import java.security.GeneralSecurityException;
  */
 public class KeyManagementService {
 
+    public static final byte MASTER_KEY_NUMBER = 0x00;
+    public static final byte LAST_KEY_NUMBER = 0x04;
+
     private final NfcReaderService readerService;
     private final CryptoService cryptoService;
     private SessionContext session;
@@ -30,23 +37,49 @@ public class KeyManagementService {
 
     /**
      * 모든 키를 변경
+     * Key 0(인증 키)을 바꾸면 세션이 종료되므로 Key 4 → Key 1 → Key 0 순서로 변경한다.
+     * 이 순서 덕분에 Key 4/Key 0의 키 버전만 보면 키 변경 진행 상태를 알 수 있다.
+     *
+     * @param newKey     새 키
+     * @param keyVersion 새 키 버전 (공장 초기값 0x00과 구분되는 값)
      */
-    public void changeAllKeys(byte[] newKey) throws ReaderException, GeneralSecurityException {
+    public void changeAllKeys(byte[] newKey, byte keyVersion) throws ReaderException, GeneralSecurityException {
+        changeRemainingKeys(newKey, keyVersion, keyNo -> false, KeyChangeListener.NONE);
+    }
+
+    /**
+     * 아직 변경되지 않은 키만 변경 (재개용)
+     *
+     * @param newKey         새 키
+     * @param keyVersion     새 키 버전
+     * @param alreadyChanged 이미 새 키가 적용된 슬롯 판별
+     * @param listener       슬롯별 전송 전/성공 후 통지 (진행 저널 기록용)
+     */
+    public void changeRemainingKeys(byte[] newKey, byte keyVersion, IntPredicate alreadyChanged,
+                                    KeyChangeListener listener)
+            throws ReaderException, GeneralSecurityException {
         ConsoleHelper.printInfo("→ 보안 키 변경 중...");
 
-        // Key 0부터 Key 4까지 모두 동일한 키로 변경
-        for (byte keyNo = 0; keyNo < 5; keyNo++) {
-            changeKey(keyNo, new byte[16], newKey, (byte) 0x00);
+        for (byte keyNo = LAST_KEY_NUMBER; keyNo >= 0; keyNo--) {
+            if (alreadyChanged.test(keyNo)) {
+                ConsoleHelper.printInfo("  → Key " + keyNo + " 이미 변경됨 - 건너뜀");
+                continue;
+            }
+            listener.beforeChange(keyNo);
+            changeKey(keyNo, new byte[16], newKey, keyVersion);
+            listener.afterChange(keyNo);
             CommandCounterManager.increment(session.commandCounter);
         }
 
         ConsoleHelper.printSuccess("✓ 모든 키가 변경되었습니다!");
-        ConsoleHelper.printWarning("⚠ 중요: 새 키를 안전한 곳에 보관하세요!");
-        ConsoleHelper.printInfo("  새 키 (HEX): " + HexUtils.bytesToHex(newKey));
     }
 
     /**
-     * 특정 키 변경
+     * 특정 키 변경 (CommMode.Full)
+     * KeyData를 KSesAuthENC/IVc로 암호화하고 MACt를 붙여 전송한다 (ChangeFileSettings와 같은 보안 메시징 구성).
+     * - 인증 키(Key 0): NewKey || KeyVer
+     * - 그 외 키: (NewKey XOR OldKey) || KeyVer || CRC32NK
+     *
      * @param keyNo 변경할 키 번호
      * @param oldKey 현재 키
      * @param newKey 새 키
@@ -57,37 +90,89 @@ public class KeyManagementService {
 
         ConsoleHelper.printInfo("  → Key " + keyNo + " 변경 중...");
 
-        // 키 데이터 준비 (newKey + newKeyVersion + CRC32 of newKey)
-        byte[] keyData = new byte[16 + 1 + 4];
-        System.arraycopy(newKey, 0, keyData, 0, 16);
-        keyData[16] = newKeyVersion;
+        byte[] keyData = buildKeyData(keyNo, oldKey, newKey, newKeyVersion);
+        byte[] paddedData = cryptoService.addPadding(keyData, 16);
 
-        // CRC32는 나중에 계산 (필요시)
-        // 현재는 0으로 채움
-        keyData[17] = 0x00;
-        keyData[18] = 0x00;
-        keyData[19] = 0x00;
-        keyData[20] = 0x00;
-
-        // 키 데이터 암호화
-        byte[] encryptedKeyData = cryptoService.encryptECB(session.kSesAuthENC, keyData);
-
-        // ChangeKey APDU
-        byte[] apdu = new byte[6 + encryptedKeyData.length];
-        apdu[0] = (byte) 0x90; // CLA
-        apdu[1] = (byte) 0xC4; // INS (ChangeKey)
-        apdu[2] = 0x00; // P1
-        apdu[3] = 0x00; // P2
-        apdu[4] = (byte) (1 + encryptedKeyData.length); // Lc
-        apdu[5] = keyNo; // Key Number
-        System.arraycopy(encryptedKeyData, 0, apdu, 6, encryptedKeyData.length);
+        byte[] ivc = cryptoService.encryptECB(session.kSesAuthENC,
+            CommandIvBuilder.build(session.transactionId, session.commandCounter));
+        byte[] encryptedKeyData = cryptoService.encryptCBC(session.kSesAuthENC, ivc, paddedData);
+        byte[] mact = MacUtils.truncateMac(calculateCmac(keyNo, encryptedKeyData));
 
         DebugLogger.logHex("Key Data", keyData, 2);
         DebugLogger.logHex("Encrypted", encryptedKeyData, 2);
 
-        ResponseAPDU response = readerService.sendCommand(apdu);
+        ResponseAPDU response = readerService.sendCommand(ApduCommand.changeKey(keyNo, encryptedKeyData, mact));
         ApduResponseValidator.validateSuccess(response, "Key " + keyNo + " 변경");
 
         ConsoleHelper.printSuccess("  ✓ Key " + keyNo + " 변경 완료");
     }
-}
\ No newline at end of file
+
+    /**
+     * ChangeKey 평문 키 데이터
+     */
+    static byte[] buildKeyData(byte keyNo, byte[] oldKey, byte[] newKey, byte newKeyVersion) {
+        if (keyNo == MASTER_KEY_NUMBER) {
+            byte[] keyData = new byte[16 + 1];
+            System.arraycopy(newKey, 0, keyData, 0, 16);
+            keyData[16] = newKeyVersion;
+            return keyData;
+        }
+
+        byte[] keyData = new byte[16 + 1 + 4];
+        for (int i = 0; i < 16; i++) {
+            keyData[i] = (byte) (newKey[i] ^ oldKey[i]);
+        }
+        keyData[16] = newKeyVersion;
+
+        // CRC32NK: IEEE 802.3 CRC32에서 마지막 반전을 뺀 값 (little-endian)
+        CRC32 crc = new CRC32();
+        crc.update(newKey, 0, 16);
+        int crc32nk = (int) ~crc.getValue();
+        keyData[17] = (byte) crc32nk;
+        keyData[18] = (byte) (crc32nk >> 8);
+        keyData[19] = (byte) (crc32nk >> 16);
+        keyData[20] = (byte) (crc32nk >> 24);
+        return keyData;
+    }
+
+    /**
+     * CMAC 입력: Cmd || CmdCtr || TI || KeyNo(평문) || EncryptedKeyData
+     */
+    private byte[] calculateCmac(byte keyNo, byte[] encryptedKeyData) {
+        byte[] cmacData = new byte[1 + 2 + 4 + 1 + encryptedKeyData.length];
+        int idx = 0;
+        cmacData[idx++] = ApduCommand.INS_CHANGE_KEY;
+        System.arraycopy(session.commandCounter, 0, cmacData, idx, 2);
+        idx += 2;
+        System.arraycopy(session.transactionId, 0, cmacData, idx, 4);
+        idx += 4;
+        cmacData[idx++] = keyNo;
+        System.arraycopy(encryptedKeyData, 0, cmacData, idx, encryptedKeyData.length);
+        return cryptoService.calculateCmac(session.kSesAuthMAC, cmacData);
+    }
+
+    /**
+     * 키 슬롯 변경 통지
+     */
+    public interface KeyChangeListener {
+        KeyChangeListener NONE = new KeyChangeListener() {
+            @Override
+            public void beforeChange(byte keyNo) {
+            }
+
+            @Override
+            public void afterChange(byte keyNo) {
+            }
+        };
+
+        /**
+         * ChangeKey 전송 직전
+         */
+        void beforeChange(byte keyNo);
+
+        /**
+         * ChangeKey 성공 직후
+         */
+        void afterChange(byte keyNo);
+    }
+}
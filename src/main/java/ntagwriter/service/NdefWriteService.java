@@ -3,8 +3,6 @@ package ntagwriter.service;
 import ntagwriter.reader.ReaderException;
 import ntagwriter.util.*;
 
-import javax.smartcardio.ResponseAPDU;
-
 /**
  * NDEF 메시지 작성 서비스
  * NTAG424 DNA에 NDEF 메시지를 작성하는 기능을 담당
@@ -21,43 +19,35 @@ public class NdefWriteService {
 
     /**
      * NDEF 메시지 작성
+     *
+     * @param commandCounter 인증 세션의 CmdCtr (WriteData 프레임마다 증가), 세션 밖이면 null
+     * @return 전송한 WriteData 명령 수
      */
-    public void writeNdefMessage(String baseUrl) throws ReaderException {
-        ConsoleHelper.printInfo("→ NDEF 메시지 작성 중...");
-
-        // NDEF Record 생성
-        byte[] ndefMessage = createNdefMessage(baseUrl);
-
-        // Write Binary APDU 생성
-        byte[] apdu = buildWriteBinaryApdu(ndefMessage);
-
-        DebugLogger.logHex("NDEF Message", ndefMessage);
-        DebugLogger.logHex("Write APDU", apdu);
-
-        ResponseAPDU response = readerService.sendCommand(apdu);
-        ApduResponseValidator.validateSuccess(response, "NDEF 작성");
-
-        ConsoleHelper.printSuccess("✓ NDEF 메시지 작성 완료!");
+    public int writeNdefMessage(String baseUrl, byte[] commandCounter) throws ReaderException {
+        int commands = writeNdefImage(createNdefMessage(baseUrl), commandCounter);
         ConsoleHelper.printInfo("  작성된 URL: " + baseUrl);
+        return commands;
     }
 
     /**
-     * Write Binary APDU 생성
+     * 미리 만든 NDEF 이미지 작성
+     *
+     * @param ndefMessage createNdefMessage 결과
+     * @param commandCounter 인증 세션의 CmdCtr (WriteData 프레임마다 증가), 세션 밖이면 null
+     * @return 전송한 WriteData 명령 수
      */
-    private byte[] buildWriteBinaryApdu(byte[] ndefMessage) {
-        // 90 D2 00 02 [Lc] [Offset:3bytes] [Data]
-        byte[] apdu = new byte[8 + ndefMessage.length];
-        apdu[0] = (byte) 0x90; // CLA
-        apdu[1] = (byte) 0xD2; // INS (WriteBinary)
-        apdu[2] = 0x00; // P1
-        apdu[3] = NDEF_FILE_NUMBER; // P2 (File number)
-        apdu[4] = (byte) (3 + ndefMessage.length); // Lc
-        apdu[5] = 0x00; // Offset (3 bytes, little endian)
-        apdu[6] = 0x00;
-        apdu[7] = 0x00;
-        System.arraycopy(ndefMessage, 0, apdu, 8, ndefMessage.length);
+    public int writeNdefImage(byte[] ndefMessage, byte[] commandCounter) throws ReaderException {
+        ConsoleHelper.printInfo("→ NDEF 메시지 작성 중...");
 
-        return apdu;
+        DebugLogger.logHex("NDEF Message", ndefMessage);
+        ConsoleHelper.printInfo("  링크: " + readerService.getLinkParameters());
+
+        // WriteData - 링크 프레임 크기에 맞춰 분할 전송
+        int commands = readerService.writeData((byte) NDEF_FILE_NUMBER, 0, ndefMessage, "NDEF 작성",
+            commandCounter);
+
+        ConsoleHelper.printSuccess("✓ NDEF 메시지 작성 완료!");
+        return commands;
     }
 
     /**
@@ -72,7 +62,7 @@ public class NdefWriteService {
      *   - Type: 'U' (0x55 for URI)
      *   - Payload: URI identifier code + URI
      */
-    private byte[] createNdefMessage(String url) {
+    public static byte[] createNdefMessage(String url) {
         // URI identifier code: 0x04 = "https://"
         // Remove "https://" from URL if present
         String urlContent = url.startsWith("https://") ?
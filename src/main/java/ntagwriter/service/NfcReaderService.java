@@ -1,12 +1,18 @@
 package ntagwriter.service;
 
+import ntagwriter.comm.LinkParameters;
 import ntagwriter.reader.ApduStatusWord;
 import ntagwriter.reader.NfcReaderStrategy;
 import ntagwriter.reader.ReaderException;
+import ntagwriter.util.ApduCommand;
+import ntagwriter.util.ApduResponseValidator;
+import ntagwriter.util.CommandCounterManager;
 import ntagwriter.util.ConsoleHelper;
 import ntagwriter.util.HexUtils;
 
 import javax.smartcardio.ResponseAPDU;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
 
 /**
  * NFC 리더기 서비스
@@ -14,6 +20,9 @@ import javax.smartcardio.ResponseAPDU;
  */
 public class NfcReaderService {
 
+    // WriteData 명령 헤더: FileNo(1) + Offset(3) + Length(3)
+    private static final int WRITE_DATA_HEADER_LENGTH = 7;
+
     private final NfcReaderStrategy reader;
     private boolean connected;
 
@@ -59,6 +68,26 @@ public class NfcReaderService {
         return HexUtils.bytesToHex(uid);
     }
 
+    /**
+     * 링크 손실 후 카드를 다시 연결하고 UID를 다시 읽기
+     * 태그가 리셋되었으므로 애플리케이션 선택/인증 상태는 호출자가 다시 만들어야 한다.
+     *
+     * @return 다시 읽은 UID (HEX)
+     */
+    public String reconnect() throws ReaderException {
+        disconnect();
+        connect();
+        return readTagUid();
+    }
+
+    /**
+     * 리더기 연결 후 태그 UID 읽기
+     */
+    public String connectAndReadUid() throws ReaderException {
+        connect();
+        return readTagUid();
+    }
+
     /**
      * APDU 명령 전송
      */
@@ -70,6 +99,82 @@ public class NfcReaderService {
         return reader.sendCommand(apdu);
     }
 
+    /**
+     * WriteData (CommMode.Plain) - 링크 프레임 크기에 맞춰 최대 청크로 분할 전송
+     *
+     * @param fileNo        파일 번호
+     * @param offset        쓰기 시작 오프셋
+     * @param data          쓸 데이터
+     * @param operationName 작업 이름 (에러 메시지용)
+     * @param commandCounter 인증 세션의 CmdCtr (프레임마다 성공 직후 증가), 세션 밖이면 null
+     * @return 전송한 명령 수
+     */
+    public int writeData(byte fileNo, int offset, byte[] data, String operationName, byte[] commandCounter)
+            throws ReaderException {
+        int chunkSize = getLinkParameters().maxCommandDataLength(WRITE_DATA_HEADER_LENGTH);
+        int commands = 0;
+        for (int position = 0; position < data.length; position += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(data, position, Math.min(position + chunkSize, data.length));
+            ResponseAPDU response = sendCommand(ApduCommand.writeData(fileNo, offset + position, chunk));
+            ApduResponseValidator.validateSuccess(response, operationName);
+            // 뒤 프레임이 실패해도 앞서 성공한 프레임만큼은 태그 카운터가 이미 올라가 있다
+            if (commandCounter != null) {
+                CommandCounterManager.increment(commandCounter);
+            }
+            commands++;
+        }
+        return commands;
+    }
+
+    /**
+     * ReadData (CommMode.Plain) - 응답 프레임 크기에 맞춰 분할 수신
+     *
+     * @param fileNo        파일 번호
+     * @param offset        읽기 시작 오프셋
+     * @param length        읽을 길이
+     * @param operationName 작업 이름 (에러 메시지용)
+     * @return 읽은 데이터 (태그가 짧게 응답하면 length보다 짧을 수 있음)
+     */
+    public byte[] readData(byte fileNo, int offset, int length, String operationName) throws ReaderException {
+        int chunkSize = getLinkParameters().maxResponseDataLength();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(length);
+        for (int position = 0; position < length; position += chunkSize) {
+            int chunkLength = Math.min(chunkSize, length - position);
+            ResponseAPDU response = sendCommand(ApduCommand.readData(fileNo, offset + position, chunkLength));
+            ApduResponseValidator.validateSuccess(response, operationName);
+
+            byte[] chunk = response.getData();
+            buffer.write(chunk, 0, chunk.length);
+            if (chunk.length < chunkLength) {
+                break;
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * ISOUpdateBinary (현재 선택된 EF) - 링크 프레임 크기에 맞춰 분할 전송
+     *
+     * @param offset        쓰기 시작 오프셋 (P1-P2, 15비트)
+     * @param data          쓸 데이터
+     * @param operationName 작업 이름 (에러 메시지용)
+     */
+    public void updateBinary(int offset, byte[] data, String operationName) throws ReaderException {
+        int chunkSize = getLinkParameters().maxCommandDataLength(0);
+        for (int position = 0; position < data.length; position += chunkSize) {
+            byte[] chunk = Arrays.copyOfRange(data, position, Math.min(position + chunkSize, data.length));
+            ResponseAPDU response = sendCommand(ApduCommand.updateBinary(offset + position, chunk));
+            ApduResponseValidator.validateSuccess(response, operationName);
+        }
+    }
+
+    /**
+     * 현재 태그와의 링크 파라미터
+     */
+    public LinkParameters getLinkParameters() {
+        return reader.getLinkParameters();
+    }
+
     /**
      * 응답 확인 (SW = 9000 또는 9100)
      */
@@ -1,5 +1,6 @@
 package ntagwriter.service;
 
+import ntagwriter.crypto.KeyHandle;
 import ntagwriter.domain.SetupStep;
 import ntagwriter.domain.SdmConfig;
 import ntagwriter.reader.NfcReaderStrategy;
@@ -8,6 +9,7 @@ import ntagwriter.util.ConsoleHelper;
 import ntagwriter.util.HexUtils;
 
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 
 /**
  * NTAG424 DNA 태그 자동 설정 서비스
@@ -24,6 +26,7 @@ public class Ntag424SetupService {
     private final NfcReaderService readerService;
     private final CryptoService cryptoService;
     private final Ev2AuthenticationService ev2AuthService;
+    private final ApduRetryPolicy retryPolicy;
 
     // 설정 상태
     private String tagUid;
@@ -33,13 +36,24 @@ public class Ntag424SetupService {
     private SetupStep currentStep;
     private byte[] transactionId;
     private byte[] commandCounter;
-    private byte[] kSesAuthENC;
-    private byte[] kSesAuthMAC;
+    private KeyHandle kSesAuthENC;
+    private KeyHandle kSesAuthMAC;
+    // 응답 없이 링크가 끊겨 다음 시도 전에 태그를 다시 연결해야 함
+    private boolean linkLost;
 
     public Ntag424SetupService(NfcReaderStrategy reader) {
+        this(reader, ApduRetryPolicy.DEFAULT);
+    }
+
+    /**
+     * @param reader      리더기
+     * @param retryPolicy 단계 실패 시 자동 재시도 정책
+     */
+    public Ntag424SetupService(NfcReaderStrategy reader, ApduRetryPolicy retryPolicy) {
         this.readerService = new NfcReaderService(reader);
         this.cryptoService = new CryptoService();
         this.ev2AuthService = new Ev2AuthenticationService(readerService, cryptoService);
+        this.retryPolicy = retryPolicy;
         this.currentStep = SetupStep.CONNECT_READER;
     }
 
@@ -74,12 +88,15 @@ public class Ntag424SetupService {
             ConsoleHelper.printError("설정 중 오류 발생: " + e.getMessage());
             return false;
         } finally {
+            closeSession();
             readerService.disconnect();
         }
     }
 
     /**
      * 단계 실행
+     * 실패하면 재시도 정책에 따라 자동 재시도하고(RF 손실은 수 ms, 태그 지연은 길게 대기),
+     * 자동 재시도가 끝났거나 치명적 오류면 사용자에게 재시도 여부를 묻는다.
      */
     private boolean executeStep(SetupStep step) {
         currentStep = step;
@@ -95,28 +112,100 @@ public class Ntag424SetupService {
             }
         }
 
-        try {
-            switch (step) {
-                case CONNECT_READER -> connectReader();
-                case READ_UID -> readUid();
-                case SELECT_APPLICATION -> selectApplication();
-                case AUTHENTICATE -> authenticate();
-                case CONFIGURE_SDM -> configureSdm();
-                case CHANGE_KEYS -> changeKeys();
-                case VERIFY -> verify();
-                case COMPLETE -> complete();
+        while (true) {
+            Exception failure = runWithRetry(step);
+            if (failure == null) {
+                ConsoleHelper.printSuccess(step.getTitle() + " 완료!");
+                return true;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
             }
 
-            ConsoleHelper.printSuccess(step.getTitle() + " 완료!");
-            return true;
-
-        } catch (Exception e) {
-            ConsoleHelper.printError(step.getTitle() + " 실패: " + e.getMessage());
+            ConsoleHelper.printError(step.getTitle() + " 실패 ("
+                + ApduRetryPolicy.classify(failure).description + "): " + failure.getMessage());
+            if (!ConsoleHelper.confirm("다시 시도하시겠습니까?")) {
+                return false;
+            }
+        }
+    }
 
-            if (ConsoleHelper.confirm("다시 시도하시겠습니까?")) {
-                return executeStep(step);
+    /**
+     * 재시도 정책 안에서 단계 실행 (사용자 확인 없음)
+     * 링크가 끊겼던 경우 다음 시도 전에 태그를 다시 연결하고 그 단계에 필요한 선택/인증을 다시 만든다.
+     * 복구가 실패해도 다음 시도(사용자 재시도 포함)에서 다시 복구한다.
+     *
+     * @return 성공하면 null, 자동 재시도가 끝났거나 치명적 오류거나 대기가 중단되면 마지막 실패
+     */
+    Exception runWithRetry(SetupStep step) {
+        ApduRetryPolicy.Attempts attempts = retryPolicy.start();
+        while (true) {
+            try {
+                if (linkLost) {
+                    recoverLink(step);
+                    linkLost = false;
+                }
+                runStep(step);
+                return null;
+
+            } catch (Exception e) {
+                ApduRetryPolicy.Decision decision = attempts.next(e);
+                linkLost |= decision.reauthenticate;
+                if (!decision.retry) {
+                    return e;
+                }
+
+                ConsoleHelper.printWarning(String.format("%s 실패 (%s): %s - %dms 후 재시도 %d",
+                    step.getTitle(), decision.failureClass.description, e.getMessage(),
+                    decision.backoff.toMillis(), decision.attempt));
+                if (!sleep(decision.backoff)) {
+                    return e;
+                }
             }
+        }
+    }
+
+    private void runStep(SetupStep step) throws ReaderException, GeneralSecurityException {
+        switch (step) {
+            case CONNECT_READER -> connectReader();
+            case READ_UID -> readUid();
+            case SELECT_APPLICATION -> selectApplication();
+            case AUTHENTICATE -> authenticate();
+            case CONFIGURE_SDM -> configureSdm();
+            case CHANGE_KEYS -> changeKeys();
+            case VERIFY -> verify();
+            case COMPLETE -> complete();
+        }
+    }
+
+    /**
+     * 링크 손실로 태그가 리셋된 경우: 카드를 다시 연결해 같은 태그인지 확인하고,
+     * 이 단계 앞에서 만들어 둔 애플리케이션 선택(인증 단계부터)과 인증(SDM 설정 단계부터)을 다시 수행
+     */
+    private void recoverLink(SetupStep step) throws ReaderException, GeneralSecurityException {
+        if (step == SetupStep.CONNECT_READER) {
+            return;
+        }
+        ConsoleHelper.printProgress("링크 복구 중 (태그 재연결)...");
+        String uid = readerService.reconnect();
+        if (tagUid != null && !tagUid.equals(uid)) {
+            throw new ReaderException("재연결한 태그가 처음 태그와 다릅니다: " + tagUid + " → " + uid);
+        }
+        if (step.getStepNumber() > SetupStep.SELECT_APPLICATION.getStepNumber()) {
+            selectApplication();
+        }
+        if (step.getStepNumber() > SetupStep.AUTHENTICATE.getStepNumber() && transactionId != null) {
+            authenticate();
+        }
+    }
 
+    private static boolean sleep(Duration backoff) {
+        try {
+            Thread.sleep(backoff.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ConsoleHelper.printWarning("재시도 대기가 중단되었습니다.");
             return false;
         }
     }
@@ -150,7 +239,7 @@ public class Ntag424SetupService {
 
         if (!readerService.isSuccess(response)) {
             throw new ReaderException("애플리케이션 선택 실패: " +
-                readerService.getErrorMessage(response));
+                readerService.getErrorMessage(response), response.getSW());
         }
 
         ConsoleHelper.printSuccess("애플리케이션 선택 성공 (AID: " +
@@ -166,6 +255,7 @@ public class Ntag424SetupService {
 
         Ev2AuthenticationService.Ev2Session session =
             ev2AuthService.authenticate(KEY_NUMBER, DEFAULT_KEY);
+        closeSession();
 
         this.transactionId = session.transactionId();
         this.commandCounter = session.commandCounter();
@@ -177,6 +267,18 @@ public class Ntag424SetupService {
         ConsoleHelper.printInfo("  CmdCtr: " + HexUtils.bytesToHex(commandCounter));
     }
 
+    /**
+     * 세션 키 폐기 (재인증 또는 설정 종료 시)
+     */
+    private void closeSession() {
+        if (kSesAuthENC != null) {
+            kSesAuthENC.close();
+            kSesAuthMAC.close();
+            kSesAuthENC = null;
+            kSesAuthMAC = null;
+        }
+    }
+
     /**
      * 5단계: SDM 설정
      */
@@ -217,8 +319,7 @@ public class Ntag424SetupService {
         ConsoleHelper.println();
         if (ConsoleHelper.confirm("새로운 AES 키를 자동 생성하시겠습니까?")) {
             aesKey = cryptoService.generateRandomBytes(16);
-            ConsoleHelper.printSuccess("AES 키 생성됨: " + HexUtils.bytesToHex(aesKey));
-            ConsoleHelper.printWarning("⚠ 이 키를 안전하게 보관하세요! 분실 시 태그를 사용할 수 없습니다.");
+            ConsoleHelper.printSuccess("AES 키 생성됨 (키 값은 출력하지 않습니다)");
         } else {
             String keyHex = ConsoleHelper.input("AES 키를 16진수로 입력하세요 (32자리)");
             if (keyHex.length() != 32) {
@@ -253,7 +354,6 @@ public class Ntag424SetupService {
         }
 
         ConsoleHelper.printInfo("기본 키를 새로운 AES 키로 변경합니다.");
-        ConsoleHelper.printInfo("키: " + HexUtils.bytesToHex(aesKey));
 
         // 실제 키 변경 APDU는 추후 구현 예정
         // Change Key 명령어 사용
@@ -271,14 +371,8 @@ public class Ntag424SetupService {
         ConsoleHelper.printInfo("다음 설정이 적용되었습니다:");
         ConsoleHelper.printInfo("  - 태그 UID: " + tagUid);
         ConsoleHelper.printInfo("  - Base URL: " + baseUrl);
-        ConsoleHelper.printInfo("  - AES 키: " + HexUtils.bytesToHex(aesKey));
         ConsoleHelper.printInfo("  - SDM 설정: " + sdmConfig.toString());
 
-        ConsoleHelper.println();
-        ConsoleHelper.printWarning("중요: 다음 정보를 안전하게 보관하세요!");
-        ConsoleHelper.printWarning("1. AES 키: " + HexUtils.bytesToHex(aesKey));
-        ConsoleHelper.printWarning("2. 태그 UID: " + tagUid);
-
         ConsoleHelper.printSuccess("검증 완료");
     }
 
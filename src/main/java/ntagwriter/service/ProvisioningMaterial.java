@@ -0,0 +1,71 @@
+package ntagwriter.service;
+
+import ntagwriter.domain.FeedRow;
+
+/**
+ * 태그 한 개 분량의 사전 준비 자료
+ * 인증 세션과 무관한 값(새 키, 컴파일된 프로필의 NDEF 이미지/File Settings 평문)만 담으며,
+ * 세션 키에 의존하는 암호화/CMAC은 태그 감지 후에 계산한다.
+ * 태그별 피드를 쓰면 피드 행과 그 행을 적용한 프로필을 함께 가진다.
+ */
+public final class ProvisioningMaterial {
+
+    private final byte[] newKey;
+    private final CompiledProfile baseProfile;
+    private final CompiledProfile profile;
+    private final FeedRow row;
+
+    public ProvisioningMaterial(byte[] newKey, CompiledProfile profile) {
+        this(newKey, profile, profile, null);
+    }
+
+    /**
+     * @param baseProfile 자료를 만들 때의 프로필 (리로드 감지용)
+     * @param profile     행을 적용한 프로필 (행이 없으면 baseProfile)
+     * @param row         피드 행, 피드를 쓰지 않으면 null
+     */
+    public ProvisioningMaterial(byte[] newKey, CompiledProfile baseProfile, CompiledProfile profile, FeedRow row) {
+        this.newKey = newKey.clone();
+        this.baseProfile = baseProfile;
+        this.profile = profile;
+        this.row = row;
+    }
+
+    /**
+     * 같은 키/행으로 새 프로필에 맞춰 다시 만든 자료 (프로필 리로드 후)
+     */
+    public ProvisioningMaterial rebase(CompiledProfile newBaseProfile) {
+        CompiledProfile rowProfile = row != null ? newBaseProfile.forRow(row) : newBaseProfile;
+        return new ProvisioningMaterial(newKey, newBaseProfile, rowProfile, row);
+    }
+
+    public CompiledProfile baseProfile() {
+        return baseProfile;
+    }
+
+    /**
+     * 피드 행 (피드를 쓰지 않으면 null)
+     */
+    public FeedRow row() {
+        return row;
+    }
+
+    public byte[] newKey() {
+        return newKey.clone();
+    }
+
+    /**
+     * 이 자료를 만든 프로필 (검증 단계도 같은 프로필의 URL/오프셋을 사용)
+     */
+    public CompiledProfile profile() {
+        return profile;
+    }
+
+    public byte[] ndefImage() {
+        return profile.ndefImage();
+    }
+
+    public byte[] fileSettings() {
+        return profile.fileSettings();
+    }
+}
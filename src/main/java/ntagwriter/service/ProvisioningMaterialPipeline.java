@@ -0,0 +1,197 @@
+package ntagwriter.service;
+
+import ntagwriter.domain.FeedRow;
+import ntagwriter.domain.port.TagFeedPort;
+
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 설정 자료 사전 준비 파이프라인 (생산자/소비자)
+ * 작업자가 태그를 교체하는 동안 백그라운드 스레드가 다음 N개 태그의 자료를 미리 만들어 둔다.
+ * 태그 감지 후에는 큐에서 꺼내기만 하므로 RF 교환과 세션 의존 암호 연산만 임계 경로에 남는다.
+ *
+ * NDEF 이미지와 File Settings는 프로필 로드 시 한 번 컴파일된 것을 공유하고,
+ * 태그마다 달라지는 값은 SecureRandom 키 생성뿐이다.
+ * 프로필이 리로드되면 이전 프로필로 준비된 자료는 꺼낼 때 같은 키/행으로 다시 만든다.
+ *
+ * 태그별 피드를 쓰면 큐 깊이만큼만 행을 미리 읽고(제한된 선읽기), 꺼낼 때 UID에 행을 배정한다.
+ * 행 순서를 지키기 위해 피드 모드에서는 호출 스레드에서 직접 만들지 않고 생산자를 기다린다.
+ */
+public class ProvisioningMaterialPipeline implements AutoCloseable {
+
+    public static final int DEFAULT_DEPTH = 4;
+    private static final long FEED_POLL_MS = 50;
+
+    private final BlockingQueue<ProvisioningMaterial> queue;
+    private final Supplier<CompiledProfile> profiles;
+    private final TagFeedPort feed;
+    private final SecureRandom random = new SecureRandom();
+    private final Thread producer;
+    private volatile boolean closed;
+    private volatile boolean exhausted;
+    private volatile Exception feedFailure;
+
+    public ProvisioningMaterialPipeline(Supplier<CompiledProfile> profiles) {
+        this(profiles, null, DEFAULT_DEPTH);
+    }
+
+    /**
+     * @param profiles 현재 프로필 (핫 리로드 시 바뀔 수 있음)
+     * @param feed     태그별 데이터 피드, 없으면 null
+     * @param depth    미리 준비해 둘 태그 수
+     */
+    public ProvisioningMaterialPipeline(Supplier<CompiledProfile> profiles, TagFeedPort feed, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("파이프라인 깊이는 1 이상이어야 합니다");
+        }
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.profiles = profiles;
+        this.feed = feed;
+
+        this.producer = new Thread(this::produce, "material-producer");
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    private void produce() {
+        try {
+            while (!closed) {
+                ProvisioningMaterial material = feed != null ? prepareFromFeed() : prepare();
+                if (material == null) {
+                    break;
+                }
+                queue.put(material);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TagFeedPort.FeedException | IllegalArgumentException e) {
+            feedFailure = e;
+        } finally {
+            exhausted = true;
+        }
+    }
+
+    private ProvisioningMaterial prepare() {
+        return new ProvisioningMaterial(newKey(), profiles.get());
+    }
+
+    /**
+     * 피드의 다음 행으로 자료 준비
+     *
+     * @return 자료, 피드가 끝났으면 null
+     */
+    private ProvisioningMaterial prepareFromFeed() throws TagFeedPort.FeedException {
+        FeedRow row = feed.next();
+        if (row == null) {
+            return null;
+        }
+        return forRow(row);
+    }
+
+    private ProvisioningMaterial forRow(FeedRow row) {
+        CompiledProfile base = profiles.get();
+        return new ProvisioningMaterial(newKey(), base, base.forRow(row), row);
+    }
+
+    private byte[] newKey() {
+        byte[] key = new byte[16];
+        random.nextBytes(key);
+        return key;
+    }
+
+    /**
+     * 태그 자료 꺼내기
+     * 피드를 쓰면 UID에 이미 배정된 행이 있으면 그 행으로 만들고, 없으면 다음 행을 꺼내 UID에 배정한다.
+     * 피드가 없으면 생산자가 아직 채우지 못했을 때 기다리지 않고 호출 스레드에서 바로 만든다.
+     *
+     * @param uid 태그 UID (HEX)
+     * @return 자료, 피드가 모두 소진되었으면 null
+     * @throws TagFeedPort.FeedException 피드 읽기/배정 기록 오류
+     */
+    public ProvisioningMaterial take(String uid) throws TagFeedPort.FeedException {
+        if (feed == null) {
+            ProvisioningMaterial material = queue.poll();
+            return material != null ? current(material) : prepare();
+        }
+
+        Optional<ProvisioningMaterial> assigned = assigned(uid);
+        if (assigned.isPresent()) {
+            return assigned.get();
+        }
+
+        ProvisioningMaterial material = nextFromFeed();
+        if (material != null) {
+            feed.assign(uid, material.row());
+        }
+        return material;
+    }
+
+    /**
+     * UID에 이미 배정된 행의 자료 (새 행을 소비하지 않음)
+     *
+     * @return 자료, 피드가 없거나 배정 기록이 없으면 빈 값
+     */
+    public Optional<ProvisioningMaterial> assigned(String uid) throws TagFeedPort.FeedException {
+        if (feed == null) {
+            return Optional.empty();
+        }
+        try {
+            return feed.assignedRow(uid).map(this::forRow);
+        } catch (IllegalArgumentException e) {
+            throw new TagFeedPort.FeedException(e.getMessage(), e);
+        }
+    }
+
+    private ProvisioningMaterial nextFromFeed() throws TagFeedPort.FeedException {
+        try {
+            while (true) {
+                ProvisioningMaterial material = queue.poll(FEED_POLL_MS, TimeUnit.MILLISECONDS);
+                if (material == null && exhausted) {
+                    material = queue.poll();
+                }
+                if (material != null) {
+                    return current(material);
+                }
+                if (exhausted) {
+                    Exception failure = feedFailure;
+                    if (failure != null) {
+                        throw new TagFeedPort.FeedException("피드 오류: " + failure.getMessage(), failure);
+                    }
+                    return null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TagFeedPort.FeedException("피드 대기가 중단되었습니다");
+        } catch (IllegalArgumentException e) {
+            throw new TagFeedPort.FeedException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 리로드 전 프로필로 준비된 자료는 같은 키/행으로 다시 만든다
+     */
+    private ProvisioningMaterial current(ProvisioningMaterial material) {
+        CompiledProfile base = profiles.get();
+        return material.baseProfile() == base ? material : material.rebase(base);
+    }
+
+    /**
+     * 현재 준비된 자료 수
+     */
+    public int prepared() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        producer.interrupt();
+        queue.clear();
+    }
+}
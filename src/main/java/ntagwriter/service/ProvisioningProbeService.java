@@ -0,0 +1,134 @@
+package ntagwriter.service;
+
+import ntagwriter.domain.ProvisioningState;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.util.*;
+
+import javax.smartcardio.ResponseAPDU;
+
+/**
+ * 설정 상태 프로브 서비스
+ * 인증 없이 GetFileSettings/GetKeyVersion만으로 태그의 설정 상태를 판별한다.
+ * 기본 키 인증 실패(및 그로 인한 태그 측 인증 지연) 없이 재투입된 태그를 걸러내기 위함.
+ */
+public class ProvisioningProbeService {
+
+    private static final int NDEF_FILE_NUMBER = 0x02;
+    private static final int FILE_OPTION_SDM_ENABLED = 0x40;
+    public static final byte FACTORY_KEY_VERSION = 0x00;
+    public static final byte PROVISIONED_KEY_VERSION = 0x01; // 설정 완료 시 기록하는 키 버전
+
+    private final NfcReaderService readerService;
+
+    public ProvisioningProbeService(NfcReaderService readerService) {
+        this.readerService = readerService;
+    }
+
+    /**
+     * 태그 설정 상태 판별 (3회 왕복)
+     * 키는 Key 4 → Key 0 순서로 변경되므로 처음(Key 4)과 마지막(Key 0) 키 버전만 확인한다.
+     *
+     * @param provisionedKeyVersion 설정 완료 시 기록되는 키 버전
+     * @return 프로브 결과
+     */
+    public ProbeResult probe(byte provisionedKeyVersion) throws ReaderException {
+        boolean sdmEnabled = readSdmEnabled();
+        byte firstChangedKeyVersion = readKeyVersion(KeyManagementService.LAST_KEY_NUMBER);
+        byte masterKeyVersion = readKeyVersion(KeyManagementService.MASTER_KEY_NUMBER);
+
+        boolean keysUntouched = firstChangedKeyVersion == FACTORY_KEY_VERSION
+            && masterKeyVersion == FACTORY_KEY_VERSION;
+        boolean keysChanged = firstChangedKeyVersion == provisionedKeyVersion
+            && masterKeyVersion == provisionedKeyVersion;
+
+        ProvisioningState state;
+        if (!sdmEnabled && keysUntouched) {
+            state = ProvisioningState.FACTORY_FRESH;
+        } else if (sdmEnabled && keysChanged) {
+            state = ProvisioningState.FULLY_PROVISIONED;
+        } else {
+            state = ProvisioningState.PARTIALLY_PROVISIONED;
+        }
+
+        return new ProbeResult(state, sdmEnabled, keysUntouched, firstChangedKeyVersion, masterKeyVersion);
+    }
+
+    /**
+     * NDEF 파일의 SDM 활성화 여부 (FileOption bit 6)
+     */
+    private boolean readSdmEnabled() throws ReaderException {
+        ResponseAPDU response = readerService.sendCommand(
+            ApduCommand.getFileSettings((byte) NDEF_FILE_NUMBER));
+        ApduResponseValidator.validateSuccess(response, "파일 설정 조회");
+
+        byte[] settings = response.getData();
+        if (settings.length < 2) {
+            throw new ReaderException("파일 설정 응답 길이 오류: " + settings.length);
+        }
+        // settings[0] = FileType, settings[1] = FileOption
+        return (settings[1] & FILE_OPTION_SDM_ENABLED) != 0;
+    }
+
+    /**
+     * 키 버전 조회 (인증 불필요)
+     */
+    public byte readKeyVersion(byte keyNo) throws ReaderException {
+        ResponseAPDU response = readerService.sendCommand(ApduCommand.getKeyVersion(keyNo));
+        ApduResponseValidator.validateSuccess(response, "Key " + keyNo + " 버전 조회");
+
+        byte[] data = response.getData();
+        if (data.length < 1) {
+            throw new ReaderException("키 버전 응답이 비어 있습니다 (Key " + keyNo + ")");
+        }
+        return data[0];
+    }
+
+    /**
+     * 프로브 결과
+     */
+    public static final class ProbeResult {
+        private final ProvisioningState state;
+        private final boolean sdmEnabled;
+        private final boolean keysUntouched;
+        private final byte firstChangedKeyVersion;
+        private final byte masterKeyVersion;
+
+        private ProbeResult(ProvisioningState state, boolean sdmEnabled, boolean keysUntouched,
+                            byte firstChangedKeyVersion, byte masterKeyVersion) {
+            this.state = state;
+            this.sdmEnabled = sdmEnabled;
+            this.keysUntouched = keysUntouched;
+            this.firstChangedKeyVersion = firstChangedKeyVersion;
+            this.masterKeyVersion = masterKeyVersion;
+        }
+
+        public ProvisioningState state() {
+            return state;
+        }
+
+        public boolean sdmEnabled() {
+            return sdmEnabled;
+        }
+
+        /**
+         * 모든 키가 공장 초기값이라 기본 키로 인증해 재개할 수 있는지 여부
+         */
+        public boolean keysUntouched() {
+            return keysUntouched;
+        }
+
+        public byte firstChangedKeyVersion() {
+            return firstChangedKeyVersion;
+        }
+
+        public byte masterKeyVersion() {
+            return masterKeyVersion;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ProbeResult{state=%s, sdm=%s, keyVersion(K4)=0x%02X, keyVersion(K0)=0x%02X}",
+                state, sdmEnabled, firstChangedKeyVersion, masterKeyVersion);
+        }
+    }
+}
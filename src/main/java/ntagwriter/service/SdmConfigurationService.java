@@ -1,5 +1,7 @@
 package ntagwriter.service;
 
+import ntagwriter.crypto.CommandIvBuilder;
+import ntagwriter.crypto.KeyHandle;
 import ntagwriter.crypto.MacUtils;
 import ntagwriter.reader.ReaderException;
 import ntagwriter.util.*;
@@ -15,6 +17,9 @@ public class SdmConfigurationService {
 
     private static final int NDEF_FILE_NUMBER = 0x02;
 
+    // RW/Change: Key 0, Read: 0xE (Free), Write: Key 0
+    private static final byte[] DEFAULT_ACCESS_RIGHTS = {0x00, (byte) 0xE0};
+
     private final NfcReaderService readerService;
     private final CryptoService cryptoService;
     private SessionContext session;
@@ -38,12 +43,17 @@ public class SdmConfigurationService {
                            int sdmMacInputOffset, int sdmMacOffset)
             throws ReaderException, GeneralSecurityException {
 
-        ConsoleHelper.printInfo("→ NDEF 파일에 SDM 설정 중...");
+        configureSdm(buildFileSettingsData(sdmAccessRights, piccDataOffset, sdmMacInputOffset, sdmMacOffset));
+    }
 
-        // Change File Settings APDU 생성 및 전송
-        byte[] settingsData = buildFileSettingsData(
-            sdmAccessRights, piccDataOffset, sdmMacInputOffset, sdmMacOffset
-        );
+    /**
+     * 미리 직렬화한 File Settings로 SDM 설정 수행
+     * 세션에 의존하는 암호화/CMAC만 여기서 계산한다.
+     *
+     * @param settingsData buildFileSettingsData 결과 (평문)
+     */
+    public void configureSdm(byte[] settingsData) throws ReaderException, GeneralSecurityException {
+        ConsoleHelper.printInfo("→ NDEF 파일에 SDM 설정 중...");
 
         // Settings 암호화
         byte[] paddedData = cryptoService.addPadding(settingsData, 16);
@@ -53,7 +63,7 @@ public class SdmConfigurationService {
         byte[] ivc = generateIVc(session.kSesAuthENC, session.transactionId, session.commandCounter);
         byte[] ivcInput = buildIVcInput(session.transactionId, session.commandCounter);
         DebugLogger.logHex("IVc Input", ivcInput);
-        DebugLogger.logHex("KSesAuthENC", session.kSesAuthENC);
+        DebugLogger.logKey("KSesAuthENC", session.kSesAuthENC);
         DebugLogger.logHex("IVc", ivc);
 
         byte[] encryptedSettings = cryptoService.encryptCBC(session.kSesAuthENC, ivc, paddedData);
@@ -74,36 +84,46 @@ public class SdmConfigurationService {
     }
 
     /**
-     * File Settings 데이터 생성
+     * File Settings 데이터 생성 (세션 무관 - 미리 만들어 둘 수 있음)
      */
-    private byte[] buildFileSettingsData(byte[] sdmAccessRights, int piccDataOffset,
+    public static byte[] buildFileSettingsData(byte[] sdmAccessRights, int piccDataOffset,
                                         int sdmMacInputOffset, int sdmMacOffset) {
+        return buildFileSettingsData(DEFAULT_ACCESS_RIGHTS, sdmAccessRights,
+            piccDataOffset, sdmMacInputOffset, sdmMacOffset);
+    }
+
+    /**
+     * File Settings 데이터 생성 (프로필의 Access Rights 지정)
+     *
+     * @param accessRights 2바이트 Access Rights
+     */
+    public static byte[] buildFileSettingsData(byte[] accessRights, byte[] sdmAccessRights, int piccDataOffset,
+                                               int sdmMacInputOffset, int sdmMacOffset) {
+        // AN12196 Table 18 배치:
         // File Option: 0x40 = SDM and Mirroring enabled
         // Access Rights: 2 bytes
-        // SDM Access Rights: 변수
-        // ASCII Mirror: piccData만 활성화 (0x01)
-        // SDM Options: 0xC1 (UID mirror + Read Counter + Read Counter Limit)
+        // SDM Options: 0xC1 (UID mirror + Read Counter + ASCII)
+        // SDM Access Rights: 2 bytes
+        // 오프셋: ENCPICCData, SDMMACInput, SDMMAC (MetaRead가 키이므로 UID/ReadCtr 오프셋 없음)
 
-        byte[] settings = new byte[10 + sdmAccessRights.length];
+        // FileOption(1) + AccessRights(2) + SDMOptions(1) + SDM AccessRights(2) + Offsets(3 × 3)
+        byte[] settings = new byte[1 + 2 + 1 + sdmAccessRights.length + 9];
         int idx = 0;
 
         // File Option
         settings[idx++] = 0x40;
 
-        // Access Rights (2 bytes) - Read: Free, Others: Key 0
-        settings[idx++] = (byte) 0xE0;  // Read: 0xE (Free), Write: 0x0
-        settings[idx++] = 0x00;         // RW: 0x0, Change: 0x0
+        // Access Rights (2 bytes)
+        settings[idx++] = accessRights[0];
+        settings[idx++] = accessRights[1];
+
+        // SDM Options
+        settings[idx++] = (byte) 0xC1;  // UID mirror + Read Counter + ASCII
 
         // SDM Access Rights
         System.arraycopy(sdmAccessRights, 0, settings, idx, sdmAccessRights.length);
         idx += sdmAccessRights.length;
 
-        // ASCII Mirror Configuration
-        settings[idx++] = 0x01;  // Mirror PICC Data
-
-        // SDM Options
-        settings[idx++] = (byte) 0xC1;  // UID mirror + Read Counter + Limit
-
         // PICC Data Offset (3 bytes, little endian)
         writeLittleEndian3Bytes(settings, idx, piccDataOffset);
         idx += 3;
@@ -121,7 +141,7 @@ public class SdmConfigurationService {
     /**
      * 3바이트 little-endian 쓰기 헬퍼
      */
-    private void writeLittleEndian3Bytes(byte[] buffer, int offset, int value) {
+    private static void writeLittleEndian3Bytes(byte[] buffer, int offset, int value) {
         buffer[offset] = (byte) (value & 0xFF);
         buffer[offset + 1] = (byte) ((value >> 8) & 0xFF);
         buffer[offset + 2] = (byte) ((value >> 16) & 0xFF);
@@ -130,8 +150,7 @@ public class SdmConfigurationService {
     /**
      * IVc 생성
      */
-    private byte[] generateIVc(byte[] kSesAuthENC, byte[] ti, byte[] cmdCtr)
-            throws GeneralSecurityException {
+    private byte[] generateIVc(KeyHandle kSesAuthENC, byte[] ti, byte[] cmdCtr) {
         byte[] ivInput = buildIVcInput(ti, cmdCtr);
         return cryptoService.encryptECB(kSesAuthENC, ivInput);
     }
@@ -140,11 +159,8 @@ public class SdmConfigurationService {
      * IVc 입력 데이터 생성
      */
     private byte[] buildIVcInput(byte[] ti, byte[] cmdCtr) {
-        byte[] ivInput = new byte[16];
-        System.arraycopy(ti, 0, ivInput, 0, 4);      // TI (4 bytes)
-        System.arraycopy(cmdCtr, 0, ivInput, 4, 2);  // CmdCtr (2 bytes)
-        // 나머지는 0x00으로 패딩
-        return ivInput;
+        // A5 5A || TI || CmdCtr || 0x00 패딩
+        return CommandIvBuilder.build(ti, cmdCtr);
     }
 
     /**
@@ -164,7 +180,7 @@ public class SdmConfigurationService {
         System.arraycopy(encryptedSettings, 0, cmacData, idx, encryptedSettings.length);
 
         DebugLogger.logHex("CMAC Input", cmacData);
-        DebugLogger.logHex("KSesAuthMAC", session.kSesAuthMAC);
+        DebugLogger.logKey("KSesAuthMAC", session.kSesAuthMAC);
         DebugLogger.logHex("EncryptedSettings", encryptedSettings);
 
         byte[] cmac = cryptoService.calculateCmac(session.kSesAuthMAC, cmacData);
@@ -0,0 +1,188 @@
+package ntagwriter.service;
+
+import ntagwriter.crypto.MacUtils;
+import ntagwriter.domain.SdmConfig;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.util.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * 설정 검증 서비스
+ * 인증 없이 ReadData로 NDEF 파일을 읽고, SDM 미러(PICCData/CMAC)를 새 키로 검증
+ */
+public class SdmVerificationService {
+
+    private static final int NDEF_FILE_NUMBER = 0x02;
+    private static final byte[] ZERO_IV = new byte[16];
+
+    // 미러링 ASCII 길이 (PICCData 16바이트 → 32자, MACt 8바이트 → 16자)
+    private static final int PICC_DATA_ASCII_LENGTH = 32;
+    private static final int SDM_MAC_ASCII_LENGTH = 16;
+
+    // PICCDataTag: bit7 = UID 미러, bit6 = SDMReadCtr 미러, bit3..0 = UID 길이
+    private static final int PICC_TAG_UID_MIRROR = 0x80;
+    private static final int PICC_TAG_COUNTER_MIRROR = 0x40;
+    private static final int PICC_TAG_UID_LENGTH_MASK = 0x0F;
+
+    // SV2 레이블 (SesSDMFileReadMACKey 유도용)
+    private static final byte[] SV2_PREFIX = {0x3C, (byte) 0xC3, 0x00, 0x01, 0x00, (byte) 0x80};
+
+    private final NfcReaderService readerService;
+    private final CryptoService cryptoService;
+
+    public SdmVerificationService(NfcReaderService readerService, CryptoService cryptoService) {
+        this.readerService = readerService;
+        this.cryptoService = cryptoService;
+    }
+
+    /**
+     * NDEF 파일을 읽어 SDM 미러 검증
+     *
+     * @param expectedUid    리더기로 읽은 태그 UID
+     * @param sdmConfig      미러링 오프셋 정보
+     * @param sdmMetaReadKey PICCData 복호화 키 (SDM Meta Read 키)
+     * @param sdmFileReadKey SDM MAC 세션 키 유도용 키 (SDM File Read 키)
+     * @return 검증 결과
+     */
+    public VerificationResult verify(byte[] expectedUid, SdmConfig sdmConfig,
+                                     byte[] sdmMetaReadKey, byte[] sdmFileReadKey)
+            throws ReaderException, GeneralSecurityException {
+
+        // CMAC 미러 끝까지만 읽음 (응답 프레임 크기를 넘으면 분할 수신)
+        int readLength = sdmConfig.getSdmMacOffset() + SDM_MAC_ASCII_LENGTH;
+        byte[] fileData = readNdefFile(readLength);
+
+        byte[] encPiccData = decodeAsciiHex(fileData, sdmConfig.getPicOffset(), PICC_DATA_ASCII_LENGTH);
+        byte[] mirroredMac = decodeAsciiHex(fileData, sdmConfig.getSdmMacOffset(), SDM_MAC_ASCII_LENGTH);
+
+        // PICCData 복호화: PICCDataTag || UID || SDMReadCtr || 패딩
+        byte[] piccData = cryptoService.decryptCBC(sdmMetaReadKey, ZERO_IV, encPiccData);
+        DebugLogger.logHex("PICCData", piccData);
+
+        int piccTag = piccData[0] & 0xFF;
+        int uidLength = piccTag & PICC_TAG_UID_LENGTH_MASK;
+        if ((piccTag & PICC_TAG_UID_MIRROR) == 0 || (piccTag & PICC_TAG_COUNTER_MIRROR) == 0
+                || uidLength != expectedUid.length) {
+            return VerificationResult.failure(
+                String.format("PICCDataTag 불일치 (0x%02X) - 메타 키 또는 SDM 옵션 확인 필요", piccTag));
+        }
+
+        byte[] uid = Arrays.copyOfRange(piccData, 1, 1 + uidLength);
+        byte[] readCounter = Arrays.copyOfRange(piccData, 1 + uidLength, 1 + uidLength + 3);
+        if (!Arrays.equals(uid, expectedUid)) {
+            return VerificationResult.failure("미러링된 UID가 태그 UID와 다릅니다: " + HexUtils.bytesToHex(uid));
+        }
+
+        // SDM MAC 검증: MACt(CMAC(SesSDMFileReadMACKey, 파일 데이터[MACInputOffset..MACOffset)))
+        byte[] sessionMacKey = cryptoService.calculateCmac(sdmFileReadKey, buildSv2(uid, readCounter));
+        byte[] macInput = Arrays.copyOfRange(fileData,
+            sdmConfig.getSdmMacInputOffset(), sdmConfig.getSdmMacOffset());
+        byte[] expectedMac = MacUtils.truncateMac(cryptoService.calculateCmac(sessionMacKey, macInput));
+        DebugLogger.logHex("Mirrored SDM MAC", mirroredMac);
+        DebugLogger.logHex("Expected SDM MAC", expectedMac);
+
+        if (!Arrays.equals(expectedMac, mirroredMac)) {
+            return VerificationResult.failure("SDM MAC 불일치 - 파일 읽기 키 확인 필요");
+        }
+
+        return VerificationResult.success(uid, readCounterToInt(readCounter));
+    }
+
+    /**
+     * ReadData (CommMode.Plain) 로 NDEF 파일 읽기
+     */
+    private byte[] readNdefFile(int length) throws ReaderException {
+        byte[] data = readerService.readData((byte) NDEF_FILE_NUMBER, 0, length, "NDEF 파일 읽기");
+        if (data.length < length) {
+            throw new ReaderException(
+                String.format("NDEF 파일 읽기 길이 부족: %d/%d bytes", data.length, length));
+        }
+        return data;
+    }
+
+    /**
+     * 파일 데이터의 ASCII HEX 구간을 바이트로 변환
+     */
+    private byte[] decodeAsciiHex(byte[] fileData, int offset, int asciiLength) throws ReaderException {
+        String hex = new String(fileData, offset, asciiLength, StandardCharsets.US_ASCII);
+        for (int i = 0; i < hex.length(); i++) {
+            if (Character.digit(hex.charAt(i), 16) < 0) {
+                throw new ReaderException("오프셋 " + offset + "의 미러 데이터가 HEX 형식이 아닙니다: " + hex);
+            }
+        }
+        return HexUtils.hexToBytes(hex);
+    }
+
+    /**
+     * SV2 = 3C C3 00 01 00 80 || UID || SDMReadCtr (16바이트 블록 단위 0 패딩)
+     */
+    private byte[] buildSv2(byte[] uid, byte[] readCounter) {
+        int length = SV2_PREFIX.length + uid.length + readCounter.length;
+        byte[] sv2 = new byte[(length + 15) / 16 * 16];
+        int idx = 0;
+        System.arraycopy(SV2_PREFIX, 0, sv2, idx, SV2_PREFIX.length);
+        idx += SV2_PREFIX.length;
+        System.arraycopy(uid, 0, sv2, idx, uid.length);
+        idx += uid.length;
+        System.arraycopy(readCounter, 0, sv2, idx, readCounter.length);
+        return sv2;
+    }
+
+    private int readCounterToInt(byte[] readCounter) {
+        return (readCounter[0] & 0xFF) | ((readCounter[1] & 0xFF) << 8) | ((readCounter[2] & 0xFF) << 16);
+    }
+
+    /**
+     * 설정 검증 결과
+     */
+    public static final class VerificationResult {
+        private final boolean valid;
+        private final byte[] mirroredUid;
+        private final int readCounter;
+        private final String message;
+
+        private VerificationResult(boolean valid, byte[] mirroredUid, int readCounter, String message) {
+            this.valid = valid;
+            this.mirroredUid = mirroredUid;
+            this.readCounter = readCounter;
+            this.message = message;
+        }
+
+        static VerificationResult success(byte[] mirroredUid, int readCounter) {
+            return new VerificationResult(true, mirroredUid.clone(), readCounter, "SDM 미러 검증 성공");
+        }
+
+        static VerificationResult failure(String message) {
+            return new VerificationResult(false, null, -1, message);
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        public byte[] mirroredUid() {
+            return mirroredUid == null ? null : mirroredUid.clone();
+        }
+
+        public int readCounter() {
+            return readCounter;
+        }
+
+        public String message() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "VerificationResult{" +
+                    "valid=" + valid +
+                    ", uid=" + HexUtils.bytesToHex(mirroredUid) +
+                    ", readCounter=" + readCounter +
+                    ", message='" + message + '\'' +
+                    '}';
+        }
+    }
+}
@@ -11,6 +11,7 @@ public class ApduCommand {
     // ISO 7816-4 Class byte
     public static final byte CLA_ISO = (byte) 0x00;
     public static final byte CLA_PROPRIETARY = (byte) 0x90;
+    public static final byte CLA_PSEUDO_APDU = (byte) 0xFF;
 
     // ISO 7816-4 Instruction bytes
     public static final byte INS_SELECT = (byte) 0xA4;
@@ -24,8 +25,15 @@ public class ApduCommand {
     public static final byte INS_CHANGE_FILE_SETTINGS = (byte) 0x5F;
     public static final byte INS_CHANGE_KEY = (byte) 0xC4;
     public static final byte INS_WRITE_DATA = (byte) 0x8D;
+    public static final byte INS_READ_DATA = (byte) 0xAD;
+    public static final byte INS_GET_FILE_SETTINGS = (byte) 0xF5;
+    public static final byte INS_GET_KEY_VERSION = (byte) 0x64;
     public static final byte INS_GET_VERSION = (byte) 0x60;
     public static final byte INS_GET_CARD_UID = (byte) 0x51;
+    public static final byte INS_ADDITIONAL_FRAME = (byte) 0xAF;
+
+    // PC/SC 리더기 의사 APDU
+    public static final byte INS_DIRECT_TRANSMIT = (byte) 0x00;
 
     /**
      * SELECT 명령어 생성
@@ -143,6 +151,33 @@ public class ApduCommand {
                 .toBytes();
     }
 
+    /**
+     * 리더기 투과 명령(FF 00 00 00)으로 감싼 네이티브 GET_VERSION(60h)
+     * ISO-DEP가 아닌 NTAG21x 식별용이며, 투과 명령을 지원하지 않는 리더기는 오류 SW로 거부한다.
+     *
+     * @return APDU 명령어 바이트 배열
+     */
+    public static byte[] nativeGetVersion() {
+        return CommandApdu.builder(CLA_PSEUDO_APDU, INS_DIRECT_TRANSMIT)
+                .header((byte) 0x00, (byte) 0x00)
+                .data(new byte[] {INS_GET_VERSION})
+                .build()
+                .toBytes();
+    }
+
+    /**
+     * NTAG424 추가 프레임 요청 (91AF 응답 뒤 다음 프레임 수신)
+     *
+     * @return APDU 명령어 바이트 배열
+     */
+    public static byte[] additionalFrame() {
+        return CommandApdu.builder(CLA_PROPRIETARY, INS_ADDITIONAL_FRAME)
+                .header((byte) 0x00, (byte) 0x00)
+                .le(0)
+                .build()
+                .toBytes();
+    }
+
     /**
      * NTAG424 GET CARD UID 명령어 생성
      *
@@ -156,6 +191,36 @@ public class ApduCommand {
                 .toBytes();
     }
 
+    /**
+     * NTAG424 GET FILE SETTINGS 명령어 생성 (인증 없이 CommMode.Plain)
+     *
+     * @param fileNo 파일 번호
+     * @return APDU 명령어 바이트 배열
+     */
+    public static byte[] getFileSettings(byte fileNo) {
+        return CommandApdu.builder(CLA_PROPRIETARY, INS_GET_FILE_SETTINGS)
+                .header((byte) 0x00, (byte) 0x00)
+                .data(new byte[] {fileNo})
+                .le(0)
+                .build()
+                .toBytes();
+    }
+
+    /**
+     * NTAG424 GET KEY VERSION 명령어 생성 (인증 없이 CommMode.Plain)
+     *
+     * @param keyNo 키 번호
+     * @return APDU 명령어 바이트 배열
+     */
+    public static byte[] getKeyVersion(byte keyNo) {
+        return CommandApdu.builder(CLA_PROPRIETARY, INS_GET_KEY_VERSION)
+                .header((byte) 0x00, (byte) 0x00)
+                .data(new byte[] {keyNo})
+                .le(0)
+                .build()
+                .toBytes();
+    }
+
     /**
      * NTAG424 CHANGE KEY 명령어 생성 (CommMode.FULL)
      * AN12196 Section 5.16 참조
@@ -267,6 +332,34 @@ public class ApduCommand {
                 .toBytes();
     }
 
+    /**
+     * NTAG424 READ DATA 명령어 생성 (CommMode.Plain)
+     * 읽기 권한이 Free(0xE)인 파일을 인증 없이 읽을 때 사용
+     *
+     * @param fileNo 파일 번호
+     * @param offset 읽기 시작 오프셋 (3 bytes, little-endian)
+     * @param length 읽을 길이 (3 bytes, little-endian, 0이면 파일 끝까지)
+     * @return APDU 명령어 바이트 배열
+     */
+    public static byte[] readData(byte fileNo, int offset, int length) {
+        byte[] payload = new byte[1 + 3 + 3];
+        int idx = 0;
+        payload[idx++] = fileNo;
+        payload[idx++] = (byte) (offset & 0xFF);
+        payload[idx++] = (byte) ((offset >> 8) & 0xFF);
+        payload[idx++] = (byte) ((offset >> 16) & 0xFF);
+        payload[idx++] = (byte) (length & 0xFF);
+        payload[idx++] = (byte) ((length >> 8) & 0xFF);
+        payload[idx] = (byte) ((length >> 16) & 0xFF);
+
+        return CommandApdu.builder(CLA_PROPRIETARY, INS_READ_DATA)
+                .header((byte) 0x00, (byte) 0x00)
+                .data(payload)
+                .le(0)
+                .build()
+                .toBytes();
+    }
+
     /**
      * APDU 명령어를 읽기 쉬운 문자열로 변환
      *
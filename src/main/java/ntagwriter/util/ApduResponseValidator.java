@@ -23,7 +23,8 @@ public class ApduResponseValidator {
             throws ReaderException {
         if (!isSuccess(response)) {
             throw new ReaderException(
-                String.format("%s 실패: %04X", operationName, response.getSW())
+                String.format("%s 실패: %04X", operationName, response.getSW()),
+                response.getSW()
             );
         }
     }
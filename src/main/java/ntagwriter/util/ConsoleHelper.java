@@ -16,6 +16,17 @@ public class ConsoleHelper {
     private static final String ERROR_PREFIX = "[ERROR] ";
     private static final String PROGRESS_PREFIX = "-> ";
 
+    // 대시보드 표시 중에는 정보/성공/경고/진행 메시지를 출력하지 않음
+    private static volatile boolean quiet;
+
+    /**
+     * 이벤트 메시지 출력 억제 여부 설정 (오류 메시지는 항상 출력)
+     * @param value true면 억제
+     */
+    public static void setQuiet(boolean value) {
+        quiet = value;
+    }
+
     /**
      * 사용자에게 예/아니오 질문
      * @param message 질문 메시지
@@ -60,6 +71,14 @@ public class ConsoleHelper {
         System.out.println("=".repeat(60));
     }
 
+    /**
+     * 구분선 출력
+     * @param ch 구분선 문자
+     */
+    public static void printLine(char ch) {
+        System.out.println(String.valueOf(ch).repeat(60));
+    }
+
     /**
      * 단계 헤더 출력
      * @param stepNumber 단계 번호
@@ -77,6 +96,9 @@ public class ConsoleHelper {
      * @param message 메시지
      */
     public static void printInfo(String message) {
+        if (quiet) {
+            return;
+        }
         System.out.println(INFO_PREFIX + message);
     }
 
@@ -85,6 +107,9 @@ public class ConsoleHelper {
      * @param message 메시지
      */
     public static void printSuccess(String message) {
+        if (quiet) {
+            return;
+        }
         System.out.println(SUCCESS_PREFIX + message);
     }
 
@@ -93,6 +118,9 @@ public class ConsoleHelper {
      * @param message 메시지
      */
     public static void printWarning(String message) {
+        if (quiet) {
+            return;
+        }
         System.out.println(WARNING_PREFIX + message);
     }
 
@@ -109,6 +137,9 @@ public class ConsoleHelper {
      * @param message 메시지
      */
     public static void printProgress(String message) {
+        if (quiet) {
+            return;
+        }
         System.out.println(PROGRESS_PREFIX + message);
     }
 
@@ -1,5 +1,9 @@
 package ntagwriter.util;
 
+import ntagwriter.crypto.KeyHandle;
+
+import java.util.Arrays;
+
 /**
  * 디버그 로깅 유틸리티
  * 반복적인 HEX 데이터 로깅 패턴을 간소화
@@ -25,6 +29,16 @@ public class DebugLogger {
         ConsoleHelper.printInfo(indent + "[DEBUG] " + label + ": " + HexUtils.bytesToHex(data));
     }
 
+    /**
+     * 키 로깅 (디버그 모드일 때만 힙으로 꺼내고 출력 후 지움)
+     */
+    public static void logKey(String label, KeyHandle key) {
+        if (!debugEnabled || key == null) return;
+        byte[] bytes = key.export();
+        logHex(label, bytes);
+        Arrays.fill(bytes, (byte) 0);
+    }
+
     /**
      * 문자열 디버그 로깅
      */
@@ -1,20 +1,23 @@
 package ntagwriter.util;
 
+import ntagwriter.crypto.KeyHandle;
+
 /**
- * 세션 정보 컨텍스트 (불변 객체)
+ * 세션 정보 컨텍스트
  * 인증 후 세션 정보를 일관되게 관리
+ * 세션 키는 힙 밖 {@link KeyHandle}로 들고 있다가 세션이 끝나면 {@link #close()}로 폐기한다.
  */
-public final class SessionContext {
+public final class SessionContext implements AutoCloseable {
 
-    public final byte[] kSesAuthENC;
-    public final byte[] kSesAuthMAC;
+    public final KeyHandle kSesAuthENC;
+    public final KeyHandle kSesAuthMAC;
     public final byte[] transactionId;
     public final byte[] commandCounter;
 
     /**
      * 전체 세션 정보 생성자
      */
-    public SessionContext(byte[] kSesAuthENC, byte[] kSesAuthMAC,
+    public SessionContext(KeyHandle kSesAuthENC, KeyHandle kSesAuthMAC,
                          byte[] transactionId, byte[] commandCounter) {
         this.kSesAuthENC = kSesAuthENC;
         this.kSesAuthMAC = kSesAuthMAC;
@@ -25,20 +28,20 @@ public final class SessionContext {
     /**
      * 키 관리용 세션 컨텍스트 생성 (최소 정보)
      */
-    public static SessionContext forKeyManagement(byte[] kSesAuthENC, byte[] commandCounter) {
+    public static SessionContext forKeyManagement(KeyHandle kSesAuthENC, byte[] commandCounter) {
         return new SessionContext(kSesAuthENC, null, null, commandCounter);
     }
 
     /**
      * SDM 설정용 세션 컨텍스트 생성 (전체 정보)
      */
-    public static SessionContext forSdmConfiguration(byte[] kSesAuthENC, byte[] kSesAuthMAC,
+    public static SessionContext forSdmConfiguration(KeyHandle kSesAuthENC, KeyHandle kSesAuthMAC,
                                                      byte[] transactionId, byte[] commandCounter) {
         return new SessionContext(kSesAuthENC, kSesAuthMAC, transactionId, commandCounter);
     }
 
     /**
-     * Command Counter 증가 (새 인스턴스 반환)
+     * Command Counter 증가 (새 인스턴스 반환, 세션 키 핸들은 공유)
      */
     public SessionContext withIncrementedCounter() {
         byte[] newCounter = new byte[2];
@@ -60,4 +63,17 @@ public final class SessionContext {
     public boolean hasTransactionId() {
         return transactionId != null;
     }
-}
\ No newline at end of file
+
+    /**
+     * 세션 키 폐기 (여러 번 호출해도 됨)
+     */
+    @Override
+    public void close() {
+        if (kSesAuthENC != null) {
+            kSesAuthENC.close();
+        }
+        if (kSesAuthMAC != null) {
+            kSesAuthMAC.close();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package ntagwriter.application.workflow;
+
+import ntagwriter.application.handler.StepHandler;
+import ntagwriter.domain.tag.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 단계 기한 초과 시 버린 핸들러의 격리와 RuntimeException 처리 확인
+ */
+class DefaultSetupWorkflowTest {
+
+    private static final StepDeadlines SHORT_STEPS = StepDeadlines.of(Duration.ofMillis(100), Duration.ZERO);
+
+    @Test
+    void timedOutHandlerCannotTouchContext() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        // 인터럽트를 무시하고 기한과 유예 시간을 넘겨 계속 실행되는 핸들러
+        StepHandler stuck = new FakeHandler(WorkflowState.TAG_DETECTED, WorkflowState.PROBED, context -> {
+            awaitUninterruptibly(release);
+            context.setAttribute(WorkflowContext.ATTR_SKIPPED, Boolean.TRUE);
+            context.transitionTo(WorkflowState.COMPLETED);
+            finished.countDown();
+        });
+        WorkflowContext context = detectedTagContext();
+
+        WorkflowResult result = new DefaultSetupWorkflow(List.of(stuck), null, SHORT_STEPS, () -> { })
+            .execute(context);
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+        assertFalse(result.success);
+        assertEquals(WorkflowState.ERROR, context.currentState());
+        assertFalse(context.hasAttribute(WorkflowContext.ATTR_SKIPPED));
+        assertTrue(context.lastError().contains("기한 초과"), context.lastError());
+    }
+
+    @Test
+    void handlerFinishedInTimeIsAdopted() {
+        StepHandler probe = new FakeHandler(WorkflowState.TAG_DETECTED, WorkflowState.PROBED,
+            context -> context.setAttribute(WorkflowContext.ATTR_SKIPPED, Boolean.FALSE));
+        StepHandler finish = new FakeHandler(WorkflowState.PROBED, WorkflowState.COMPLETED, context -> { });
+        WorkflowContext context = detectedTagContext();
+
+        WorkflowResult result = new DefaultSetupWorkflow(List.of(probe, finish), null, SHORT_STEPS, () -> { })
+            .execute(context);
+
+        assertTrue(result.success);
+        assertEquals(Boolean.FALSE, context.getAttribute(WorkflowContext.ATTR_SKIPPED));
+        assertEquals(2, result.stepResults.size());
+    }
+
+    @Test
+    void runtimeExceptionBecomesFailedStep() {
+        assertRuntimeExceptionRecorded(SHORT_STEPS);
+        assertRuntimeExceptionRecorded(StepDeadlines.NONE);
+    }
+
+    private static void assertRuntimeExceptionRecorded(StepDeadlines deadlines) {
+        StepHandler failing = new FakeHandler(WorkflowState.TAG_DETECTED, WorkflowState.PROBED, context -> {
+            throw new UncheckedIOException(new IOException("저널 쓰기 실패"));
+        });
+        WorkflowContext context = detectedTagContext();
+
+        WorkflowResult result = new DefaultSetupWorkflow(List.of(failing), null, deadlines, () -> { })
+            .execute(context);
+
+        assertFalse(result.success);
+        assertEquals(WorkflowState.ERROR, result.finalState);
+        assertEquals(1, result.stepResults.size());
+        assertFalse(result.stepResults.get(0).success);
+        assertTrue(result.errorMessage.contains("저널 쓰기 실패"), result.errorMessage);
+    }
+
+    private static WorkflowContext detectedTagContext() {
+        WorkflowContext context = new WorkflowContext(WorkflowMode.AUTOMATIC, null);
+        context.updateTag(new Tag(new byte[]{0x04, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06}));
+        context.transitionTo(WorkflowState.TAG_DETECTED);
+        assertNull(context.lastError());
+        return context;
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (latch.getCount() > 0) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface Step {
+        void run(WorkflowContext context);
+    }
+
+    private static final class FakeHandler implements StepHandler {
+        private final WorkflowState handles;
+        private final WorkflowState next;
+        private final Step step;
+
+        FakeHandler(WorkflowState handles, WorkflowState next, Step step) {
+            this.handles = handles;
+            this.next = next;
+            this.step = step;
+        }
+
+        @Override
+        public boolean canHandle(WorkflowState state) {
+            return state == handles;
+        }
+
+        @Override
+        public void execute(WorkflowContext context) {
+            step.run(context);
+        }
+
+        @Override
+        public String name() {
+            return "Fake" + handles;
+        }
+
+        @Override
+        public WorkflowState nextState() {
+            return next;
+        }
+    }
+}
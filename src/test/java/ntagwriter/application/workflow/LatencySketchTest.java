@@ -0,0 +1,131 @@
+package ntagwriter.application.workflow;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 지연 스케치의 분위수 오차, 병합(리더기/교대 간), 저장 형식 확인
+ */
+class LatencySketchTest {
+
+    private static final double[] QUANTILES = {0.0, 0.25, 0.5, 0.9, 0.99, 0.999, 1.0};
+
+    @Test
+    void quantilesStayWithinOnePercentOfExact() {
+        long[] samples = samples(20_000, 1);
+        LatencySketch sketch = new LatencySketch();
+        for (long sample : samples) {
+            sketch.record(sample);
+        }
+
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        for (double quantile : QUANTILES) {
+            long exact = sorted[(int) Math.max(0, Math.ceil(quantile * sorted.length) - 1)];
+            assertWithinOnePercent(exact, sketch.quantileNanos(quantile));
+        }
+    }
+
+    @Test
+    void mergedSketchesEqualOneSketchOfAllSamples() throws IOException {
+        long[] first = samples(5_000, 2);
+        long[] second = samples(7_000, 3);
+        LatencySketch whole = new LatencySketch();
+        LatencySketch readerA = new LatencySketch();
+        LatencySketch readerB = new LatencySketch();
+        for (long sample : first) {
+            whole.record(sample);
+            readerA.record(sample);
+        }
+        for (long sample : second) {
+            whole.record(sample);
+            readerB.record(sample);
+        }
+
+        LatencySketch merged = readerA.copy();
+        merged.merge(readerB);
+
+        assertEquals(whole.count(), merged.count());
+        for (double quantile : QUANTILES) {
+            assertEquals(whole.quantileNanos(quantile), merged.quantileNanos(quantile), "q=" + quantile);
+        }
+        assertArrayEquals(serialize(whole), serialize(merged));
+        // 병합은 원본을 바꾸지 않음
+        assertEquals(first.length, readerA.count());
+    }
+
+    @Test
+    void mergingEmptySketchKeepsMinAndMax() {
+        LatencySketch sketch = new LatencySketch();
+        sketch.record(2_000_000);
+        sketch.record(8_000_000);
+
+        sketch.merge(new LatencySketch());
+
+        assertEquals(2, sketch.count());
+        assertWithinOnePercent(2_000_000, sketch.quantileNanos(0.0));
+        assertWithinOnePercent(8_000_000, sketch.quantileNanos(1.0));
+        assertEquals(0, new LatencySketch().quantileNanos(0.5));
+    }
+
+    @Test
+    void valuesOutsideRangeFallIntoEdgeBuckets() {
+        LatencySketch sketch = new LatencySketch();
+        sketch.record(10);
+        sketch.record(3_600_000_000_000L);
+
+        // 1µs 아래와 10분 위는 양 끝 버킷 값으로 보고됨
+        assertWithinOnePercent(1_000, sketch.quantileNanos(0.0));
+        assertWithinOnePercent(600_000_000_000L, sketch.quantileNanos(1.0));
+    }
+
+    @Test
+    void roundTripsThroughStoredForm() throws IOException {
+        LatencySketch sketch = new LatencySketch();
+        for (long sample : samples(1_000, 4)) {
+            sketch.record(sample);
+        }
+
+        LatencySketch restored = LatencySketch.readFrom(
+            new DataInputStream(new ByteArrayInputStream(serialize(sketch))));
+
+        assertEquals(sketch.count(), restored.count());
+        for (double quantile : QUANTILES) {
+            assertEquals(sketch.quantileNanos(quantile), restored.quantileNanos(quantile));
+        }
+    }
+
+    private static void assertWithinOnePercent(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue(error <= 0.0101, "기대 " + expected + ", 실제 " + actual);
+    }
+
+    /**
+     * 50µs ~ 5초 로그 균등 분포 표본
+     */
+    private static long[] samples(int count, long seed) {
+        Random random = new Random(seed);
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = (long) Math.exp(Math.log(50_000) + random.nextDouble() * Math.log(100_000));
+        }
+        return samples;
+    }
+
+    private static byte[] serialize(LatencySketch sketch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+package ntagwriter.application.workflow;
+
+import ntagwriter.infrastructure.ui.SilentUserInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 정상 배치 뒤의 장애는 재시작 백오프를 처음부터 다시 세는지 확인
+ */
+class StationSupervisorTest {
+
+    private static final Pattern RESTART_COUNT = Pattern.compile("\\((\\d+)회째\\)");
+
+    @Test
+    void healthyBatchResetsRestartCount() throws Exception {
+        List<String> warnings = Collections.synchronizedList(new ArrayList<>());
+        SilentUserInteraction ui = new SilentUserInteraction() {
+            @Override
+            public void showWarning(String message) {
+                warnings.add(message);
+            }
+        };
+        AtomicInteger opens = new AtomicInteger();
+        CountDownLatch detached = new CountDownLatch(1);
+        List<String> attached = new ArrayList<>(List.of("reader-1"));
+
+        // 열 때마다: 장애, 장애, 태그 3개 처리 후 장애, 장애, 분리
+        StationSupervisor.StationFactory factory = (readerName, metrics) -> switch (opens.incrementAndGet()) {
+            case 3 -> new ScriptedStation(3);
+            case 5 -> {
+                synchronized (attached) {
+                    attached.clear();
+                }
+                detached.countDown();
+                yield new ScriptedStation();
+            }
+            default -> new ScriptedStation();
+        };
+        StationSupervisor.ReaderDiscovery discovery = () -> {
+            synchronized (attached) {
+                return List.copyOf(attached);
+            }
+        };
+
+        try (StationSupervisor supervisor = new StationSupervisor(discovery, factory, ui, Duration.ofMillis(1))) {
+            supervisor.start();
+            assertTrue(detached.await(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!supervisor.activeReaders().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+
+        List<Integer> restartCounts = new ArrayList<>();
+        synchronized (warnings) {
+            for (String warning : warnings) {
+                Matcher matcher = RESTART_COUNT.matcher(warning);
+                if (matcher.find()) {
+                    restartCounts.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        assertEquals(List.of(1, 2, 1, 2), restartCounts);
+    }
+
+    /**
+     * 주어진 처리 수로 배치를 끝낸 뒤, 다음 배치에서 리더기 오류를 내는 스테이션
+     */
+    private static final class ScriptedStation implements StationSupervisor.Station {
+        private final int[] batches;
+        private int next;
+
+        ScriptedStation(int... batches) {
+            this.batches = batches;
+        }
+
+        @Override
+        public int runBatch() throws IOException {
+            if (next < batches.length) {
+                return batches[next++];
+            }
+            throw new IOException("리더기 응답 없음");
+        }
+
+        @Override
+        public void requestStop() {
+        }
+
+        @Override
+        public boolean isIdle() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ntagwriter.comm;
+
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * ATR/ATS 프레임 크기 해석과 청크 길이 계산 확인
+ */
+class LinkParametersTest {
+
+    // NTAG424 DNA 기본 ATS: TL=06, T0=77 (FSCI=7, TA/TB/TC 있음), historical=80
+    private static final byte[] NTAG424_ATS = HexUtils.hexToBytes("067777710280");
+
+    @Test
+    void atrHistoricalBytesSkipInterfaceBytes() {
+        // 3B | T0=81 (TD1, historical 1) | TD1=80 (TD2) | TD2=01 | historical=80 | TCK
+        LinkParameters link = LinkParameters.fromAtr(HexUtils.hexToBytes("3B8180018080"));
+
+        assertArrayEquals(new byte[]{(byte) 0x80}, link.historicalBytes());
+        assertEquals(LinkParameters.DEFAULT_CARD_FRAME_SIZE, link.cardFrameSize());
+    }
+
+    @Test
+    void atsFsciSetsCardFrameSize() {
+        LinkParameters link = LinkParameters.DEFAULT.withAts(NTAG424_ATS);
+
+        assertEquals(128, link.cardFrameSize());
+        assertArrayEquals(new byte[]{(byte) 0x80}, link.historicalBytes());
+        // 128 - PCB/CRC(3) - APDU 헤더(6) - WriteData 헤더(7)
+        assertEquals(112, link.maxCommandDataLength(7));
+    }
+
+    @Test
+    void smallFrameShrinksChunks() {
+        LinkParameters link = LinkParameters.DEFAULT.withAts(HexUtils.hexToBytes("067577710280"));
+
+        assertEquals(64, link.cardFrameSize());
+        assertEquals(48, link.maxCommandDataLength(7));
+    }
+
+    @Test
+    void largeFrameIsCappedByShortApdu() {
+        LinkParameters link = LinkParameters.DEFAULT.withAts(HexUtils.hexToBytes("067C77710280"));
+
+        // FSCI 9 이상은 256으로 취급, 256 - 3 - 6 - 7 = 240 (Lc 한도 248보다 작음)
+        assertEquals(256, link.cardFrameSize());
+        assertEquals(240, link.maxCommandDataLength(7));
+        assertEquals(251, link.maxResponseDataLength());
+    }
+
+    @Test
+    void historicalOnlyResponseKeepsParameters() {
+        LinkParameters link = LinkParameters.DEFAULT.withReaderFrameSize(64);
+
+        // TL이 응답 길이와 다르면 historical bytes만 돌려준 것
+        assertSame(link, link.withAts(HexUtils.hexToBytes("80")));
+        assertSame(link, link.withAts(HexUtils.hexToBytes("0777710280")));
+        assertEquals(64 - 3 - 2, link.maxResponseDataLength());
+    }
+}
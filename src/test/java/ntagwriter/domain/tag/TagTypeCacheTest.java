@@ -0,0 +1,70 @@
+package ntagwriter.domain.tag;
+
+import ntagwriter.comm.LinkParameters;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TagTypeCacheTest {
+
+    private static final byte[] UID = HexUtils.hexToBytes("04BE0100000001");
+    private static final byte[] SAME_REEL = HexUtils.hexToBytes("04BE0100000002");
+
+    @Test
+    void identifiesNtag424FromFirstVersionFrame() {
+        assertEquals(NtagType.NTAG_424_DNA, NtagType.identifyByVersion(HexUtils.hexToBytes("04040230000011")));
+        assertEquals(NtagType.NTAG_424_DNA_TT, NtagType.identifyByVersion(HexUtils.hexToBytes("04040830000011")));
+        assertEquals(NtagType.UNKNOWN, NtagType.identifyByVersion(HexUtils.hexToBytes("0004040201000F03")));
+    }
+
+    @Test
+    void identifiesNtag21xFromType2AtrAndNativeVersion() {
+        // uTrust/ACR 계열이 Ultralight 계열 태그에 만들어 주는 ATR (3B 8F 80 01 + historical 15바이트 + TCK)
+        byte[] atr = HexUtils.hexToBytes("3B8F8001804F0CA0000003060300030000000068");
+        assertTrue(NtagType.isType2StorageCard(LinkParameters.fromAtr(atr).historicalBytes()));
+        assertFalse(NtagType.isType2StorageCard(HexUtils.hexToBytes("8077718002C1058000000000")));
+
+        assertEquals(NtagType.NTAG_213, NtagType.identifyByNativeVersion(HexUtils.hexToBytes("0004040201000F03")));
+        assertEquals(NtagType.NTAG_215, NtagType.identifyByNativeVersion(HexUtils.hexToBytes("0004040201001103")));
+        assertEquals(NtagType.NTAG_216, NtagType.identifyByNativeVersion(HexUtils.hexToBytes("0004040201001303")));
+        // Ultralight EV1 (ProductType 03)은 NTAG이 아님
+        assertEquals(NtagType.UNKNOWN, NtagType.identifyByNativeVersion(HexUtils.hexToBytes("0004030101000B03")));
+    }
+
+    @Test
+    void answersOnlyAfterRequiredConfirmations() {
+        TagTypeCache cache = new TagTypeCache(3, 2);
+
+        cache.record(UID, NtagType.NTAG_424_DNA);
+        assertEquals(Optional.empty(), cache.lookup(SAME_REEL));
+
+        cache.record(UID, NtagType.NTAG_424_DNA);
+        assertEquals(Optional.of(NtagType.NTAG_424_DNA), cache.lookup(SAME_REEL));
+    }
+
+    @Test
+    void differentTypeRestartsConfirmations() {
+        TagTypeCache cache = new TagTypeCache(3, 2);
+        cache.record(UID, NtagType.NTAG_424_DNA);
+        cache.record(UID, NtagType.NTAG_424_DNA);
+
+        cache.record(SAME_REEL, NtagType.NTAG_424_DNA_TT);
+
+        assertEquals(Optional.empty(), cache.lookup(UID));
+    }
+
+    @Test
+    void invalidateEvictsPrefix() {
+        TagTypeCache cache = new TagTypeCache(3, 1);
+        cache.record(UID, NtagType.NTAG_424_DNA);
+
+        cache.invalidate(SAME_REEL);
+
+        assertEquals(Optional.empty(), cache.lookup(UID));
+    }
+}
@@ -0,0 +1,126 @@
+package ntagwriter.infrastructure.nfc.emulator;
+
+import ntagwriter.crypto.AesEncryption;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 에뮬레이터가 AN12196 예제 C-APDU(ChangeKey Table 25/26, ChangeFileSettings Table 18)를 받아들이고
+ * SUN 미러 예제와 같은 SDM MAC을 만드는지 확인 (호스트 서비스가 만든 명령이 아니라 데이터시트 값으로 고정)
+ */
+class Ntag424EmulatorTest {
+
+    private static final byte[] UID = HexUtils.hexToBytes("04DE5F1EACC040");
+    private static final byte[] ZERO_IV = new byte[16];
+
+    private static final String CHANGE_KEY_ENC = "4CF3CB41A22583A61E89B158D252FC53";
+    private static final String CHANGE_KEY_MAC = "5529860B2FC5FB6154B7F28361D30BF9";
+    private static final String CHANGE_KEY_TI = "7614281A";
+
+    private static final String SETTINGS = "4000E0C1F121200000430000430000";
+    private static final String CHANGE_FILE_SETTINGS =
+        "905F0000190261B6D97903566E84C3AE5274467E89EAD799B7C1A0EF7A0400";
+
+    @Test
+    void acceptsDatasheetChangeKeyForOtherKey() {
+        Ntag424Emulator tag = new Ntag424Emulator(UID);
+        restoreChangeKeySession(tag, "0200");
+
+        byte[] response = tag.process(HexUtils.hexToBytes(
+            "90C4000029022CF362B7BF4311FF3BE1DAA295E8C68DE09050560D19B9E16C2393AE9CD1FAC75D0CE20BCD1D06E600"));
+
+        assertEquals("9100", statusWord(response));
+        assertArrayEquals(HexUtils.hexToBytes("F3847D627727ED3BC9C4CC050489B966"), tag.key(2));
+        assertEquals(1, tag.keyVersion(2));
+    }
+
+    @Test
+    void acceptsDatasheetChangeKeyForAuthKey() {
+        Ntag424Emulator tag = new Ntag424Emulator(UID);
+        restoreChangeKeySession(tag, "0300");
+
+        byte[] response = tag.process(HexUtils.hexToBytes(
+            "90C400002900C0EB4DEEFEDDF0B513A03A95A75491818580503190D4D05053FF75668A01D6FDA6610234BDED643200"));
+
+        assertEquals("9100", HexUtils.bytesToHex(response));
+        assertArrayEquals(HexUtils.hexToBytes("5004BF991F408672B1EF00F08F9E8647"), tag.key(0));
+    }
+
+    @Test
+    void rejectsChangeKeyWithWrongCommandCounter() {
+        Ntag424Emulator tag = new Ntag424Emulator(UID);
+        restoreChangeKeySession(tag, "0100");
+
+        byte[] response = tag.process(HexUtils.hexToBytes(
+            "90C4000029022CF362B7BF4311FF3BE1DAA295E8C68DE09050560D19B9E16C2393AE9CD1FAC75D0CE20BCD1D06E600"));
+
+        assertEquals("911E", statusWord(response));
+        assertArrayEquals(new byte[16], tag.key(2));
+    }
+
+    @Test
+    void acceptsDatasheetChangeFileSettings() {
+        Ntag424Emulator tag = new Ntag424Emulator(UID);
+        restoreChangeFileSettingsSession(tag);
+
+        byte[] response = tag.process(HexUtils.hexToBytes(CHANGE_FILE_SETTINGS));
+
+        assertEquals("9100", statusWord(response));
+        assertEquals(SETTINGS, HexUtils.bytesToHex(tag.fileSettings()));
+    }
+
+    @Test
+    void sdmMirrorMatchesDatasheetSunMessage() throws Exception {
+        Ntag424Emulator tag = new Ntag424Emulator(UID);
+        restoreChangeFileSettingsSession(tag);
+        tag.process(HexUtils.hexToBytes(CHANGE_FILE_SETTINGS));
+
+        // PICCData는 0x20, MAC 입력과 MAC은 0x43 (MAC 입력 없음)
+        byte[] file = new byte[0x43 + 16];
+        Arrays.fill(file, (byte) 'x');
+        Arrays.fill(file, 0x20, 0x40, (byte) '0');
+        System.arraycopy("&c=".getBytes(StandardCharsets.US_ASCII), 0, file, 0x40, 3);
+        Arrays.fill(file, 0x43, file.length, (byte) '0');
+        byte[] write = new byte[5 + 7 + file.length];
+        System.arraycopy(HexUtils.hexToBytes("908D0000"), 0, write, 0, 4);
+        write[4] = (byte) (7 + file.length);
+        write[5] = 0x02;
+        write[9] = (byte) file.length;
+        System.arraycopy(file, 0, write, 12, file.length);
+        assertEquals("9100", statusWord(tag.process(write)));
+
+        // 예제의 SDMReadCtr는 0x3D: 선택마다 첫 읽기에서 1씩 오름
+        byte[] image = null;
+        for (int read = 0; read < 0x3D; read++) {
+            tag.leaveField();
+            image = tag.process(HexUtils.hexToBytes("90AD0000070200000000000000"));
+        }
+
+        String text = new String(image, 0, file.length, StandardCharsets.US_ASCII);
+        assertEquals("94EED9EE65337086", text.substring(0x43));
+        byte[] piccData = AesEncryption.decryptCBC(new byte[16], ZERO_IV,
+            HexUtils.hexToBytes(text.substring(0x20, 0x40)));
+        assertEquals("C704DE5F1EACC0403D0000", HexUtils.bytesToHex(Arrays.copyOf(piccData, 11)));
+    }
+
+    private static void restoreChangeKeySession(Ntag424Emulator tag, String commandCounter) {
+        tag.restoreSession(0, HexUtils.hexToBytes(CHANGE_KEY_ENC), HexUtils.hexToBytes(CHANGE_KEY_MAC),
+            HexUtils.hexToBytes(CHANGE_KEY_TI), HexUtils.hexToBytes(commandCounter));
+    }
+
+    private static void restoreChangeFileSettingsSession(Ntag424Emulator tag) {
+        tag.restoreSession(0, HexUtils.hexToBytes("1309C877509E5A215007FF0ED19CA564"),
+            HexUtils.hexToBytes("4C6626F5E72EA694202139295C7A7FC7"), HexUtils.hexToBytes("9D00C4DF"),
+            HexUtils.hexToBytes("0100"));
+    }
+
+    private static String statusWord(byte[] response) {
+        return HexUtils.bytesToHex(Arrays.copyOfRange(response, response.length - 2, response.length));
+    }
+}
@@ -0,0 +1,98 @@
+package ntagwriter.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 배정 기록의 재시작 복원 (색인 체크포인트, 잘린 꼬리 제거, 색인 재구성) 확인
+ */
+class FeedAssignmentLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void assignmentsSurviveReopenThroughIndex() throws Exception {
+        Path path = directory.resolve("feed.assignments.csv");
+        try (FeedAssignmentLog log = new FeedAssignmentLog(path)) {
+            log.append("04000000000001", 1, 10, 20);
+            log.append("04000000000002", 2, 30, 25);
+        }
+
+        try (FeedAssignmentLog log = new FeedAssignmentLog(path)) {
+            assertEquals(1, log.find("04000000000001").orElseThrow().row);
+            assertEquals(55, log.last().map(a -> a.offset + a.length).orElseThrow());
+            assertTrue(log.find("04000000000003").isEmpty());
+        }
+    }
+
+    @Test
+    void tornTailIsTruncatedBeforeNextAppend() throws Exception {
+        Path path = directory.resolve("feed.assignments.csv");
+        try (FeedAssignmentLog log = new FeedAssignmentLog(path)) {
+            log.append("04000000000001", 1, 10, 20);
+        }
+        // 숫자로 끝나 그대로 파싱되는 줄이 줄바꿈 없이 잘린 경우
+        Files.writeString(path, "04000000000002,2,30,2", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+
+        try (FeedAssignmentLog log = new FeedAssignmentLog(path)) {
+            assertTrue(log.find("04000000000002").isEmpty());
+            assertEquals(1, log.last().orElseThrow().row);
+            log.append("04000000000003", 2, 30, 25);
+        }
+
+        List<String> lines = Files.readAllLines(path, StandardCharsets.US_ASCII);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).startsWith("04000000000003,2,30,25,"), lines.get(2));
+    }
+
+    @Test
+    void corruptedLineIsRejectedByChecksum() throws Exception {
+        Path path = directory.resolve("feed.assignments.csv");
+        try (FeedAssignmentLog log = new FeedAssignmentLog(path)) {
+            log.append("04000000000001", 1, 10, 20);
+            log.append("04000000000002", 2, 30, 25);
+        }
+        String text = Files.readString(path, StandardCharsets.US_ASCII);
+        Files.writeString(path, text.replace("04000000000002,2,30,25", "04000000000002,2,30,99"),
+            StandardCharsets.US_ASCII);
+        deleteIndex(path);
+
+        try (FeedAssignmentLog log = new FeedAssignmentLog(path)) {
+            assertEquals(1, log.find("04000000000001").orElseThrow().row);
+            assertTrue(log.find("04000000000002").isEmpty());
+            assertEquals(1, log.last().orElseThrow().row);
+        }
+    }
+
+    @Test
+    void missingIndexIsRebuiltFromLog() throws Exception {
+        Path path = directory.resolve("feed.assignments.csv");
+        try (FeedAssignmentLog log = new FeedAssignmentLog(path)) {
+            for (int row = 1; row <= 100; row++) {
+                log.append(String.format("04%012X", row), row, row * 10L, 10);
+            }
+        }
+        deleteIndex(path);
+
+        try (FeedAssignmentLog log = new FeedAssignmentLog(path)) {
+            assertEquals(42, log.find(String.format("04%012X", 42)).orElseThrow().row);
+            assertEquals(100, log.last().orElseThrow().row);
+        }
+    }
+
+    private static void deleteIndex(Path path) throws Exception {
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".index.db" + suffix));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.infrastructure.persistence.JsonProfileStore.ProfileException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ChangeFileSettings 배치(SDMOptions 0xC1)가 표현하지 못하는 SDM 접근 권한을 프로필 로드에서 거부하는지 확인
+ */
+class JsonProfileStoreTest {
+
+    private static final String URL = "https://example.com/t?enc=" + "0".repeat(32) + "&cmac=" + "0".repeat(16);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keyProtectedMirrorAndMacAreAccepted() throws Exception {
+        Path path = write(profile("2", "1", "F"));
+        assertDoesNotThrow(() -> JsonProfileStore.load(path));
+    }
+
+    @Test
+    void plainOrDisabledMirrorIsRejected() throws Exception {
+        for (String metaRead : new String[] {"E", "F"}) {
+            Path path = write(profile(metaRead, "1", "1"));
+            ProfileException error = assertThrows(ProfileException.class, () -> JsonProfileStore.load(path));
+            assertTrue(error.getMessage().contains("metaRead"), error.getMessage());
+        }
+    }
+
+    @Test
+    void disabledMacIsRejected() throws Exception {
+        Path path = write(profile("2", "F", "1"));
+        ProfileException error = assertThrows(ProfileException.class, () -> JsonProfileStore.load(path));
+        assertTrue(error.getMessage().contains("fileRead"), error.getMessage());
+    }
+
+    private static String profile(String metaRead, String fileRead, String counterRet) {
+        return "{\"name\": \"test\", \"baseUrl\": \"" + URL + "\", "
+            + "\"sdmAccessRights\": {\"metaRead\": \"" + metaRead + "\", \"fileRead\": \"" + fileRead
+            + "\", \"counterRet\": \"" + counterRet + "\"}}";
+    }
+
+    private Path write(String json) throws Exception {
+        Path path = Files.createTempFile(directory, "profile", ".json");
+        Files.writeString(path, json, StandardCharsets.UTF_8);
+        return path;
+    }
+}
@@ -0,0 +1,132 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.port.KeyEscrowPort;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 키 에스크로 기록/조회, 색인 병합(열 때와 실행 중), 조회 전용 열기와 잠금 확인
+ */
+class KeyEscrowStoreTest {
+
+    private static final byte[] MASTER_KEY = HexUtils.hexToBytes("000102030405060708090A0B0C0D0E0F");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void depositedKeysAreFoundBeforeAndAfterReopen() throws Exception {
+        Path log = directory.resolve("key-escrow.log");
+        try (KeyEscrowStore escrow = new KeyEscrowStore(log, MASTER_KEY)) {
+            escrow.awaitDurable(escrow.deposit("04A1B2C3D4E5F6", key(1), (byte) 1));
+            escrow.deposit("04000000000002", key(2), (byte) 1);
+            assertKey(escrow, "04A1B2C3D4E5F6", key(1), 1);
+        }
+
+        try (KeyEscrowStore escrow = new KeyEscrowStore(log, MASTER_KEY)) {
+            assertEquals(2, escrow.size());
+            assertEquals(0, escrow.pendingIndexEntries());
+            assertKey(escrow, "04A1B2C3D4E5F6", key(1), 1);
+            assertKey(escrow, "04000000000002", key(2), 1);
+            assertEquals(Optional.empty(), escrow.find("04FFFFFFFFFFFF"));
+
+            // 같은 UID를 다시 기록하면 최신 키가 이김
+            escrow.deposit("04A1B2C3D4E5F6", key(3), (byte) 2);
+            assertKey(escrow, "04A1B2C3D4E5F6", key(3), 2);
+        }
+
+        try (KeyEscrowStore escrow = new KeyEscrowStore(log, MASTER_KEY)) {
+            assertKey(escrow, "04A1B2C3D4E5F6", key(3), 2);
+        }
+    }
+
+    @Test
+    void missingIndexIsRebuiltFromLog() throws Exception {
+        Path log = directory.resolve("key-escrow.log");
+        try (KeyEscrowStore escrow = new KeyEscrowStore(log, MASTER_KEY)) {
+            escrow.deposit("04A1B2C3D4E5F6", key(1), (byte) 1);
+        }
+        new KeyEscrowStore(log, MASTER_KEY).close();
+        Files.delete(directory.resolve("key-escrow.idx"));
+
+        try (KeyEscrowStore escrow = new KeyEscrowStore(log, MASTER_KEY)) {
+            assertKey(escrow, "04A1B2C3D4E5F6", key(1), 1);
+        }
+    }
+
+    @Test
+    void recentDepositsAreMergedIntoIndexWhileRunning() throws Exception {
+        Path log = directory.resolve("key-escrow.log");
+        try (KeyEscrowStore escrow = new KeyEscrowStore(log, MASTER_KEY, 4)) {
+            long receipt = 0;
+            for (int i = 0; i < 10; i++) {
+                receipt = escrow.deposit(uid(i), key(i), (byte) 1);
+            }
+            escrow.awaitDurable(receipt);
+
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (escrow.pendingIndexEntries() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, escrow.pendingIndexEntries());
+            for (int i = 0; i < 10; i++) {
+                assertKey(escrow, uid(i), key(i), 1);
+            }
+        }
+    }
+
+    @Test
+    void readOnlyLookupWorksWhileWriterIsOpen() throws Exception {
+        Path log = directory.resolve("key-escrow.log");
+        try (KeyEscrowStore writer = new KeyEscrowStore(log, MASTER_KEY)) {
+            writer.awaitDurable(writer.deposit("04A1B2C3D4E5F6", key(1), (byte) 1));
+
+            try (KeyEscrowStore reader = KeyEscrowStore.openReadOnly(log, MASTER_KEY)) {
+                assertKey(reader, "04A1B2C3D4E5F6", key(1), 1);
+                assertThrows(KeyEscrowPort.EscrowException.class,
+                    () -> reader.deposit("04000000000002", key(2), (byte) 1));
+            }
+            // 쓰는 프로세스는 하나뿐
+            assertThrows(KeyEscrowPort.EscrowException.class, () -> new KeyEscrowStore(log, MASTER_KEY));
+        }
+    }
+
+    @Test
+    void wrongMasterKeyIsRejected() throws Exception {
+        Path log = directory.resolve("key-escrow.log");
+        new KeyEscrowStore(log, MASTER_KEY).close();
+
+        KeyEscrowPort.EscrowException error = assertThrows(KeyEscrowPort.EscrowException.class,
+            () -> KeyEscrowStore.openReadOnly(log, key(9)));
+        assertTrue(error.getMessage().contains("마스터 키"));
+    }
+
+    private static void assertKey(KeyEscrowStore escrow, String uid, byte[] expected, int keyVersion)
+            throws Exception {
+        KeyEscrowPort.EscrowedKey found = escrow.find(uid).orElseThrow();
+        assertArrayEquals(expected, found.key());
+        assertEquals(keyVersion, found.keyVersion());
+    }
+
+    private static String uid(int i) {
+        return String.format("04%012X", i);
+    }
+
+    private static byte[] key(int seed) {
+        byte[] key = new byte[16];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) (seed * 31 + i);
+        }
+        return key;
+    }
+}
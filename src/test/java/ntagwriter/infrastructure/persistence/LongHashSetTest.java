@@ -0,0 +1,76 @@
+package ntagwriter.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * long 해시 집합의 추가/조회, 크기 확장, 스냅샷 복원 확인
+ */
+class LongHashSetTest {
+
+    @Test
+    void addReportsOnlyNewKeys() {
+        LongHashSet set = new LongHashSet(4);
+
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void growsPastExpectedSizeWithoutLosingKeys() {
+        LongHashSet set = new LongHashSet(1);
+        for (long key = 1; key <= 10_000; key++) {
+            assertTrue(set.add(key * 0x1_0000_0000L));
+        }
+
+        assertEquals(10_000, set.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertTrue(set.contains(key * 0x1_0000_0000L), "잃은 키: " + key);
+        }
+        assertFalse(set.contains(10_001 * 0x1_0000_0000L));
+        // 부하율 0.5 이하 유지
+        assertTrue(set.table().length >= 2 * set.size());
+    }
+
+    @Test
+    void forEachVisitsEveryKeyOnce() {
+        LongHashSet set = new LongHashSet(16);
+        for (long key = 1; key <= 100; key++) {
+            set.add(key);
+        }
+
+        Set<Long> visited = new HashSet<>();
+        set.forEach(key -> assertTrue(visited.add(key)));
+        assertEquals(100, visited.size());
+    }
+
+    @Test
+    void restoredSetAnswersTheSame() {
+        LongHashSet set = new LongHashSet(16);
+        for (long key = 1; key <= 100; key++) {
+            set.add(key * 31);
+        }
+
+        LongHashSet restored = new LongHashSet(set.table().clone(), set.size());
+        assertEquals(100, restored.size());
+        for (long key = 1; key <= 3_100; key++) {
+            assertEquals(set.contains(key), restored.contains(key));
+        }
+    }
+
+    @Test
+    void rejectsZeroKeyAndBadTable() {
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(4).add(0));
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(new long[12], 0));
+    }
+}
@@ -0,0 +1,150 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.ProvisioningRecord;
+import ntagwriter.domain.tag.Tag;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 날짜가 바뀌어 회전한 뒤에도 이전 파티션의 완료 UID를 찾는지, 전역 UID 색인 재구성,
+ * 미리 열어 둔 파티션으로의 회전 확인
+ */
+class PartitionedProvisioningLedgerTest {
+
+    private static final String UID = "04A1B2C3D4E5F6";
+    private static final String OTHER_UID = "04000000000002";
+    private static final LocalDateTime FIRST_DAY = LocalDate.now().atTime(9, 0);
+    private static final LocalDateTime SECOND_DAY = FIRST_DAY.plusDays(1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void uidFromEarlierPartitionIsFoundWithFirstCompletion() throws Exception {
+        try (PartitionedProvisioningLedger ledger = open()) {
+            ledger.record(record(UID, FIRST_DAY));
+            // 다음 날 기록이 회전시키고, 같은 UID가 다음 파티션에 다시 완료로 들어감
+            ledger.record(record(OTHER_UID, SECOND_DAY));
+            ledger.record(record(UID, SECOND_DAY.plusHours(1)));
+        }
+
+        try (PartitionedProvisioningLedger ledger = open()) {
+            assertEquals(Optional.of(FIRST_DAY), ledger.findProvisioned(uidKey(UID)));
+            assertEquals(Optional.of(SECOND_DAY), ledger.findProvisioned(uidKey(OTHER_UID)));
+            assertEquals(Optional.empty(), ledger.findProvisioned(uidKey("04FFFFFFFFFFFF")));
+        }
+    }
+
+    @Test
+    void recordsOfLivePartitionAreIndexedOnLookup() throws Exception {
+        try (PartitionedProvisioningLedger ledger = open()) {
+            ledger.record(record(UID, FIRST_DAY));
+
+            // 기록 스레드가 넣을 때까지 대기
+            Optional<LocalDateTime> found = Optional.empty();
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (found.isEmpty() && System.nanoTime() < deadline) {
+                found = ledger.findProvisioned(uidKey(UID));
+                Thread.sleep(10);
+            }
+            assertEquals(Optional.of(FIRST_DAY), found);
+        }
+    }
+
+    @Test
+    void missingIndexIsRebuiltFromArchivedPartitions() throws Exception {
+        try (PartitionedProvisioningLedger ledger = open()) {
+            ledger.record(record(UID, FIRST_DAY));
+            ledger.record(record(OTHER_UID, SECOND_DAY));
+        }
+        for (String suffix : new String[] {"", "-wal", "-shm"}) {
+            Files.deleteIfExists(directory.resolve(LedgerUidIndex.FILE_NAME + suffix));
+        }
+
+        try (PartitionedProvisioningLedger ledger = open()) {
+            assertEquals(Optional.of(FIRST_DAY), ledger.findProvisioned(uidKey(UID)));
+            List<Long> uids = new ArrayList<>();
+            ledger.loadProvisionedUids(0, uids::add);
+            assertTrue(uids.contains(uidKey(UID)) && uids.contains(uidKey(OTHER_UID)));
+        }
+    }
+
+    @Test
+    void rotationSwapsToPartitionPreparedByArchiver() throws Exception {
+        LocalDateTime thirdDay = SECOND_DAY.plusDays(1);
+        LocalDateTime fourthDay = thirdDay.plusDays(1);
+        try (PartitionedProvisioningLedger ledger = open()) {
+            LedgerPartition prepared = awaitSpare(ledger, SECOND_DAY.toLocalDate());
+            ledger.record(record(UID, SECOND_DAY));
+            assertEquals(prepared.path, ledger.activePartition().path);
+
+            // 미리 연 날짜(다음 날)를 건너뛴 기록은 현재 파티션에 남고, 그 날짜 파티션이 준비되면 바뀜
+            LedgerPartition skipped = awaitSpare(ledger, thirdDay.toLocalDate());
+            ledger.record(record(OTHER_UID, fourthDay));
+            assertEquals(prepared.path, ledger.activePartition().path);
+            LedgerPartition next = awaitSpare(ledger, fourthDay.toLocalDate());
+            assertFalse(Files.exists(skipped.path));
+            ledger.record(record(OTHER_UID, fourthDay.plusHours(1)));
+            assertEquals(next.path, ledger.activePartition().path);
+        }
+
+        // 닫을 때 쓰지 않은 파티션은 지움
+        try (DirectoryStream<Path> live = Files.newDirectoryStream(directory, "ledger-*.db")) {
+            List<String> names = new ArrayList<>();
+            live.forEach(path -> names.add(path.getFileName().toString()));
+            assertEquals(List.of(LedgerPartition.fileName(3, fourthDay.toLocalDate())), names);
+        }
+    }
+
+    private static LedgerPartition awaitSpare(PartitionedProvisioningLedger ledger, LocalDate date)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            LedgerPartition spare = ledger.sparePartition();
+            if (spare != null && spare.date.equals(date)) {
+                return spare;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("미리 연 파티션 없음: " + date);
+    }
+
+    private PartitionedProvisioningLedger open() throws Exception {
+        return new PartitionedProvisioningLedger(directory, null, PartitionedProvisioningLedger.DEFAULT_MAX_RECORDS,
+            message -> { });
+    }
+
+    private static ProvisioningRecord record(String uid, LocalDateTime recordedAt) {
+        return ProvisioningRecord.builder()
+            .recordedAt(recordedAt)
+            .readerName("reader-1")
+            .uid(uid)
+            .outcome(ProvisioningRecord.Outcome.SUCCESS)
+            .finalState("COMPLETED")
+            .profileName("walkd")
+            .url("https://example.com/t")
+            .keyVersion(1)
+            .duration(Duration.ofMillis(420))
+            .addStep("SDM 설정", true, Duration.ofMillis(300))
+            .build();
+    }
+
+    private static long uidKey(String uid) {
+        return Tag.uidKey(HexUtils.hexToBytes(uid));
+    }
+}
@@ -0,0 +1,188 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.application.workflow.WorkflowState;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 진행 저널 재생, 잘린/손상된 끝 레코드 정리, 이전 형식의 키를 에스크로로 옮기기 확인
+ */
+class ProvisioningJournalTest {
+
+    private static final String UID = "04A1B2C3D4E5F6";
+    private static final String KEY = "F3847D627727ED3BC9C4CC050489B966";
+    private static final byte KEY_VERSION = 1;
+
+    @TempDir
+    Path directory;
+
+    private Path journalPath;
+    private KeyEscrowStore escrow;
+
+    @BeforeEach
+    void openEscrow() throws Exception {
+        journalPath = directory.resolve("provisioning-journal.bin");
+        escrow = new KeyEscrowStore(directory.resolve("key-escrow.log"),
+            HexUtils.hexToBytes("000102030405060708090A0B0C0D0E0F"));
+    }
+
+    @AfterEach
+    void closeEscrow() {
+        escrow.close();
+    }
+
+    @Test
+    void replayRestoresStepsAndKeySlots() {
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            journal.begin(UID, KEY_VERSION, 5);
+            journal.markCompleted(UID, WorkflowState.SDM_CONFIGURED);
+            journal.markKeySlotsPending(UID, List.of(0, 1));
+            journal.markKeySlot(UID, 0, ProvisioningJournal.KeySlotState.CHANGED);
+            journal.begin("04000000000002", KEY_VERSION, 5);
+            journal.complete("04000000000002");
+        }
+
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            ProvisioningJournal.Entry entry = journal.find(UID).orElseThrow();
+            assertTrue(entry.isCompleted(WorkflowState.SDM_CONFIGURED));
+            assertFalse(entry.isCompleted(WorkflowState.NDEF_WRITTEN));
+            assertEquals(ProvisioningJournal.KeySlotState.CHANGED, entry.keySlot(0));
+            assertEquals(ProvisioningJournal.KeySlotState.PENDING, entry.keySlot(1));
+            assertEquals(ProvisioningJournal.KeySlotState.FACTORY, entry.keySlot(2));
+            assertTrue(entry.hasChangedKeys());
+            assertEquals(1, journal.inProgress().size());
+        }
+    }
+
+    @Test
+    void tornTailIsTruncated() throws Exception {
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            journal.begin(UID, KEY_VERSION, 5);
+            journal.markKeySlotsPending(UID, List.of(0));
+        }
+        long intact = Files.size(journalPath);
+        // 쓰는 도중 끊긴 레코드: 길이는 있지만 내용이 모자람
+        Files.write(journalPath, new byte[]{0x00, 0x20, 0x02, 0x01}, StandardOpenOption.APPEND);
+
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            assertEquals(ProvisioningJournal.KeySlotState.PENDING, journal.find(UID).orElseThrow().keySlot(0));
+        }
+        assertEquals(intact, Files.size(journalPath));
+    }
+
+    @Test
+    void recordWithBadCrcAndEverythingAfterIsDropped() throws Exception {
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            journal.begin(UID, KEY_VERSION, 5);
+        }
+        long beforeSlot = Files.size(journalPath);
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            journal.markKeySlotsPending(UID, List.of(0));
+        }
+        byte[] bytes = Files.readAllBytes(journalPath);
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(journalPath, bytes);
+
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            assertEquals(ProvisioningJournal.KeySlotState.FACTORY, journal.find(UID).orElseThrow().keySlot(0));
+        }
+        assertEquals(beforeSlot, Files.size(journalPath));
+    }
+
+    @Test
+    void keysFromOldBinaryFormatMoveToEscrow() throws Exception {
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(ByteBuffer.allocate(8).putInt(0x4E544A31).putInt(0).array());
+        byte[] key = HexUtils.hexToBytes(KEY);
+        file.write(record(1, UID, ByteBuffer.allocate(3 + key.length)
+            .put(KEY_VERSION).put((byte) 5).put((byte) key.length).put(key).array()));
+        file.write(record(3, UID, new byte[]{0, (byte) ProvisioningJournal.KeySlotState.CHANGED.ordinal()}));
+        Files.write(journalPath, file.toByteArray());
+
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            assertEquals(ProvisioningJournal.KeySlotState.CHANGED, journal.find(UID).orElseThrow().keySlot(0));
+        }
+        assertArrayEquals(key, escrow.find(UID).orElseThrow().key());
+        byte[] rewritten = Files.readAllBytes(journalPath);
+        assertEquals(0x4E544A32, ByteBuffer.wrap(rewritten).getInt());
+        assertFalse(HexUtils.bytesToHex(rewritten).contains(KEY));
+    }
+
+    @Test
+    void rewriteKeepsLastActivityOfStalledTag() throws Exception {
+        long stalledAt = Instant.parse("2026-01-05T09:00:00Z").toEpochMilli();
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        file.write(ByteBuffer.allocate(8).putInt(0x4E544A31).putInt(0).array());
+        byte[] key = HexUtils.hexToBytes(KEY);
+        file.write(record(1, UID, ByteBuffer.allocate(3 + key.length)
+            .put(KEY_VERSION).put((byte) 5).put((byte) key.length).put(key).array(), stalledAt));
+        Files.write(journalPath, file.toByteArray());
+
+        // 이전 형식은 열 때 스냅샷으로 다시 씀
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            assertEquals(Instant.ofEpochMilli(stalledAt), journal.find(UID).orElseThrow().lastActivity());
+        }
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            assertEquals(Instant.ofEpochMilli(stalledAt), journal.find(UID).orElseThrow().lastActivity());
+        }
+    }
+
+    @Test
+    void legacyJsonIsImportedAndDeleted() throws Exception {
+        Path legacy = directory.resolve("provisioning-journal.json");
+        Files.writeString(legacy, "{\"" + UID + "\":{\"uid\":\"" + UID + "\",\"newKey\":\"" + KEY
+            + "\",\"keyVersion\":1,\"completedSteps\":[\"NDEF_WRITTEN\"],"
+            + "\"keySlots\":[\"CHANGED\",\"FACTORY\",\"FACTORY\",\"FACTORY\",\"FACTORY\"]}}",
+            StandardCharsets.UTF_8);
+
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            ProvisioningJournal.Entry entry = journal.find(UID).orElseThrow();
+            assertTrue(entry.isCompleted(WorkflowState.NDEF_WRITTEN));
+            assertEquals(ProvisioningJournal.KeySlotState.CHANGED, entry.keySlot(0));
+        }
+        assertArrayEquals(HexUtils.hexToBytes(KEY), escrow.find(UID).orElseThrow().key());
+        assertFalse(Files.exists(legacy));
+        assertFalse(HexUtils.bytesToHex(Files.readAllBytes(journalPath)).contains(KEY));
+
+        try (ProvisioningJournal journal = new ProvisioningJournal(journalPath, escrow)) {
+            assertTrue(journal.find(UID).isPresent());
+        }
+    }
+
+    /**
+     * 저널 레코드 인코딩 ([길이][종류][시각][UID 길이][UID][내용][CRC32])
+     */
+    private static byte[] record(int type, String uid, byte[] body) {
+        return record(type, uid, body, System.currentTimeMillis());
+    }
+
+    private static byte[] record(int type, String uid, byte[] body, long epochMillis) {
+        byte[] uidBytes = HexUtils.hexToBytes(uid);
+        int payloadLength = Long.BYTES + 1 + uidBytes.length + body.length;
+        ByteBuffer buffer = ByteBuffer.allocate(3 + payloadLength + 4);
+        buffer.putShort((short) payloadLength).put((byte) type).putLong(epochMillis)
+            .put((byte) uidBytes.length).put(uidBytes).put(body);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 2, 1 + payloadLength);
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+}
@@ -0,0 +1,42 @@
+package ntagwriter.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 로컬 임대 DB에서 블록을 빌려 번호를 내주는지, 네트워크 파일 시스템 판별 확인
+ */
+class SerialBlockAllocatorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void localDatabaseLeasesBlocksAndReturnsRemainder() throws Exception {
+        Path path = directory.resolve("serial-leases.db");
+        try (SerialBlockAllocator allocator = new SerialBlockAllocator(path, 10, 100)) {
+            assertEquals(100, allocator.allocate());
+            assertEquals(101, allocator.allocate());
+        }
+        // 반납된 나머지 범위를 다음 스테이션이 먼저 씀
+        try (SerialBlockAllocator allocator = new SerialBlockAllocator(path, 10, 100)) {
+            assertEquals(102, allocator.allocate());
+        }
+    }
+
+    @Test
+    void networkFileSystemsAreRecognized() {
+        for (String type : new String[] {"nfs", "nfs4", "NFS", "cifs", "smb3", "smbfs", "fuse.sshfs"}) {
+            assertTrue(SerialBlockAllocator.isNetworkFileSystem(type), type);
+        }
+        for (String type : new String[] {"ext4", "xfs", "btrfs", "tmpfs", "apfs", "NTFS"}) {
+            assertFalse(SerialBlockAllocator.isNetworkFileSystem(type), type);
+        }
+    }
+}
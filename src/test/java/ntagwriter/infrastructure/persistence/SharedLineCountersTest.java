@@ -0,0 +1,172 @@
+package ntagwriter.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 라인 카운터 슬롯 점유 (끊긴 슬롯 재사용, 동시에 점유해도 슬롯이 겹치지 않음, 빼앗긴 슬롯 다시 잡기)와 모니터 읽기 확인
+ */
+class SharedLineCountersTest {
+
+    private static final long MAGIC = 0x4E5441474C494E45L;
+    private static final int HEADER_LONGS = 8;
+    private static final int SLOT_LONGS = (SharedLineCounters.FILE_SIZE / Long.BYTES - HEADER_LONGS)
+        / SharedLineCounters.SLOT_COUNT;
+    // 존재하지 않는 프로세스
+    private static final long DEAD_PID = Long.MAX_VALUE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countsAreVisibleToMonitorAndSlotIsFreedOnClose() throws Exception {
+        Path path = directory.resolve("line-counters.bin");
+        try (SharedLineCounters counters = new SharedLineCounters(path)) {
+            counters.record(true, false);
+            counters.record(true, true);
+            counters.record(false, false);
+            counters.recordStatusWord(0x911E);
+            counters.recordStatusWord(0x911E);
+
+            SharedLineCounters.Snapshot snapshot = SharedLineCounters.read(path);
+            assertEquals(1, snapshot.stations.size());
+            assertEquals(3, snapshot.processed());
+            assertEquals(1, snapshot.failed());
+            assertEquals(2L, snapshot.statusWordErrors().get(0x911E));
+        }
+
+        assertEquals(0, SharedLineCounters.read(path).stations.size());
+    }
+
+    @Test
+    void concurrentClaimsOfAbandonedSlotsNeverShareASlot() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            Path path = directory.resolve("line-counters-" + round + ".bin");
+            writeAbandonedSlots(path);
+
+            int stations = 8;
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(stations);
+            List<SharedLineCounters> opened = new ArrayList<>();
+            try {
+                List<Future<SharedLineCounters>> claims = new ArrayList<>();
+                for (int i = 0; i < stations; i++) {
+                    claims.add(executor.submit(() -> {
+                        start.await();
+                        return new SharedLineCounters(path);
+                    }));
+                }
+                start.countDown();
+                for (Future<SharedLineCounters> claim : claims) {
+                    opened.add(claim.get());
+                }
+                for (SharedLineCounters counters : opened) {
+                    counters.record(true, false);
+                }
+
+                // 같은 슬롯을 두 프로세스가 점유했다면 스테이션 수가 줄고 어떤 슬롯은 2를 셈
+                List<SharedLineCounters.Station> live = SharedLineCounters.read(path).stations.stream()
+                    .filter(station -> !station.stale)
+                    .toList();
+                assertEquals(stations, live.size(), "round " + round);
+                for (SharedLineCounters.Station station : live) {
+                    assertEquals(1, station.succeeded, "round " + round);
+                }
+            } finally {
+                opened.forEach(SharedLineCounters::close);
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void liveSlotsAreNotTaken() throws Exception {
+        Path path = directory.resolve("line-counters.bin");
+        List<SharedLineCounters> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < SharedLineCounters.SLOT_COUNT; i++) {
+                opened.add(new SharedLineCounters(path));
+            }
+            assertThrows(IOException.class, () -> new SharedLineCounters(path));
+        } finally {
+            opened.forEach(SharedLineCounters::close);
+        }
+    }
+
+    @Test
+    void stolenSlotIsLeftAloneAndCountsMoveToANewSlot() throws Exception {
+        Path path = directory.resolve("line-counters.bin");
+        long ownPid = ProcessHandle.current().pid();
+        // 이 프로세스의 심박이 멈춘 사이 슬롯을 가져간 살아 있는 다른 프로세스
+        long thiefPid = ProcessHandle.current().parent().map(ProcessHandle::pid).orElse(1L);
+        try (SharedLineCounters counters = new SharedLineCounters(path)) {
+            counters.record(true, false);
+            counters.record(true, false);
+            counters.beat();
+
+            int slotStart = HEADER_LONGS * Long.BYTES;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, SharedLineCounters.FILE_SIZE);
+                file.order(ByteOrder.nativeOrder());
+                assertEquals(ownPid, file.getLong(slotStart));
+                file.putLong(slotStart, thiefPid)
+                    .putLong(slotStart + 3 * Long.BYTES, 0);
+
+                // 빼앗긴 슬롯에는 더하지 않고, 다음 심박에서 새 슬롯을 잡아 마지막 심박 때 값부터 이어 씀
+                counters.record(false, false);
+                assertEquals(0, file.getLong(slotStart + 5 * Long.BYTES));
+                counters.beat();
+                counters.record(true, false);
+
+                SharedLineCounters.Station own = SharedLineCounters.read(path).stations.stream()
+                    .filter(station -> station.pid == ownPid)
+                    .findFirst()
+                    .orElseThrow();
+                assertEquals(3, own.succeeded);
+                assertEquals(0, own.failed);
+                assertEquals(0, file.getLong(slotStart + 3 * Long.BYTES));
+
+                counters.close();
+                assertEquals(thiefPid, file.getLong(slotStart));
+                assertTrue(file.getLong(slotStart + Long.BYTES) != 0);
+            }
+        }
+    }
+
+    /**
+     * 모든 슬롯이 죽은 프로세스의 오래된 심박으로 차 있는 카운터 파일 (빈 슬롯이 없어 재사용 경로를 탐)
+     */
+    private static void writeAbandonedSlots(Path path) throws IOException {
+        ByteBuffer file = ByteBuffer.allocate(SharedLineCounters.FILE_SIZE).order(ByteOrder.nativeOrder());
+        file.putLong(0, MAGIC)
+            .putLong(Long.BYTES, 1)
+            .putLong(2 * Long.BYTES, SharedLineCounters.SLOT_COUNT)
+            .putLong(3 * Long.BYTES, SharedLineCounters.STATUS_WORD_ENTRIES);
+        for (int slot = 0; slot < SharedLineCounters.SLOT_COUNT; slot++) {
+            int slotStart = (HEADER_LONGS + slot * SLOT_LONGS) * Long.BYTES;
+            file.putLong(slotStart, DEAD_PID)
+                .putLong(slotStart + Long.BYTES, 1)
+                .putLong(slotStart + 2 * Long.BYTES, 1);
+        }
+        Files.write(path, file.array());
+    }
+}
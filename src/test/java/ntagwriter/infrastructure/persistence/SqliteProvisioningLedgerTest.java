@@ -0,0 +1,167 @@
+package ntagwriter.infrastructure.persistence;
+
+import ntagwriter.domain.ProvisioningRecord;
+import ntagwriter.domain.tag.Tag;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SQLite 원장 기록/UID 색인/순번 시작값과, DB에 넣지 못한 배치의 보관 파일 재삽입 확인
+ */
+class SqliteProvisioningLedgerTest {
+
+    private static final String UID = "04A1B2C3D4E5F6";
+    private static final LocalDateTime RECORDED_AT = LocalDateTime.of(2026, 10, 18, 14, 30);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsAreWrittenAndSuccessfulUidsIndexed() throws Exception {
+        Path database = directory.resolve("ledger.db");
+        try (SqliteProvisioningLedger ledger = new SqliteProvisioningLedger(database, message -> { })) {
+            ledger.record(record(UID, ProvisioningRecord.Outcome.SUCCESS));
+            ledger.record(record("04000000000001", ProvisioningRecord.Outcome.FAILED));
+        }
+
+        try (SqliteProvisioningLedger ledger = new SqliteProvisioningLedger(database, message -> { })) {
+            assertEquals(2, ledger.storedRecords());
+            List<Long> uids = new ArrayList<>();
+            ledger.loadProvisionedUids(0, uids::add);
+            assertEquals(List.of(uidKey(UID)), uids);
+            assertEquals(Optional.of(RECORDED_AT), ledger.findProvisioned(uidKey(UID)));
+            assertEquals(Optional.empty(), ledger.findProvisioned(uidKey("04000000000001")));
+        }
+    }
+
+    @Test
+    void idBaseSeedsSequencesOfNewDatabase() throws Exception {
+        Path database = directory.resolve("partition.db");
+        try (SqliteProvisioningLedger ledger = new SqliteProvisioningLedger(database, 5_000, message -> { })) {
+            ledger.record(record(UID, ProvisioningRecord.Outcome.SUCCESS));
+        }
+
+        try (SqliteProvisioningLedger ledger = new SqliteProvisioningLedger(database, 5_000, message -> { })) {
+            assertEquals(5_001, ledger.loadProvisionedUids(0, uidKey -> { }));
+        }
+        assertEquals(5_001, queryLong(database, "SELECT MAX(id) FROM provisioning_ledger"));
+    }
+
+    @Test
+    void failedBatchIsSpilledAndReplayedOnceOnReopen() throws Exception {
+        Path database = directory.resolve("ledger.db");
+        Path spill = LedgerSpillFile.pathFor(database);
+        List<String> errors = new CopyOnWriteArrayList<>();
+
+        SqliteProvisioningLedger ledger = new SqliteProvisioningLedger(database, errors::add);
+        // 다른 연결이 테이블을 지워 기록 스레드의 삽입이 계속 실패하게 만듦
+        execute(database, "DROP TABLE provisioning_step");
+        ledger.record(record(UID, ProvisioningRecord.Outcome.SUCCESS));
+        ledger.close();
+
+        assertEquals(1, ledger.spilledRecords());
+        assertEquals(0, ledger.failedRecords());
+        assertTrue(Files.exists(spill));
+        assertEquals(0, queryLong(database, "SELECT COUNT(*) FROM provisioning_ledger"));
+
+        // 다시 열면 스키마가 복구되고 보관된 배치가 들어감
+        try (SqliteProvisioningLedger reopened = new SqliteProvisioningLedger(database, errors::add)) {
+            assertEquals(1, reopened.storedRecords());
+            assertEquals(Optional.of(RECORDED_AT), reopened.findProvisioned(uidKey(UID)));
+        }
+        assertFalse(Files.exists(spill));
+        assertEquals(2, queryLong(database, "SELECT COUNT(*) FROM provisioning_step"));
+    }
+
+    @Test
+    void replayedBatchIsNotInsertedTwice() throws Exception {
+        Path database = directory.resolve("ledger.db");
+        Path spill = LedgerSpillFile.pathFor(database);
+        new SqliteProvisioningLedger(database, message -> { }).close();
+
+        // 넣은 뒤 파일을 지우기 전에 죽은 경우: 같은 보관 파일이 다시 남아 있음
+        LedgerSpillFile.append(spill, List.of(record(UID, ProvisioningRecord.Outcome.SUCCESS)));
+        byte[] leftover = Files.readAllBytes(spill);
+        new SqliteProvisioningLedger(database, message -> { }).close();
+        Files.write(spill, leftover);
+
+        try (SqliteProvisioningLedger reopened = new SqliteProvisioningLedger(database, message -> { })) {
+            assertEquals(1, reopened.storedRecords());
+        }
+        assertFalse(Files.exists(spill));
+    }
+
+    @Test
+    void tornSpillLineIsSkippedAndLaterBatchesKept() throws Exception {
+        Path database = directory.resolve("ledger.db");
+        Path spill = LedgerSpillFile.pathFor(database);
+        List<String> errors = new ArrayList<>();
+
+        LedgerSpillFile.append(spill, List.of(record(UID, ProvisioningRecord.Outcome.SUCCESS)));
+        Files.write(spill, "{\"batchId\":\"torn\",\"records\":[{\"uid".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+        LedgerSpillFile.append(spill, List.of(record("04000000000001", ProvisioningRecord.Outcome.SUCCESS)));
+
+        try (SqliteProvisioningLedger ledger = new SqliteProvisioningLedger(database, errors::add)) {
+            assertEquals(2, ledger.storedRecords());
+        }
+        assertEquals(1, errors.size());
+    }
+
+    private static ProvisioningRecord record(String uid, ProvisioningRecord.Outcome outcome) {
+        return ProvisioningRecord.builder()
+            .recordedAt(RECORDED_AT)
+            .readerName("reader-1")
+            .uid(uid)
+            .outcome(outcome)
+            .finalState("COMPLETED")
+            .profileName("walkd")
+            .url("https://example.com/t")
+            .keyVersion(1)
+            .statusWords(List.of(0x911E))
+            .duration(Duration.ofMillis(420))
+            .addStep("인증", true, Duration.ofMillis(120))
+            .addStep("SDM 설정", outcome == ProvisioningRecord.Outcome.SUCCESS, Duration.ofMillis(300))
+            .message(outcome == ProvisioningRecord.Outcome.SUCCESS ? null : "SDM 설정 실패")
+            .build();
+    }
+
+    private static long uidKey(String uid) {
+        return Tag.uidKey(HexUtils.hexToBytes(uid));
+    }
+
+    private static void execute(Path database, String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database.toAbsolutePath());
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long queryLong(Path database, String sql) throws Exception {
+        try (Connection connection = SqliteProvisioningLedger.openReadOnly(database);
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(sql)) {
+            return rows.next() ? rows.getLong(1) : 0;
+        }
+    }
+}
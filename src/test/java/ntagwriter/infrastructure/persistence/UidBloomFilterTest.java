@@ -0,0 +1,73 @@
+package ntagwriter.infrastructure.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 블록 블룸 필터의 거짓 음성 없음, 거짓 양성률, 스냅샷 복원 확인
+ */
+class UidBloomFilterTest {
+
+    private static final int CAPACITY = 100_000;
+
+    @Test
+    void addedKeysAreAlwaysFound() {
+        UidBloomFilter filter = new UidBloomFilter(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.add(uidKey(i));
+        }
+        for (int i = 0; i < CAPACITY; i++) {
+            assertTrue(filter.mightContain(uidKey(i)), "거짓 음성: " + i);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearOnePercentAtCapacity() {
+        UidBloomFilter filter = new UidBloomFilter(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.add(uidKey(i));
+        }
+
+        // 같은 릴의 다음 UID처럼 앞자리가 겹치는 키로 확인
+        int falsePositives = 0;
+        for (int i = CAPACITY; i < 2 * CAPACITY; i++) {
+            if (filter.mightContain(uidKey(i))) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / CAPACITY;
+        assertTrue(rate < 0.02, "거짓 양성률 " + rate);
+    }
+
+    @Test
+    void restoredFilterAnswersTheSame() {
+        UidBloomFilter filter = new UidBloomFilter(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add(uidKey(i));
+        }
+
+        UidBloomFilter restored = new UidBloomFilter(filter.bits().clone(), filter.capacity());
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals(filter.mightContain(uidKey(i)), restored.mightContain(uidKey(i)));
+        }
+    }
+
+    @Test
+    void rejectsBitsThatAreNotWholePowerOfTwoBlocks() {
+        assertThrows(IllegalArgumentException.class, () -> new UidBloomFilter(new long[0], 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new UidBloomFilter(new long[3 * UidBloomFilter.BLOCK_LONGS], 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> new UidBloomFilter(new long[UidBloomFilter.BLOCK_LONGS + 1], 1));
+    }
+
+    /**
+     * 7바이트 UID 키 (길이 바이트 + 제조사 04 + 일련번호)
+     */
+    private static long uidKey(int serial) {
+        return (7L << 56) | (0x04L << 48) | serial;
+    }
+}
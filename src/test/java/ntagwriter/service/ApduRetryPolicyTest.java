@@ -0,0 +1,110 @@
+package ntagwriter.service;
+
+import ntagwriter.reader.ReaderException;
+import org.junit.jupiter.api.Test;
+
+import javax.smartcardio.CardException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 상태 워드/원인별 실패 분류와 종류별 지수 백오프 확인
+ */
+class ApduRetryPolicyTest {
+
+    private static final ReaderException LINK_LOSS =
+        new ReaderException("APDU 전송 실패", new CardException("SCARD_W_REMOVED_CARD"));
+    private static final ReaderException CHAIN_ABORTED = new ReaderException("체인 중단", 0x91CA);
+    private static final ReaderException AUTH_DELAY = new ReaderException("인증 지연", 0x91AD);
+    private static final ReaderException INTEGRITY = new ReaderException("무결성 오류", 0x911E);
+
+    @Test
+    void classifiesByStatusWordAndCause() {
+        assertEquals(ApduRetryPolicy.FailureClass.TRANSIENT, ApduRetryPolicy.classify(LINK_LOSS));
+        assertEquals(ApduRetryPolicy.FailureClass.TRANSIENT, ApduRetryPolicy.classify(CHAIN_ABORTED));
+        assertEquals(ApduRetryPolicy.FailureClass.TAG_DELAY, ApduRetryPolicy.classify(AUTH_DELAY));
+        assertEquals(ApduRetryPolicy.FailureClass.FATAL, ApduRetryPolicy.classify(INTEGRITY));
+        // 카드 통신과 무관한 예외는 재시도해도 소용없음
+        assertEquals(ApduRetryPolicy.FailureClass.FATAL,
+            ApduRetryPolicy.classify(new IllegalArgumentException("잘못된 오프셋")));
+        assertEquals(ApduRetryPolicy.FailureClass.TRANSIENT,
+            ApduRetryPolicy.classify(new RuntimeException(new CardException("reset"))));
+    }
+
+    @Test
+    void transientBackoffDoublesUpToCapThenStops() {
+        ApduRetryPolicy.Attempts attempts = ApduRetryPolicy.DEFAULT.start();
+
+        assertBackoff(attempts.next(LINK_LOSS), 1, 5);
+        assertBackoff(attempts.next(LINK_LOSS), 2, 10);
+        assertBackoff(attempts.next(LINK_LOSS), 3, 20);
+        ApduRetryPolicy.Decision exhausted = attempts.next(LINK_LOSS);
+        assertFalse(exhausted.retry);
+        assertEquals(3, exhausted.attempt);
+    }
+
+    @Test
+    void tagDelayBackoffIsCapped() {
+        ApduRetryPolicy.Attempts attempts = ApduRetryPolicy.DEFAULT
+            .withRule(ApduRetryPolicy.FailureClass.TAG_DELAY, 6, Duration.ofMillis(100), Duration.ofMillis(500))
+            .start();
+
+        long[] expected = {100, 200, 400, 500, 500, 500};
+        for (int i = 0; i < expected.length; i++) {
+            assertBackoff(attempts.next(AUTH_DELAY), i + 1, expected[i]);
+        }
+        assertFalse(attempts.next(AUTH_DELAY).retry);
+    }
+
+    @Test
+    void onlyLinkLossRequiresReauthentication() {
+        ApduRetryPolicy.Attempts attempts = ApduRetryPolicy.DEFAULT.start();
+
+        assertTrue(attempts.next(LINK_LOSS).reauthenticate);
+        // 91CA는 태그가 응답했으므로 세션이 살아 있음
+        assertFalse(attempts.next(CHAIN_ABORTED).reauthenticate);
+        assertFalse(attempts.next(AUTH_DELAY).reauthenticate);
+    }
+
+    @Test
+    void fatalFailuresAreNeverRetried() {
+        ApduRetryPolicy.Decision decision = ApduRetryPolicy.DEFAULT.start().next(INTEGRITY);
+
+        assertEquals(ApduRetryPolicy.FailureClass.FATAL, decision.failureClass);
+        assertFalse(decision.retry);
+        assertEquals(Duration.ZERO, decision.backoff);
+    }
+
+    @Test
+    void countsAreKeptPerClassAndResetByManualRetry() {
+        ApduRetryPolicy.Attempts attempts = ApduRetryPolicy.DEFAULT
+            .withRule(ApduRetryPolicy.FailureClass.TRANSIENT, 1, Duration.ofMillis(5), Duration.ofMillis(5))
+            .start();
+
+        assertTrue(attempts.next(LINK_LOSS).retry);
+        // 다른 종류의 실패는 별도 횟수
+        assertTrue(attempts.next(AUTH_DELAY).retry);
+        assertFalse(attempts.next(LINK_LOSS).retry);
+
+        attempts.reset();
+        assertTrue(attempts.next(LINK_LOSS).retry);
+    }
+
+    @Test
+    void rejectsInvalidRule() {
+        assertThrows(IllegalArgumentException.class, () -> ApduRetryPolicy.DEFAULT
+            .withRule(ApduRetryPolicy.FailureClass.TRANSIENT, -1, Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> ApduRetryPolicy.DEFAULT
+            .withRule(ApduRetryPolicy.FailureClass.TRANSIENT, 1, Duration.ofMillis(10), Duration.ofMillis(5)));
+    }
+
+    private static void assertBackoff(ApduRetryPolicy.Decision decision, int attempt, long backoffMillis) {
+        assertTrue(decision.retry);
+        assertEquals(attempt, decision.attempt);
+        assertEquals(Duration.ofMillis(backoffMillis), decision.backoff);
+    }
+}
@@ -0,0 +1,67 @@
+package ntagwriter.service;
+
+import ntagwriter.crypto.KeyHandle;
+import ntagwriter.util.HexUtils;
+import ntagwriter.util.SessionContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * AN12196 Table 25/26 ChangeKey(CommMode.Full) 예제 벡터로 키 변경 명령 확인
+ */
+class KeyManagementServiceTest {
+
+    private static final String K_SES_AUTH_ENC = "4CF3CB41A22583A61E89B158D252FC53";
+    private static final String K_SES_AUTH_MAC = "5529860B2FC5FB6154B7F28361D30BF9";
+    private static final String TI = "7614281A";
+    private static final byte[] ZERO_KEY = new byte[16];
+
+    @Test
+    void keyDataForOtherKeyCarriesXorAndCrc32nk() {
+        byte[] newKey = HexUtils.hexToBytes("F3847D627727ED3BC9C4CC050489B966");
+
+        byte[] keyData = KeyManagementService.buildKeyData((byte) 0x02, ZERO_KEY, newKey, (byte) 0x01);
+
+        assertArrayEquals(HexUtils.hexToBytes("F3847D627727ED3BC9C4CC050489B96601789DFADC"), keyData);
+    }
+
+    @Test
+    void keyDataForAuthKeyIsNewKeyAndVersion() {
+        byte[] newKey = HexUtils.hexToBytes("5004BF991F408672B1EF00F08F9E8647");
+
+        byte[] keyData = KeyManagementService.buildKeyData((byte) 0x00, ZERO_KEY, newKey, (byte) 0x01);
+
+        assertArrayEquals(HexUtils.hexToBytes("5004BF991F408672B1EF00F08F9E864701"), keyData);
+    }
+
+    @Test
+    void changeKeyOtherThanAuthKeyMatchesDatasheet() throws Exception {
+        byte[] apdu = sendChangeKey((byte) 0x02, "F3847D627727ED3BC9C4CC050489B966", "0200");
+
+        assertEquals("90C4000029022CF362B7BF4311FF3BE1DAA295E8C68DE09050560D19B9E16C2393AE9CD1FAC7"
+            + "5D0CE20BCD1D06E600", HexUtils.bytesToHex(apdu));
+    }
+
+    @Test
+    void changeAuthKeyMatchesDatasheet() throws Exception {
+        byte[] apdu = sendChangeKey((byte) 0x00, "5004BF991F408672B1EF00F08F9E8647", "0300");
+
+        assertEquals("90C400002900C0EB4DEEFEDDF0B513A03A95A75491818580503190D4D05053FF75668A01D6FD"
+            + "A6610234BDED643200", HexUtils.bytesToHex(apdu));
+    }
+
+    private static byte[] sendChangeKey(byte keyNo, String newKey, String cmdCtr) throws Exception {
+        RecordingReaderService reader = new RecordingReaderService();
+        KeyManagementService service = new KeyManagementService(reader, new CryptoService());
+        try (SessionContext session = new SessionContext(
+                KeyHandle.copyOf(HexUtils.hexToBytes(K_SES_AUTH_ENC)),
+                KeyHandle.copyOf(HexUtils.hexToBytes(K_SES_AUTH_MAC)),
+                HexUtils.hexToBytes(TI), HexUtils.hexToBytes(cmdCtr))) {
+            service.setSession(session);
+            service.changeKey(keyNo, ZERO_KEY, HexUtils.hexToBytes(newKey), (byte) 0x01);
+        }
+        return reader.lastCommand();
+    }
+}
@@ -0,0 +1,116 @@
+package ntagwriter.service;
+
+import ntagwriter.comm.LinkParameters;
+import ntagwriter.reader.NfcReaderStrategy;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.util.CommandCounterManager;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+
+import javax.smartcardio.ResponseAPDU;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 분할 WriteData의 프레임 구성과 프레임별 CmdCtr 증가 확인
+ */
+class NfcReaderServiceTest {
+
+    // FSC=64 → WriteData 청크 48바이트
+    private static final LinkParameters SMALL_FRAMES =
+        LinkParameters.DEFAULT.withAts(HexUtils.hexToBytes("067577710280"));
+
+    @Test
+    void chunkedWriteAdvancesCounterPerFrame() throws Exception {
+        ScriptedReader reader = new ScriptedReader(Integer.MAX_VALUE);
+        NfcReaderService service = connected(reader);
+        byte[] commandCounter = {0x05, 0x00};
+
+        int commands = service.writeData((byte) 0x02, 0, new byte[100], "NDEF 작성", commandCounter);
+
+        assertEquals(3, commands);
+        assertEquals(8, CommandCounterManager.toInt(commandCounter));
+        // 48 + 48 + 4, 오프셋은 청크마다 이어짐
+        assertEquals(List.of(0, 48, 96), reader.offsets);
+        assertEquals(List.of(48, 48, 4), reader.lengths);
+    }
+
+    @Test
+    void failedFrameKeepsCountOfFramesAlreadyAccepted() throws Exception {
+        ScriptedReader reader = new ScriptedReader(1);
+        NfcReaderService service = connected(reader);
+        byte[] commandCounter = {0x00, 0x00};
+
+        assertThrows(ReaderException.class,
+            () -> service.writeData((byte) 0x02, 0, new byte[100], "NDEF 작성", commandCounter));
+
+        assertEquals(1, CommandCounterManager.toInt(commandCounter));
+    }
+
+    @Test
+    void plainWriteWithoutSessionLeavesNoCounter() throws Exception {
+        ScriptedReader reader = new ScriptedReader(Integer.MAX_VALUE);
+
+        assertEquals(1, connected(reader).writeData((byte) 0x02, 0, new byte[10], "NDEF 작성", null));
+    }
+
+    private static NfcReaderService connected(NfcReaderStrategy reader) throws ReaderException {
+        NfcReaderService service = new NfcReaderService(reader);
+        service.connect();
+        return service;
+    }
+
+    /**
+     * 앞의 succeeding개 WriteData에만 9100으로 응답하고 이후에는 91 1E(무결성 오류)로 응답하는 리더
+     */
+    private static final class ScriptedReader implements NfcReaderStrategy {
+        private final int succeeding;
+        private final List<Integer> offsets = new ArrayList<>();
+        private final List<Integer> lengths = new ArrayList<>();
+
+        ScriptedReader(int succeeding) {
+            this.succeeding = succeeding;
+        }
+
+        @Override
+        public ResponseAPDU sendCommand(byte[] apdu) {
+            // CLA INS P1 P2 Lc | FileNo | Offset(3, LSB 먼저) | Length(3) | Data
+            offsets.add((apdu[6] & 0xFF) | (apdu[7] & 0xFF) << 8 | (apdu[8] & 0xFF) << 16);
+            lengths.add((apdu[9] & 0xFF) | (apdu[10] & 0xFF) << 8 | (apdu[11] & 0xFF) << 16);
+            return offsets.size() <= succeeding
+                ? new ResponseAPDU(new byte[]{(byte) 0x91, 0x00})
+                : new ResponseAPDU(new byte[]{(byte) 0x91, 0x1E});
+        }
+
+        @Override
+        public LinkParameters getLinkParameters() {
+            return SMALL_FRAMES;
+        }
+
+        @Override
+        public void connect() {
+        }
+
+        @Override
+        public byte[] readUid() {
+            return new byte[7];
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public String getReaderName() {
+            return "scripted";
+        }
+    }
+}
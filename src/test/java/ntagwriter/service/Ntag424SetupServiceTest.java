@@ -0,0 +1,130 @@
+package ntagwriter.service;
+
+import ntagwriter.domain.SetupStep;
+import ntagwriter.infrastructure.nfc.emulator.Ntag424Emulator;
+import ntagwriter.reader.NfcReaderStrategy;
+import ntagwriter.reader.ReaderException;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+
+import javax.smartcardio.CardException;
+import javax.smartcardio.ResponseAPDU;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 링크 손실(CardException) 뒤 태그를 다시 연결하고 선택부터 다시 만들어 단계를 이어 가는지 확인
+ */
+class Ntag424SetupServiceTest {
+
+    private static final byte[] UID = HexUtils.hexToBytes("04DE5F1EACC040");
+    private static final ApduRetryPolicy NO_WAIT = ApduRetryPolicy.DEFAULT
+        .withRule(ApduRetryPolicy.FailureClass.TRANSIENT, 3, Duration.ZERO, Duration.ZERO);
+
+    @Test
+    void linkLossDuringAuthenticationReconnectsAndReselects() {
+        FlakyReader reader = new FlakyReader(new Ntag424Emulator(UID));
+        Ntag424SetupService service = new Ntag424SetupService(reader, NO_WAIT);
+        assertNull(service.runWithRetry(SetupStep.CONNECT_READER));
+        assertNull(service.runWithRetry(SetupStep.READ_UID));
+        assertNull(service.runWithRetry(SetupStep.SELECT_APPLICATION));
+
+        reader.dropNextCommand();
+        Exception failure = service.runWithRetry(SetupStep.AUTHENTICATE);
+
+        assertNull(failure);
+        assertEquals(2, reader.connects);
+        assertEquals(1, reader.disconnects);
+        // 재연결 뒤 첫 명령은 SELECT, 그다음 AuthenticateEV2First
+        List<String> afterReconnect = reader.commandsSince(reader.lastConnectIndex);
+        assertEquals("00A4", afterReconnect.get(0).substring(0, 4));
+        assertEquals("9071", afterReconnect.get(1).substring(0, 4));
+    }
+
+    @Test
+    void differentTagAfterReconnectIsFatal() {
+        FlakyReader reader = new FlakyReader(new Ntag424Emulator(UID));
+        Ntag424SetupService service = new Ntag424SetupService(reader, NO_WAIT);
+        assertNull(service.runWithRetry(SetupStep.CONNECT_READER));
+        assertNull(service.runWithRetry(SetupStep.READ_UID));
+
+        reader.dropNextCommand();
+        reader.swapTag(new Ntag424Emulator(HexUtils.hexToBytes("04000000000001")));
+        Exception failure = service.runWithRetry(SetupStep.SELECT_APPLICATION);
+
+        assertNotNull(failure);
+        assertInstanceOf(ReaderException.class, failure);
+        assertEquals(ApduRetryPolicy.FailureClass.FATAL, ApduRetryPolicy.classify(failure));
+    }
+
+    /**
+     * 에뮬레이터 태그 앞의 리더: 지정하면 다음 명령을 CardException으로 끊고 태그를 필드 밖으로 보냄
+     */
+    private static final class FlakyReader implements NfcReaderStrategy {
+        private Ntag424Emulator tag;
+        private final List<String> commands = new ArrayList<>();
+        private boolean dropNext;
+        private int connects;
+        private int disconnects;
+        private int lastConnectIndex;
+
+        FlakyReader(Ntag424Emulator tag) {
+            this.tag = tag;
+        }
+
+        void dropNextCommand() {
+            dropNext = true;
+        }
+
+        void swapTag(Ntag424Emulator other) {
+            tag = other;
+        }
+
+        List<String> commandsSince(int index) {
+            return commands.subList(index, commands.size());
+        }
+
+        @Override
+        public ResponseAPDU sendCommand(byte[] apdu) throws ReaderException {
+            if (dropNext) {
+                dropNext = false;
+                tag.leaveField();
+                throw new ReaderException("APDU 전송 실패", new CardException("SCARD_W_RESET_CARD"));
+            }
+            commands.add(HexUtils.bytesToHex(apdu));
+            return new ResponseAPDU(tag.process(apdu));
+        }
+
+        @Override
+        public void connect() {
+            connects++;
+            lastConnectIndex = commands.size();
+        }
+
+        @Override
+        public byte[] readUid() {
+            return tag.uid();
+        }
+
+        @Override
+        public void disconnect() {
+            disconnects++;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public String getReaderName() {
+            return "flaky";
+        }
+    }
+}
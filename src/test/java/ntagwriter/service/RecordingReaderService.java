@@ -0,0 +1,46 @@
+package ntagwriter.service;
+
+import javax.smartcardio.ResponseAPDU;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 서비스 테스트용 리더 (보낸 APDU를 기록하고 9100으로 응답, ReadData는 고정 파일 내용에서)
+ */
+final class RecordingReaderService extends NfcReaderService {
+
+    private final byte[] file;
+    private final List<byte[]> commands = new ArrayList<>();
+
+    RecordingReaderService() {
+        this(new byte[0]);
+    }
+
+    /**
+     * @param file ReadData가 돌려줄 파일 내용
+     */
+    RecordingReaderService(byte[] file) {
+        super(null);
+        this.file = file;
+    }
+
+    @Override
+    public ResponseAPDU sendCommand(byte[] apdu) {
+        commands.add(apdu.clone());
+        return new ResponseAPDU(new byte[]{(byte) 0x91, 0x00});
+    }
+
+    @Override
+    public byte[] readData(byte fileNo, int offset, int length, String operationName) {
+        return Arrays.copyOfRange(file, offset, offset + length);
+    }
+
+    List<byte[]> commands() {
+        return commands;
+    }
+
+    byte[] lastCommand() {
+        return commands.get(commands.size() - 1);
+    }
+}
@@ -0,0 +1,52 @@
+package ntagwriter.service;
+
+import ntagwriter.crypto.KeyHandle;
+import ntagwriter.domain.NtagDefaultConfig;
+import ntagwriter.domain.config.ProvisioningProfile;
+import ntagwriter.util.HexUtils;
+import ntagwriter.util.SessionContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * AN12196 Table 18 ChangeFileSettings(CommMode.Full) 예제 벡터로 File Settings 배치와 명령 확인
+ */
+class SdmConfigurationServiceTest {
+
+    private static final String SETTINGS = "4000E0C1F121200000430000430000";
+
+    @Test
+    void fileSettingsMatchDatasheetLayout() {
+        ProvisioningProfile profile = ProvisioningProfile.from(NtagDefaultConfig.WALKD_PRODUCTION);
+
+        byte[] settings = SdmConfigurationService.buildFileSettingsData(
+            profile.getAccessRightsBytes(), profile.getSdmAccessRightsBytes(), 0x20, 0x43, 0x43);
+
+        assertEquals(SETTINGS, HexUtils.bytesToHex(settings));
+    }
+
+    @Test
+    void defaultAccessRightsMatchDatasheetLayout() {
+        byte[] settings = SdmConfigurationService.buildFileSettingsData(
+            NtagDefaultConfig.WALKD_PRODUCTION.getSdmAccessRightsBytes(), 0x20, 0x43, 0x43);
+
+        assertEquals(SETTINGS, HexUtils.bytesToHex(settings));
+    }
+
+    @Test
+    void changeFileSettingsMatchesDatasheet() throws Exception {
+        RecordingReaderService reader = new RecordingReaderService();
+        SdmConfigurationService service = new SdmConfigurationService(reader, new CryptoService());
+        try (SessionContext session = new SessionContext(
+                KeyHandle.copyOf(HexUtils.hexToBytes("1309C877509E5A215007FF0ED19CA564")),
+                KeyHandle.copyOf(HexUtils.hexToBytes("4C6626F5E72EA694202139295C7A7FC7")),
+                HexUtils.hexToBytes("9D00C4DF"), HexUtils.hexToBytes("0100"))) {
+            service.setSession(session);
+            service.configureSdm(HexUtils.hexToBytes(SETTINGS));
+        }
+
+        assertEquals("905F0000190261B6D97903566E84C3AE5274467E89EAD799B7C1A0EF7A0400",
+            HexUtils.bytesToHex(reader.lastCommand()));
+    }
+}
@@ -0,0 +1,68 @@
+package ntagwriter.service;
+
+import ntagwriter.domain.SdmConfig;
+import ntagwriter.util.HexUtils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * AN12196 SUN 미러 예제 (PICCData 암호화, MAC 입력 없음) 벡터로 SDM 검증 확인
+ */
+class SdmVerificationServiceTest {
+
+    private static final byte[] ZERO_KEY = new byte[16];
+    private static final byte[] UID = HexUtils.hexToBytes("04DE5F1EACC040");
+    private static final String ENC_PICC_DATA = "EF963FF7828658A599F3041510671E88";
+    private static final String SDM_MAC = "94EED9EE65337086";
+
+    @Test
+    void verifiesDatasheetMirror() throws Exception {
+        SdmVerificationService.VerificationResult result = verify(ENC_PICC_DATA, SDM_MAC, UID);
+
+        assertTrue(result.isValid(), result.message());
+        assertArrayEquals(UID, result.mirroredUid());
+        assertEquals(0x3D, result.readCounter());
+    }
+
+    @Test
+    void sessionMacKeyMatchesDatasheet() {
+        CryptoService crypto = new CryptoService();
+        // SV2 = 3CC3 0001 0080 || UID || SDMReadCtr (3D0000)
+        byte[] sv2 = HexUtils.hexToBytes("3CC30001008004DE5F1EACC0403D0000");
+
+        assertArrayEquals(HexUtils.hexToBytes("3FB5F6E3A807A03D5E3570ACE393776F"), crypto.calculateCmac(ZERO_KEY, sv2));
+    }
+
+    @Test
+    void rejectsTamperedMac() throws Exception {
+        SdmVerificationService.VerificationResult result = verify(ENC_PICC_DATA, "94EED9EE65337087", UID);
+
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    void rejectsMirrorOfAnotherTag() throws Exception {
+        SdmVerificationService.VerificationResult result =
+            verify(ENC_PICC_DATA, SDM_MAC, HexUtils.hexToBytes("04DE5F1EACC041"));
+
+        assertFalse(result.isValid());
+    }
+
+    private static SdmVerificationService.VerificationResult verify(String encPiccData, String mac, byte[] expectedUid)
+            throws Exception {
+        String url = "choose.url.com/ntag424?e=" + encPiccData + "&c=" + mac;
+        byte[] file = url.getBytes(StandardCharsets.US_ASCII);
+        int picOffset = url.indexOf("e=") + 2;
+        int macOffset = url.indexOf("c=") + 2;
+        SdmConfig config = new SdmConfig(url, picOffset, macOffset, macOffset);
+
+        SdmVerificationService service = new SdmVerificationService(new RecordingReaderService(file), new CryptoService());
+        return service.verify(expectedUid, config, ZERO_KEY, ZERO_KEY);
+    }
+}